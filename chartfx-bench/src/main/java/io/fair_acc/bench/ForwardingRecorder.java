@@ -0,0 +1,37 @@
+package io.fair_acc.bench;
+
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
+
+/**
+ * Recorder that renames and/or filters the time and value measures of another recorder
+ */
+class ForwardingRecorder implements MeasurementRecorder {
+    private final MeasurementRecorder delegate;
+    private final Function<String, String> tagMapper;
+    private final IntPredicate levelFilter;
+
+    /**
+     * @param delegate    recorder that creates the actual measures
+     * @param tagMapper   maps the tags to the ones of the delegate, {@code null} results disable the measure
+     * @param levelFilter condition that the level must match
+     */
+    ForwardingRecorder(MeasurementRecorder delegate, Function<String, String> tagMapper, IntPredicate levelFilter) {
+        this.delegate = delegate;
+        this.tagMapper = tagMapper;
+        this.levelFilter = levelFilter;
+    }
+
+    @Override
+    public TimeMeasure newTime(String tag, IntSupplier level) {
+        final String mappedTag = tagMapper.apply(tag);
+        return mappedTag != null && levelFilter.test(level.getAsInt()) ? delegate.newTime(mappedTag, level) : TimeMeasure.DISABLED;
+    }
+
+    @Override
+    public ValueMeasure newValue(String tag, IntSupplier level) {
+        final String mappedTag = tagMapper.apply(tag);
+        return mappedTag != null && levelFilter.test(level.getAsInt()) ? delegate.newValue(mappedTag, level) : ValueMeasure.DISABLED;
+    }
+}
@@ -94,6 +94,31 @@ public interface MeasurementRecorder {
         return newDurationSum(tag, BenchLevel.Debug);
     }
 
+    /**
+     * @param tag   a descriptive name to disambiguate multiple measures
+     * @param level the detail level of the measured value
+     * @return a value measure (e.g. a gauge) at the specified level. Disabled unless supported by the recorder.
+     */
+    default ValueMeasure newValue(String tag, IntSupplier level) {
+        return ValueMeasure.DISABLED;
+    }
+
+    /**
+     * @param tag a descriptive name to disambiguate multiple measures
+     * @return an info level value measure
+     */
+    default ValueMeasure newValue(String tag) {
+        return newValue(tag, BenchLevel.Info);
+    }
+
+    /**
+     * @param tag a descriptive name to disambiguate multiple measures
+     * @return a debug level value measure
+     */
+    default ValueMeasure newDebugValue(String tag) {
+        return newValue(tag, BenchLevel.Debug);
+    }
+
     /**
      * @return recorder that prints information on stdout
      */
@@ -128,7 +153,7 @@ public interface MeasurementRecorder {
      * @return a profiler that returns DISABLED for any non-matching tags
      */
     default MeasurementRecorder filterTag(Predicate<String> condition) {
-        return (tag, level) -> condition.test(tag) ? newTime(tag, level) : TimeMeasure.DISABLED;
+        return new ForwardingRecorder(this, tag -> condition.test(tag) ? tag : null, level -> true);
     }
 
     default MeasurementRecorder info() {
@@ -160,7 +185,7 @@ public interface MeasurementRecorder {
      * @return a profiler that returns DISABLED for any non-matching tags
      */
     default MeasurementRecorder filterLevel(IntPredicate condition) {
-        return (tag, level) -> condition.test(level.getAsInt()) ? newTime(tag, level) : TimeMeasure.DISABLED;
+        return new ForwardingRecorder(this, tag -> tag, condition);
     }
 
     /**
@@ -168,7 +193,7 @@ public interface MeasurementRecorder {
      * @return profiler
      */
     default MeasurementRecorder addPrefix(String prefix) {
-        return (tag, level) -> newTime(prefix + "-" + tag, level);
+        return new ForwardingRecorder(this, tag -> prefix + "-" + tag, level -> true);
     }
 
     /**
@@ -176,7 +201,7 @@ public interface MeasurementRecorder {
      * @return profiler
      */
     default MeasurementRecorder addPostfix(String postfix) {
-        return (tag, level) -> newTime(tag + "-" + postfix, level);
+        return new ForwardingRecorder(this, tag -> tag + "-" + postfix, level -> true);
     }
 
     /**
@@ -185,11 +210,11 @@ public interface MeasurementRecorder {
      * @return profiler
      */
     default MeasurementRecorder removeClassPrefix() {
-        return (tag, level) -> newTime(tag.substring(tag.indexOf('-') + 1), level);
+        return new ForwardingRecorder(this, tag -> tag.substring(tag.indexOf('-') + 1), level -> true);
     }
 
     default MeasurementRecorder removePostfix() {
-        return (tag, level) -> newTime(tag.substring(tag.lastIndexOf('-') + 1), level);
+        return new ForwardingRecorder(this, tag -> tag.substring(tag.lastIndexOf('-') + 1), level -> true);
     }
 
     public static final MeasurementRecorder DISABLED = (tag, level) -> TimeMeasure.DISABLED;
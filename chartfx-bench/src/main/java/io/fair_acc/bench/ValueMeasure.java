@@ -0,0 +1,22 @@
+package io.fair_acc.bench;
+
+/**
+ * Basic interface for something that can handle non-time measurements, e.g.,
+ * a gauge of the current state such as a queue length or a quality level.
+ */
+@FunctionalInterface
+public interface ValueMeasure {
+    /**
+     * Records the current value
+     *
+     * @param value measured value
+     */
+    void recordValue(long value);
+
+    /**
+     * A default implementation that does nothing and may be eliminated at runtime
+     */
+    static final ValueMeasure DISABLED = value -> {
+        // no-op
+    };
+}
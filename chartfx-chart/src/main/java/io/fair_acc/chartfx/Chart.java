@@ -85,6 +85,19 @@ public abstract class Chart extends Region implements EventSource, Measurable {
      * When true any data changes will be animated.
      */
     private final BooleanProperty animated = new SimpleBooleanProperty(this, "animated", false);
+    /**
+     * Minimum time between two redraws [ms] of a showing chart. Changes arriving in between are coalesced into the next
+     * redraw. The default '0' redraws on every JavaFX pulse.
+     */
+    private final IntegerProperty minRedrawInterval = new SimpleIntegerProperty(this, "minRedrawInterval", 0) {
+        @Override
+        public void set(final int value) {
+            if (value < 0) {
+                throw new IllegalArgumentException("minRedrawInterval " + value + " must be positive or zero");
+            }
+            super.set(value);
+        }
+    };
     // TODO: Check whether 'this' or chart contents need to be added
     /**
      * Animator for animating stuff on the chart
@@ -101,6 +114,7 @@ public abstract class Chart extends Region implements EventSource, Measurable {
     protected final ResizableCanvas canvas = StyleUtil.addStyles(new ResizableCanvas(), "chart-canvas");
     protected final Pane canvasForeground = StyleUtil.addStyles(new FullSizePane(), "chart-canvas-foreground");
     protected final Group pluginsArea = FXUtils.createUnmanagedGroup();
+    protected final Pane canvasArea = StyleUtil.addStyles(new FullSizePane(canvas, canvasForeground, pluginsArea), "chart-canvas-area");
 
     // Area where plots get drawn
     protected final Pane plotBackground = StyleUtil.addStyles(new FullSizePane(), "chart-plot-background");
@@ -264,9 +278,9 @@ public abstract class Chart extends Region implements EventSource, Measurable {
         //           > hidden elements for zoom etc.
         //           > plot area
         //             > canvas (main)
+        //             > canvas layers (optional, see XYChart#layeredRenderingProperty())
         //             > canvas foreground
         //             > plugins
-        var canvasArea = StyleUtil.addStyles(new FullSizePane(canvas, canvasForeground, pluginsArea), "chart-canvas-area");
         plotArea.setContent(canvasArea);
         axesAndCanvasPane.addCenter(plotBackground, plotArea, plotForeGround);
         titleLegendPane.addCenter(axesAndCanvasPane);
@@ -298,6 +312,13 @@ public abstract class Chart extends Region implements EventSource, Measurable {
         return animated;
     }
 
+    /**
+     * @return minimum time between two redraws [ms], 0: redraw on every JavaFX pulse
+     */
+    public final IntegerProperty minRedrawIntervalProperty() {
+        return minRedrawInterval;
+    }
+
     /**
      * @return datasets attached to all renderers
      */
@@ -453,6 +474,13 @@ public abstract class Chart extends Region implements EventSource, Measurable {
         return animated.get();
     }
 
+    /**
+     * @return minimum time between two redraws [ms], 0: redraw on every JavaFX pulse
+     */
+    public final int getMinRedrawInterval() {
+        return minRedrawInterval.get();
+    }
+
     /**
      * @return true: if chart is being visible in Scene/Window
      */
@@ -478,7 +506,27 @@ public abstract class Chart extends Region implements EventSource, Measurable {
         fireInvalidated(ChartBits.ChartLayout, ChartBits.ChartCanvas);
     }
 
+    /**
+     * Runs a complete update cycle (pre-layout, CSS, layout, and drawing) outside of the regular JavaFX pulse. The
+     * layout hooks only get triggered for scenes that are shown in a window, so this is required for charts that are
+     * rendered offscreen, e.g., via {@link io.fair_acc.chartfx.utils.OffscreenChartRenderer}.
+     */
+    public void updateOffscreen() {
+        FXUtils.assertJavaFxThread();
+        runPreLayout();
+        applyCss();
+        layout();
+        runPostLayout();
+    }
+
     protected void runPreLayout() {
+        redrawDeferred = isRedrawDeferred();
+        if (redrawDeferred) {
+            // keep the dirty bits and wake up once the interval has passed
+            // N.B. requesting a pulse from within the pulse would keep the FX thread pulsing for the whole interval
+            scheduleDeferredRedraw();
+            return;
+        }
         state.setDirty(dataSetState.clear());
         if (state.isClean()) {
             return;
@@ -549,7 +597,7 @@ public abstract class Chart extends Region implements EventSource, Measurable {
         // that call for a layout without any dirty bits. It is also
         // possible that the layout triggers a resizing, so we may
         // need to lock the datasets here.
-        if (state.isDirty()) {
+        if (state.isDirty() && !redrawDeferred) {
             ensureLockedDataSets();
             layoutPluginsChildren();
         }
@@ -561,10 +609,11 @@ public abstract class Chart extends Region implements EventSource, Measurable {
         benchCssAndLayout.stop();
 
         // nothing to do
-        if (state.isClean() && !hasLocked) {
+        if (redrawDeferred || state.isClean() && !hasLocked) {
             return;
         }
         benchPostLayout.start();
+        lastRedraw = System.nanoTime();
 
         // Redraw the axes (they internally check dirty bits)
         benchDrawAxes.start();
@@ -636,8 +685,36 @@ public abstract class Chart extends Region implements EventSource, Measurable {
         }
     }
 
+    private void scheduleDeferredRedraw() {
+        if (redrawWakeUp != null) {
+            return; // already scheduled
+        }
+        final long remaining = getMinRedrawInterval() * 1_000_000L - (System.nanoTime() - lastRedraw);
+        redrawWakeUp = new TimerTask() {
+            @Override
+            public void run() {
+                Platform.runLater(() -> {
+                    redrawWakeUp = null;
+                    ensureJavaFxPulse();
+                });
+            }
+        };
+        DeferredRedrawTimer.TIMER.schedule(redrawWakeUp, Math.max(1L, (remaining + 999_999L) / 1_000_000L));
+    }
+
+    private boolean isRedrawDeferred() {
+        final int interval = getMinRedrawInterval();
+        if (interval <= 0 || !isShowing() || state.isClean() && dataSetState.isClean()) {
+            return false;
+        }
+        return System.nanoTime() - lastRedraw < interval * 1_000_000L;
+    }
+
     private final List<DataSet> lockedDataSets = new ArrayList<>();
     private boolean hasLocked = false;
+    private boolean redrawDeferred = false;
+    private TimerTask redrawWakeUp; // pending wake-up of a deferred redraw, accessed on the FX thread
+    private long lastRedraw = System.nanoTime();
 
     public final ObjectProperty<Legend> legendProperty() {
         return legend;
@@ -652,6 +729,16 @@ public abstract class Chart extends Region implements EventSource, Measurable {
         animated.set(value);
     }
 
+    /**
+     * Limits the redraw rate of the chart, e.g. for low-priority charts that should not compete for the frame budget
+     * with more important ones. Offscreen charts (i.e. not showing) are not affected.
+     *
+     * @param value minimum time between two redraws [ms], 0: redraw on every JavaFX pulse (default)
+     */
+    public final void setMinRedrawInterval(final int value) {
+        minRedrawInterval.set(value);
+    }
+
     public final void setLegend(final Legend value) {
         legend.set(value);
     }
@@ -958,4 +1045,11 @@ public abstract class Chart extends Region implements EventSource, Measurable {
     private DurationMeasure benchUpdateAxisRange = DurationMeasure.DISABLED;
     private DurationMeasure benchDrawAxes = DurationMeasure.DISABLED;
     private DurationMeasure benchDrawCanvas = DurationMeasure.DISABLED;
+
+    /**
+     * shared daemon timer waking up charts whose redraw has been deferred (lazily created)
+     */
+    private static final class DeferredRedrawTimer {
+        private static final Timer TIMER = new Timer("chart-deferred-redraw", true);
+    }
 }
@@ -1,5 +1,10 @@
 package io.fair_acc.chartfx;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleBooleanProperty;
@@ -8,6 +13,9 @@ import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.geometry.Orientation;
+import javafx.scene.CacheHint;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 
 import io.fair_acc.bench.DurationMeasure;
@@ -17,15 +25,20 @@ import io.fair_acc.chartfx.axes.spi.AxisRange;
 import io.fair_acc.chartfx.plugins.ChartPlugin;
 import io.fair_acc.chartfx.renderer.PolarTickStep;
 import io.fair_acc.chartfx.renderer.Renderer;
+import io.fair_acc.chartfx.renderer.spi.AbstractRendererXY;
 import io.fair_acc.chartfx.renderer.spi.ErrorDataSetRenderer;
 import io.fair_acc.chartfx.renderer.spi.GridRenderer;
 import io.fair_acc.chartfx.renderer.spi.LabelledMarkerRenderer;
+import io.fair_acc.chartfx.ui.ResizableCanvas;
 import io.fair_acc.chartfx.ui.css.DataSetNode;
+import io.fair_acc.chartfx.ui.css.StyleUtil;
 import io.fair_acc.chartfx.ui.geometry.Side;
 import io.fair_acc.chartfx.utils.FXUtils;
 import io.fair_acc.chartfx.utils.PropUtil;
 import io.fair_acc.dataset.DataSet;
+import io.fair_acc.dataset.events.BitState;
 import io.fair_acc.dataset.events.ChartBits;
+import io.fair_acc.dataset.events.IndexChangeLog;
 import io.fair_acc.dataset.utils.AssertUtils;
 
 /**
@@ -44,6 +57,21 @@ public class XYChart extends Chart {
     protected final BooleanProperty polarPlot = new SimpleBooleanProperty(this, "polarPlot", false);
     private final ObjectProperty<PolarTickStep> polarStepSize = new SimpleObjectProperty<>(PolarTickStep.THIRTY);
     private final GridRenderer gridRenderer = new GridRenderer(this);
+    private final BooleanProperty layeredRendering = new SimpleBooleanProperty(this, "layeredRendering", false);
+    private final BooleanProperty parallelRendering = new SimpleBooleanProperty(this, "parallelRendering", false);
+    private final Map<Renderer, CanvasLayer> rendererLayers = new IdentityHashMap<>();
+    private final CanvasLayer gridLayer = new CanvasLayer();
+    private final List<Node> layerNodes = new ArrayList<>();
+    private int nMainCanvasRenderers; // leading renderers drawn onto the main canvas, up to the last non-cacheable one
+    private boolean gridOnMainCanvas;
+    private Canvas renderCanvas = canvas;
+
+    // state bits that only affect the layers of the renderers that hold the modified datasets, or that do not affect
+    // the canvas content at all. Anything else (axes, canvas, styles, renderer and dataset list changes) redraws all
+    // layers. N.B. the dataset bit states are shared with other charts and cleared by whichever chart draws first, hence
+    // data changes are attributed to the layers via the versions of the datasets' index change logs.
+    private static final int LAYER_LOCAL_BITS = BitState.mask(ChartBits.DataSetData, ChartBits.DataSetRange, ChartBits.ChartLayout,
+            ChartBits.ChartLegend, ChartBits.ChartPlugins, ChartBits.ChartPluginState);
 
     /**
      * Construct a new XYChart with the given axes.
@@ -89,6 +117,7 @@ public class XYChart extends Chart {
                 gridRenderer.drawOnTopProperty());
 
         getRenderers().addListener(this::rendererChanged);
+        PropUtil.runOnChange(getBitState().onAction(ChartBits.ChartCanvas), layeredRendering, parallelRendering);
 
         // TODO: get rid of default instance. It's created if anyone wants to use getDatasets()
         getRenderers().add(new ErrorDataSetRenderer());
@@ -140,6 +169,78 @@ public class XYChart extends Chart {
         return gridRenderer;
     }
 
+    /**
+     * @return the canvas the renderers are supposed to draw on during {@link #redrawCanvas()}. This is the main
+     *         {@link #getCanvas() canvas} unless {@link #layeredRenderingProperty() layered rendering} is enabled.
+     */
+    public Canvas getRenderCanvas() {
+        return renderCanvas;
+    }
+
+    /**
+     * @return true if each renderer is drawn onto its own cached canvas layer
+     */
+    public boolean isLayeredRendering() {
+        return layeredRenderingProperty().get();
+    }
+
+    /**
+     * Enables drawing each renderer (and the grid) onto its own cached canvas layer. A layer is only redrawn if one of
+     * the renderer's visible data sets has been modified, or if a change affects all layers (e.g. axis ranges, canvas
+     * size, styles, or renderer properties). This avoids re-rendering many static data sets when only a few update
+     * frequently, at the cost of one additional canvas texture per renderer. Data sets that are supposed to be cached
+     * separately should thus be assigned to different renderers.
+     * <p>
+     * N.B. only renderers derived from {@link AbstractRendererXY} can be cached. Other renderers are drawn onto the main
+     * canvas and are redrawn whenever the chart is dirty. To preserve the z-order of the renderer list, all renderers
+     * up to the last non-cacheable one (and a grid that is not drawn on top) share the main canvas in this case.
+     *
+     * @return property controlling whether the renderers are drawn onto separate cached canvas layers
+     */
+    public BooleanProperty layeredRenderingProperty() {
+        return layeredRendering;
+    }
+
+    /**
+     * @param state true: draw each renderer onto its own cached canvas layer
+     * @return itself (fluent design)
+     * @see #layeredRenderingProperty()
+     */
+    public XYChart setLayeredRendering(final boolean state) {
+        layeredRenderingProperty().set(state);
+        return this;
+    }
+
+    /**
+     * @return true if the data sets of a renderer are prepared in parallel before being drawn
+     */
+    public boolean isParallelRendering() {
+        return parallelRenderingProperty().get();
+    }
+
+    /**
+     * Enables a two-stage rendering pipeline for renderers derived from {@link AbstractRendererXY} that support it (see
+     * {@link AbstractRendererXY#isPrepareSupported()}): the CPU-bound part (screen coordinate transform, data reduction,
+     * polyline construction) of all visible data sets of a renderer is computed concurrently on worker threads, while
+     * the FX thread only issues the resulting draw calls onto the shared canvas in the usual data set order. This mainly
+     * pays off for renderers with many (large) data sets.
+     *
+     * @return property controlling whether the data sets of a renderer are prepared in parallel
+     */
+    public BooleanProperty parallelRenderingProperty() {
+        return parallelRendering;
+    }
+
+    /**
+     * @param state true: prepare the data sets of a renderer in parallel before drawing them
+     * @return itself (fluent design)
+     * @see #parallelRenderingProperty()
+     */
+    public XYChart setParallelRendering(final boolean state) {
+        parallelRenderingProperty().set(state);
+        return this;
+    }
+
     public PolarTickStep getPolarStepSize() {
         return polarStepSizeProperty().get();
     }
@@ -264,6 +365,12 @@ public class XYChart extends Chart {
         final GraphicsContext gc = canvas.getGraphicsContext2D();
         gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
 
+        if (isLayeredRendering()) {
+            redrawLayers();
+            return;
+        }
+        removeLayers();
+
         // Bottom grid
         if (!gridRenderer.isDrawOnTop()) {
             benchDrawGrid.start();
@@ -286,6 +393,95 @@ public class XYChart extends Chart {
         }
     }
 
+    protected void redrawLayers() {
+        updateLayers();
+        final boolean redrawAll = state.isDirty(ChartBits.KnownMask & ~LAYER_LOCAL_BITS);
+
+        benchDrawGrid.start();
+        if (gridOnMainCanvas) {
+            gridRenderer.render();
+        } else if (gridLayer.prepare(redrawAll)) {
+            renderCanvas = gridLayer.canvas;
+            gridRenderer.render();
+            renderCanvas = canvas;
+        }
+        benchDrawGrid.stop();
+
+        benchDrawData.start();
+        final boolean dataModified = state.isDirty(ChartBits.DataSetData);
+        final List<Renderer> renderers = getRenderers();
+        for (int i = 0; i < renderers.size(); i++) {
+            final Renderer renderer = renderers.get(i);
+            if (i < nMainCanvasRenderers) {
+                // below (or being) a non-cacheable renderer -> draw on the main canvas below the layers
+                renderer.render();
+                continue;
+            }
+            final CanvasLayer layer = rendererLayers.get(renderer);
+            final boolean outdated = layer.updateDrawnVersions(renderer, dataModified);
+            if (layer.prepare(redrawAll || outdated)) {
+                renderCanvas = layer.canvas;
+                renderer.render();
+                renderCanvas = canvas;
+            }
+        }
+        benchDrawData.stop();
+    }
+
+    /**
+     * Synchronises the layer canvases with the current renderers and their z-order
+     */
+    private void updateLayers() {
+        final List<Renderer> renderers = getRenderers();
+        nMainCanvasRenderers = 0;
+        for (int i = renderers.size() - 1; i >= 0; i--) {
+            if (!(renderers.get(i) instanceof AbstractRendererXY)) {
+                nMainCanvasRenderers = i + 1;
+                break;
+            }
+        }
+        final List<Renderer> layeredRenderers = renderers.subList(nMainCanvasRenderers, renderers.size());
+        rendererLayers.keySet().retainAll(layeredRenderers);
+        gridOnMainCanvas = nMainCanvasRenderers > 0 && !gridRenderer.isDrawOnTop();
+        if (gridOnMainCanvas) {
+            gridLayer.invalidate();
+        }
+
+        layerNodes.clear();
+        if (!gridRenderer.isDrawOnTop() && !gridOnMainCanvas) {
+            layerNodes.add(gridLayer.canvas);
+        }
+        for (final Renderer renderer : layeredRenderers) {
+            layerNodes.add(rendererLayers.computeIfAbsent(renderer, r -> new CanvasLayer()).canvas);
+        }
+        if (gridRenderer.isDrawOnTop()) {
+            layerNodes.add(gridLayer.canvas);
+        }
+
+        // layers are placed directly on top of the main canvas
+        final var children = canvasArea.getChildren();
+        final int offset = children.indexOf(canvas) + 1;
+        final long nLayers = children.stream().filter(LayerCanvas.class::isInstance).count();
+        if (nLayers == layerNodes.size() && children.subList(offset, offset + layerNodes.size()).equals(layerNodes)) {
+            return;
+        }
+        children.removeIf(child -> child instanceof LayerCanvas);
+        children.addAll(offset, layerNodes);
+        for (final Node layerNode : layerNodes) {
+            // new layers are sized by the next layout pass, but may already be drawn on in this pulse
+            layerNode.resizeRelocate(canvas.getLayoutX(), canvas.getLayoutY(), canvas.getWidth(), canvas.getHeight());
+        }
+    }
+
+    private void removeLayers() {
+        if (rendererLayers.isEmpty() && gridLayer.canvas.getParent() == null) {
+            return;
+        }
+        canvasArea.getChildren().removeIf(child -> child instanceof LayerCanvas);
+        rendererLayers.clear();
+        gridLayer.invalidate();
+    }
+
     /**
      * @param recorder recorder for this chart and all nested components
      */
@@ -330,4 +526,78 @@ public class XYChart extends Chart {
 
     private DurationMeasure benchDrawData = DurationMeasure.DISABLED;
     private DurationMeasure benchDrawGrid = DurationMeasure.DISABLED;
+
+    private static class LayerCanvas extends ResizableCanvas {
+        LayerCanvas() {
+            super();
+            StyleUtil.addStyles(this, "chart-canvas-layer");
+            setMouseTransparent(true);
+            setCache(true);
+            setCacheHint(CacheHint.QUALITY);
+        }
+    }
+
+    /**
+     * Cached canvas that keeps its content until the associated renderer needs to be redrawn
+     */
+    private static class CanvasLayer {
+        private final LayerCanvas canvas = new LayerCanvas();
+        private double drawnWidth = -1;
+        private double drawnHeight = -1;
+        private Map<DataSet, Long> drawnVersions = new IdentityHashMap<>();
+        private Map<DataSet, Long> nextVersions = new IdentityHashMap<>();
+
+        /**
+         * Records the current data versions of the renderer's data sets for the next draw of this layer.
+         *
+         * @param renderer renderer drawn onto this layer
+         * @param dataModified whether any data set of the chart has been modified since the last draw
+         * @return true if the data of one of the renderer's data sets differs from the one drawn last
+         */
+        boolean updateDrawnVersions(final Renderer renderer, final boolean dataModified) {
+            boolean outdated = false;
+            for (final DataSetNode dataSetNode : renderer.getDatasetNodes()) {
+                final DataSet dataSet = dataSetNode.getDataSet();
+                final IndexChangeLog changeLog = dataSet.getIndexChangeLog();
+                if (changeLog == null) {
+                    outdated |= dataModified; // modifications are not tracked -> any data change may concern it
+                    continue;
+                }
+                final long version = changeLog.getVersion();
+                final Long drawnVersion = drawnVersions.get(dataSet);
+                outdated |= drawnVersion == null || drawnVersion != version;
+                nextVersions.put(dataSet, version);
+            }
+            final Map<DataSet, Long> previous = drawnVersions;
+            drawnVersions = nextVersions;
+            nextVersions = previous;
+            nextVersions.clear();
+            return outdated;
+        }
+
+        /**
+         * @param dirty whether the layer content is known to be outdated
+         * @return true if the layer has been cleared and needs to be redrawn
+         */
+        boolean prepare(final boolean dirty) {
+            final double width = canvas.getWidth();
+            final double height = canvas.getHeight();
+            if (!dirty && width == drawnWidth && height == drawnHeight) {
+                return false;
+            }
+            canvas.getGraphicsContext2D().clearRect(0, 0, Math.max(width, drawnWidth), Math.max(height, drawnHeight));
+            drawnWidth = width;
+            drawnHeight = height;
+            return true;
+        }
+
+        void invalidate() {
+            if (drawnWidth < 0) {
+                return; // nothing drawn
+            }
+            drawnWidth = -1;
+            drawnHeight = -1;
+            canvas.getGraphicsContext2D().clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        }
+    }
 }
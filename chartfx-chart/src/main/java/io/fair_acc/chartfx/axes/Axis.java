@@ -79,6 +79,22 @@ public interface Axis extends AxisDescription, Measurable.EmptyDefault {
      */
     double getDisplayPosition(double value);
 
+    /**
+     * Bulk version of {@link #getDisplayPosition(double)}. Implementations specialize this for their transform so that
+     * the inner loop is free of virtual calls. Source and destination may be the same array.
+     *
+     * @param src data values
+     * @param srcOff index of the first data value
+     * @param dst storage for the display positions
+     * @param dstOff index of the first display position
+     * @param len number of values to be converted
+     */
+    default void getDisplayPositions(final double[] src, final int srcOff, final double[] dst, final int dstOff, final int len) {
+        for (int i = 0; i < len; i++) {
+            dst[dstOff + i] = getDisplayPosition(src[srcOff + i]);
+        }
+    }
+
     double getHeight();
 
     /**
@@ -179,6 +195,21 @@ public interface Axis extends AxisDescription, Measurable.EmptyDefault {
      */
     double getValueForDisplay(double displayPosition);
 
+    /**
+     * Bulk version of {@link #getValueForDisplay(double)}. Source and destination may be the same array.
+     *
+     * @param src display positions
+     * @param srcOff index of the first display position
+     * @param dst storage for the data values
+     * @param dstOff index of the first data value
+     * @param len number of values to be converted
+     */
+    default void getValuesForDisplay(final double[] src, final int srcOff, final double[] dst, final int dstOff, final int len) {
+        for (int i = 0; i < len; i++) {
+            dst[dstOff + i] = getValueForDisplay(src[srcOff + i]);
+        }
+    }
+
     double getWidth();
 
     /**
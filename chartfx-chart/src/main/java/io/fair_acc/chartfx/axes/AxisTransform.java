@@ -14,6 +14,21 @@ public interface AxisTransform {
      */
     double backward(double val);
 
+    /**
+     * bulk version of {@link #backward(double)}. Source and destination may be the same array.
+     *
+     * @param src input values
+     * @param srcOff index of the first input value
+     * @param dst storage for the output values
+     * @param dstOff index of the first output value
+     * @param len number of values to be transformed
+     */
+    default void backward(final double[] src, final int srcOff, final double[] dst, final int dstOff, final int len) {
+        for (int i = 0; i < len; i++) {
+            dst[dstOff + i] = backward(src[srcOff + i]);
+        }
+    }
+
     /**
      * default forward transform for affine functions: backward(forward(val)) = forward(backward(val)) = val;
      *
@@ -22,6 +37,21 @@ public interface AxisTransform {
      */
     double forward(double val);
 
+    /**
+     * bulk version of {@link #forward(double)}. Source and destination may be the same array.
+     *
+     * @param src input values
+     * @param srcOff index of the first input value
+     * @param dst storage for the output values
+     * @param dstOff index of the first output value
+     * @param len number of values to be transformed
+     */
+    default void forward(final double[] src, final int srcOff, final double[] dst, final int dstOff, final int len) {
+        for (int i = 0; i < len; i++) {
+            dst[dstOff + i] = forward(src[srcOff + i]);
+        }
+    }
+
     double getMaximumRange();
 
     double getMinimumRange();
@@ -42,6 +42,9 @@ public class DefaultNumericAxis extends AbstractAxis implements Axis {
     private final transient LogarithmicAxisTransform logTransform = new LogarithmicAxisTransform(this);
     private final transient LogarithmicTimeAxisTransform logTimeTransform = new LogarithmicTimeAxisTransform(this);
     private transient AxisTransform axisTransform = linearTransform;
+    // bulk conversions are only specialised if derived classes did not override the scalar definition
+    private final transient boolean bulkDisplayPositions = isDeclaredBy(getClass(), "getDisplayPosition", DefaultNumericAxis.class);
+    private final transient boolean bulkValuesForDisplay = isDeclaredBy(getClass(), "getValueForDisplay", DefaultNumericAxis.class);
     protected boolean isUpdating;
 
     private final transient BooleanProperty forceZeroInRange = PropUtil.createBooleanProperty(this, "forceZeroInRange", false, invalidateAxisRange);
@@ -194,6 +197,40 @@ public class DefaultNumericAxis extends AbstractAxis implements Axis {
         return getDisplayPositionImpl(value);
     }
 
+    /**
+     * Bulk version of {@link #getDisplayPosition(double)}: the axis inversion and the cached scaling are folded into a
+     * single affine loop that the JIT can vectorise. For logarithmic axes the bulk transform is applied first.
+     */
+    @Override
+    public void getDisplayPositions(final double[] src, final int srcOff, final double[] dst, final int dstOff, final int len) {
+        if (!bulkDisplayPositions) {
+            Axis.super.getDisplayPositions(src, srcOff, dst, dstOff, len);
+            return;
+        }
+        double base;
+        double slope;
+        if (isLogAxis) {
+            axisTransform.forward(src, srcOff, dst, dstOff, len);
+            base = cache.isVerticalAxis ? cache.axisLength : 0.0;
+            slope = cache.isVerticalAxis ? -cache.logScaleLengthInv : cache.logScaleLengthInv;
+            if (isInvertedAxis) {
+                base = offset - base;
+                slope = -slope;
+            }
+            final double lowerBoundLog = cache.lowerBoundLog;
+            for (int i = dstOff; i < dstOff + len; i++) {
+                dst[i] = base + (dst[i] - lowerBoundLog) * slope;
+            }
+            return;
+        }
+
+        base = isInvertedAxis ? offset - cache.localOffset2 : cache.localOffset2;
+        slope = isInvertedAxis ? -cache.localScale : cache.localScale;
+        for (int i = 0; i < len; i++) {
+            dst[dstOff + i] = base + src[srcOff + i] * slope;
+        }
+    }
+
     /**
      * Returns the value of the {@link #logarithmBaseProperty()}.
      *
@@ -229,6 +266,43 @@ public class DefaultNumericAxis extends AbstractAxis implements Axis {
         return getValueForDisplayImpl(displayPosition);
     }
 
+    /**
+     * Bulk version of {@link #getValueForDisplay(double)}.
+     */
+    @Override
+    public void getValuesForDisplay(final double[] src, final int srcOff, final double[] dst, final int dstOff, final int len) {
+        if (!bulkValuesForDisplay) {
+            Axis.super.getValuesForDisplay(src, srcOff, dst, dstOff, len);
+            return;
+        }
+        // display position of the non-inverted axis: shift + sign * displayPosition
+        final double shift = isInvertedAxis ? offset : 0.0;
+        final double sign = isInvertedAxis ? -1.0 : 1.0;
+        if (isLogAxis) {
+            final double length = cache.axisLength;
+            final double lowerBoundLog = cache.lowerBoundLog;
+            final double logScaleLength = cache.logScaleLength;
+            if (cache.isVerticalAxis) {
+                for (int i = 0; i < len; i++) {
+                    dst[dstOff + i] = lowerBoundLog + (length - (shift + sign * src[srcOff + i])) / length * logScaleLength;
+                }
+            } else {
+                for (int i = 0; i < len; i++) {
+                    dst[dstOff + i] = lowerBoundLog + (shift + sign * src[srcOff + i]) / length * logScaleLength;
+                }
+            }
+            axisTransform.backward(dst, dstOff, dst, dstOff, len);
+            return;
+        }
+
+        final double lowerBound = cache.localCurrentLowerBound;
+        final double localOffset = cache.localOffset;
+        final double localScale = cache.localScale;
+        for (int i = 0; i < len; i++) {
+            dst[dstOff + i] = lowerBound + (shift + sign * src[srcOff + i] - localOffset) / localScale;
+        }
+    }
+
     /**
      * Get the display position of the zero line along this axis.
      *
@@ -569,6 +643,14 @@ public class DefaultNumericAxis extends AbstractAxis implements Axis {
         return effectiveRange;
     }
 
+    private static boolean isDeclaredBy(final Class<?> clazz, final String methodName, final Class<?> declaringClass) {
+        try {
+            return clazz.getMethod(methodName, double.class).getDeclaringClass() == declaringClass;
+        } catch (NoSuchMethodException | SecurityException e) {
+            return false;
+        }
+    }
+
     protected class Cache {
         protected double localScale;
         protected double localCurrentLowerBound;
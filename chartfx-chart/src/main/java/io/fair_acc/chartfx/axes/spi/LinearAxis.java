@@ -203,6 +203,16 @@ public class LinearAxis extends AbstractAxis {
         return cache.localOffset + (value - cache.localCurrentLowerBound) * cache.localScale;
     }
 
+    @Override
+    public void getDisplayPositions(final double[] src, final int srcOff, final double[] dst, final int dstOff, final int len) {
+        final double localOffset = cache.localOffset;
+        final double lowerBound = cache.localCurrentLowerBound;
+        final double localScale = cache.localScale;
+        for (int i = 0; i < len; i++) {
+            dst[dstOff + i] = localOffset + (src[srcOff + i] - lowerBound) * localScale;
+        }
+    }
+
     /**
      * @return the log axis Type @see LogAxisType
      */
@@ -242,6 +252,16 @@ public class LinearAxis extends AbstractAxis {
         return (displayPosition - cache.localOffset) / cache.localScale + cache.localCurrentLowerBound;
     }
 
+    @Override
+    public void getValuesForDisplay(final double[] src, final int srcOff, final double[] dst, final int dstOff, final int len) {
+        final double localOffset = cache.localOffset;
+        final double lowerBound = cache.localCurrentLowerBound;
+        final double localScale = cache.localScale;
+        for (int i = 0; i < len; i++) {
+            dst[dstOff + i] = (src[srcOff + i] - localOffset) / localScale + lowerBound;
+        }
+    }
+
     /**
      * Get the display position of the zero line along this axis.
      *
@@ -146,6 +146,19 @@ public class LogarithmicAxis extends AbstractAxis {
         return valueLogOffset * cache.logScaleLengthInv;
     }
 
+    @Override
+    public void getDisplayPositions(final double[] src, final int srcOff, final double[] dst, final int dstOff, final int len) {
+        final double logBase = cache.logBase;
+        final double lowerBoundLog = cache.lowerBoundLog;
+        final double base = cache.isVerticalAxis ? cache.axisHeight : 0.0;
+        final double slope = cache.isVerticalAxis ? -cache.logScaleLengthInv : cache.logScaleLengthInv;
+        for (int i = 0; i < len; i++) {
+            final double value = src[srcOff + i];
+            final double valueLog = value <= 0 ? Double.NaN : Math.log10(value) / logBase;
+            dst[dstOff + i] = base + (valueLog - lowerBoundLog) * slope;
+        }
+    }
+
     /**
      * Returns the value of the {@link #logarithmBaseProperty()}.
      *
@@ -199,6 +212,24 @@ public class LogarithmicAxis extends AbstractAxis {
         return pow(cache.lowerBoundLog + displayPosition / cache.axisWidth * cache.logScaleLength);
     }
 
+    @Override
+    public void getValuesForDisplay(final double[] src, final int srcOff, final double[] dst, final int dstOff, final int len) {
+        final double logarithmBase = getLogarithmBase();
+        final double lowerBoundLog = cache.lowerBoundLog;
+        final double logScaleLength = cache.logScaleLength;
+        if (cache.isVerticalAxis) {
+            final double height = cache.axisHeight;
+            for (int i = 0; i < len; i++) {
+                dst[dstOff + i] = Math.pow(logarithmBase, lowerBoundLog + (height - src[srcOff + i]) / height * logScaleLength);
+            }
+            return;
+        }
+        final double width = cache.axisWidth;
+        for (int i = 0; i < len; i++) {
+            dst[dstOff + i] = Math.pow(logarithmBase, lowerBoundLog + src[srcOff + i] / width * logScaleLength);
+        }
+    }
+
     /**
      * Get the display position of the zero line along this axis.
      *
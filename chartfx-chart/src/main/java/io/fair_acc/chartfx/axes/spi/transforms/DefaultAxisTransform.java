@@ -17,11 +17,21 @@ public class DefaultAxisTransform extends AbstractAxisTransform {
         return val;
     }
 
+    @Override
+    public void backward(final double[] src, final int srcOff, final double[] dst, final int dstOff, final int len) {
+        System.arraycopy(src, srcOff, dst, dstOff, len);
+    }
+
     @Override
     public double forward(final double val) {
         return val;
     }
 
+    @Override
+    public void forward(final double[] src, final int srcOff, final double[] dst, final int dstOff, final int len) {
+        System.arraycopy(src, srcOff, dst, dstOff, len);
+    }
+
     @Override
     public double getRoundedMaximumRange(final double max) {
         return Math.ceil(max);
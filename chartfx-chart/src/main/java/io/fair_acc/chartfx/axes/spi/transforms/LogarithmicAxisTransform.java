@@ -43,11 +43,29 @@ public class LogarithmicAxisTransform extends AbstractAxisTransform {
         return pow(val);
     }
 
+    @Override
+    public void backward(final double[] src, final int srcOff, final double[] dst, final int dstOff, final int len) {
+        final double base = logarithmBaseCache;
+        for (int i = 0; i < len; i++) {
+            dst[dstOff + i] = Math.pow(base, src[srcOff + i]);
+        }
+    }
+
     @Override
     public double forward(final double val) {
         return log(val);
     }
 
+    @Override
+    public void forward(final double[] src, final int srcOff, final double[] dst, final int dstOff, final int len) {
+        // same as log(double) -- inlined to keep the loop free of calls
+        final double logBase = logBaseCache;
+        for (int i = 0; i < len; i++) {
+            final double value = src[srcOff + i];
+            dst[dstOff + i] = value <= 0 ? Double.NaN : Math.log10(value) / logBase;
+        }
+    }
+
     /**
      * Returns the value of the {@link #logarithmBaseProperty()}.
      *
@@ -0,0 +1,506 @@
+package io.fair_acc.chartfx.bench;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.value.ChangeListener;
+import javafx.scene.Scene;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.fair_acc.bench.Measurable;
+import io.fair_acc.bench.MeasurementRecorder;
+import io.fair_acc.bench.TimeMeasure;
+import io.fair_acc.bench.ValueMeasure;
+import io.fair_acc.chartfx.Chart;
+import io.fair_acc.chartfx.renderer.ErrorStyle;
+import io.fair_acc.chartfx.renderer.Renderer;
+import io.fair_acc.chartfx.renderer.datareduction.DefaultDataReducer;
+import io.fair_acc.chartfx.renderer.spi.AbstractErrorDataSetRendererParameter;
+import io.fair_acc.chartfx.renderer.spi.AbstractPointReducingRenderer;
+import io.fair_acc.chartfx.utils.FXUtils;
+import io.fair_acc.dataset.utils.AssertUtils;
+
+/**
+ * Adaptive frame-budget controller that gracefully degrades the rendering quality of a group of charts when they
+ * exceed a target frame time (e.g. during data-rate spikes) and restores it once there is sufficient headroom again.
+ * <p>
+ * The controller is attached as the {@link MeasurementRecorder} of the registered charts (measurements are still
+ * forwarded to the recorder set via {@link #setRecorder(MeasurementRecorder)}) and sums the
+ * {@value JfrFrameTimeParser#DEFAULT_FRAME_START_TAG} and {@value JfrFrameTimeParser#DEFAULT_FRAME_END_TAG} timings of
+ * all charts of a scene within one JavaFX pulse into a frame time. The frame is closed by a post-layout pulse listener
+ * that runs after the layout hooks of the charts (N.B. charts in different scenes are thus accounted as separate
+ * frames, and charts that are not part of a scene are not accounted). The exponentially smoothed frame time is
+ * compared against the target: the degradation level is increased if it exceeds the target at least
+ * {@link #getDegradeFrames()} frames after the previous decision and decreased if it is below
+ * {@link #getRestoreThreshold()} times the target at least {@link #getRestoreFrames()} frames after the previous
+ * decision. The levels are cumulative:
+ * <ol start="0">
+ * <li>original settings (full quality)</li>
+ * <li>parallel point-reduction and coordinate computation</li>
+ * <li>twice the {@link DefaultDataReducer#getMinPointPixelDistance() minPointPixelDistance}</li>
+ * <li>no markers</li>
+ * <li>error bars and combos are drawn as (single polygon) error surfaces</li>
+ * <li>four times the minPointPixelDistance, low-priority charts are redrawn at most every
+ * {@link #getLowPriorityRedrawInterval()} ms</li>
+ * <li>low-priority charts are redrawn at most every four times the low-priority redraw interval</li>
+ * </ol>
+ * The original renderer and chart settings are captured when a chart is first degraded and re-applied when returning
+ * to level 0 or when the chart is removed. N.B. user changes of the adjusted settings while degraded are overwritten
+ * and renderers added while degraded are only adjusted on the next level change.
+ * <p>
+ * Every decision is exposed via the {@link #degradationLevelProperty() degradationLevel} and
+ * {@link #frameTimeProperty() frameTime} properties, the degrade/restore counters, the 'budget-frameTime' time measure
+ * and the 'budget-degradationLevel' value measure (gauge) of the attached recorder.
+ * <p>
+ * All methods must be called from the JavaFX application thread.
+ */
+public class FrameBudgetController implements Measurable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FrameBudgetController.class);
+    public static final int MAX_DEGRADATION_LEVEL = 6;
+    private static final int LEVEL_PARALLEL = 1;
+    private static final int LEVEL_REDUCE = 2;
+    private static final int LEVEL_NO_MARKER = 3;
+    private static final int LEVEL_ERROR_SURFACE = 4;
+    private static final int LEVEL_THROTTLE = 5;
+    private static final int LEVEL_THROTTLE_MORE = 6;
+    private static final int REDUCTION_FACTOR = 2;
+    private static final int THROTTLE_FACTOR = 4;
+    private final Map<Chart, Boolean> charts = new IdentityHashMap<>(); // chart -> low-priority
+    private final Map<AbstractPointReducingRenderer<?>, RendererSettings> originalRenderers = new IdentityHashMap<>();
+    private final Map<DefaultDataReducer, Integer> originalReducers = new IdentityHashMap<>();
+    private final Map<Chart, Integer> originalRedrawIntervals = new IdentityHashMap<>();
+    private final Map<Scene, Integer> scenes = new IdentityHashMap<>(); // scene -> number of registered charts
+    private final Runnable frameListener = this::closeFrame;
+    private final ChangeListener<Scene> sceneListener = (obs, oldScene, newScene) -> {
+        detach(oldScene);
+        attach(newScene);
+    };
+    private final ReadOnlyIntegerWrapper degradationLevel = new ReadOnlyIntegerWrapper(this, "degradationLevel", 0);
+    private final ReadOnlyDoubleWrapper frameTime = new ReadOnlyDoubleWrapper(this, "frameTime", 0.0);
+    private final MeasurementRecorder chartRecorder = this::newChartMeasure;
+    private MeasurementRecorder recorder = MeasurementRecorder.DISABLED;
+    private TimeMeasure benchFrameTime = TimeMeasure.DISABLED;
+    private ValueMeasure benchDegradationLevel = ValueMeasure.DISABLED;
+    private double targetFrameTime;
+    private double restoreThreshold = 0.6;
+    private double smoothing = 0.2;
+    private int degradeFrames = 10;
+    private int restoreFrames = 60;
+    private int lowPriorityRedrawInterval = 100;
+    private long degradeCount;
+    private long restoreCount;
+    // frame accounting
+    private long frameNanos;
+    private boolean hasStageTime;
+    private int framesSinceDecision;
+    private boolean hasFrameTime;
+
+    /**
+     * @param targetFrameTime target time [ms] spent in all registered charts per JavaFX pulse, e.g. 8 ms to leave half
+     *        of a 60 Hz frame for the remaining scene
+     */
+    public FrameBudgetController(final double targetFrameTime) {
+        setTargetFrameTime(targetFrameTime);
+    }
+
+    /**
+     * @param chart chart to be controlled with normal priority
+     * @return itself (fluent design)
+     */
+    public FrameBudgetController add(final Chart chart) {
+        return add(chart, false);
+    }
+
+    /**
+     * @param chart chart to be controlled
+     * @param lowPriority true: the redraw rate of the chart may be reduced at the highest degradation levels
+     * @return itself (fluent design)
+     */
+    public FrameBudgetController add(final Chart chart, final boolean lowPriority) {
+        AssertUtils.notNull("chart", chart);
+        FXUtils.assertJavaFxThread();
+        if (charts.put(chart, lowPriority) == null) {
+            chart.sceneProperty().addListener(sceneListener);
+            attach(chart.getScene());
+        }
+        chart.setRecorder(chartRecorder);
+        applyLevel(chart, lowPriority, getDegradationLevel());
+        return this;
+    }
+
+    /**
+     * @return the smoothed frame time property [ms]
+     */
+    public ReadOnlyDoubleProperty frameTimeProperty() {
+        return frameTime.getReadOnlyProperty();
+    }
+
+    /**
+     * @return the current degradation level property, 0: full quality, {@value #MAX_DEGRADATION_LEVEL}: lowest quality
+     */
+    public ReadOnlyIntegerProperty degradationLevelProperty() {
+        return degradationLevel.getReadOnlyProperty();
+    }
+
+    /**
+     * @return number of decisions that decreased the quality
+     */
+    public long getDegradeCount() {
+        return degradeCount;
+    }
+
+    /**
+     * @return minimum number of frames between the previous decision and degrading
+     */
+    public int getDegradeFrames() {
+        return degradeFrames;
+    }
+
+    /**
+     * @return the current degradation level, 0: full quality, {@value #MAX_DEGRADATION_LEVEL}: lowest quality
+     */
+    public int getDegradationLevel() {
+        return degradationLevel.get();
+    }
+
+    /**
+     * @return the smoothed frame time [ms]
+     */
+    public double getFrameTime() {
+        return frameTime.get();
+    }
+
+    /**
+     * @return minimum time between redraws [ms] of low-priority charts at degradation level 5 and above
+     */
+    public int getLowPriorityRedrawInterval() {
+        return lowPriorityRedrawInterval;
+    }
+
+    /**
+     * @return number of decisions that increased the quality
+     */
+    public long getRestoreCount() {
+        return restoreCount;
+    }
+
+    /**
+     * @return minimum number of frames between the previous decision and restoring
+     */
+    public int getRestoreFrames() {
+        return restoreFrames;
+    }
+
+    /**
+     * @return fraction of the target frame time below which the quality is restored
+     */
+    public double getRestoreThreshold() {
+        return restoreThreshold;
+    }
+
+    /**
+     * @return the exponential smoothing factor applied to the frame times
+     */
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    /**
+     * @return target frame time [ms]
+     */
+    public double getTargetFrameTime() {
+        return targetFrameTime;
+    }
+
+    /**
+     * Records the time spent in the registered charts during one frame. This is called automatically for registered
+     * charts but may also be used to account for other rendering work or to drive the controller externally.
+     *
+     * @param unit unit of the measurement
+     * @param time frame time
+     */
+    public void recordFrameTime(final TimeUnit unit, final long time) {
+        benchFrameTime.recordTime(unit, time);
+        final double millis = unit.toNanos(time) * 1e-6;
+        frameTime.set(hasFrameTime ? getFrameTime() + smoothing * (millis - getFrameTime()) : millis);
+        hasFrameTime = true;
+        framesSinceDecision++;
+
+        final int level = getDegradationLevel();
+        if (getFrameTime() > targetFrameTime && framesSinceDecision >= degradeFrames && level < MAX_DEGRADATION_LEVEL) {
+            degradeCount++;
+            setDegradationLevel(level + 1);
+        } else if (getFrameTime() < restoreThreshold * targetFrameTime && framesSinceDecision >= restoreFrames && level > 0) {
+            restoreCount++;
+            setDegradationLevel(level - 1);
+        }
+    }
+
+    /**
+     * Restores the original settings of the chart and detaches it from this controller
+     *
+     * @param chart chart to be removed
+     * @return itself (fluent design)
+     */
+    public FrameBudgetController remove(final Chart chart) {
+        FXUtils.assertJavaFxThread();
+        final Boolean lowPriority = charts.remove(chart);
+        if (lowPriority != null) {
+            chart.sceneProperty().removeListener(sceneListener);
+            detach(chart.getScene());
+            applyLevel(chart, lowPriority, 0);
+            chart.setRecorder(recorder);
+        }
+        return this;
+    }
+
+    /**
+     * @param frames minimum number of frames between the previous decision and degrading
+     * @return itself (fluent design)
+     */
+    public FrameBudgetController setDegradeFrames(final int frames) {
+        if (frames < 1) {
+            throw new IllegalArgumentException("degradeFrames " + frames + " must be greater than zero");
+        }
+        degradeFrames = frames;
+        return this;
+    }
+
+    /**
+     * Forces a degradation level, e.g. to pre-emptively reduce the quality ahead of a known high-load phase.
+     *
+     * @param level new degradation level in [0, {@value #MAX_DEGRADATION_LEVEL}]
+     * @return itself (fluent design)
+     */
+    public FrameBudgetController setDegradationLevel(final int level) {
+        if (level < 0 || level > MAX_DEGRADATION_LEVEL) {
+            throw new IllegalArgumentException("level " + level + " must be within [0, " + MAX_DEGRADATION_LEVEL + "]");
+        }
+        FXUtils.assertJavaFxThread();
+        framesSinceDecision = 0;
+        final int oldLevel = getDegradationLevel();
+        if (level == oldLevel) {
+            return this;
+        }
+        LOGGER.atInfo().addArgument(oldLevel).addArgument(level).addArgument(getFrameTime()).addArgument(targetFrameTime).log("degradation level {} -> {} (frame time {} ms, target {} ms)");
+        for (final Map.Entry<Chart, Boolean> entry : charts.entrySet()) {
+            applyLevel(entry.getKey(), entry.getValue(), level);
+        }
+        degradationLevel.set(level);
+        benchDegradationLevel.recordValue(level);
+        return this;
+    }
+
+    /**
+     * @param interval minimum time between redraws [ms] of low-priority charts at degradation level 5 and above
+     * @return itself (fluent design)
+     */
+    public FrameBudgetController setLowPriorityRedrawInterval(final int interval) {
+        if (interval < 0) {
+            throw new IllegalArgumentException("interval " + interval + " must be positive or zero");
+        }
+        lowPriorityRedrawInterval = interval;
+        return this;
+    }
+
+    /**
+     * Sets the recorder for the controller metrics ('budget-frameTime', 'budget-degradationLevel'). All measurements of
+     * the registered charts are forwarded to this recorder as well.
+     *
+     * @param recorder records benchmark measurements
+     */
+    @Override
+    public void setRecorder(final MeasurementRecorder recorder) {
+        AssertUtils.notNull("recorder", recorder);
+        this.recorder = recorder;
+        benchFrameTime = recorder.newTime("budget-frameTime");
+        benchDegradationLevel = recorder.newDebugValue("budget-degradationLevel");
+        for (final Chart chart : charts.keySet()) {
+            chart.setRecorder(chartRecorder); // re-create the forwarding measures
+        }
+    }
+
+    /**
+     * @param frames minimum number of frames between the previous decision and restoring
+     * @return itself (fluent design)
+     */
+    public FrameBudgetController setRestoreFrames(final int frames) {
+        if (frames < 1) {
+            throw new IllegalArgumentException("restoreFrames " + frames + " must be greater than zero");
+        }
+        restoreFrames = frames;
+        return this;
+    }
+
+    /**
+     * @param threshold fraction of the target frame time below which the quality is restored (hysteresis)
+     * @return itself (fluent design)
+     */
+    public FrameBudgetController setRestoreThreshold(final double threshold) {
+        if (!(threshold > 0.0 && threshold <= 1.0)) {
+            throw new IllegalArgumentException("threshold " + threshold + " must be within ]0, 1]");
+        }
+        restoreThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * @param smoothing exponential smoothing factor applied to the frame times, 1.0: no smoothing
+     * @return itself (fluent design)
+     */
+    public FrameBudgetController setSmoothing(final double smoothing) {
+        if (!(smoothing > 0.0 && smoothing <= 1.0)) {
+            throw new IllegalArgumentException("smoothing " + smoothing + " must be within ]0, 1]");
+        }
+        this.smoothing = smoothing;
+        return this;
+    }
+
+    /**
+     * @param targetFrameTime target time [ms] spent in all registered charts per JavaFX pulse
+     * @return itself (fluent design)
+     */
+    public FrameBudgetController setTargetFrameTime(final double targetFrameTime) {
+        if (!(targetFrameTime > 0.0)) {
+            throw new IllegalArgumentException("targetFrameTime " + targetFrameTime + " must be greater than zero");
+        }
+        this.targetFrameTime = targetFrameTime;
+        return this;
+    }
+
+    private void applyLevel(final Chart chart, final boolean lowPriority, final int level) {
+        for (final Renderer renderer : chart.getRenderers()) {
+            if (renderer instanceof AbstractPointReducingRenderer) {
+                applyLevel((AbstractPointReducingRenderer<?>) renderer, level);
+            }
+        }
+        if (!lowPriority) {
+            return;
+        }
+        if (level < LEVEL_THROTTLE) {
+            final Integer original = originalRedrawIntervals.remove(chart);
+            if (original != null) {
+                chart.setMinRedrawInterval(original);
+            }
+            return;
+        }
+        final int original = originalRedrawIntervals.computeIfAbsent(chart, Chart::getMinRedrawInterval);
+        final int interval = level >= LEVEL_THROTTLE_MORE ? THROTTLE_FACTOR * lowPriorityRedrawInterval : lowPriorityRedrawInterval;
+        chart.setMinRedrawInterval(Math.max(original, interval));
+    }
+
+    private void applyLevel(final AbstractPointReducingRenderer<?> renderer, final int level) {
+        if (level == 0) {
+            final RendererSettings original = originalRenderers.remove(renderer);
+            if (original != null) {
+                original.apply(renderer);
+            }
+            if (renderer instanceof AbstractErrorDataSetRendererParameter && ((AbstractErrorDataSetRendererParameter<?>) renderer).getRendererDataReducer() instanceof DefaultDataReducer) {
+                final DefaultDataReducer reducer = (DefaultDataReducer) ((AbstractErrorDataSetRendererParameter<?>) renderer).getRendererDataReducer();
+                final Integer minDistance = originalReducers.remove(reducer);
+                if (minDistance != null) {
+                    reducer.setMinPointPixelDistance(minDistance);
+                }
+            }
+            return;
+        }
+
+        final RendererSettings original = originalRenderers.computeIfAbsent(renderer, RendererSettings::new);
+        renderer.setParallelImplementation(level >= LEVEL_PARALLEL || original.parallel);
+        if (!(renderer instanceof AbstractErrorDataSetRendererParameter)) {
+            return;
+        }
+        final AbstractErrorDataSetRendererParameter<?> errorRenderer = (AbstractErrorDataSetRendererParameter<?>) renderer;
+        errorRenderer.setDrawMarker(level < LEVEL_NO_MARKER && original.drawMarker);
+        errorRenderer.setErrorStyle(level >= LEVEL_ERROR_SURFACE && original.errorStyle != ErrorStyle.NONE ? ErrorStyle.ERRORSURFACE : original.errorStyle);
+        if (errorRenderer.getRendererDataReducer() instanceof DefaultDataReducer) {
+            final DefaultDataReducer reducer = (DefaultDataReducer) errorRenderer.getRendererDataReducer();
+            final int minDistance = originalReducers.computeIfAbsent(reducer, DefaultDataReducer::getMinPointPixelDistance);
+            final int factor = level >= LEVEL_THROTTLE ? REDUCTION_FACTOR * REDUCTION_FACTOR : level >= LEVEL_REDUCE ? REDUCTION_FACTOR : 1;
+            reducer.setMinPointPixelDistance(factor * minDistance);
+        }
+    }
+
+    private TimeMeasure newChartMeasure(final String tag, final IntSupplier level) {
+        final TimeMeasure downstream = recorder.newTime(tag, level);
+        if (!JfrFrameTimeParser.DEFAULT_FRAME_START_TAG.equals(tag) && !JfrFrameTimeParser.DEFAULT_FRAME_END_TAG.equals(tag)) {
+            return downstream;
+        }
+        return (unit, time) -> {
+            downstream.recordTime(unit, time);
+            recordStage(unit.toNanos(time));
+        };
+    }
+
+    private void recordStage(final long nanos) {
+        frameNanos += nanos;
+        hasStageTime = true;
+    }
+
+    private void closeFrame() {
+        if (!hasStageTime) {
+            return; // no chart has been updated in this pulse
+        }
+        final long frame = frameNanos;
+        frameNanos = 0;
+        hasStageTime = false;
+        recordFrameTime(TimeUnit.NANOSECONDS, frame);
+    }
+
+    private void attach(final Scene scene) {
+        if (scene == null) {
+            return;
+        }
+        scenes.merge(scene, 1, Integer::sum);
+        // (re-)append the listener so that it runs after the layout hooks of all registered charts of the scene
+        // N.B. charts register their hooks on scene changes before this controller is notified
+        scene.removePostLayoutPulseListener(frameListener);
+        scene.addPostLayoutPulseListener(frameListener);
+    }
+
+    private void detach(final Scene scene) {
+        if (scene == null) {
+            return;
+        }
+        final int nCharts = scenes.merge(scene, -1, Integer::sum);
+        if (nCharts <= 0) {
+            scenes.remove(scene);
+            scene.removePostLayoutPulseListener(frameListener);
+        }
+    }
+
+    private static class RendererSettings {
+        private final boolean parallel;
+        private final boolean drawMarker;
+        private final ErrorStyle errorStyle;
+
+        RendererSettings(final AbstractPointReducingRenderer<?> renderer) {
+            parallel = renderer.isParallelImplementation();
+            if (renderer instanceof AbstractErrorDataSetRendererParameter) {
+                final AbstractErrorDataSetRendererParameter<?> errorRenderer = (AbstractErrorDataSetRendererParameter<?>) renderer;
+                drawMarker = errorRenderer.isDrawMarker();
+                errorStyle = errorRenderer.getErrorType();
+            } else {
+                drawMarker = false;
+                errorStyle = ErrorStyle.NONE;
+            }
+        }
+
+        void apply(final AbstractPointReducingRenderer<?> renderer) {
+            renderer.setParallelImplementation(parallel);
+            if (renderer instanceof AbstractErrorDataSetRendererParameter) {
+                final AbstractErrorDataSetRendererParameter<?> errorRenderer = (AbstractErrorDataSetRendererParameter<?>) renderer;
+                errorRenderer.setDrawMarker(drawMarker);
+                errorRenderer.setErrorStyle(errorStyle);
+            }
+        }
+    }
+}
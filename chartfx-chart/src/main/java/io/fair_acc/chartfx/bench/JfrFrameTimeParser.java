@@ -0,0 +1,255 @@
+package io.fair_acc.chartfx.bench;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import io.fair_acc.dataset.utils.AssertUtils;
+
+/**
+ * Computes per-stage frame-time breakdowns from JFR recordings created with the {@link JfrRecorder}.
+ * <p>
+ * A frame spans from the start of a measurement ending with the frame-start tag (default:
+ * {@value #DEFAULT_FRAME_START_TAG}) to the end of the next measurement ending with the frame-end tag (default:
+ * {@value #DEFAULT_FRAME_END_TAG}) on the same thread. All other measurements of that thread within this time window
+ * are accumulated per tag as the stages of the frame. N.B. stages may be nested (e.g. {@code chart-drawCanvas} within
+ * {@code chart-runPostLayout}), so that the sum of all stages may exceed the frame time.
+ * <p>
+ * Command-line usage: {@code JfrFrameTimeParser <recording.jfr> [<frameStartTag> <frameEndTag>]}
+ */
+public final class JfrFrameTimeParser {
+    public static final String DEFAULT_FRAME_START_TAG = "chart-runPreLayout";
+    public static final String DEFAULT_FRAME_END_TAG = "chart-runPostLayout";
+    private static final String TOTAL = "frame (total)";
+
+    private JfrFrameTimeParser() {
+        // static utility class
+    }
+
+    /**
+     * @param args recording file name, optionally followed by the frame-start and frame-end tags
+     * @throws IOException if the recording cannot be read
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 1 && args.length != 3) {
+            System.err.println("usage: JfrFrameTimeParser <recording.jfr> [<frameStartTag> <frameEndTag>]"); // NOPMD
+            return;
+        }
+        final List<Frame> frames = args.length == 1 ? parse(Path.of(args[0])) : parse(Path.of(args[0]), args[1], args[2]);
+        System.out.println(summarize(frames)); // NOPMD
+    }
+
+    /**
+     * @param recording JFR recording file
+     * @return frames using the default frame-start and frame-end tags
+     * @throws IOException if the recording cannot be read
+     */
+    public static List<Frame> parse(final Path recording) throws IOException {
+        return parse(recording, DEFAULT_FRAME_START_TAG, DEFAULT_FRAME_END_TAG);
+    }
+
+    /**
+     * @param recording JFR recording file
+     * @param frameStartTag tag (suffix) of the measurement that starts a frame
+     * @param frameEndTag tag (suffix) of the measurement that ends a frame
+     * @return frames sorted by their start time
+     * @throws IOException if the recording cannot be read
+     */
+    public static List<Frame> parse(final Path recording, final String frameStartTag, final String frameEndTag) throws IOException {
+        AssertUtils.notNull("recording", recording);
+        AssertUtils.notNull("frameStartTag", frameStartTag);
+        AssertUtils.notNull("frameEndTag", frameEndTag);
+        final Map<Long, List<Measurement>> threads = new HashMap<>();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                final RecordedEvent event = file.readEvent();
+                if (!event.hasField(JfrRecorder.FIELD_TAG) || !event.hasField(JfrRecorder.FIELD_ELAPSED) || !event.getEventType().getCategoryNames().contains(JfrRecorder.CATEGORY)) {
+                    continue;
+                }
+                final RecordedThread thread = event.getThread();
+                final long threadId = thread == null ? -1 : thread.getId();
+                final long end = toNanos(event.getEndTime());
+                final long start = event.getDuration().isZero() ? end - event.getLong(JfrRecorder.FIELD_ELAPSED) : toNanos(event.getStartTime());
+                final String threadName = thread == null ? "unknown" : thread.getJavaName();
+                threads.computeIfAbsent(threadId, id -> new ArrayList<>()).add(new Measurement(event.getString(JfrRecorder.FIELD_TAG), threadName, start, end));
+            }
+        }
+
+        final List<Frame> frames = new ArrayList<>();
+        for (final List<Measurement> measurements : threads.values()) {
+            frames.addAll(toFrames(measurements, frameStartTag, frameEndTag));
+        }
+        frames.sort(Comparator.comparingLong(Frame::getStartNanos));
+        return frames;
+    }
+
+    /**
+     * @param frames parsed frames
+     * @return a table with the count, mean, median, 90th and 99th percentile, maximum and mean share of the frame time
+     *         for each stage
+     */
+    public static String summarize(final List<Frame> frames) {
+        final Map<String, List<Long>> stages = new LinkedHashMap<>();
+        stages.put(TOTAL, new ArrayList<>(frames.size()));
+        for (final Frame frame : frames) {
+            stages.get(TOTAL).add(frame.getDuration());
+            for (final Map.Entry<String, Long> stage : frame.getStages().entrySet()) {
+                stages.computeIfAbsent(stage.getKey(), tag -> new ArrayList<>()).add(stage.getValue());
+            }
+        }
+        final double meanFrameTime = mean(stages.get(TOTAL));
+        final StringBuilder builder = new StringBuilder(256);
+        builder.append(String.format(Locale.ENGLISH, "%-32s %8s %10s %10s %10s %10s %10s %7s%n", "stage", "frames", "mean[ms]", "p50[ms]", "p90[ms]", "p99[ms]", "max[ms]", "share"));
+        for (final Map.Entry<String, List<Long>> stage : stages.entrySet()) {
+            final long[] values = stage.getValue().stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(values);
+            final double mean = mean(stage.getValue());
+            final double share = meanFrameTime > 0 ? 100.0 * mean * values.length / (meanFrameTime * frames.size()) : 0.0;
+            builder.append(String.format(Locale.ENGLISH, "%-32s %8d %10.3f %10.3f %10.3f %10.3f %10.3f %6.1f%%%n", stage.getKey(), values.length, //
+                    1e-6 * mean, 1e-6 * percentile(values, 0.5), 1e-6 * percentile(values, 0.9), 1e-6 * percentile(values, 0.99), //
+                    1e-6 * percentile(values, 1.0), share));
+        }
+        return builder.toString();
+    }
+
+    private static double mean(final List<Long> values) {
+        return values.stream().mapToLong(Long::longValue).average().orElse(0.0);
+    }
+
+    private static long percentile(final long[] sorted, final double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        final int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static long toNanos(final Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static List<Frame> toFrames(final List<Measurement> measurements, final String frameStartTag, final String frameEndTag) {
+        measurements.sort(Comparator.comparingLong((Measurement m) -> m.start).thenComparing(m -> -m.end));
+        // identify frames
+        final List<Frame> frames = new ArrayList<>();
+        Measurement frameStart = null;
+        for (final Measurement measurement : measurements) {
+            if (measurement.tag.endsWith(frameStartTag)) {
+                frameStart = measurement; // N.B. a repeated start drops the incomplete frame
+            } else if (frameStart != null && measurement.tag.endsWith(frameEndTag)) {
+                frames.add(new Frame(measurement.threadName, frameStart.start, measurement.end));
+                frameStart = null;
+            }
+        }
+        if (frames.isEmpty()) {
+            return frames;
+        }
+        // assign stages, N.B. frames and measurements are both sorted by start time
+        int index = 0;
+        for (final Measurement measurement : measurements) {
+            while (index < frames.size() && frames.get(index).endNanos < measurement.start) {
+                index++;
+            }
+            if (index == frames.size()) {
+                break;
+            }
+            final Frame frame = frames.get(index);
+            if (measurement.start >= frame.startNanos && measurement.end <= frame.endNanos) {
+                frame.stages.merge(measurement.tag, measurement.end - measurement.start, Long::sum);
+            }
+        }
+        return frames;
+    }
+
+    /**
+     * Time breakdown of one frame
+     */
+    public static final class Frame {
+        private final String threadName;
+        private final long startNanos;
+        private final long endNanos;
+        private final Map<String, Long> stages = new LinkedHashMap<>();
+
+        Frame(final String threadName, final long startNanos, final long endNanos) {
+            this.threadName = threadName;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+        }
+
+        /**
+         * @return frame duration [ns]
+         */
+        public long getDuration() {
+            return endNanos - startNanos;
+        }
+
+        /**
+         * @return accumulated duration per stage tag [ns] in the order of their first occurrence
+         */
+        public Map<String, Long> getStages() {
+            return Collections.unmodifiableMap(stages);
+        }
+
+        /**
+         * @param tag stage tag
+         * @return accumulated duration of the stage [ns], 0 if the stage has not been measured in this frame
+         */
+        public long getStageDuration(final String tag) {
+            return stages.getOrDefault(tag, 0L);
+        }
+
+        /**
+         * @return frame start time
+         */
+        public Instant getStartTime() {
+            return Instant.EPOCH.plus(Duration.ofNanos(startNanos));
+        }
+
+        /**
+         * @return start time [ns since epoch]
+         */
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        /**
+         * @return name of the thread that rendered the frame
+         */
+        public String getThreadName() {
+            return threadName;
+        }
+
+        @Override
+        public String toString() {
+            return "Frame{thread=" + threadName + ", start=" + getStartTime() + ", duration=" + getDuration() + " ns, stages=" + stages + '}';
+        }
+    }
+
+    private static final class Measurement {
+        private final String tag;
+        private final String threadName;
+        private final long start;
+        private final long end;
+
+        Measurement(final String tag, final String threadName, final long start, final long end) {
+            this.tag = tag;
+            this.threadName = threadName;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package io.fair_acc.chartfx.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import jdk.jfr.AnnotationElement;
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventFactory;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import jdk.jfr.ValueDescriptor;
+
+import io.fair_acc.bench.BenchLevel;
+import io.fair_acc.bench.DurationMeasure;
+import io.fair_acc.bench.MeasurementRecorder;
+import io.fair_acc.bench.TimeMeasure;
+import io.fair_acc.bench.ValueMeasure;
+import io.fair_acc.dataset.utils.AssertUtils;
+
+/**
+ * Records measurements as JDK Flight Recorder (JFR) events so that they can be correlated with GC, safepoint, lock
+ * and other JVM events and are cheap enough to be always-on in production.
+ * <p>
+ * Each tag is mapped to its own event type named {@value #EVENT_NAME_PREFIX} followed by the tag (e.g.
+ * {@code chart-drawAxes -> io.fair_acc.chartfx.chart.drawAxes}) in the category {@value #CATEGORY}, the {@link BenchLevel}
+ * of the measure is recorded in the {@value #FIELD_LEVEL} field of each event. Event types are created and registered
+ * once per tag when the first measure is created (i.e. on {@code setRecorder(..)}), so that disabled events cost a
+ * single flag check and no allocation on the hot path. Info and Debug events are enabled by default, Trace events need
+ * to be enabled explicitly, e.g. via a JFR configuration (N.B. the default follows the level of the first measure that
+ * has been created for a tag).
+ * <p>
+ * Duration measures use the native JFR event timing (i.e. also support the {@code threshold} and {@code stackTrace}
+ * settings), raw time measurements are recorded with their elapsed time in the {@value #FIELD_ELAPSED} field and value
+ * measures (gauges) with their value in the {@value #FIELD_VALUE} field. N.B. a tag must thus not be used for both time
+ * and value measures.
+ * The {@value #CONFIGURATION_PRESET} preset (see {@link #getConfiguration()}) combines these with a low-overhead
+ * selection of GC, safepoint, locking and CPU events, {@link JfrFrameTimeParser} computes per-stage frame-time
+ * breakdowns from the resulting recordings.
+ * <p>
+ * Usage example:
+ *
+ * <pre>
+ * {@code
+ * try (Recording recording = JfrRecorder.startRecording(Path.of("chart.jfr"))) {
+ *     chart.setRecorder(new JfrRecorder());
+ *     // [..]
+ * }
+ * System.out.println(JfrFrameTimeParser.summarize(JfrFrameTimeParser.parse(Path.of("chart.jfr"))));
+ * }
+ * </pre>
+ */
+public class JfrRecorder implements MeasurementRecorder {
+    public static final String EVENT_NAME_PREFIX = "io.fair_acc.chartfx.";
+    public static final String CATEGORY = "Chart-fx";
+    public static final String CONFIGURATION_PRESET = "chartfx.jfc";
+    public static final String FIELD_TAG = "tag";
+    public static final String FIELD_LEVEL = "level";
+    public static final String FIELD_ELAPSED = "elapsed";
+    public static final String FIELD_VALUE = "value";
+    private static final Map<String, EventFactory> EVENT_FACTORIES = new ConcurrentHashMap<>();
+
+    @Override
+    public DurationMeasure newDuration(final String tag, final IntSupplier level) {
+        final int levelValue = level.getAsInt();
+        return new JfrDurationMeasure(getEventFactory(tag, levelValue), tag, levelValue);
+    }
+
+    @Override
+    public TimeMeasure newTime(final String tag, final IntSupplier level) {
+        final int levelValue = level.getAsInt();
+        return new JfrTimeMeasure(getEventFactory(tag, levelValue), tag, levelValue);
+    }
+
+    @Override
+    public ValueMeasure newValue(final String tag, final IntSupplier level) {
+        final int levelValue = level.getAsInt();
+        final EventFactory factory = getEventFactory(tag, levelValue, new ValueDescriptor(long.class, FIELD_VALUE, List.of(new AnnotationElement(Label.class, "Value"))));
+        final EventType eventType = factory.getEventType();
+        return value -> {
+            if (!eventType.isEnabled()) {
+                return;
+            }
+            final Event event = factory.newEvent();
+            event.set(0, tag);
+            event.set(1, levelValue);
+            event.set(2, value);
+            event.commit();
+        };
+    }
+
+    /**
+     * @return the {@value #CONFIGURATION_PRESET} JFR configuration preset
+     * @throws IOException if the preset cannot be read
+     * @throws ParseException if the preset is malformed
+     */
+    public static Configuration getConfiguration() throws IOException, ParseException {
+        try (InputStream in = JfrRecorder.class.getResourceAsStream(CONFIGURATION_PRESET)) {
+            if (in == null) {
+                throw new IOException("could not find configuration preset " + CONFIGURATION_PRESET);
+            }
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return Configuration.create(reader);
+            }
+        }
+    }
+
+    /**
+     * @param tag measurement tag
+     * @return the JFR event name used for the given tag
+     */
+    public static String getEventName(final String tag) {
+        AssertUtils.notNull("tag", tag);
+        final StringBuilder builder = new StringBuilder(EVENT_NAME_PREFIX.length() + tag.length() + 4).append(EVENT_NAME_PREFIX);
+        boolean segmentStart = true;
+        for (int i = 0; i < tag.length(); i++) {
+            final char c = tag.charAt(i);
+            if (c == '-' || c == '.') {
+                if (!segmentStart) {
+                    builder.append('.');
+                    segmentStart = true;
+                }
+                continue;
+            }
+            if (segmentStart && !Character.isJavaIdentifierStart(c)) {
+                builder.append('_');
+            }
+            builder.append(Character.isJavaIdentifierPart(c) ? c : '_');
+            segmentStart = false;
+        }
+        if (builder.length() == EVENT_NAME_PREFIX.length()) {
+            builder.append('_'); // N.B. empty tag
+        } else if (segmentStart) {
+            builder.setLength(builder.length() - 1); // N.B. trailing separator
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Starts a recording using the {@value #CONFIGURATION_PRESET} preset. The data is written to the destination when
+     * the recording is stopped or closed.
+     *
+     * @param destination the output file
+     * @return the started recording
+     * @throws IOException if the preset cannot be read or the destination cannot be written
+     * @throws ParseException if the preset is malformed
+     */
+    public static Recording startRecording(final Path destination) throws IOException, ParseException {
+        final Recording recording = new Recording(getConfiguration());
+        recording.setName("chartfx");
+        recording.setToDisk(true);
+        recording.setDestination(destination);
+        recording.start();
+        return recording;
+    }
+
+    private static EventFactory getEventFactory(final String tag, final int level) {
+        return getEventFactory(tag, level, new ValueDescriptor(long.class, FIELD_ELAPSED, List.of(new AnnotationElement(Label.class, "Elapsed"), new AnnotationElement(Timespan.class, Timespan.NANOSECONDS))));
+    }
+
+    private static EventFactory getEventFactory(final String tag, final int level, final ValueDescriptor valueField) {
+        final String name = getEventName(tag);
+        // N.B. one event type per name: JFR does not distinguish event types registered under the same name
+        return EVENT_FACTORIES.computeIfAbsent(name, key -> {
+            final List<AnnotationElement> annotations = Arrays.asList( //
+                    new AnnotationElement(Name.class, name), //
+                    new AnnotationElement(Label.class, tag), //
+                    new AnnotationElement(Description.class, "chart-fx '" + tag + "' measurement"), //
+                    new AnnotationElement(Category.class, new String[] { CATEGORY }), //
+                    new AnnotationElement(Enabled.class, level <= BenchLevel.Debug.getAsInt()), //
+                    new AnnotationElement(StackTrace.class, false));
+            final List<ValueDescriptor> fields = Arrays.asList( //
+                    new ValueDescriptor(String.class, FIELD_TAG, List.of(new AnnotationElement(Label.class, "Tag"))), //
+                    new ValueDescriptor(int.class, FIELD_LEVEL, List.of(new AnnotationElement(Label.class, "Level"))), //
+                    valueField);
+            final EventFactory factory = EventFactory.create(annotations, fields);
+            factory.register();
+            return factory;
+        });
+    }
+
+    static class JfrDurationMeasure implements DurationMeasure {
+        private final EventFactory factory;
+        private final EventType eventType;
+        private final String tag;
+        private final int level;
+        private Event event;
+        private long startTime;
+        private boolean started;
+        private boolean ignoreMissingStart;
+
+        JfrDurationMeasure(final EventFactory factory, final String tag, final int level) {
+            this.factory = factory;
+            this.eventType = factory.getEventType();
+            this.tag = tag;
+            this.level = level;
+        }
+
+        @Override
+        public DurationMeasure ignoreMissingStart() {
+            ignoreMissingStart = true;
+            return this;
+        }
+
+        @Override
+        public void start() {
+            started = true;
+            if (!eventType.isEnabled()) {
+                event = null;
+                return;
+            }
+            event = factory.newEvent();
+            event.begin();
+            startTime = System.nanoTime();
+        }
+
+        @Override
+        public void stop() {
+            if (!started) {
+                if (ignoreMissingStart) {
+                    return;
+                }
+                throw new IllegalStateException("Invalid start time. start() must be called before stop()");
+            }
+            started = false;
+            if (event == null) {
+                return;
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.set(0, tag);
+                event.set(1, level);
+                event.set(2, System.nanoTime() - startTime);
+                event.commit();
+            }
+            event = null;
+        }
+    }
+
+    static class JfrTimeMeasure implements TimeMeasure {
+        private final EventFactory factory;
+        private final EventType eventType;
+        private final String tag;
+        private final int level;
+
+        JfrTimeMeasure(final EventFactory factory, final String tag, final int level) {
+            this.factory = factory;
+            this.eventType = factory.getEventType();
+            this.tag = tag;
+            this.level = level;
+        }
+
+        @Override
+        public void recordTime(final TimeUnit unit, final long time) {
+            if (!eventType.isEnabled()) {
+                return;
+            }
+            final Event event = factory.newEvent();
+            event.set(0, tag);
+            event.set(1, level);
+            event.set(2, unit.toNanos(time));
+            event.commit();
+        }
+    }
+}
@@ -19,6 +19,16 @@ public interface MeasurementRecorders {
         return HdrHistogramRecorder.createStarted(fileName, 1, TimeUnit.SECONDS);
     }
 
+    /**
+     * A near zero-overhead recorder that emits JDK Flight Recorder events, see {@link JfrRecorder#startRecording} and
+     * {@link JfrFrameTimeParser} for recording and analysing them
+     *
+     * @return recorder
+     */
+    static JfrRecorder newJfr() {
+        return new JfrRecorder();
+    }
+
     /**
      * A recorder that creates a chart in a new stage and displays measurements in real time
      *
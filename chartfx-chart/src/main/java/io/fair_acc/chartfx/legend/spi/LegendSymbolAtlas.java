@@ -0,0 +1,213 @@
+package io.fair_acc.chartfx.legend.spi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImagePattern;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+
+import io.fair_acc.chartfx.marker.Marker;
+import io.fair_acc.chartfx.ui.css.DataSetNode;
+import io.fair_acc.dataset.utils.AssertUtils;
+
+/**
+ * A single image containing the legend symbols of a set of {@link DataSetNode}s. Data sets that share the same renderer
+ * and drawing style (line/marker colour, width, dashes, fill pattern, marker type) share the same cell, so that the
+ * number of drawn symbols is bounded by the number of distinct styles rather than by the number of data sets.
+ * Subclasses of {@link DataSetNode} (e.g. with additional style properties) always get a cell of their own.
+ * <p>
+ * N.B. needs to be updated on the JavaFX application thread.
+ */
+public class LegendSymbolAtlas {
+    private final Canvas scratch = new Canvas();
+    private final SnapshotParameters snapshotParameters = new SnapshotParameters();
+    private final Map<StyleKey, Integer> styleCells = new HashMap<>();
+    private final Map<DataSetNode, Integer> nodeCells = new IdentityHashMap<>();
+    private final List<DataSetNode> representatives = new ArrayList<>();
+    private final BitSet hiddenCells = new BitSet();
+    private WritableImage image;
+    private WritableImage cellImage;
+    private int symbolWidth;
+    private int symbolHeight;
+    private int columns = 1;
+    private long updateCount;
+
+    public LegendSymbolAtlas() {
+        snapshotParameters.setFill(Color.TRANSPARENT);
+    }
+
+    /**
+     * @return the atlas image, {@code null} before the first update
+     */
+    public Image getImage() {
+        return image;
+    }
+
+    /**
+     * @return number of distinct symbols (cells) in the atlas
+     */
+    public int getSymbolCount() {
+        return representatives.size();
+    }
+
+    /**
+     * @return number of atlas updates (for diagnostics)
+     */
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
+    /**
+     * @param node data set node
+     * @return the atlas region of the node's symbol, {@code null} if the node is unknown or its renderer does not draw
+     *         a legend symbol
+     */
+    public Rectangle2D getViewport(final DataSetNode node) {
+        final Integer cell = nodeCells.get(node);
+        if (cell == null || hiddenCells.get(cell)) {
+            return null;
+        }
+        return new Rectangle2D((double) (cell % columns) * symbolWidth, (double) (cell / columns) * symbolHeight, symbolWidth, symbolHeight);
+    }
+
+    /**
+     * Redraws the symbols of all distinct styles
+     *
+     * @param nodes data set nodes that should be represented in the atlas
+     * @param width symbol width in pixel
+     * @param height symbol height in pixel
+     * @return {@code true} if a new atlas image has been allocated, i.e. references to the previous image need to be
+     *         updated
+     */
+    public boolean update(final List<DataSetNode> nodes, final double width, final double height) {
+        AssertUtils.notNull("nodes", nodes);
+        updateCount++;
+        final int w = Math.max(1, (int) Math.ceil(width));
+        final int h = Math.max(1, (int) Math.ceil(height));
+
+        // deduplicate styles
+        styleCells.clear();
+        nodeCells.clear();
+        representatives.clear();
+        hiddenCells.clear();
+        for (final DataSetNode node : nodes) {
+            final StyleKey key = new StyleKey(node);
+            Integer cell = styleCells.get(key);
+            if (cell == null) {
+                cell = representatives.size();
+                styleCells.put(key, cell);
+                representatives.add(node);
+            }
+            nodeCells.put(node, cell);
+        }
+
+        // N.B. keep a square-ish atlas to stay well within the maximum texture size
+        final int nCells = Math.max(1, representatives.size());
+        columns = (int) Math.ceil(Math.sqrt(nCells));
+        final int rows = (nCells + columns - 1) / columns;
+        final boolean newImage = image == null || (int) image.getWidth() != columns * w || (int) image.getHeight() != rows * h;
+        if (newImage) {
+            image = new WritableImage(columns * w, rows * h);
+        }
+        if (cellImage == null || symbolWidth != w || symbolHeight != h) {
+            cellImage = new WritableImage(w, h);
+            scratch.setWidth(w);
+            scratch.setHeight(h);
+        }
+        symbolWidth = w;
+        symbolHeight = h;
+
+        final GraphicsContext gc = scratch.getGraphicsContext2D();
+        final PixelWriter writer = image.getPixelWriter();
+        for (int cell = 0; cell < representatives.size(); cell++) {
+            final DataSetNode node = representatives.get(cell);
+            gc.clearRect(0, 0, w, h);
+            if (!node.getRenderer().drawLegendSymbol(node, scratch)) {
+                hiddenCells.set(cell);
+                continue;
+            }
+            scratch.snapshot(snapshotParameters, cellImage);
+            writer.setPixels((cell % columns) * w, (cell / columns) * h, w, h, cellImage.getPixelReader(), 0, 0);
+        }
+        return newImage;
+    }
+
+    /**
+     * The style properties that determine the legend symbol of a data set
+     */
+    static final class StyleKey {
+        private final Object renderer;
+        private final Object node; // only for DataSetNode subclasses
+        private final Paint lineColor;
+        private final double lineWidth;
+        private final double[] lineDashes;
+        private final Object lineFill;
+        private final Paint markerColor;
+        private final Marker markerType;
+        private final double markerSize;
+        private final double markerLineWidth;
+        private final double[] markerLineDashes;
+        private final int hashCode;
+
+        StyleKey(final DataSetNode node) {
+            renderer = node.getRenderer();
+            this.node = node.getClass() == DataSetNode.class ? null : node;
+            lineColor = node.getLineColor();
+            lineWidth = node.getLineWidth();
+            lineDashes = node.getLineDashes();
+            lineFill = getFillKey(node.getLineFillPattern());
+            markerColor = node.getMarkerColor();
+            markerType = node.getMarkerType();
+            markerSize = node.getMarkerSize();
+            markerLineWidth = node.getMarkerLineWidth();
+            markerLineDashes = node.getMarkerLineDashes();
+            hashCode = Objects.hash(System.identityHashCode(renderer), System.identityHashCode(this.node), lineColor, lineWidth, Arrays.hashCode(lineDashes), lineFill, markerColor, markerType, markerSize, markerLineWidth, Arrays.hashCode(markerLineDashes));
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof StyleKey)) {
+                return false;
+            }
+            final StyleKey other = (StyleKey) obj;
+            return hashCode == other.hashCode && renderer == other.renderer && node == other.node && Objects.equals(lineColor, other.lineColor) //
+                    && Double.compare(lineWidth, other.lineWidth) == 0 && Arrays.equals(lineDashes, other.lineDashes) && Objects.equals(lineFill, other.lineFill) //
+                    && Objects.equals(markerColor, other.markerColor) && Objects.equals(markerType, other.markerType) && Double.compare(markerSize, other.markerSize) == 0 //
+                    && Double.compare(markerLineWidth, other.markerLineWidth) == 0 && Arrays.equals(markerLineDashes, other.markerLineDashes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        private static Object getFillKey(final Paint paint) {
+            if (!(paint instanceof ImagePattern)) {
+                return paint;
+            }
+            // N.B. hatch patterns are created per data set with an index-dependent offset
+            // but share the (cached) image, which is compared by identity
+            final ImagePattern pattern = (ImagePattern) paint;
+            final double x = pattern.isProportional() || pattern.getWidth() <= 0 ? pattern.getX() : pattern.getX() % pattern.getWidth();
+            final double y = pattern.isProportional() || pattern.getHeight() <= 0 ? pattern.getY() : pattern.getY() % pattern.getHeight();
+            return Arrays.asList(pattern.getImage(), x, y, pattern.getWidth(), pattern.getHeight(), pattern.isProportional());
+        }
+    }
+}
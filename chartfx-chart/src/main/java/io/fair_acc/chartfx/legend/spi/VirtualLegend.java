@@ -0,0 +1,274 @@
+package io.fair_acc.chartfx.legend.spi;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.beans.InvalidationListener;
+import javafx.css.CssMetaData;
+import javafx.css.PseudoClass;
+import javafx.css.Styleable;
+import javafx.css.StyleableDoubleProperty;
+import javafx.css.StyleableIntegerProperty;
+import javafx.css.StyleableObjectProperty;
+import javafx.geometry.Orientation;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.image.ImageView;
+
+import io.fair_acc.chartfx.legend.Legend;
+import io.fair_acc.chartfx.renderer.Renderer;
+import io.fair_acc.chartfx.ui.css.CssPropertyFactory;
+import io.fair_acc.chartfx.ui.css.DataSetNode;
+import io.fair_acc.chartfx.ui.css.StyleUtil;
+import io.fair_acc.chartfx.ui.geometry.Side;
+import io.fair_acc.chartfx.utils.PropUtil;
+
+/**
+ * A chart legend for charts with many (thousands of) data sets.
+ * <p>
+ * In contrast to the {@link DefaultLegend}, which creates a label and a symbol canvas per data set and redraws all
+ * symbols on every layout pass, this legend
+ * <ul>
+ * <li>is virtualised, i.e. rows are recycled and the number of nodes is bounded by the number of visible rows,</li>
+ * <li>draws the symbols once per distinct style into a shared {@link LegendSymbolAtlas} image that is referenced by
+ * the rows via an image viewport, and</li>
+ * <li>only redraws the atlas when the legend content or the style of a {@link DataSetNode} changes.</li>
+ * </ul>
+ * Clicking a row toggles the visibility of the corresponding data set.
+ */
+public class VirtualLegend extends ListView<DataSetNode> implements Legend {
+    private static final PseudoClass disabledClass = PseudoClass.getPseudoClass("disabled");
+    private static final double DEFAULT_ROW_PADDING = 6.0;
+
+    private final StyleableObjectProperty<Side> side = CSS.createSideProperty(this, Side.BOTTOM);
+    private final StyleableDoubleProperty symbolWidth = CSS.createDoubleProperty(this, "symbolWidth", 20, this::invalidateSymbols);
+    private final StyleableDoubleProperty symbolHeight = CSS.createDoubleProperty(this, "symbolHeight", 20, this::invalidateSymbols);
+    private final StyleableIntegerProperty maxVisibleRows = CSS.createIntegerProperty(this, "maxVisibleRows", 10, this::requestLayout);
+    private final LegendSymbolAtlas atlas = new LegendSymbolAtlas();
+    private final List<DataSetNode> nodes = new ArrayList<>();
+    private final List<DataSetNode> tmpItems = new ArrayList<>();
+    private final InvalidationListener styleListener = obs -> invalidateSymbols();
+    private final InvalidationListener nameListener = obs -> cellsDirty = true;
+    private boolean symbolsDirty = true;
+    private boolean cellsDirty;
+
+    public VirtualLegend() {
+        StyleUtil.addStyles(this, "chart-legend", "chart-virtual-legend");
+        setOrientation(Orientation.HORIZONTAL);
+        setFocusTraversable(false);
+        setCellFactory(list -> new LegendCell());
+        PropUtil.runOnChange(this::applyCss, sideProperty());
+    }
+
+    @Override
+    public void drawLegend() {
+        if (symbolsDirty) {
+            symbolsDirty = false;
+            cellsDirty = false;
+            tmpItems.clear();
+            for (final DataSetNode node : nodes) {
+                if (node.getRenderer().showInLegend() && node.isShowInLegend()) {
+                    tmpItems.add(node);
+                }
+            }
+            if (!tmpItems.equals(getItems())) {
+                getItems().setAll(tmpItems);
+            }
+            atlas.update(tmpItems, getSymbolWidth(), getSymbolHeight());
+            refresh();
+        } else if (cellsDirty) {
+            cellsDirty = false;
+            refresh();
+        }
+    }
+
+    /**
+     * @return the shared symbol atlas
+     */
+    public LegendSymbolAtlas getAtlas() {
+        return atlas;
+    }
+
+    @Override
+    public List<CssMetaData<? extends Styleable, ?>> getControlCssMetaData() {
+        return getClassCssMetaData();
+    }
+
+    /**
+     * @return maximum number of rows that determine the preferred height of a vertical legend
+     */
+    public int getMaxVisibleRows() {
+        return maxVisibleRows.get();
+    }
+
+    @Override
+    public Node getNode() {
+        return this;
+    }
+
+    @Override
+    public Side getSide() {
+        return side.get();
+    }
+
+    public double getSymbolHeight() {
+        return symbolHeight.get();
+    }
+
+    public double getSymbolWidth() {
+        return symbolWidth.get();
+    }
+
+    @Override
+    public final boolean isVertical() {
+        return getOrientation() == Orientation.VERTICAL;
+    }
+
+    public StyleableIntegerProperty maxVisibleRowsProperty() {
+        return maxVisibleRows;
+    }
+
+    public void setMaxVisibleRows(final int rows) {
+        maxVisibleRows.set(rows);
+    }
+
+    @Override
+    public void setSide(final Side side) {
+        this.side.set(side);
+    }
+
+    public void setSymbolHeight(final double height) {
+        symbolHeight.set(height);
+    }
+
+    public void setSymbolWidth(final double width) {
+        symbolWidth.set(width);
+    }
+
+    @Override
+    public final void setVertical(final boolean vertical) {
+        setOrientation(vertical ? Orientation.VERTICAL : Orientation.HORIZONTAL);
+    }
+
+    public StyleableObjectProperty<Side> sideProperty() {
+        return side;
+    }
+
+    public StyleableDoubleProperty symbolHeightProperty() {
+        return symbolHeight;
+    }
+
+    public StyleableDoubleProperty symbolWidthProperty() {
+        return symbolWidth;
+    }
+
+    @Override
+    public void updateLegend(final List<Renderer> renderers, final boolean forceUpdate) {
+        for (final DataSetNode node : nodes) {
+            node.changeCounterProperty().removeListener(styleListener);
+            node.nameProperty().removeListener(nameListener);
+        }
+        nodes.clear();
+        for (final Renderer renderer : renderers) {
+            for (final DataSetNode node : renderer.getDatasetNodes()) {
+                node.changeCounterProperty().addListener(styleListener);
+                node.nameProperty().addListener(nameListener);
+                nodes.add(node);
+            }
+        }
+        // N.B. renderer settings (e.g. the error style) may have changed as well
+        invalidateSymbols();
+    }
+
+    @Override
+    protected double computePrefHeight(final double width) {
+        // legend prefHeight is zero if there are no legend items
+        if (getItems().isEmpty()) {
+            return 0;
+        }
+        final double insets = snappedTopInset() + snappedBottomInset();
+        if (isVertical()) {
+            return insets + Math.min(getItems().size(), Math.max(1, getMaxVisibleRows())) * getRowHeight();
+        }
+        double scrollBarHeight = 0.0;
+        for (final Node node : lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.HORIZONTAL && node.isVisible()) {
+                scrollBarHeight = Math.max(scrollBarHeight, node.prefHeight(-1));
+            }
+        }
+        return insets + getRowHeight() + scrollBarHeight;
+    }
+
+    @Override
+    protected double computePrefWidth(final double height) {
+        // legend prefWidth is zero if there are no legend items
+        return getItems().isEmpty() ? 0 : super.computePrefWidth(height);
+    }
+
+    private double getRowHeight() {
+        if (getFixedCellSize() > 0 && isVertical()) {
+            return getFixedCellSize();
+        }
+        double rowHeight = 0.0;
+        for (final Node cell : lookupAll(".chart-legend-item")) {
+            rowHeight = Math.max(rowHeight, cell.prefHeight(-1));
+        }
+        return rowHeight > 0 ? rowHeight : getSymbolHeight() + DEFAULT_ROW_PADDING;
+    }
+
+    private void invalidateSymbols() {
+        symbolsDirty = true;
+    }
+
+    public static List<CssMetaData<? extends Styleable, ?>> getClassCssMetaData() {
+        return CSS.getCssMetaData();
+    }
+
+    private static final CssPropertyFactory<VirtualLegend> CSS = new CssPropertyFactory<>(ListView.getClassCssMetaData());
+
+    /**
+     * A recycled row of the legend
+     */
+    protected class LegendCell extends ListCell<DataSetNode> {
+        private final ImageView symbol = new ImageView();
+
+        public LegendCell() {
+            StyleUtil.addStyles(this, "chart-legend-item");
+            setOnMouseClicked(event -> {
+                final DataSetNode series = getItem();
+                if (series != null) {
+                    series.setVisible(!series.isVisible());
+                }
+            });
+        }
+
+        @Override
+        public void updateSelected(final boolean selected) {
+            super.updateSelected(false); // legend rows are not selectable
+        }
+
+        @Override
+        protected void updateItem(final DataSetNode series, final boolean empty) {
+            super.updateItem(series, empty);
+            if (empty || series == null) {
+                setText(null);
+                setGraphic(null);
+                pseudoClassStateChanged(disabledClass, false);
+                return;
+            }
+            setText(series.getName());
+            final Rectangle2D viewport = atlas.getViewport(series);
+            if (viewport == null) {
+                setGraphic(null);
+            } else {
+                symbol.setImage(atlas.getImage());
+                symbol.setViewport(viewport);
+                setGraphic(symbol);
+            }
+            pseudoClassStateChanged(disabledClass, !series.isVisible());
+        }
+    }
+}
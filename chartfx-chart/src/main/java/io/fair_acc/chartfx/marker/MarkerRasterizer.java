@@ -0,0 +1,352 @@
+package io.fair_acc.chartfx.marker;
+
+import java.nio.IntBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Software rasteriser and sprite atlas for the {@link DefaultMarker} shapes.
+ * <p>
+ * Each marker type, size and line width is rasterised once into an anti-aliased coverage mask for each of the
+ * {@code SUB_PIXEL_STEPS x SUB_PIXEL_STEPS} sub-pixel offsets. The masks are colour independent and are blended
+ * into a premultiplied ARGB pixel buffer using the (non-premultiplied) per-point colour. This permits drawing a large number of markers
+ * without issuing a GraphicsContext command per point.
+ * <p>
+ * N.B. Only the {@link DefaultMarker} shapes are supported. Callers are expected to fall back to
+ * {@link Marker#draw} for other (user-defined) marker implementations.
+ */
+public class MarkerRasterizer {
+    public static final int SUB_PIXEL_STEPS = 4;
+    public static final int DEFAULT_MAX_ATLAS_SIZE = 128;
+    private static final int SUPER_SAMPLING = 8;
+    private static final double QUANTISATION = 8.0; // 1/8 px resolution for sizes and line widths
+    private static final double SQRT2 = Math.sqrt(2.0);
+    private final Map<SpriteKey, Sprite[]> atlas = new LinkedHashMap<>(16, 0.75f, true);
+    private int maxAtlasSize = DEFAULT_MAX_ATLAS_SIZE;
+    private SpriteKey lastKey;
+    private Sprite[] lastSprites;
+
+    /**
+     * clears all cached sprites
+     */
+    public void clear() {
+        atlas.clear();
+        lastKey = null;
+        lastSprites = null;
+    }
+
+    /**
+     * @return number of marker type/size/line-width combinations currently kept in the atlas
+     */
+    public int getAtlasSize() {
+        return atlas.size();
+    }
+
+    /**
+     * @return maximum number of marker type/size/line-width combinations kept in the atlas
+     */
+    public int getMaxAtlasSize() {
+        return maxAtlasSize;
+    }
+
+    /**
+     * @param maxAtlasSize maximum number of marker type/size/line-width combinations kept in the atlas (least recently
+     *            used entries are evicted first)
+     */
+    public void setMaxAtlasSize(final int maxAtlasSize) {
+        if (maxAtlasSize <= 0) {
+            throw new IllegalArgumentException("maxAtlasSize must be positive: " + maxAtlasSize);
+        }
+        this.maxAtlasSize = maxAtlasSize;
+        evict();
+    }
+
+    /**
+     * @param marker the marker type
+     * @param size the marker size (half-width) in pixels
+     * @param lineWidth the stroke width for the outline type markers in pixels
+     * @return the sprite variants for all sub-pixel offsets, indexed by {@code subY * SUB_PIXEL_STEPS + subX}
+     */
+    public Sprite[] getSprites(final DefaultMarker marker, final double size, final double lineWidth) {
+        final SpriteKey key = new SpriteKey(Objects.requireNonNull(marker, "marker"), //
+                quantise(size), quantise(lineWidth));
+        if (key.equals(lastKey)) {
+            return lastSprites;
+        }
+        Sprite[] sprites = atlas.get(key);
+        if (sprites == null) {
+            sprites = new Sprite[SUB_PIXEL_STEPS * SUB_PIXEL_STEPS];
+            for (int subY = 0; subY < SUB_PIXEL_STEPS; subY++) {
+                for (int subX = 0; subX < SUB_PIXEL_STEPS; subX++) {
+                    sprites[subY * SUB_PIXEL_STEPS + subX] = rasterize(marker, key.size / QUANTISATION, key.lineWidth / QUANTISATION, //
+                            (double) subX / SUB_PIXEL_STEPS, (double) subY / SUB_PIXEL_STEPS);
+                }
+            }
+            atlas.put(key, sprites);
+            evict();
+        }
+        lastKey = key;
+        lastSprites = sprites;
+        return sprites;
+    }
+
+    /**
+     * @param marker marker to be checked
+     * @return {@code true} if the marker is drawn using the stroke rather than the fill paint
+     */
+    public static boolean isOutline(final Marker marker) {
+        if (!(marker instanceof DefaultMarker)) {
+            return false;
+        }
+        switch ((DefaultMarker) marker) {
+        case CIRCLE2:
+        case CROSS:
+        case DIAMOND2:
+        case PLUS:
+        case RECTANGLE2:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * @param marker marker to be checked
+     * @return {@code true} if the marker shape can be rasterised by this class
+     */
+    public static boolean isSupported(final Marker marker) {
+        return marker instanceof DefaultMarker;
+    }
+
+    /**
+     * Blends the sprite centred on the given pixel position into the premultiplied ARGB target buffer.
+     *
+     * @param target premultiplied ARGB pixel buffer (row-major)
+     * @param stride number of pixels per row in the target buffer
+     * @param clip the clip rectangle {xMin, yMin, xMax, yMax} in buffer pixels, max values being exclusive
+     * @param sprites the sprite variants as returned by {@link #getSprites}
+     * @param x horizontal marker centre in buffer pixels
+     * @param y vertical marker centre in buffer pixels
+     * @param argb non-premultiplied ARGB colour
+     */
+    public static void blend(final IntBuffer target, final int stride, final int[] clip, final Sprite[] sprites, final double x, final double y, final int argb) {
+        final int quantX = (int) Math.round(x * SUB_PIXEL_STEPS);
+        final int quantY = (int) Math.round(y * SUB_PIXEL_STEPS);
+        final Sprite sprite = sprites[Math.floorMod(quantY, SUB_PIXEL_STEPS) * SUB_PIXEL_STEPS + Math.floorMod(quantX, SUB_PIXEL_STEPS)];
+        final int x0 = Math.floorDiv(quantX, SUB_PIXEL_STEPS) + sprite.offsetX;
+        final int y0 = Math.floorDiv(quantY, SUB_PIXEL_STEPS) + sprite.offsetY;
+
+        final int colMin = Math.max(0, clip[0] - x0);
+        final int colMax = Math.min(sprite.width, clip[2] - x0);
+        final int rowMin = Math.max(0, clip[1] - y0);
+        final int rowMax = Math.min(sprite.height, clip[3] - y0);
+        if (colMin >= colMax || rowMin >= rowMax) {
+            return;
+        }
+
+        final int alpha = argb >>> 24;
+        final int red = (argb >> 16) & 0xFF;
+        final int green = (argb >> 8) & 0xFF;
+        final int blue = argb & 0xFF;
+        final byte[] coverage = sprite.coverage;
+        for (int row = rowMin; row < rowMax; row++) {
+            final int srcOffset = row * sprite.width;
+            final int dstOffset = (y0 + row) * stride + x0;
+            for (int col = colMin; col < colMax; col++) {
+                final int cov = coverage[srcOffset + col] & 0xFF;
+                if (cov == 0) {
+                    continue;
+                }
+                final int srcA = div255(alpha * cov);
+                if (srcA == 0) {
+                    continue;
+                }
+                final int index = dstOffset + col;
+                if (srcA == 0xFF) {
+                    target.put(index, argb | 0xFF000000);
+                    continue;
+                }
+                final int dst = target.get(index);
+                final int inv = 0xFF - srcA;
+                final int outA = srcA + div255((dst >>> 24) * inv);
+                final int outR = div255(red * srcA) + div255(((dst >> 16) & 0xFF) * inv);
+                final int outG = div255(green * srcA) + div255(((dst >> 8) & 0xFF) * inv);
+                final int outB = div255(blue * srcA) + div255((dst & 0xFF) * inv);
+                target.put(index, (outA << 24) | (outR << 16) | (outG << 8) | outB);
+            }
+        }
+    }
+
+    /**
+     * Computes the anti-aliased coverage mask of a marker shape.
+     *
+     * @param marker the marker type
+     * @param size the marker size (half-width) in pixels
+     * @param lineWidth the stroke width for the outline type markers in pixels
+     * @param subPixelX horizontal sub-pixel offset of the marker centre [0, 1)
+     * @param subPixelY vertical sub-pixel offset of the marker centre [0, 1)
+     * @return the rasterised sprite
+     */
+    public static Sprite rasterize(final DefaultMarker marker, final double size, final double lineWidth, final double subPixelX, final double subPixelY) {
+        final double halfWidth = 0.5 * lineWidth;
+        final int extent = (int) Math.ceil(size + SQRT2 * halfWidth) + 1;
+        final int width = 2 * extent + 1;
+        final byte[] coverage = new byte[width * width];
+        final double centreX = extent + subPixelX;
+        final double centreY = extent + subPixelY;
+        final int nSamples = SUPER_SAMPLING * SUPER_SAMPLING;
+        for (int row = 0; row < width; row++) {
+            for (int col = 0; col < width; col++) {
+                int hits = 0;
+                for (int sy = 0; sy < SUPER_SAMPLING; sy++) {
+                    final double dy = row + (sy + 0.5) / SUPER_SAMPLING - centreY;
+                    for (int sx = 0; sx < SUPER_SAMPLING; sx++) {
+                        final double dx = col + (sx + 0.5) / SUPER_SAMPLING - centreX;
+                        if (isInside(marker, dx, dy, size, halfWidth)) {
+                            hits++;
+                        }
+                    }
+                }
+                coverage[row * width + col] = (byte) ((hits * 0xFF + nSamples / 2) / nSamples);
+            }
+        }
+        return new Sprite(-extent, -extent, width, width, coverage);
+    }
+
+    private void evict() {
+        while (atlas.size() > maxAtlasSize) {
+            final SpriteKey eldest = atlas.keySet().iterator().next();
+            atlas.remove(eldest);
+            if (eldest.equals(lastKey)) {
+                lastKey = null;
+                lastSprites = null;
+            }
+        }
+    }
+
+    private static int div255(final int value) {
+        // exact rounded division by 255 for 0 <= value <= 255*255
+        final int tmp = value + 128;
+        return (tmp + (tmp >> 8)) >> 8;
+    }
+
+    private static boolean isInside(final DefaultMarker marker, final double dx, final double dy, final double size, final double halfWidth) {
+        final double ax = Math.abs(dx);
+        final double ay = Math.abs(dy);
+        switch (marker) {
+        case DIAMOND:
+        case DIAMOND1:
+            return ax + ay <= size;
+        case DIAMOND2:
+            return Math.abs(ax + ay - size) <= SQRT2 * halfWidth;
+        case CIRCLE:
+        case CIRCLE1:
+            return dx * dx + dy * dy <= size * size;
+        case CIRCLE2:
+            return Math.abs(Math.sqrt(dx * dx + dy * dy) - size) <= halfWidth;
+        case CROSS:
+            // two diagonal strokes with square caps
+            final double along = SQRT2 * size + halfWidth;
+            return (Math.abs(dx - dy) <= SQRT2 * halfWidth && Math.abs(dx + dy) <= SQRT2 * along)
+                    || (Math.abs(dx + dy) <= SQRT2 * halfWidth && Math.abs(dx - dy) <= SQRT2 * along);
+        case PLUS:
+            // horizontal and vertical strokes with square caps
+            return (ax <= halfWidth && ay <= size + halfWidth) || (ay <= halfWidth && ax <= size + halfWidth);
+        case RECTANGLE2:
+            return ax <= size + halfWidth && ay <= size + halfWidth && (ax >= size - halfWidth || ay >= size - halfWidth);
+        case RECTANGLE:
+        case RECTANGLE1:
+        default:
+            return ax <= size && ay <= size;
+        }
+    }
+
+    private static int quantise(final double value) {
+        if (!Double.isFinite(value) || value < 0) {
+            throw new IllegalArgumentException("marker size and line width must be finite and non-negative: " + value);
+        }
+        return (int) Math.round(value * QUANTISATION);
+    }
+
+    /**
+     * Anti-aliased coverage mask of a single marker for a given sub-pixel offset
+     */
+    public static final class Sprite {
+        private final int offsetX;
+        private final int offsetY;
+        private final int width;
+        private final int height;
+        private final byte[] coverage;
+
+        private Sprite(final int offsetX, final int offsetY, final int width, final int height, final byte[] coverage) {
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+            this.width = width;
+            this.height = height;
+            this.coverage = coverage;
+        }
+
+        /**
+         * @param col column within the sprite
+         * @param row row within the sprite
+         * @return the coverage [0, 255] of the given sprite pixel
+         */
+        public int getCoverage(final int col, final int row) {
+            return coverage[row * width + col] & 0xFF;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        /**
+         * @return horizontal offset of the first sprite column w.r.t. the pixel containing the marker centre
+         */
+        public int getOffsetX() {
+            return offsetX;
+        }
+
+        /**
+         * @return vertical offset of the first sprite row w.r.t. the pixel containing the marker centre
+         */
+        public int getOffsetY() {
+            return offsetY;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+    }
+
+    private static final class SpriteKey {
+        private final DefaultMarker marker;
+        private final int size;
+        private final int lineWidth;
+        private final int hashCode;
+
+        private SpriteKey(final DefaultMarker marker, final int size, final int lineWidth) {
+            this.marker = marker;
+            this.size = size;
+            this.lineWidth = lineWidth;
+            this.hashCode = 31 * (31 * marker.hashCode() + size) + lineWidth;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof SpriteKey)) {
+                return false;
+            }
+            final SpriteKey other = (SpriteKey) obj;
+            return marker == other.marker && size == other.size && lineWidth == other.lineWidth;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
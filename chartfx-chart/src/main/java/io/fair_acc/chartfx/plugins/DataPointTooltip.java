@@ -3,10 +3,12 @@
  */
 package io.fair_acc.chartfx.plugins;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import javafx.beans.property.DoubleProperty;
@@ -67,6 +69,8 @@ public class DataPointTooltip extends AbstractDataFormattingPlugin {
     };
 
     private final EventHandler<MouseEvent> mouseMoveHandler = this::updateToolTip;
+    // screen-space indices for unsorted data sets, per renderer since the same data set may be drawn on other axes
+    private final Map<Renderer, Map<DataSet, ScreenSpaceIndex>> screenSpaceIndices = new IdentityHashMap<>();
 
     /**
      * Creates a new instance of DataPointTooltip class with {{@link #pickingDistanceProperty() picking distance}
@@ -108,11 +112,13 @@ public class DataPointTooltip extends AbstractDataFormattingPlugin {
 
         final XYChart xyChart = (XYChart) chart;
         final ObservableList<DataSet> xyChartDatasets = xyChart.getDatasets();
+        pruneScreenSpaceIndices(xyChart);
         return xyChart.getRenderers().stream() // for all renderers
                 .flatMap(renderer -> Stream.of(renderer.getDatasets(), xyChartDatasets) //
                                              .flatMap(List::stream) // combine global and renderer specific Datasets
                                              .flatMap(dataset -> getPointsCloseToCursor(dataset, renderer, mouseLocation))) // get points in range of cursor
-                .reduce((p1, p2) -> p1.distanceFromMouse <= p2.distanceFromMouse ? p1 : p2); // find closest point, tie-breaking in favor of earlier data sets to match rendering order
+                .reduce((p1, p2) -> p1.distanceFromMouse <= p2.distanceFromMouse ? p1 : p2) // find closest point, tie-breaking in favor of earlier data sets to match rendering order
+                .map(dataPoint -> dataPoint.withFormattedLabel(formatLabel(dataPoint))); // format only the winning point
     }
 
     protected Stream<DataPoint> getPointsCloseToCursor(final DataSet dataset, final Renderer renderer, final Point2D mouseLocation) {
@@ -123,30 +129,55 @@ public class DataPointTooltip extends AbstractDataFormattingPlugin {
             return Stream.empty(); // ignore this renderer because there are no valid axes available
         }
 
-        if (dataset instanceof GridDataSet) {
-            return Stream.empty(); // TODO: correct impl for grid data sets
-        }
-
         return dataset.lock().readLockGuard(() -> {
-            int minIdx = 0;
-            int maxIdx = dataset.getDataCount();
-
-            if (isDataSorted(renderer)) {
-                // get the screen x coordinates and dataset indices between which points can be in picking distance
-                final double xMin = xAxis.getValueForDisplay(mouseLocation.getX() - getPickingDistance());
-                final double xMax = xAxis.getValueForDisplay(mouseLocation.getX() + getPickingDistance());
+            final int index;
+            if (isDataSorted(renderer) && !(dataset instanceof GridDataSet)) {
+                index = findNearestSortedIndex(dataset, xAxis, yAxis, mouseLocation);
+            } else {
+                index = screenSpaceIndices.computeIfAbsent(renderer, r -> new IdentityHashMap<>()) //
+                                .computeIfAbsent(dataset, ds -> new ScreenSpaceIndex()) //
+                                .update(dataset, xAxis, yAxis, getPickingDistance()) //
+                                .findNearest(mouseLocation.getX(), mouseLocation.getY(), getPickingDistance());
+            }
+            if (index < 0) {
+                return Stream.<DataPoint>empty();
+            }
+            return Stream.of(getDataPointFromDataSet(renderer, dataset, xAxis, yAxis, mouseLocation, index));
+        });
+    }
 
-                minIdx = Math.max(0, dataset.getIndex(DataSet.DIM_X, xMin) - 1);
-                maxIdx = Math.min(dataset.getDataCount(), dataset.getIndex(DataSet.DIM_X, xMax) + 1);
+    private int findNearestSortedIndex(final DataSet dataset, final Axis xAxis, final Axis yAxis, final Point2D mouseLocation) {
+        // get the screen x coordinates and dataset indices between which points can be in picking distance
+        final double xMin = xAxis.getValueForDisplay(mouseLocation.getX() - getPickingDistance());
+        final double xMax = xAxis.getValueForDisplay(mouseLocation.getX() + getPickingDistance());
+
+        final int minIdx = Math.max(0, dataset.getIndex(DataSet.DIM_X, xMin) - 1);
+        final int maxIdx = Math.min(dataset.getDataCount(), dataset.getIndex(DataSet.DIM_X, xMax) + 1);
+        double minDistance = getPickingDistance();
+        int nearest = -1;
+        for (int i = minIdx; i < maxIdx; i++) {
+            final double distance = mouseLocation.distance(xAxis.getDisplayPosition(dataset.get(DataSet.DIM_X, i)), yAxis.getDisplayPosition(dataset.get(DataSet.DIM_Y, i)));
+            if (distance < minDistance || (nearest < 0 && distance <= minDistance)) {
+                minDistance = distance;
+                nearest = i;
             }
+        }
+        return nearest;
+    }
 
-            return IntStream.range(minIdx, maxIdx) // loop over all candidate points
-                    .mapToObj(i -> getDataPointFromDataSet(renderer, dataset, xAxis, yAxis, mouseLocation, i)) // get points with distance to mouse
-                    .filter(p -> p.distanceFromMouse <= getPickingDistance()) // filter out points which are too far away
-                    .map(dataPoint -> dataPoint.withFormattedLabel(formatLabel(dataPoint)))
-                    .collect(Collectors.toList()) // Realize list so that calculations are done within the data set lock
-                    .stream();
-        });
+    private void pruneScreenSpaceIndices(final XYChart chart) {
+        if (screenSpaceIndices.isEmpty()) {
+            return;
+        }
+        final Set<Renderer> renderers = Collections.newSetFromMap(new IdentityHashMap<>());
+        renderers.addAll(chart.getRenderers());
+        screenSpaceIndices.keySet().retainAll(renderers);
+        for (final Map.Entry<Renderer, Map<DataSet, ScreenSpaceIndex>> entry : screenSpaceIndices.entrySet()) {
+            final Set<DataSet> dataSets = Collections.newSetFromMap(new IdentityHashMap<>());
+            dataSets.addAll(entry.getKey().getDatasets());
+            dataSets.addAll(chart.getDatasets());
+            entry.getValue().keySet().retainAll(dataSets);
+        }
     }
 
     private boolean isDataSorted(final Renderer renderer) {
@@ -1,7 +1,11 @@
 package io.fair_acc.chartfx.plugins;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
@@ -55,6 +59,7 @@ import io.fair_acc.dataset.DataSet;
 import io.fair_acc.dataset.EditConstraints;
 import io.fair_acc.dataset.EditableDataSet;
 import io.fair_acc.dataset.events.ChartBits;
+import io.fair_acc.dataset.spi.fastutil.IntArrayList;
 
 /**
  *
@@ -77,6 +82,7 @@ public class EditDataSet extends TableViewer {
     protected final Predicate<MouseEvent> defaultSelectFilter = event -> MouseEventsHelper.isOnlyPrimaryButtonDown(event) && event.isControlDown() && isMouseEventWithinCanvas(event) && !isPointDragActive;
 
     protected final ConcurrentHashMap<EditableDataSet, ConcurrentHashMap<Integer, SelectedDataPoint>> markedPoints = new ConcurrentHashMap<>();
+    private final Map<DataSet, ScreenSpaceIndex> screenSpaceIndices = new IdentityHashMap<>();
     protected final Rectangle selectRectangle = new Rectangle();
     protected Point2D selectStartPoint;
     protected Point2D selectEndPoint;
@@ -297,30 +303,25 @@ public class EditDataSet extends TableViewer {
             }
             final EditableDataSet dataSet = (EditableDataSet) ds;
 
-            final int indexMin = Math.max(0, ds.getIndex(DataSet.DIM_X, xAxis.getValueForDisplay(xMinScreen)));
-            final int indexMax = Math.min(ds.getIndex(DataSet.DIM_X, xAxis.getValueForDisplay(xMaxScreen)) + 1,
-                    ds.getDataCount());
-
-            // N.B. (0,0) screen coordinate is in the top left corner vs. normal
-            // 0,0 in the bottom left -> need to invert limits
-            final double yMax = yAxis.getValueForDisplay(yMinScreen);
-            final double yMin = yAxis.getValueForDisplay(yMaxScreen);
+            // works for sorted and unsorted data, N.B. (0,0) screen coordinate is in the top left corner
+            final IntArrayList selected = dataSet.lock().readLockGuard(() -> //
+                    screenSpaceIndices.computeIfAbsent(dataSet, k -> new ScreenSpaceIndex()) //
+                            .update(dataSet, xAxis, yAxis, getPickingDistance()) //
+                            .findInRectangle(xMinScreen, yMinScreen, xMaxScreen, yMaxScreen, new IntArrayList()));
 
             final ConcurrentHashMap<Integer, SelectedDataPoint> dataSetHashMap = markedPoints.computeIfAbsent(dataSet,
                     k -> new ConcurrentHashMap<>());
-            for (int i = indexMin; i < indexMax; i++) {
-                final double y = dataSet.get(DataSet.DIM_Y, i);
-                if ((y >= yMin) && (y <= yMax)) {
-                    if (isShiftDown()) {
-                        // add if not existing/remove if existing
-                        if (dataSetHashMap.get(i) != null) {
-                            dataSetHashMap.remove(i);
-                        } else {
-                            dataSetHashMap.put(i, new SelectedDataPoint(xAxis, yAxis, dataSet, i));
-                        }
+            for (int k = 0; k < selected.size(); k++) {
+                final int i = selected.getInt(k);
+                if (isShiftDown()) {
+                    // add if not existing/remove if existing
+                    if (dataSetHashMap.get(i) != null) {
+                        dataSetHashMap.remove(i);
                     } else {
                         dataSetHashMap.put(i, new SelectedDataPoint(xAxis, yAxis, dataSet, i));
                     }
+                } else {
+                    dataSetHashMap.put(i, new SelectedDataPoint(xAxis, yAxis, dataSet, i));
                 }
             }
         }
@@ -592,6 +593,11 @@ public class EditDataSet extends TableViewer {
             markedPoints.clear();
         }
 
+        // drop the screen-space indices of data sets that are no longer attached
+        final Set<DataSet> dataSets = Collections.newSetFromMap(new IdentityHashMap<>());
+        dataSets.addAll(xyChart.getAllDatasets());
+        screenSpaceIndices.keySet().retainAll(dataSets);
+
         findDataPoint(xyChart.getFirstAxis(Orientation.HORIZONTAL), xyChart.getFirstAxis(Orientation.VERTICAL),
                 xyChart.getDatasets());
 
@@ -0,0 +1,354 @@
+package io.fair_acc.chartfx.plugins;
+
+import java.util.Arrays;
+
+import io.fair_acc.chartfx.axes.Axis;
+import io.fair_acc.dataset.DataSet;
+import io.fair_acc.dataset.GridDataSet;
+import io.fair_acc.dataset.events.IndexChangeLog;
+import io.fair_acc.dataset.spi.fastutil.IntArrayList;
+
+/**
+ * Lazily built screen-space index of the data points of a {@link DataSet} used for picking and rectangle selection of
+ * unsorted data.
+ * <p>
+ * The screen coordinates of all points are hashed into a uniform grid of square cells whose edge length corresponds
+ * to the typical query radius, so that a nearest-within-radius query only needs to inspect the few cells around the
+ * cursor. Points outside the visible axis ranges (plus one cell margin) are not indexed. The index is keyed to the
+ * current axis ranges and display lengths as well as to the {@link IndexChangeLog#getVersion() modification version}
+ * of the data set and is only rebuilt by {@link #update} if any of these have changed. Data sets that do not provide an
+ * {@link IndexChangeLog} cannot be tracked and are re-indexed on every update.
+ * <p>
+ * {@link GridDataSet}s are not hashed: their grid coordinates are sorted along each axis and only the two grid axes
+ * are converted to screen coordinates. The corresponding point indices are {@code ix + iy * nx}.
+ */
+public class ScreenSpaceIndex {
+    /** upper limit of the number of hash cells along each axis */
+    public static final int MAX_CELLS_PER_DIM = 1024;
+    private static final int CHUNK_SIZE = 4096;
+    private static final int KEY_LENGTH = 16;
+
+    private final double[] key = new double[KEY_LENGTH];
+    private final double[] newKey = new double[KEY_LENGTH];
+    private final double[] buffer = new double[CHUNK_SIZE];
+    private long version = -1;
+    private boolean valid;
+
+    // hashed points
+    private float[] screenX = new float[0];
+    private float[] screenY = new float[0];
+    private int[] cellStart = new int[0];
+    private int[] cellPoints = new int[0];
+    private int[] cellFill = new int[0];
+    private int nPoints;
+    private int nCellsX;
+    private int nCellsY;
+    private double cellSize;
+    private double originX;
+    private double originY;
+
+    // grid data sets
+    private boolean isGrid;
+    private double[] gridScreenX = new double[0];
+    private double[] gridScreenY = new double[0];
+    private int nGridX;
+    private int nGridY;
+
+    /**
+     * Finds the data point closest to the given screen location.
+     *
+     * @param x horizontal screen coordinate
+     * @param y vertical screen coordinate
+     * @param maxDistance maximum distance (inclusive) in screen coordinates
+     * @return index of the closest data point or -1 if there is no point within the given distance. Ties are resolved
+     *         in favour of the lower index.
+     */
+    public int findNearest(final double x, final double y, final double maxDistance) {
+        if (!valid || !(maxDistance >= 0)) {
+            return -1;
+        }
+        if (isGrid) {
+            return findNearestOnGrid(x, y, maxDistance);
+        }
+
+        final int cx0 = clamp(cellIndex(x - maxDistance, originX), nCellsX);
+        final int cx1 = clamp(cellIndex(x + maxDistance, originX), nCellsX);
+        final int cy0 = clamp(cellIndex(y - maxDistance, originY), nCellsY);
+        final int cy1 = clamp(cellIndex(y + maxDistance, originY), nCellsY);
+        final double maxDistance2 = maxDistance * maxDistance;
+        double best = Double.POSITIVE_INFINITY;
+        int bestIndex = -1;
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                final int cell = cy * nCellsX + cx;
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    final int index = cellPoints[k];
+                    final double dx = screenX[index] - x;
+                    final double dy = screenY[index] - y;
+                    final double distance2 = dx * dx + dy * dy;
+                    if (distance2 <= maxDistance2 && (distance2 < best || (distance2 == best && index < bestIndex))) {
+                        best = distance2;
+                        bestIndex = index;
+                    }
+                }
+            }
+        }
+        return bestIndex;
+    }
+
+    /**
+     * Finds all data points within the given screen rectangle (inclusive boundaries).
+     *
+     * @param minX minimum horizontal screen coordinate
+     * @param minY minimum vertical screen coordinate
+     * @param maxX maximum horizontal screen coordinate
+     * @param maxY maximum vertical screen coordinate
+     * @param result storage for the ascending indices of the selected points, cleared before use
+     * @return the result list
+     */
+    public IntArrayList findInRectangle(final double minX, final double minY, final double maxX, final double maxY, final IntArrayList result) {
+        if (result == null) {
+            throw new IllegalArgumentException("result must not be null");
+        }
+        result.clear();
+        if (!valid) {
+            return result;
+        }
+        if (isGrid) {
+            for (int iy = 0; iy < nGridY; iy++) {
+                if (gridScreenY[iy] < minY || gridScreenY[iy] > maxY) {
+                    continue;
+                }
+                for (int ix = 0; ix < nGridX; ix++) {
+                    if (gridScreenX[ix] >= minX && gridScreenX[ix] <= maxX) {
+                        result.add(ix + iy * nGridX);
+                    }
+                }
+            }
+            return result;
+        }
+
+        final int cx0 = clamp(cellIndex(minX, originX), nCellsX);
+        final int cx1 = clamp(cellIndex(maxX, originX), nCellsX);
+        final int cy0 = clamp(cellIndex(minY, originY), nCellsY);
+        final int cy1 = clamp(cellIndex(maxY, originY), nCellsY);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                final int cell = cy * nCellsX + cx;
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    final int index = cellPoints[k];
+                    if (screenX[index] >= minX && screenX[index] <= maxX && screenY[index] >= minY && screenY[index] <= maxY) {
+                        result.add(index);
+                    }
+                }
+            }
+        }
+        Arrays.sort(result.elements(), 0, result.size());
+        return result;
+    }
+
+    /**
+     * @return number of indexed (i.e. visible) data points
+     */
+    public int getIndexedCount() {
+        if (!valid) {
+            return 0;
+        }
+        return isGrid ? nGridX * nGridY : nPoints;
+    }
+
+    /**
+     * @return true if the index has been built and has not been invalidated since
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Forces a rebuild on the next {@link #update}.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Rebuilds the index if the axis ranges, the display lengths, the data count or the data set content have changed
+     * since the last update. Needs to be called while holding the data set's read lock.
+     *
+     * @param dataSet data set to be indexed
+     * @param xAxis horizontal axis
+     * @param yAxis vertical axis
+     * @param radius typical query radius in screen coordinates, used as cell size
+     * @return itself (fluent design)
+     */
+    public ScreenSpaceIndex update(final DataSet dataSet, final Axis xAxis, final Axis yAxis, final double radius) {
+        if (dataSet == null || xAxis == null || yAxis == null) {
+            throw new IllegalArgumentException("dataSet and axes must not be null");
+        }
+        final IndexChangeLog changeLog = dataSet.getIndexChangeLog();
+        final long newVersion = changeLog == null ? -1 : changeLog.getVersion();
+        setKey(newKey, 0, xAxis);
+        setKey(newKey, 7, yAxis);
+        newKey[14] = radius;
+        newKey[15] = dataSet.getDataCount();
+        if (valid && changeLog != null && newVersion == version && Arrays.equals(key, newKey)) {
+            return this;
+        }
+
+        System.arraycopy(newKey, 0, key, 0, KEY_LENGTH);
+        version = newVersion;
+        if (dataSet instanceof GridDataSet && ((GridDataSet) dataSet).getNGrid() >= 2) {
+            buildGrid((GridDataSet) dataSet, xAxis, yAxis);
+        } else {
+            build(dataSet, xAxis, yAxis, radius);
+        }
+        valid = true;
+        return this;
+    }
+
+    private void build(final DataSet dataSet, final Axis xAxis, final Axis yAxis, final double radius) {
+        isGrid = false;
+        final int dataCount = dataSet.getDataCount();
+        if (screenX.length < dataCount) {
+            screenX = new float[dataCount];
+            screenY = new float[dataCount];
+            cellPoints = new int[dataCount];
+        }
+        convert(dataSet, DataSet.DIM_X, xAxis, screenX, dataCount);
+        convert(dataSet, DataSet.DIM_Y, yAxis, screenY, dataCount);
+
+        // cells cover the visible area plus a margin of one cell
+        final double xLength = Math.max(1.0, xAxis.getLength());
+        final double yLength = Math.max(1.0, yAxis.getLength());
+        cellSize = Math.max(Math.max(1.0, radius), Math.max(xLength, yLength) / (MAX_CELLS_PER_DIM - 2));
+        originX = -cellSize;
+        originY = -cellSize;
+        nCellsX = (int) Math.ceil(xLength / cellSize) + 2;
+        nCellsY = (int) Math.ceil(yLength / cellSize) + 2;
+        final int nCells = nCellsX * nCellsY;
+        if (cellStart.length < nCells + 1) {
+            cellStart = new int[nCells + 1];
+        } else {
+            Arrays.fill(cellStart, 0, nCells + 1, 0);
+        }
+
+        // counting sort of the point indices by cell, retains the ascending index order within each cell
+        for (int i = 0; i < dataCount; i++) {
+            final int cell = cellOf(screenX[i], screenY[i]);
+            if (cell >= 0) {
+                cellStart[cell + 1]++;
+            }
+        }
+        for (int cell = 0; cell < nCells; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+        }
+        nPoints = cellStart[nCells];
+        if (cellFill.length < nCells) {
+            cellFill = new int[nCells];
+        } else {
+            Arrays.fill(cellFill, 0, nCells, 0);
+        }
+        for (int i = 0; i < dataCount; i++) {
+            final int cell = cellOf(screenX[i], screenY[i]);
+            if (cell >= 0) {
+                cellPoints[cellStart[cell] + cellFill[cell]++] = i;
+            }
+        }
+    }
+
+    private void buildGrid(final GridDataSet dataSet, final Axis xAxis, final Axis yAxis) {
+        isGrid = true;
+        nGridX = dataSet.getShape(DataSet.DIM_X);
+        nGridY = dataSet.getShape(DataSet.DIM_Y);
+        if (gridScreenX.length < nGridX) {
+            gridScreenX = new double[nGridX];
+        }
+        if (gridScreenY.length < nGridY) {
+            gridScreenY = new double[nGridY];
+        }
+        for (int i = 0; i < nGridX; i++) {
+            gridScreenX[i] = dataSet.getGrid(DataSet.DIM_X, i);
+        }
+        for (int i = 0; i < nGridY; i++) {
+            gridScreenY[i] = dataSet.getGrid(DataSet.DIM_Y, i);
+        }
+        xAxis.getDisplayPositions(gridScreenX, 0, gridScreenX, 0, nGridX);
+        yAxis.getDisplayPositions(gridScreenY, 0, gridScreenY, 0, nGridY);
+    }
+
+    private int cellIndex(final double position, final double origin) {
+        return (int) Math.floor((position - origin) / cellSize);
+    }
+
+    private int cellOf(final float x, final float y) {
+        if (!Float.isFinite(x) || !Float.isFinite(y)) {
+            return -1;
+        }
+        final int cx = cellIndex(x, originX);
+        final int cy = cellIndex(y, originY);
+        if (cx < 0 || cx >= nCellsX || cy < 0 || cy >= nCellsY) {
+            return -1;
+        }
+        return cy * nCellsX + cx;
+    }
+
+    private void convert(final DataSet dataSet, final int dimIndex, final Axis axis, final float[] target, final int dataCount) {
+        for (int start = 0; start < dataCount; start += CHUNK_SIZE) {
+            final int length = Math.min(CHUNK_SIZE, dataCount - start);
+            for (int i = 0; i < length; i++) {
+                buffer[i] = dataSet.get(dimIndex, start + i);
+            }
+            axis.getDisplayPositions(buffer, 0, buffer, 0, length);
+            for (int i = 0; i < length; i++) {
+                target[start + i] = (float) buffer[i];
+            }
+        }
+    }
+
+    private int findNearestOnGrid(final double x, final double y, final double maxDistance) {
+        // grid coordinates are monotonic, hence the candidates form a contiguous range along each axis
+        final int ix0 = firstWithin(gridScreenX, nGridX, x, maxDistance);
+        final int iy0 = firstWithin(gridScreenY, nGridY, y, maxDistance);
+        if (ix0 < 0 || iy0 < 0) {
+            return -1;
+        }
+        final double maxDistance2 = maxDistance * maxDistance;
+        double best = Double.POSITIVE_INFINITY;
+        int bestIndex = -1;
+        for (int iy = iy0; iy < nGridY && Math.abs(gridScreenY[iy] - y) <= maxDistance; iy++) {
+            final double dy = gridScreenY[iy] - y;
+            for (int ix = ix0; ix < nGridX && Math.abs(gridScreenX[ix] - x) <= maxDistance; ix++) {
+                final double dx = gridScreenX[ix] - x;
+                final double distance2 = dx * dx + dy * dy;
+                if (distance2 <= maxDistance2 && distance2 < best) {
+                    best = distance2;
+                    bestIndex = ix + iy * nGridX;
+                }
+            }
+        }
+        return bestIndex;
+    }
+
+    private static int clamp(final int cell, final int nCells) {
+        return Math.max(0, Math.min(nCells - 1, cell));
+    }
+
+    private static int firstWithin(final double[] positions, final int length, final double value, final double maxDistance) {
+        for (int i = 0; i < length; i++) {
+            if (Math.abs(positions[i] - value) <= maxDistance) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void setKey(final double[] key, final int offset, final Axis axis) {
+        key[offset] = axis.getMin();
+        key[offset + 1] = axis.getMax();
+        key[offset + 2] = axis.getLength();
+        key[offset + 3] = axis.isLogAxis() ? 1.0 : 0.0;
+        key[offset + 4] = axis.getDisplayPosition(axis.getMin());
+        key[offset + 5] = axis.getDisplayPosition(axis.getMax());
+        key[offset + 6] = axis.getDisplayPosition(0.5 * (axis.getMin() + axis.getMax()));
+    }
+}
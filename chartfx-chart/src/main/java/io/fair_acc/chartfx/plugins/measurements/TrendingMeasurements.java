@@ -53,6 +53,7 @@ public class TrendingMeasurements extends AbstractChartMeasurement {
     private static final long DEFAULT_UPDATE_RATE_LIMIT = 40;
     private static final int DEFAULT_BUFFER_CAPACITY = 10_000;
     private static final double DEFAULT_BUFFER_LENGTH = 3600e3; // 1h in Milliseconds
+    private static final double DEFAULT_LOD_BUCKET_WIDTH = 0.1; // 100 ms base level-of-detail bucket (x in seconds)
     private final CheckBox graphBelowOtherDataSets = new CheckBox();
     private final ChartMeasurementSelector measurementSelector;
     private final List<CheckedNumberTextField> parameterFields = new ArrayList<>();
@@ -98,6 +99,7 @@ public class TrendingMeasurements extends AbstractChartMeasurement {
 
         measurementSelector = new ChartMeasurementSelector(plugin, this, measType.getRequiredDataSets());
         trendingDataSet = new LimitedIndexedTreeDataSet("uninitialised", DEFAULT_BUFFER_CAPACITY, DEFAULT_BUFFER_LENGTH);
+        trendingDataSet.setLevelOfDetail(DEFAULT_LOD_BUCKET_WIDTH);
 
         lastLayoutRow = shiftGridPaneRowOffset(measurementSelector.getChildren(), lastLayoutRow);
         gridPane.getChildren().addAll(measurementSelector.getChildren());
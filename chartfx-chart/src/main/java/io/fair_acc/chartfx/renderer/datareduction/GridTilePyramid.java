@@ -0,0 +1,500 @@
+package io.fair_acc.chartfx.renderer.datareduction;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import io.fair_acc.dataset.GridDataSet;
+import io.fair_acc.dataset.utils.CachedDaemonThreadFactory;
+
+/**
+ * Multi-resolution tile cache for 2D {@link GridDataSet}s.
+ * <p>
+ * Level {@code 0} corresponds to the native grid resolution and is always read directly from the data set. Each
+ * subsequent level halves the resolution in both directions, i.e. one cell at level {@code L} aggregates (up to)
+ * {@code 2^L x 2^L} source cells according to the requested {@link ReductionType} (MIN, MAX, AVERAGE or
+ * DOWN_SAMPLE). Levels are split into square tiles of {@link #getTileSize()} cells that are computed lazily, either on
+ * demand via {@link #copySubFrame} or in the background via {@link #prefetch}, and are kept in a memory-bounded LRU
+ * cache. Tiles of coarser levels are derived from their four children if those are cached and computed from the
+ * source grid otherwise.
+ * <p>
+ * N.B. The pyramid does not track data set changes by itself. Users need to call {@link #invalidate()} whenever the
+ * underlying data has been modified. The synchronous access methods assume that the caller holds the data set's read
+ * lock, while the background prefetch acquires it on its own for each tile.
+ */
+public class GridTilePyramid {
+    public static final int DEFAULT_TILE_SIZE = 256;
+    public static final long DEFAULT_MAX_CACHE_SIZE = 256L * 1024 * 1024; // [bytes]
+    private static final String PARALLEL_WORKER_ERROR = "one parallel worker thread finished execution with error";
+    private static final int MAX_LEVEL = 30;
+    private static final int TILE_INDEX_BITS = 28;
+    private static final long TILE_INDEX_MASK = (1L << TILE_INDEX_BITS) - 1;
+
+    private final int tileSize;
+    private final Map<Long, double[]> tiles = new LinkedHashMap<>(64, 0.75f, true); // N.B. access-order -> LRU
+    private long maxCacheSize;
+    private long cacheSize;
+    private volatile Shape shape = new Shape(-1, -1); // replaced (under the tiles lock) on each invalidation
+    private Future<?> pendingPrefetch;
+
+    /**
+     * Creates a pyramid with default tile and cache sizes
+     */
+    public GridTilePyramid() {
+        this(DEFAULT_TILE_SIZE, DEFAULT_MAX_CACHE_SIZE);
+    }
+
+    /**
+     * @param tileSize width and height of the individual (square) tiles
+     * @param maxCacheSize upper bound of the memory used by all cached tiles [bytes]
+     */
+    public GridTilePyramid(final int tileSize, final long maxCacheSize) {
+        if (tileSize < 2) {
+            throw new IllegalArgumentException("tileSize must be >= 2: " + tileSize);
+        }
+        this.tileSize = tileSize;
+        setMaxCacheSize(maxCacheSize);
+    }
+
+    /**
+     * Removes all cached tiles and cancels pending background computations. Needs to be called whenever the underlying
+     * data set has been modified.
+     */
+    public void invalidate() {
+        synchronized (tiles) {
+            reset(shape.width, shape.height);
+        }
+    }
+
+    /**
+     * @return number of bytes currently held by the tile cache
+     */
+    public long getCacheSize() {
+        synchronized (tiles) {
+            return cacheSize;
+        }
+    }
+
+    /**
+     * @return the upper memory bound of the tile cache [bytes]
+     */
+    public long getMaxCacheSize() {
+        synchronized (tiles) {
+            return maxCacheSize;
+        }
+    }
+
+    /**
+     * @param maxCacheSize the upper memory bound of the tile cache [bytes]. Least recently used tiles are evicted if
+     *            exceeded.
+     */
+    public void setMaxCacheSize(final long maxCacheSize) {
+        if (maxCacheSize < 0) {
+            throw new IllegalArgumentException("maxCacheSize must be positive: " + maxCacheSize);
+        }
+        synchronized (tiles) {
+            this.maxCacheSize = maxCacheSize;
+            evictIfNecessary();
+        }
+    }
+
+    /**
+     * @return number of tiles currently held by the cache
+     */
+    public int getTileCount() {
+        synchronized (tiles) {
+            return tiles.size();
+        }
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * @param dataSet the source data set
+     * @return the coarsest meaningful level, i.e. the one where the full grid fits into a single tile
+     */
+    public int getMaxLevel(final GridDataSet dataSet) {
+        final int max = Math.max(dataSet.getShape(0), dataSet.getShape(1));
+        int level = 0;
+        while (level < MAX_LEVEL && (max + (1 << level) - 1) >> level > tileSize) {
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * @param size number of source cells along one dimension
+     * @param level pyramid level
+     * @return number of cells at the given pyramid level
+     */
+    public static int getLevelSize(final int size, final int level) {
+        return (int) ((size + (1L << level) - 1) >> level);
+    }
+
+    /**
+     * @param cellsPerPixelX number of source cells per screen pixel along the horizontal axis
+     * @param cellsPerPixelY number of source cells per screen pixel along the vertical axis
+     * @param maxLevel upper limit for the returned level
+     * @return the coarsest level that still provides at least one cell per screen pixel in both directions
+     */
+    public static int getLevel(final double cellsPerPixelX, final double cellsPerPixelY, final int maxLevel) {
+        final double minCellsPerPixel = Math.min(cellsPerPixelX, cellsPerPixelY);
+        if (!(minCellsPerPixel >= 2.0)) { // N.B. also catches NaN
+            return 0;
+        }
+        final int level = 31 - Integer.numberOfLeadingZeros((int) Math.min(minCellsPerPixel, Integer.MAX_VALUE));
+        return Math.max(0, Math.min(level, maxLevel));
+    }
+
+    /**
+     * Copies the sub-frame [xMinIndex, xMaxIndex] x [yMinIndex, yMaxIndex] (inclusive, in cell coordinates of the given
+     * level) into a row-major target array with the row of 'yMinIndex' first. Missing tiles are computed synchronously
+     * and stored in the cache.
+     *
+     * @param dataSet source data set (the caller needs to hold the read lock)
+     * @param level pyramid level
+     * @param reductionType the reduction used to aggregate source cells
+     * @param xMinIndex first column (inclusive)
+     * @param xMaxIndex last column (inclusive)
+     * @param yMinIndex first row (inclusive)
+     * @param yMaxIndex last row (inclusive)
+     * @param target storage of at least (xMaxIndex - xMinIndex + 1) * (yMaxIndex - yMinIndex + 1) elements
+     * @param parallel whether missing tiles should be computed in parallel
+     */
+    public void copySubFrame(final GridDataSet dataSet, final int level, final ReductionType reductionType, //
+            final int xMinIndex, final int xMaxIndex, final int yMinIndex, final int yMaxIndex, //
+            final double[] target, final boolean parallel) {
+        final Shape source = checkShape(dataSet);
+        final int width = xMaxIndex - xMinIndex + 1;
+        final int tileXMin = xMinIndex / tileSize;
+        final int tileXMax = xMaxIndex / tileSize;
+        final int tileYMin = yMinIndex / tileSize;
+        final int tileYMax = yMaxIndex / tileSize;
+
+        final double[][] local = new double[(tileXMax - tileXMin + 1) * (tileYMax - tileYMin + 1)][];
+        final List<Callable<Boolean>> workers = new ArrayList<>();
+        for (int ty = tileYMin; ty <= tileYMax; ty++) {
+            for (int tx = tileXMin; tx <= tileXMax; tx++) {
+                final int localIndex = (ty - tileYMin) * (tileXMax - tileXMin + 1) + tx - tileXMin;
+                local[localIndex] = getCachedTile(source, level, reductionType, tx, ty);
+                if (local[localIndex] != null) {
+                    continue;
+                }
+                final int tileX = tx;
+                final int tileY = ty;
+                workers.add(() -> {
+                    local[localIndex] = getTile(dataSet, source, level, reductionType, tileX, tileY);
+                    return Boolean.TRUE;
+                });
+            }
+        }
+        computeAll(workers, parallel);
+
+        for (int ty = tileYMin; ty <= tileYMax; ty++) {
+            final int tileRowMin = Math.max(yMinIndex, ty * tileSize);
+            final int tileRowMax = Math.min(yMaxIndex, ty * tileSize + tileSize - 1);
+            for (int tx = tileXMin; tx <= tileXMax; tx++) {
+                final double[] tile = local[(ty - tileYMin) * (tileXMax - tileXMin + 1) + tx - tileXMin];
+                final int tileWidth = source.getTileWidth(level, tx);
+                final int tileColMin = Math.max(xMinIndex, tx * tileSize);
+                final int tileColMax = Math.min(xMaxIndex, tx * tileSize + tileSize - 1);
+                final int length = tileColMax - tileColMin + 1;
+                for (int y = tileRowMin; y <= tileRowMax; y++) {
+                    System.arraycopy(tile, (y - ty * tileSize) * tileWidth + tileColMin - tx * tileSize, //
+                            target, (y - yMinIndex) * width + tileColMin - xMinIndex, length);
+                }
+            }
+        }
+    }
+
+    /**
+     * Schedules the background computation of the missing tiles in the given tile range. A previously scheduled but
+     * not yet finished prefetch is cancelled. The data set's read lock is acquired for each tile individually, and the
+     * computation is aborted if the pyramid is invalidated in the meantime.
+     *
+     * @param dataSet source data set
+     * @param level pyramid level
+     * @param reductionType the reduction used to aggregate source cells
+     * @param tileXMin first tile column (inclusive)
+     * @param tileXMax last tile column (inclusive)
+     * @param tileYMin first tile row (inclusive)
+     * @param tileYMax last tile row (inclusive)
+     * @return the future of the scheduled task
+     */
+    public Future<?> prefetch(final GridDataSet dataSet, final int level, final ReductionType reductionType, //
+            final int tileXMin, final int tileXMax, final int tileYMin, final int tileYMax) {
+        final Shape source = checkShape(dataSet);
+        final int nTilesX = (getLevelSize(source.width, level) + tileSize - 1) / tileSize;
+        final int nTilesY = (getLevelSize(source.height, level) + tileSize - 1) / tileSize;
+        synchronized (tiles) {
+            if (pendingPrefetch != null) {
+                pendingPrefetch.cancel(false);
+            }
+            pendingPrefetch = CachedDaemonThreadFactory.getCommonPool().submit(() -> {
+                for (int ty = Math.max(0, tileYMin); ty <= Math.min(tileYMax, nTilesY - 1); ty++) {
+                    for (int tx = Math.max(0, tileXMin); tx <= Math.min(tileXMax, nTilesX - 1); tx++) {
+                        if (Thread.currentThread().isInterrupted() || shape != source) {
+                            return;
+                        }
+                        if (getCachedTile(source, level, reductionType, tx, ty) != null) {
+                            continue;
+                        }
+                        final int tileX = tx;
+                        final int tileY = ty;
+                        dataSet.lock().readLockGuard(() -> {
+                            if (shape == source) {
+                                getTile(dataSet, source, level, reductionType, tileX, tileY);
+                            }
+                        });
+                    }
+                }
+            });
+            return pendingPrefetch;
+        }
+    }
+
+    /**
+     * @param dataSet source data set (the caller needs to hold the read lock)
+     * @param source the shape snapshot the tile is computed for. The tile is only cached if it is still the current one.
+     * @param level pyramid level
+     * @param reductionType the reduction used to aggregate source cells
+     * @param tileX tile column
+     * @param tileY tile row
+     * @return the cached or newly computed tile (row-major, width: {@link Shape#getTileWidth}, height:
+     *         {@link Shape#getTileHeight})
+     */
+    private double[] getTile(final GridDataSet dataSet, final Shape source, final int level, final ReductionType reductionType, final int tileX, final int tileY) {
+        final double[] cached = getCachedTile(source, level, reductionType, tileX, tileY);
+        if (cached != null) {
+            return cached;
+        }
+        final double[] tile = new double[source.getTileWidth(level, tileX) * source.getTileHeight(level, tileY)];
+        if (!reduceFromChildren(source, tile, level, reductionType, tileX, tileY)) {
+            reduceFromSource(dataSet, source, tile, level, reductionType, tileX, tileY);
+        }
+        synchronized (tiles) {
+            if (source == shape) {
+                final double[] old = tiles.put(key(level, reductionType, tileX, tileY), tile);
+                cacheSize += bytes(tile) - bytes(old);
+                evictIfNecessary();
+            }
+        }
+        return tile;
+    }
+
+    private double[] getCachedTile(final Shape source, final int level, final ReductionType reductionType, final int tileX, final int tileY) {
+        synchronized (tiles) {
+            return source == shape ? tiles.get(key(level, reductionType, tileX, tileY)) : null;
+        }
+    }
+
+    /**
+     * @param dataSet source data set
+     * @return the current shape snapshot, after invalidating the cache if the grid dimensions have changed
+     */
+    private Shape checkShape(final GridDataSet dataSet) {
+        if (dataSet.getNGrid() < 2) {
+            throw new IllegalArgumentException("tile pyramid only supports 2D grids");
+        }
+        final int width = dataSet.getShape(0);
+        final int height = dataSet.getShape(1);
+        synchronized (tiles) {
+            if (width != shape.width || height != shape.height) {
+                reset(width, height);
+            }
+            return shape;
+        }
+    }
+
+    /**
+     * Drops all tiles and publishes a new shape snapshot. N.B. needs to be called while holding the tiles lock.
+     */
+    private void reset(final int width, final int height) {
+        shape = new Shape(width, height); // new identity -> tiles still being computed for the old one are discarded
+        if (pendingPrefetch != null) {
+            pendingPrefetch.cancel(false);
+            pendingPrefetch = null;
+        }
+        tiles.clear();
+        cacheSize = 0;
+    }
+
+    private boolean reduceFromChildren(final Shape source, final double[] tile, final int level, final ReductionType reductionType, final int tileX, final int tileY) {
+        if (level <= 1) {
+            return false; // level 0 is never cached -> direct computation is cheaper
+        }
+        final int childLevel = level - 1;
+        final double[][] children = new double[4][];
+        final int[] childWidths = new int[2];
+        final int childLevelWidth = getLevelSize(source.width, childLevel);
+        final int childLevelHeight = getLevelSize(source.height, childLevel);
+        for (int i = 0; i < 4; i++) {
+            final int cx = 2 * tileX + (i & 1);
+            final int cy = 2 * tileY + (i >> 1);
+            if (cx * tileSize >= childLevelWidth || cy * tileSize >= childLevelHeight) {
+                continue; // child outside the grid
+            }
+            children[i] = getCachedTile(source, childLevel, reductionType, cx, cy);
+            if (children[i] == null) {
+                return false;
+            }
+            childWidths[i & 1] = source.getTileWidth(childLevel, cx);
+        }
+
+        final int width = source.getTileWidth(level, tileX);
+        final int height = source.getTileHeight(level, tileY);
+        final long childCellSize = 1L << childLevel;
+        for (int y = 0; y < height; y++) {
+            final int cellY = (tileY * tileSize + y) * 2; // first child cell row (in child level coordinates)
+            for (int x = 0; x < width; x++) {
+                final int cellX = (tileX * tileSize + x) * 2;
+                double min = Double.MAX_VALUE;
+                double max = -Double.MAX_VALUE;
+                double sum = 0.0;
+                double weight = 0.0;
+                double first = Double.NaN;
+                for (int dy = 0; dy < 2 && cellY + dy < childLevelHeight; dy++) {
+                    final int localY = (y * 2 + dy) % tileSize;
+                    final double rowWeight = Math.min(childCellSize, source.height - (cellY + dy) * childCellSize);
+                    for (int dx = 0; dx < 2 && cellX + dx < childLevelWidth; dx++) {
+                        final int localX = (x * 2 + dx) % tileSize;
+                        final int childIndex = (y * 2 + dy >= tileSize ? 2 : 0) + (x * 2 + dx >= tileSize ? 1 : 0);
+                        final double value = children[childIndex][localY * childWidths[childIndex & 1] + localX];
+                        if (dx == 0 && dy == 0) {
+                            first = value;
+                        }
+                        min = Math.min(min, value);
+                        max = Math.max(max, value);
+                        final double cellWeight = rowWeight * Math.min(childCellSize, source.width - (cellX + dx) * childCellSize);
+                        sum += cellWeight * value;
+                        weight += cellWeight;
+                    }
+                }
+                tile[y * width + x] = reduce(reductionType, min, max, sum / weight, first);
+            }
+        }
+        return true;
+    }
+
+    private void reduceFromSource(final GridDataSet dataSet, final Shape source, final double[] tile, final int level, final ReductionType reductionType, final int tileX, final int tileY) {
+        final int valueDim = dataSet.getNGrid();
+        final int sourceWidth = source.width;
+        final int sourceHeight = source.height;
+        final int width = source.getTileWidth(level, tileX);
+        final int height = source.getTileHeight(level, tileY);
+        final int blockSize = 1 << level;
+        for (int y = 0; y < height; y++) {
+            final int srcYMin = (tileY * tileSize + y) * blockSize;
+            final int srcYMax = Math.min(srcYMin + blockSize, sourceHeight);
+            for (int x = 0; x < width; x++) {
+                final int srcXMin = (tileX * tileSize + x) * blockSize;
+                final int srcXMax = Math.min(srcXMin + blockSize, sourceWidth);
+                if (reductionType == ReductionType.DOWN_SAMPLE) {
+                    tile[y * width + x] = dataSet.get(valueDim, srcYMin * sourceWidth + srcXMin);
+                    continue;
+                }
+                double min = Double.MAX_VALUE;
+                double max = -Double.MAX_VALUE;
+                double sum = 0.0;
+                for (int srcY = srcYMin; srcY < srcYMax; srcY++) {
+                    final int rowStart = srcY * sourceWidth;
+                    for (int srcX = srcXMin; srcX < srcXMax; srcX++) {
+                        final double value = dataSet.get(valueDim, rowStart + srcX);
+                        min = Math.min(min, value);
+                        max = Math.max(max, value);
+                        sum += value;
+                    }
+                }
+                final double mean = sum / ((srcYMax - srcYMin) * (double) (srcXMax - srcXMin));
+                tile[y * width + x] = reduce(reductionType, min, max, mean, Double.NaN);
+            }
+        }
+    }
+
+    private void evictIfNecessary() {
+        final Iterator<double[]> iterator = tiles.values().iterator();
+        while (cacheSize > maxCacheSize && iterator.hasNext()) {
+            cacheSize -= bytes(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private static long bytes(final double[] tile) {
+        return tile == null ? 0L : (long) tile.length * Double.BYTES;
+    }
+
+    private static void computeAll(final List<Callable<Boolean>> workers, final boolean parallel) {
+        if (workers.isEmpty()) {
+            return;
+        }
+        try {
+            if (!parallel || workers.size() == 1) {
+                for (final Callable<Boolean> worker : workers) {
+                    worker.call();
+                }
+                return;
+            }
+            for (final Future<Boolean> future : CachedDaemonThreadFactory.getCommonPool().invokeAll(workers)) {
+                if (Boolean.FALSE.equals(future.get())) {
+                    throw new IllegalStateException(PARALLEL_WORKER_ERROR);
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(PARALLEL_WORKER_ERROR, e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(PARALLEL_WORKER_ERROR, e);
+        } catch (final Exception e) { // NOPMD - Callable::call signature
+            throw new IllegalStateException(PARALLEL_WORKER_ERROR, e);
+        }
+    }
+
+    private static long key(final int level, final ReductionType reductionType, final int tileX, final int tileY) {
+        return ((long) level << 58) | ((long) reductionType.ordinal() << 56) //
+                | ((tileX & TILE_INDEX_MASK) << TILE_INDEX_BITS) | (tileY & TILE_INDEX_MASK);
+    }
+
+    private static double reduce(final ReductionType reductionType, final double min, final double max, final double mean, final double first) {
+        switch (reductionType) {
+        case MIN:
+            return min;
+        case MAX:
+            return max;
+        case DOWN_SAMPLE:
+            return first;
+        case AVERAGE:
+        default:
+            return mean;
+        }
+    }
+
+    /**
+     * Immutable snapshot of the source grid dimensions. Tiles are only cached for the current snapshot, which is
+     * replaced on every invalidation, so that workers that still compute tiles for outdated data or dimensions cannot
+     * store them.
+     */
+    private final class Shape {
+        private final int width;
+        private final int height;
+
+        private Shape(final int width, final int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        private int getTileWidth(final int level, final int tileX) {
+            return Math.min(tileSize, getLevelSize(width, level) - tileX * tileSize);
+        }
+
+        private int getTileHeight(final int level, final int tileY) {
+            return Math.min(tileSize, getLevelSize(height, level) - tileY * tileSize);
+        }
+    }
+}
@@ -2,13 +2,16 @@ package io.fair_acc.chartfx.renderer.spi;
 
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.LongProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.scene.image.ImageView;
 
 import io.fair_acc.chartfx.renderer.ContourType;
+import io.fair_acc.chartfx.renderer.datareduction.GridTilePyramid;
 import io.fair_acc.chartfx.renderer.datareduction.ReductionType;
 import io.fair_acc.chartfx.renderer.spi.utils.ColorGradient;
 
@@ -50,6 +53,15 @@ public abstract class AbstractContourDataSetRendererParameter<R extends Abstract
         }
     };
 
+    private final BooleanProperty tilePyramid = new SimpleBooleanProperty(this, "tilePyramid", false);
+
+    private final LongProperty maxTileCacheSize = new SimpleLongProperty(this, "maxTileCacheSize", GridTilePyramid.DEFAULT_MAX_CACHE_SIZE) {
+        @Override
+        public void set(long newValue) {
+            super.set(Math.max(0, newValue));
+        }
+    };
+
     private final BooleanProperty smooth = new SimpleBooleanProperty(this, "smooth", false) {
         @Override
         protected void invalidated() {
@@ -133,6 +145,13 @@ public abstract class AbstractContourDataSetRendererParameter<R extends Abstract
         return maxContourSegmentsProperty().get();
     }
 
+    /**
+     * @return the upper memory bound of the tile pyramid cache per data set [bytes]
+     */
+    public long getMaxTileCacheSize() {
+        return maxTileCacheSizeProperty().get();
+    }
+
     public int getMinHexTileSizeProperty() {
         return minHexTileSizeProperty().get();
     }
@@ -163,6 +182,15 @@ public abstract class AbstractContourDataSetRendererParameter<R extends Abstract
         return altImplementationProperty().get();
     }
 
+    /**
+     * Returns the value of the {@link #tilePyramidProperty()}.
+     *
+     * @return {@code true} if the visible data is taken from a cached multi-resolution tile pyramid
+     */
+    public boolean isTilePyramid() {
+        return tilePyramidProperty().get();
+    }
+
     /**
      * Returns the value of the {@link #smoothProperty()}.
      *
@@ -179,6 +207,13 @@ public abstract class AbstractContourDataSetRendererParameter<R extends Abstract
         return maxContourSegments;
     }
 
+    /**
+     * @return the property controlling the upper memory bound of the tile pyramid cache per data set [bytes]
+     */
+    public LongProperty maxTileCacheSizeProperty() {
+        return maxTileCacheSize;
+    }
+
     public IntegerProperty minHexTileSizeProperty() {
         return minHexTileSize;
     }
@@ -245,6 +280,13 @@ public abstract class AbstractContourDataSetRendererParameter<R extends Abstract
         maxContourSegmentsProperty().set(nSegments);
     }
 
+    /**
+     * @param maxBytes the upper memory bound of the tile pyramid cache per data set [bytes]
+     */
+    public void setMaxTileCacheSize(final long maxBytes) {
+        maxTileCacheSizeProperty().set(maxBytes);
+    }
+
     public void setMinHexTileSizeProperty(final int minSize) {
         minHexTileSizeProperty().set(minSize);
     }
@@ -265,6 +307,15 @@ public abstract class AbstractContourDataSetRendererParameter<R extends Abstract
         reductionTypeProperty().set(value);
     }
 
+    /**
+     * Sets the value of the {@link #tilePyramidProperty()}.
+     *
+     * @param value {@code true} to render from a cached multi-resolution tile pyramid
+     */
+    public void setTilePyramid(final boolean value) {
+        tilePyramidProperty().set(value);
+    }
+
     /**
      * Sets the value of the {@link #smoothProperty()}.
      *
@@ -289,4 +340,20 @@ public abstract class AbstractContourDataSetRendererParameter<R extends Abstract
     public BooleanProperty smoothProperty() {
         return smooth;
     }
+
+    /**
+     * Indicates if the visible data should be taken from a multi-resolution tile pyramid that caches min/max/average
+     * reduced tiles of the data set across redraws (e.g. when panning or zooming large images) instead of copying and
+     * resampling the full visible range on every redraw. The cache is invalidated on data set updates and bounded by
+     * {@link #maxTileCacheSizeProperty()}.
+     * <p>
+     * By default the tile pyramid is disabled.
+     * </p>
+     *
+     * @return tile pyramid property
+     * @see GridTilePyramid
+     */
+    public BooleanProperty tilePyramidProperty() {
+        return tilePyramid;
+    }
 }
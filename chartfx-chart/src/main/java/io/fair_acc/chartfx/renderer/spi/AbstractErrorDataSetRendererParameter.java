@@ -43,6 +43,8 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
 
     private final IntegerProperty dashSize = css().createIntegerProperty(this, "dashSize", 3);
     private final BooleanProperty drawMarker = css().createBooleanProperty(this, "drawMarker", true);
+    private final BooleanProperty rasterizeMarkers = css().createBooleanProperty(this, "rasterizeMarkers", false);
+    private final BooleanProperty cacheScreenCoordinates = css().createBooleanProperty(this, "cacheScreenCoordinates", false);
     private final ObjectProperty<LineStyle> polyLineStyle = css().createEnumProperty(this, "polyLineStyle",
             LineStyle.NORMAL, false, LineStyle.class);
     private final BooleanProperty drawBars = css().createBooleanProperty(this, "drawBars", false);
@@ -67,6 +69,7 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
                 rendererDataReducer,
                 dashSize,
                 drawMarker,
+                rasterizeMarkers,
                 polyLineStyle,
                 drawBars,
                 shiftBar,
@@ -86,6 +89,18 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
         return allowNans;
     }
 
+    /**
+     * Keeps the screen coordinates of each data set between frames. If the axis transforms are unchanged, only data
+     * points that have been appended, modified or shifted since the previous frame (see
+     * {@link io.fair_acc.dataset.DataSet#getIndexChangeLog()}) are transformed again. This speeds up e.g. long
+     * streaming traces at the expense of one coordinate copy per data set in memory.
+     *
+     * @return the cacheScreenCoordinates state (default: false)
+     */
+    public BooleanProperty cacheScreenCoordinatesProperty() {
+        return cacheScreenCoordinates;
+    }
+
     public DoubleProperty barWidthPercentageProperty() {
         return barWidthPercentage;
     }
@@ -216,6 +231,13 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
         return allowNaNsProperty().get();
     }
 
+    /**
+     * @return true if the screen coordinates are cached and updated incrementally
+     */
+    public boolean isCacheScreenCoordinates() {
+        return cacheScreenCoordinatesProperty().get();
+    }
+
     /**
      * @return true if bars from the data points to the y==0 axis shall be drawn
      */
@@ -244,6 +266,13 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
         return dynamicBarWidthProperty().get();
     }
 
+    /**
+     * @return true if markers are rasterised into a pixel buffer and composited once per data set
+     */
+    public boolean isRasterizeMarkers() {
+        return rasterizeMarkersProperty().get();
+    }
+
     /**
      * @return true if bars drawn to the y==0 axis shall be horizontally shifted for each DataSet
      */
@@ -260,6 +289,18 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
         return polyLineStyle;
     }
 
+    /**
+     * Rasterised markers are drawn into an off-heap pixel buffer using a pre-computed sprite atlas and composited onto
+     * the canvas with a single image draw per data set rather than issuing path commands for each point. This is
+     * substantially faster for scatter plots with many markers. Custom markers, dashed marker outlines and scaled or
+     * rotated graphics contexts fall back to vector drawing. Disable this for vector exports (e.g. printing).
+     *
+     * @return the rasterizeMarkers state (default: false)
+     */
+    public BooleanProperty rasterizeMarkersProperty() {
+        return rasterizeMarkers;
+    }
+
     /**
      * sets the data reduction algorithm: possibly implementations are<br>
      * <ul>
@@ -295,6 +336,16 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
         return getThis();
     }
 
+    /**
+     * @param state true: the screen coordinates are cached per data set and updated incrementally
+     * @return itself (fluent design)
+     * @see #cacheScreenCoordinatesProperty()
+     */
+    public R setCacheScreenCoordinates(final boolean state) {
+        cacheScreenCoordinatesProperty().set(state);
+        return getThis();
+    }
+
     /**
      * @param size the <code>barWidthPercentage</code> of the total X space should be taken to paint
      * @return itself (fluent design)
@@ -399,6 +450,16 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
         return getThis();
     }
 
+    /**
+     * @param state true: markers are rasterised into a pixel buffer and composited once per data set
+     * @return itself (fluent design)
+     * @see #rasterizeMarkersProperty()
+     */
+    public R setRasterizeMarkers(final boolean state) {
+        rasterizeMarkersProperty().set(state);
+        return getThis();
+    }
+
     /**
      * @param state true if bars drawn to the y==0 axis shall be horizontally shifted for each DataSet
      * @return itself (fluent design)
@@ -439,6 +500,8 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
         dashSizeProperty().bind(other.dashSizeProperty());
         minRequiredReductionSizeProperty().bind(other.minRequiredReductionSizeProperty());
         drawMarkerProperty().bind(other.drawMarkerProperty());
+        rasterizeMarkersProperty().bind(other.rasterizeMarkersProperty());
+        cacheScreenCoordinatesProperty().bind(other.cacheScreenCoordinatesProperty());
         polyLineStyleProperty().bind(other.polyLineStyleProperty());
         drawBarsProperty().bind(other.drawBarsProperty());
         drawBubblesProperty().bind(other.drawBubblesProperty());
@@ -475,6 +538,8 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
         dashSizeProperty().unbind();
         minRequiredReductionSizeProperty().unbind();
         drawMarkerProperty().unbind();
+        rasterizeMarkersProperty().unbind();
+        cacheScreenCoordinatesProperty().unbind();
         polyLineStyleProperty().unbind();
         drawBarsProperty().unbind();
         drawBubblesProperty().unbind();
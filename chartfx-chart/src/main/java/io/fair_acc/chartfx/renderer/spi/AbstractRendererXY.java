@@ -1,6 +1,11 @@
 package io.fair_acc.chartfx.renderer.spi;
 
 import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import javafx.geometry.Orientation;
 import javafx.scene.canvas.GraphicsContext;
@@ -16,6 +21,7 @@ import io.fair_acc.chartfx.axes.spi.CategoryAxis;
 import io.fair_acc.chartfx.ui.css.DataSetNode;
 import io.fair_acc.dataset.DataSet;
 import io.fair_acc.dataset.utils.AssertUtils;
+import io.fair_acc.dataset.utils.CachedDaemonThreadFactory;
 
 /**
  * Renderer that requires an X and a Y axis
@@ -23,6 +29,8 @@ import io.fair_acc.dataset.utils.AssertUtils;
  * @author ennerf
  */
 public abstract class AbstractRendererXY<R extends AbstractRendererXY<R>> extends AbstractRenderer<R> implements Measurable {
+    private static final String PARALLEL_WORKER_ERROR = "one parallel worker thread finished execution with error";
+
     public AbstractRendererXY() {
         chartProperty().addListener((obs, old, chart) -> requireChartXY(chart));
     }
@@ -56,13 +64,20 @@ public abstract class AbstractRendererXY<R extends AbstractRendererXY<R>> extend
         benchDrawAll.start();
         updateCachedVariables();
 
+        final GraphicsContext gc = getChart().getRenderCanvas().getGraphicsContext2D();
+        if (isParallelPrepare()) {
+            renderPrepared(gc);
+            benchDrawAll.stop();
+            return;
+        }
+
         // N.B. importance of reverse order: start with last index, so that
         // most(-like) important DataSet is drawn on top of the others
         for (int i = getDatasetNodes().size() - 1; i >= 0; i--) {
             var dataSetNode = getDatasetNodes().get(i);
             if (dataSetNode.isVisible()) {
                 benchDrawOne.start();
-                render(getChart().getCanvas().getGraphicsContext2D(), dataSetNode.getDataSet(), dataSetNode);
+                render(gc, dataSetNode.getDataSet(), dataSetNode);
                 benchDrawOne.stop();
             }
         }
@@ -70,8 +85,96 @@ public abstract class AbstractRendererXY<R extends AbstractRendererXY<R>> extend
         benchDrawAll.stop();
     }
 
+    /**
+     * Draws the data set previously computed by {@link #prepare(DataSet, DataSetNode)}. Invoked on the FX thread only.
+     * The default implementation falls back to the single-stage {@link #render(GraphicsContext, DataSet, DataSetNode)}.
+     *
+     * @param gc the graphics context of the canvas to be drawn on
+     * @param style the data set node that has been prepared
+     */
+    protected void drawPrepared(final GraphicsContext gc, final DataSetNode style) {
+        render(gc, style.getDataSet(), style);
+    }
+
+    /**
+     * @return true if the data sets are prepared in parallel before being drawn (see
+     *         {@link XYChart#parallelRenderingProperty()})
+     */
+    protected boolean isParallelPrepare() {
+        return isPrepareSupported() && getChart().isParallelRendering();
+    }
+
+    /**
+     * @return true if the renderer implements the two-stage pipeline of {@link #prepare(DataSet, DataSetNode)} and
+     *         {@link #drawPrepared(GraphicsContext, DataSetNode)}
+     */
+    protected boolean isPrepareSupported() {
+        return false;
+    }
+
+    /**
+     * First stage of the two-stage rendering pipeline: computes everything needed to draw the data set (e.g. screen
+     * coordinates, reduced points) and stores it per data set node. Implementations may be invoked concurrently for
+     * different data set nodes from worker threads while the data sets are read-locked, and thus must not access the
+     * scene graph or any {@link GraphicsContext}.
+     * The default implementation does not precompute anything and leaves all work to
+     * {@link #drawPrepared(GraphicsContext, DataSetNode)}.
+     *
+     * @param dataSet the data set to be prepared
+     * @param style the corresponding data set node
+     * @return true if there is anything to be drawn by {@link #drawPrepared(GraphicsContext, DataSetNode)}
+     */
+    protected boolean prepare(final DataSet dataSet, final DataSetNode style) {
+        return true;
+    }
+
     protected abstract void render(GraphicsContext gc, DataSet dataSet, DataSetNode style);
 
+    private void renderPrepared(final GraphicsContext gc) {
+        final List<DataSetNode> nodes = getDatasetNodes();
+        final boolean[] prepared = new boolean[nodes.size()];
+        final List<Callable<Boolean>> workers = new ArrayList<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            final DataSetNode node = nodes.get(i);
+            if (!node.isVisible()) {
+                continue;
+            }
+            final int index = i;
+            workers.add(() -> {
+                prepared[index] = prepare(node.getDataSet(), node);
+                return Boolean.TRUE;
+            });
+        }
+
+        benchPrepareAll.start();
+        try {
+            if (workers.size() == 1) {
+                workers.get(0).call();
+            } else {
+                for (final Future<Boolean> future : CachedDaemonThreadFactory.getCommonPool().invokeAll(workers)) {
+                    future.get();
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(PARALLEL_WORKER_ERROR, e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(PARALLEL_WORKER_ERROR, e.getCause());
+        } catch (final Exception e) { // NOPMD - Callable::call signature
+            throw new IllegalStateException(PARALLEL_WORKER_ERROR, e);
+        }
+        benchPrepareAll.stop();
+
+        // N.B. same reverse order as the sequential rendering
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            if (prepared[i]) {
+                benchDrawOne.start();
+                drawPrepared(gc, nodes.get(i));
+                benchDrawOne.stop();
+            }
+        }
+    }
+
     @Override
     public void updateAxes() {
         // Default to explicitly set axes
@@ -143,8 +246,10 @@ public abstract class AbstractRendererXY<R extends AbstractRendererXY<R>> extend
     public void setRecorder(MeasurementRecorder recorder) {
         benchDrawAll = recorder.newDuration("xy-drawAll");
         benchDrawOne = recorder.newTraceDuration("xy-drawOne");
+        benchPrepareAll = recorder.newDuration("xy-prepareAll");
     }
 
     private DurationMeasure benchDrawAll = DurationMeasure.DISABLED;
     private DurationMeasure benchDrawOne = DurationMeasure.DISABLED;
+    private DurationMeasure benchPrepareAll = DurationMeasure.DISABLED;
 }
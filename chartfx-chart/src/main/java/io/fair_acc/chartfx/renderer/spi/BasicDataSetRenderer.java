@@ -8,10 +8,14 @@ import javafx.scene.canvas.GraphicsContext;
 
 import io.fair_acc.bench.AggregateDurationMeasure;
 import io.fair_acc.bench.MeasurementRecorder;
+import io.fair_acc.chartfx.marker.MarkerRasterizer;
 import io.fair_acc.chartfx.renderer.LineStyle;
+import io.fair_acc.chartfx.renderer.spi.utils.MarkerRasterBatch;
+import io.fair_acc.chartfx.renderer.spi.utils.StyleGroups;
 import io.fair_acc.chartfx.ui.css.CssPropertyFactory;
 import io.fair_acc.chartfx.ui.css.DataSetNode;
 import io.fair_acc.chartfx.ui.css.DataSetStyleParser;
+import io.fair_acc.chartfx.ui.css.DataSetStyleParser.ParsedStyle;
 import io.fair_acc.chartfx.utils.FastDoubleArrayCache;
 import io.fair_acc.dataset.DataSet;
 
@@ -24,6 +28,7 @@ import io.fair_acc.dataset.DataSet;
 public class BasicDataSetRenderer extends AbstractRendererXY<BasicDataSetRenderer> {
     private final BooleanProperty assumeSortedData = css().createBooleanProperty(this, "assumeSortedData", true);
     private final BooleanProperty drawMarker = css().createBooleanProperty(this, "drawMarker", true);
+    private final BooleanProperty rasterizeMarkers = css().createBooleanProperty(this, "rasterizeMarkers", false);
     private final ObjectProperty<LineStyle> polyLineStyle = css().createEnumProperty(this, "polyLineStyle",
             LineStyle.NORMAL, false, LineStyle.class);
 
@@ -31,6 +36,12 @@ public class BasicDataSetRenderer extends AbstractRendererXY<BasicDataSetRendere
         getDatasets().setAll(dataSets);
     }
 
+    @Override
+    public void render() {
+        markerBatch.reset();
+        super.render();
+    }
+
     @Override
     protected void render(GraphicsContext gc, DataSet dataSet, DataSetNode style) {
         // check for potentially reduced data range we are supposed to plot
@@ -57,6 +68,7 @@ public class BasicDataSetRenderer extends AbstractRendererXY<BasicDataSetRendere
         gc.save();
         style.applyLineStrokeStyle(gc);
         gc.setFill(style.getMarkerColor());
+        rasterizing = isDrawMarker() && isRasterizeMarkers() && markerBatch.begin(gc);
 
         // compute local screen coordinates
         double xi, yi, prevX = Double.NaN, prevY = Double.NaN;
@@ -117,6 +129,14 @@ public class BasicDataSetRenderer extends AbstractRendererXY<BasicDataSetRendere
         // Overwrite special data points (draws on top of the other)
         drawCustomStyledMarkers(gc, style, dataSet, indexMin, indexMax);
 
+        if (rasterizing) {
+            // composite all collected markers at once
+            benchDrawMarker.start();
+            markerBatch.draw(gc);
+            benchDrawMarker.stop();
+            rasterizing = false;
+        }
+
         gc.restore();
         benchComputeCoords.recordResult();
         benchDrawMarker.recordResult();
@@ -130,8 +150,19 @@ public class BasicDataSetRenderer extends AbstractRendererXY<BasicDataSetRendere
         }
         var marker = style.getMarkerType();
         benchDrawMarker.start();
-        for (int i = 0; i < length; i++) {
-            marker.draw(gc, x[i], y[i], markerSize);
+        if (rasterizing) {
+            var color = MarkerRasterizer.isOutline(marker) ? gc.getStroke() : gc.getFill();
+            var lineWidth = gc.getLineWidth();
+            var lineDashes = gc.getLineDashes();
+            for (int i = 0; i < length; i++) {
+                if (!markerBatch.add(x[i], y[i], marker, markerSize, lineWidth, color, lineDashes)) {
+                    marker.draw(gc, x[i], y[i], markerSize);
+                }
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                marker.draw(gc, x[i], y[i], markerSize);
+            }
         }
         benchDrawMarker.stop();
     }
@@ -155,29 +186,45 @@ public class BasicDataSetRenderer extends AbstractRendererXY<BasicDataSetRendere
         if (!isDrawMarker() || !dataSet.hasStyles()) {
             return;
         }
+        styleGroups.clear();
         dataSet.forEachStyle(min, max, (index, string) -> {
-            if (!styleParser.tryParse(string)) {
-                return;
+            var parsedStyle = styleParser.getParsedStyle(string);
+            if (parsedStyle != ParsedStyle.EMPTY) {
+                styleGroups.add(parsedStyle, index);
             }
-            var size = styleParser.getMarkerSize().orElse(style.getMarkerSize());
+        });
+
+        // set the graphics state only once per distinct style
+        final int nGroups = styleGroups.sort();
+        for (int group = 0; group < nGroups; group++) {
+            var customStyle = styleGroups.getStyle(group);
+            var size = customStyle.getMarkerSize(style.getMarkerSize());
             if (size == 0) {
-                return;
+                continue;
             }
-            final double x = xAxis.getDisplayPosition(dataSet.get(DIM_X, index));
-            final double y = yAxis.getDisplayPosition(dataSet.get(DIM_Y, index));
-            if (Double.isNaN(y) || Double.isNaN(x)) {
-                return;
-            }
-            var customMarker = styleParser.getMarkerType().orElse(style.getMarkerType());
-            var color = styleParser.getMarkerColor().orElse(style.getMarkerColor());
+            var customMarker = customStyle.getMarkerType(style.getMarkerType());
+            var color = customStyle.getMarkerColor(style.getMarkerColor());
+            var lineDashes = customStyle.getMarkerLineDashes(style.getMarkerLineDashes());
+            var lineWidth = customStyle.getMarkerLineWidth(style.getMarkerLineWidth());
             gc.save();
             gc.setFill(color);
             gc.setStroke(color);
-            gc.setLineDashes(styleParser.getMarkerLineDashes().orElse(style.getMarkerLineDashes()));
-            gc.setLineWidth(styleParser.getMarkerLineWidth().orElse(style.getMarkerLineWidth()));
-            customMarker.draw(gc, x, y, size);
+            gc.setLineDashes(lineDashes);
+            gc.setLineWidth(lineWidth);
+            for (int k = styleGroups.getGroupStart(group); k < styleGroups.getGroupEnd(group); k++) {
+                final int index = styleGroups.getIndex(k);
+                final double x = xAxis.getDisplayPosition(dataSet.get(DIM_X, index));
+                final double y = yAxis.getDisplayPosition(dataSet.get(DIM_Y, index));
+                if (Double.isNaN(y) || Double.isNaN(x)) {
+                    continue;
+                }
+                if (rasterizing && markerBatch.add(x, y, customMarker, size, lineWidth, color, lineDashes)) {
+                    continue;
+                }
+                customMarker.draw(gc, x, y, size);
+            }
             gc.restore();
-        });
+        }
     }
 
     public boolean isAssumeSortedData() {
@@ -204,6 +251,24 @@ public class BasicDataSetRenderer extends AbstractRendererXY<BasicDataSetRendere
         this.drawMarker.set(drawMarker);
     }
 
+    public boolean isRasterizeMarkers() {
+        return rasterizeMarkers.get();
+    }
+
+    /**
+     * Rasterised markers are drawn into an off-heap pixel buffer using a pre-computed sprite atlas and composited
+     * with a single image draw per data set. Markers that cannot be rasterised fall back to vector drawing.
+     *
+     * @return the rasterizeMarkers property (default: false)
+     */
+    public BooleanProperty rasterizeMarkersProperty() {
+        return rasterizeMarkers;
+    }
+
+    public void setRasterizeMarkers(boolean rasterizeMarkers) {
+        this.rasterizeMarkers.set(rasterizeMarkers);
+    }
+
     public LineStyle getPolyLineStyle() {
         return polyLineStyle.get();
     }
@@ -244,6 +309,9 @@ public class BasicDataSetRenderer extends AbstractRendererXY<BasicDataSetRendere
     AggregateDurationMeasure benchPolyLine = AggregateDurationMeasure.DISABLED;
 
     private final DataSetStyleParser styleParser = DataSetStyleParser.newInstance();
+    private final MarkerRasterBatch markerBatch = new MarkerRasterBatch();
+    private final StyleGroups styleGroups = new StyleGroups();
+    private boolean rasterizing;
 
     @Override
     protected CssPropertyFactory<AbstractRenderer<?>> css() {
@@ -18,6 +18,7 @@ import io.fair_acc.chartfx.ui.css.DataSetNode;
 import io.fair_acc.dataset.DataSet;
 import io.fair_acc.dataset.DataSetError;
 import io.fair_acc.dataset.DataSetError.ErrorType;
+import io.fair_acc.dataset.events.IndexChangeLog;
 import io.fair_acc.dataset.utils.CachedDaemonThreadFactory;
 import io.fair_acc.dataset.utils.IndexedStringConsumer;
 import io.fair_acc.dataset.utils.ProcessingProfiler;
@@ -63,6 +64,23 @@ public class CachedDataPoints {
     protected int maxDataCount;
     protected int actualDataCount; // number of data points that remain after data reduction
 
+    // incremental screen coordinate cache, indexed by data point index and not modified by the data reduction
+    private static final int N_CACHE_KEYS = 21;
+    private final IndexChangeLog.Changes changes = new IndexChangeLog.Changes();
+    private double[] cacheKey = new double[N_CACHE_KEYS];
+    private double[] lastCacheKey = new double[N_CACHE_KEYS];
+    private DataSet cachedDataSet;
+    private long cachedVersion = -1;
+    private int cachedDataCount;
+    private int validMin;
+    private int validMax;
+    private double[] cachedX;
+    private double[] cachedY;
+    private double[] cachedXNeg;
+    private double[] cachedXPos;
+    private double[] cachedYNeg;
+    private double[] cachedYPos;
+
     public void trim() {
         xValues = clearIfLarger(xValues, maxDataCount);
         yValues = clearIfLarger(yValues, maxDataCount);
@@ -73,6 +91,24 @@ public class CachedDataPoints {
         selected = clearIfLarger(selected, maxDataCount);
         styles = clearIfLarger(styles, maxDataCount);
         errorType = clearIfLarger(errorType, 10); // depends on ds dimensions
+        releaseCache();
+    }
+
+    /**
+     * Releases the incremental screen coordinate cache. The next call to
+     * {@link #computeScreenCoordinatesIncremental} recomputes the full range.
+     */
+    public void releaseCache() {
+        cachedDataSet = null;
+        cachedVersion = -1;
+        validMin = 0;
+        validMax = 0;
+        cachedX = null;
+        cachedY = null;
+        cachedXNeg = null;
+        cachedXPos = null;
+        cachedYNeg = null;
+        cachedYPos = null;
     }
 
     public CachedDataPoints resizeMin(final int indexMin, final int indexMax, final int dataLength, final boolean useErrorsX) {
@@ -199,6 +235,74 @@ public class CachedDataPoints {
         }
     }
 
+    /**
+     * Computes the screen coordinates similar to {@link #computeScreenCoordinates} but reuses the results of the
+     * previous call for the same data set if the axis transforms are unchanged. Appended, modified, and ring-buffer
+     * shifted data points are taken from the data set's {@link DataSet#getIndexChangeLog() index change log}, only
+     * indices that have been modified or were not cached before are recomputed. Data sets without change log or with
+     * unknown changes are recomputed fully.
+     * <p>
+     * N.B. each instance caches one data set, i.e. the instance should not be shared between data sets.
+     *
+     * @param xAxis the horizontal axis
+     * @param yAxis the vertical axis
+     * @param dataSet the data set to be rendered
+     * @param style the data set style
+     * @param min first index to be drawn (inclusive)
+     * @param max last index to be drawn (exclusive)
+     * @param localRendErrorStyle the renderer error style
+     * @param isPolarPlot whether the coordinates are polar
+     * @param doAllowForNaNs whether NaN values are forwarded
+     * @param parallel whether the missing coordinates are computed in parallel
+     */
+    protected void computeScreenCoordinatesIncremental(final Axis xAxis, final Axis yAxis, final DataSet dataSet, final DataSetNode style,
+            final int min, final int max, final ErrorStyle localRendErrorStyle,
+            final boolean isPolarPlot, final boolean doAllowForNaNs, final boolean parallel) {
+        setBoundaryConditions(xAxis, yAxis, dataSet, style, min, max, localRendErrorStyle, isPolarPlot,
+                doAllowForNaNs);
+
+        final int dataCount = dataSet.getDataCount();
+        if (!updateCacheValidity(xAxis, yAxis, dataSet, dataCount)) {
+            validMin = 0;
+            validMax = 0;
+        }
+        cachedX = ArrayUtils.resizeMin(cachedX, dataCount, true);
+        cachedY = ArrayUtils.resizeMin(cachedY, dataCount, true);
+        cachedYNeg = ArrayUtils.resizeMin(cachedYNeg, dataCount, true);
+        cachedYPos = ArrayUtils.resizeMin(cachedYPos, dataCount, true);
+        if (errorXNeg != null) {
+            cachedXNeg = ArrayUtils.resizeMin(cachedXNeg, dataCount, true);
+            cachedXPos = ArrayUtils.resizeMin(cachedXPos, dataCount, true);
+        }
+
+        // compute the indices that are not covered by the cache
+        if (validMin >= validMax || max <= validMin || min >= validMax) {
+            computeIntoCache(xAxis, yAxis, dataSet, min, max, parallel);
+            validMin = min;
+            validMax = max;
+        } else {
+            if (min < validMin) {
+                computeIntoCache(xAxis, yAxis, dataSet, min, validMin, parallel);
+                validMin = min;
+            }
+            if (max > validMax) {
+                computeIntoCache(xAxis, yAxis, dataSet, validMax, max, parallel);
+                validMax = max;
+            }
+        }
+
+        // copy to the working arrays that are modified by the data reduction
+        final int length = max - min;
+        System.arraycopy(cachedX, min, xValues, min, length);
+        System.arraycopy(cachedY, min, yValues, min, length);
+        System.arraycopy(cachedYNeg, min, errorYNeg, min, length);
+        System.arraycopy(cachedYPos, min, errorYPos, min, length);
+        if (errorXNeg != null) {
+            System.arraycopy(cachedXNeg, min, errorXNeg, min, length);
+            System.arraycopy(cachedXPos, min, errorXPos, min, length);
+        }
+    }
+
     protected void computeScreenCoordinatesInParallel(final Axis xAxis, final Axis yAxis, final DataSet dataSet, final DataSetNode style,
             final int min, final int max, final ErrorStyle localRendErrorStyle,
             final boolean isPolarPlot, final boolean doAllowForNaNs) {
@@ -250,6 +354,36 @@ public class CachedDataPoints {
         }
     }
 
+    private void computeIntoCache(final Axis xAxis, final Axis yAxis, final DataSet dataSet, final int min, final int max,
+            final boolean parallel) {
+        final double[] tmpX = xValues;
+        final double[] tmpY = yValues;
+        final double[] tmpXNeg = errorXNeg;
+        final double[] tmpXPos = errorXPos;
+        final double[] tmpYNeg = errorYNeg;
+        final double[] tmpYPos = errorYPos;
+        xValues = cachedX;
+        yValues = cachedY;
+        errorXNeg = tmpXNeg == null ? null : cachedXNeg;
+        errorXPos = tmpXPos == null ? null : cachedXPos;
+        errorYNeg = cachedYNeg;
+        errorYPos = cachedYPos;
+        try {
+            if (parallel) {
+                computeScreenCoordinatesParallel(xAxis, yAxis, dataSet, min, max);
+            } else {
+                computeScreenCoordinatesNonThreaded(xAxis, yAxis, dataSet, min, max);
+            }
+        } finally {
+            xValues = tmpX;
+            yValues = tmpY;
+            errorXNeg = tmpXNeg;
+            errorXPos = tmpXPos;
+            errorYNeg = tmpYNeg;
+            errorYPos = tmpYPos;
+        }
+    }
+
     private void computeScreenCoordinatesPolar(final Axis yAxis, final DataSet dataSet, final int min, final int max) {
         if ((errorType[DIM_X] == ErrorType.NO_ERROR) && (errorType[DIM_Y] == ErrorType.NO_ERROR)) {
             computeNoErrorPolar(yAxis, dataSet, min, max);
@@ -264,37 +398,37 @@ public class CachedDataPoints {
 
     private void computeWithError(final Axis yAxis, final DataSet dataSet, final int dimIndex, final int min,
             final int max) {
+        final double[] values = dimIndex == DIM_X ? xValues : yValues;
+        final double[] valuesEN = dimIndex == DIM_X ? errorXNeg : errorYNeg;
+        final double[] valuesEP = dimIndex == DIM_X ? errorXPos : errorYPos;
+        final double minValue = dimIndex == DIM_X ? xMin : yMin;
         if (dataSet instanceof DataSetError) {
-            final double[] values = dimIndex == DIM_X ? xValues : yValues;
-            final double[] valuesEN = dimIndex == DIM_X ? errorXNeg : errorYNeg;
-            final double[] valuesEP = dimIndex == DIM_X ? errorXPos : errorYPos;
-            final double minValue = dimIndex == DIM_X ? xMin : yMin;
             final DataSetError ds = (DataSetError) dataSet;
             for (int index = min; index < max; index++) {
                 final double value = dataSet.get(dimIndex, index);
-
-                values[index] = yAxis.getDisplayPosition(value);
-
-                if (!Double.isNaN(values[index])) {
-                    valuesEN[index] = yAxis.getDisplayPosition(value - ds.getErrorNegative(dimIndex, index));
-                    valuesEP[index] = yAxis.getDisplayPosition(value + ds.getErrorPositive(dimIndex, index));
-                    continue;
+                values[index] = value;
+                valuesEN[index] = value - ds.getErrorNegative(dimIndex, index);
+                valuesEP[index] = value + ds.getErrorPositive(dimIndex, index);
+            }
+            yAxis.getDisplayPositions(values, min, values, min, max - min);
+            yAxis.getDisplayPositions(valuesEN, min, valuesEN, min, max - min);
+            yAxis.getDisplayPositions(valuesEP, min, valuesEP, min, max - min);
+            for (int index = min; index < max; index++) {
+                if (Double.isNaN(values[index])) {
+                    values[index] = minValue;
+                    valuesEN[index] = minValue;
+                    valuesEP[index] = minValue;
                 }
-                values[index] = minValue;
-                valuesEN[index] = minValue;
-                valuesEP[index] = minValue;
             }
             return;
         }
 
         // default dataset
-        final double[] values = dimIndex == DIM_X ? xValues : yValues;
-        final double[] valuesEN = dimIndex == DIM_X ? errorXNeg : errorYNeg;
-        final double[] valuesEP = dimIndex == DIM_X ? errorXPos : errorYPos;
-        final double minValue = dimIndex == DIM_X ? xMin : yMin;
-
         for (int index = min; index < max; index++) {
-            values[index] = yAxis.getDisplayPosition(dataSet.get(dimIndex, index));
+            values[index] = dataSet.get(dimIndex, index);
+        }
+        yAxis.getDisplayPositions(values, min, values, min, max - min);
+        for (int index = min; index < max; index++) {
             if (Double.isFinite(values[index])) {
                 valuesEN[index] = values[index];
                 valuesEP[index] = values[index];
@@ -308,10 +442,10 @@ public class CachedDataPoints {
 
     private void computeWithErrorAllowingNaNs(final Axis yAxis, final DataSet dataSet, final int dimIndex,
             final int min, final int max) {
+        final double[] values = dimIndex == DIM_X ? xValues : yValues;
+        final double[] valuesEN = dimIndex == DIM_X ? errorXNeg : errorYNeg;
+        final double[] valuesEP = dimIndex == DIM_X ? errorXPos : errorYPos;
         if (dataSet instanceof DataSetError) {
-            final double[] values = dimIndex == DIM_X ? xValues : yValues;
-            final double[] valuesEN = dimIndex == DIM_X ? errorXNeg : errorYNeg;
-            final double[] valuesEP = dimIndex == DIM_X ? errorXPos : errorYPos;
             final DataSetError ds = (DataSetError) dataSet;
             for (int index = min; index < max; index++) {
                 final double value = dataSet.get(dimIndex, index);
@@ -323,21 +457,23 @@ public class CachedDataPoints {
                     continue;
                 }
 
-                values[index] = yAxis.getDisplayPosition(value);
-                valuesEN[index] = yAxis.getDisplayPosition(value - ds.getErrorNegative(dimIndex, index));
-                valuesEP[index] = yAxis.getDisplayPosition(value + ds.getErrorPositive(dimIndex, index));
+                values[index] = value;
+                valuesEN[index] = value - ds.getErrorNegative(dimIndex, index);
+                valuesEP[index] = value + ds.getErrorPositive(dimIndex, index);
             }
+            // non-finite values have been replaced by NaN which maps onto NaN
+            yAxis.getDisplayPositions(values, min, values, min, max - min);
+            yAxis.getDisplayPositions(valuesEN, min, valuesEN, min, max - min);
+            yAxis.getDisplayPositions(valuesEP, min, valuesEP, min, max - min);
             return;
         }
 
         // default dataset
-        final double[] values = dimIndex == DIM_X ? xValues : yValues;
-        final double[] valuesEN = dimIndex == DIM_X ? errorXNeg : errorYNeg;
-        final double[] valuesEP = dimIndex == DIM_X ? errorXPos : errorYPos;
-
         for (int index = min; index < max; index++) {
-            values[index] = yAxis.getDisplayPosition(dataSet.get(dimIndex, index));
-
+            values[index] = dataSet.get(dimIndex, index);
+        }
+        yAxis.getDisplayPositions(values, min, values, min, max - min);
+        for (int index = min; index < max; index++) {
             if (Double.isFinite(values[index])) {
                 valuesEN[index] = values[index];
                 valuesEP[index] = values[index];
@@ -355,10 +491,10 @@ public class CachedDataPoints {
         final double[] values = dimIndex == DIM_X ? xValues : yValues;
         final double minValue = dimIndex == DIM_X ? xMin : yMin;
         for (int index = min; index < max; index++) {
-            final double value = dataSet.get(dimIndex, index);
-
-            values[index] = axis.getDisplayPosition(value);
-
+            values[index] = dataSet.get(dimIndex, index);
+        }
+        axis.getDisplayPositions(values, min, values, min, max - min);
+        for (int index = min; index < max; index++) {
             if (Double.isNaN(values[index])) {
                 yValues[index] = minValue;
             }
@@ -376,13 +512,10 @@ public class CachedDataPoints {
         final double[] values = dimIndex == DIM_X ? xValues : yValues;
         for (int index = min; index < max; index++) {
             final double value = dataSet.get(dimIndex, index);
-
-            if (Double.isFinite(value)) {
-                values[index] = axis.getDisplayPosition(value);
-            } else {
-                values[index] = Double.NaN;
-            }
+            // non-finite values are replaced by NaN which maps onto NaN
+            values[index] = Double.isFinite(value) ? value : Double.NaN;
         }
+        axis.getDisplayPositions(values, min, values, min, max - min);
 
         if ((dimIndex == DIM_Y) && (rendererErrorStyle != ErrorStyle.NONE)) {
             System.arraycopy(values, min, errorYNeg, min, max - min);
@@ -489,6 +622,85 @@ public class CachedDataPoints {
         minDataPointDistanceX();
     }
 
+    private void setCacheKey(final int offset, final Axis axis) {
+        cacheKey[offset] = System.identityHashCode(axis);
+        cacheKey[offset + 1] = axis.getMin();
+        cacheKey[offset + 2] = axis.getMax();
+        cacheKey[offset + 3] = axis.getLength();
+        cacheKey[offset + 4] = axis.isInvertedAxis() ? 1.0 : 0.0;
+        cacheKey[offset + 5] = axis.isLogAxis() ? 1.0 : 0.0;
+        cacheKey[offset + 6] = axis.getDisplayPosition(axis.getMin());
+        cacheKey[offset + 7] = axis.getDisplayPosition(axis.getMax());
+    }
+
+    /**
+     * Checks whether the cached coordinates can be reused and applies the recorded shifts and changes.
+     *
+     * @return false if the whole cache needs to be invalidated
+     */
+    private boolean updateCacheValidity(final Axis xAxis, final Axis yAxis, final DataSet dataSet, final int dataCount) {
+        // any change of the axis transforms or drawing parameters invalidates all coordinates
+        setCacheKey(0, xAxis);
+        setCacheKey(8, yAxis);
+        cacheKey[16] = polarPlot ? 1.0 : 0.0;
+        cacheKey[17] = allowForNaNs ? 1.0 : 0.0;
+        cacheKey[18] = rendererErrorStyle.ordinal();
+        cacheKey[19] = errorType[DIM_X].ordinal();
+        cacheKey[20] = errorType[DIM_Y].ordinal();
+        final boolean sameKey = Arrays.equals(cacheKey, lastCacheKey);
+        final double[] tmp = lastCacheKey;
+        lastCacheKey = cacheKey;
+        cacheKey = tmp;
+
+        final DataSet lastDataSet = cachedDataSet;
+        final long lastVersion = cachedVersion;
+        final int lastDataCount = cachedDataCount;
+        final IndexChangeLog log = dataSet.getIndexChangeLog();
+        cachedDataSet = dataSet;
+        cachedVersion = log == null ? -1 : log.getVersion();
+        cachedDataCount = dataCount;
+        if (!sameKey || lastDataSet != dataSet || log == null || !log.getChangesSince(lastVersion, changes)) {
+            return false;
+        }
+
+        // ring-buffer shift: previous index 'i' corresponds to 'i - shift'
+        final int shift = changes.getShift();
+        if (shift > 0) {
+            final int newMin = Math.max(0, validMin - shift);
+            final int newMax = validMax - shift;
+            if (newMax > newMin) {
+                final int length = newMax - newMin;
+                System.arraycopy(cachedX, newMin + shift, cachedX, newMin, length);
+                System.arraycopy(cachedY, newMin + shift, cachedY, newMin, length);
+                System.arraycopy(cachedYNeg, newMin + shift, cachedYNeg, newMin, length);
+                System.arraycopy(cachedYPos, newMin + shift, cachedYPos, newMin, length);
+                if (cachedXNeg != null) {
+                    System.arraycopy(cachedXNeg, newMin + shift, cachedXNeg, newMin, length);
+                    System.arraycopy(cachedXPos, newMin + shift, cachedXPos, newMin, length);
+                }
+            }
+            validMin = newMin;
+            validMax = Math.max(newMin, newMax);
+        }
+
+        // the data count must be consistent with the recorded changes
+        final int expectedCount = lastDataCount - shift;
+        if (dataCount != expectedCount && changes.getTo() < Math.max(dataCount, expectedCount)) {
+            return false;
+        }
+
+        // exclude modified indices from the valid range
+        if (changes.getFrom() < changes.getTo() && changes.getFrom() < validMax && changes.getTo() > validMin) {
+            if (changes.getFrom() <= validMin) {
+                validMin = Math.min(validMax, changes.getTo());
+            } else {
+                validMax = changes.getFrom();
+            }
+        }
+        validMax = Math.min(validMax, dataCount);
+        return validMin < validMax;
+    }
+
     private void setBoundaryConditions(final Axis xAxis, final Axis yAxis, DataSet dataSet, final DataSetNode style,
             final int min, final int max, final ErrorStyle rendererErrorStyle, final boolean isPolarPlot,
             final boolean doAllowForNaNs) {
@@ -21,11 +21,13 @@ import io.fair_acc.chartfx.axes.Axis;
 import io.fair_acc.chartfx.axes.AxisTransform;
 import io.fair_acc.chartfx.renderer.ContourType;
 import io.fair_acc.chartfx.renderer.datareduction.DefaultDataReducer3D;
+import io.fair_acc.chartfx.renderer.datareduction.GridTilePyramid;
 import io.fair_acc.chartfx.renderer.datareduction.ReductionType;
 import io.fair_acc.chartfx.renderer.spi.utils.ColorGradient;
 import io.fair_acc.chartfx.utils.WritableImageCache;
 import io.fair_acc.dataset.DataSet;
 import io.fair_acc.dataset.GridDataSet;
+import io.fair_acc.dataset.events.IndexChangeLog;
 import io.fair_acc.dataset.spi.DataRange;
 import io.fair_acc.dataset.utils.*;
 
@@ -66,12 +68,16 @@ class ContourDataSetCache extends WritableImageCache {
 
     protected int xSize;
     protected int ySize;
+    protected int pyramidLevel;
     protected double zMin;
     protected double zMax;
 
     protected final boolean xInverted;
     protected final boolean yInverted;
     protected final boolean zInverted;
+    protected final long dataVersion; // version of the data set's change log, -1 if not tracked
+    protected final ReductionType reductionType;
+    protected final AxisTransform zAxisTransform;
 
     // temp data variables
     protected final double[] dataBuffer;
@@ -79,6 +85,17 @@ class ContourDataSetCache extends WritableImageCache {
     protected final double[] reduced;
 
     public ContourDataSetCache(final XYChart chart, final ContourDataSetRenderer renderer, final DataSet dataSet) {
+        this(chart, renderer, dataSet, null);
+    }
+
+    /**
+     * @param chart the chart the data set is rendered in
+     * @param renderer the renderer providing axes and reduction parameters
+     * @param dataSet the grid data set to be rendered
+     * @param tilePyramid optional multi-resolution cache of the data set, {@code null} to copy the visible frame at full
+     *            resolution
+     */
+    public ContourDataSetCache(final XYChart chart, final ContourDataSetRenderer renderer, final DataSet dataSet, final GridTilePyramid tilePyramid) {
         if (dataSet.getDimension() < 3) {
             throw new IllegalArgumentException("dataSet needs be at least 3D but is " + dataSet.getDimension());
         }
@@ -91,6 +108,9 @@ class ContourDataSetCache extends WritableImageCache {
         }
         final long start = ProcessingProfiler.getTimeStamp();
         this.dataSet = dataSet;
+        final IndexChangeLog changeLog = dataSet.getIndexChangeLog();
+        this.dataVersion = changeLog == null ? -1 : changeLog.getVersion();
+        this.reductionType = renderer.getReductionType();
         this.xAxis = renderer.xAxis;
         this.yAxis = renderer.yAxis;
         this.zAxis = renderer.zAxis;
@@ -138,13 +158,30 @@ class ContourDataSetCache extends WritableImageCache {
         this.xSize = Math.abs(this.indexXMax - this.indexXMin) + 1;
         this.ySize = Math.abs(this.indexYMax - this.indexYMin) + 1;
 
+        // pick the coarsest pyramid level that still provides at least one cell per pixel
+        this.pyramidLevel = tilePyramid == null ? 0 : GridTilePyramid.getLevel(xSize / xAxisWidth, ySize / yAxisHeight, tilePyramid.getMaxLevel(gridDataSet));
+        if (pyramidLevel > 0) {
+            this.indexXMin >>= pyramidLevel;
+            this.indexXMax >>= pyramidLevel;
+            this.indexYMin >>= pyramidLevel;
+            this.indexYMax >>= pyramidLevel;
+            this.xSize = this.indexXMax - this.indexXMin + 1;
+            this.ySize = this.indexYMax - this.indexYMin + 1;
+        }
+
         // copy- transform data
         dataBuffer = DoubleArrayCache.getInstance().getArrayExact(this.xSize * this.ySize);
-        // TODO: tune this limit
-        final int minSizeThreshold = REF_WIDTH_PARALLEL * REF_HEIGHT_PARALLEL;
-        final boolean sufficientlyLarge = xSize * ySize < minSizeThreshold;
-        copySubFrame(dataSet, dataBuffer, renderer.isParallelImplementation() && sufficientlyLarge, //
-                xInverted, indexXMin, indexXMax, yInverted, indexYMin, indexYMax);
+        if (pyramidLevel > 0) {
+            tilePyramid.copySubFrame(gridDataSet, pyramidLevel, renderer.getReductionType(), indexXMin, indexXMax, indexYMin, indexYMax, //
+                    dataBuffer, renderer.isParallelImplementation());
+            flipSubFrame(dataBuffer, xSize, ySize, xInverted, yInverted);
+        } else {
+            // TODO: tune this limit
+            final int minSizeThreshold = REF_WIDTH_PARALLEL * REF_HEIGHT_PARALLEL;
+            final boolean sufficientlyLarge = xSize * ySize < minSizeThreshold;
+            copySubFrame(dataSet, dataBuffer, renderer.isParallelImplementation() && sufficientlyLarge, //
+                    xInverted, indexXMin, indexXMax, yInverted, indexYMin, indexYMax);
+        }
         ProcessingProfiler.getTimeDiff(start, "copySubFrame");
 
         // reduce data if necessary
@@ -162,12 +199,12 @@ class ContourDataSetCache extends WritableImageCache {
         ProcessingProfiler.getTimeDiff(start, "recompute local z range");
 
         // process continuous to quantised z values
-        final AxisTransform axisTransform = zAxis.getAxisTransform();
-        if (axisTransform == null) {
+        zAxisTransform = zAxis.getAxisTransform();
+        if (zAxisTransform == null) {
             throw new IllegalArgumentException("zAxis of renderer needs to have an axis transform for its z-Axis");
         }
         final int nQuant = renderer.getNumberQuantisationLevels();
-        quantizeData(reduced, xSize, ySize, zInverted, zMin, zMax, axisTransform, nQuant);
+        quantizeData(reduced, xSize, ySize, zInverted, zMin, zMax, zAxisTransform, nQuant);
         ProcessingProfiler.getTimeDiff(start, "quantized data");
     }
 
@@ -185,6 +222,20 @@ class ContourDataSetCache extends WritableImageCache {
         }
     }
 
+    /**
+     * @param other a previously computed cache, may be {@code null}
+     * @return true if both caches hold the same (reduced and quantised) grid, i.e. the same data set version and
+     *         visible frame, without comparing the data (N.B. always false if the data set does not track its changes)
+     */
+    public boolean isSameGrid(final ContourDataSetCache other) {
+        return other != null && dataVersion >= 0 && other.dataSet == dataSet && other.dataVersion == dataVersion //
+                && other.pyramidLevel == pyramidLevel && other.indexXMin == indexXMin && other.indexXMax == indexXMax //
+                && other.indexYMin == indexYMin && other.indexYMax == indexYMax && other.xSize == xSize && other.ySize == ySize //
+                && other.xInverted == xInverted && other.yInverted == yInverted && other.zInverted == zInverted //
+                && Double.compare(other.zMin, zMin) == 0 && Double.compare(other.zMax, zMax) == 0 //
+                && other.reductionType == reductionType && other.zAxisTransform == zAxisTransform;
+    }
+
     public void releaseCachedVariables() {
         DoubleArrayCache.getInstance().add(dataBuffer);
         DoubleArrayCache.getInstance().add(tempDataBuffer);
@@ -336,6 +387,34 @@ class ContourDataSetCache extends WritableImageCache {
         }
     }
 
+    /**
+     * Mirrors a row-major frame in place to match the ordering produced by {@link #computeCoordinates} for inverted
+     * axes.
+     */
+    protected static void flipSubFrame(final double[] data, final int width, final int height, final boolean flipX, final boolean flipY) {
+        if (flipX) {
+            for (int y = 0; y < height; y++) {
+                final int rowStart = y * width;
+                for (int left = rowStart, right = rowStart + width - 1; left < right; left++, right--) {
+                    final double tmp = data[left];
+                    data[left] = data[right];
+                    data[right] = tmp;
+                }
+            }
+        }
+        if (flipY) {
+            for (int top = 0, bottom = height - 1; top < bottom; top++, bottom--) {
+                final int topStart = top * width;
+                final int bottomStart = bottom * width;
+                for (int x = 0; x < width; x++) {
+                    final double tmp = data[topStart + x];
+                    data[topStart + x] = data[bottomStart + x];
+                    data[bottomStart + x] = tmp;
+                }
+            }
+        }
+    }
+
     protected static double quantize(final double value, final int nLevels) {
         return ((int) (value * nLevels)) / (double) nLevels;
     }
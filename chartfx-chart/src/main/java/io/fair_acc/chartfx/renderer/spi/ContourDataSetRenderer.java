@@ -5,8 +5,9 @@ import static javafx.scene.paint.CycleMethod.NO_CYCLE;
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
+import java.util.Map;
 
 import javafx.beans.binding.Bindings;
 import javafx.beans.binding.ObjectBinding;
@@ -36,16 +37,19 @@ import io.fair_acc.chartfx.axes.AxisTransform;
 import io.fair_acc.chartfx.axes.spi.DefaultNumericAxis;
 import io.fair_acc.chartfx.plugins.Zoomer;
 import io.fair_acc.chartfx.renderer.Renderer;
+import io.fair_acc.chartfx.renderer.datareduction.GridTilePyramid;
 import io.fair_acc.chartfx.renderer.spi.hexagon.Hexagon;
 import io.fair_acc.chartfx.renderer.spi.hexagon.HexagonMap;
-import io.fair_acc.chartfx.renderer.spi.marchingsquares.GeneralPath;
-import io.fair_acc.chartfx.renderer.spi.marchingsquares.MarchingSquares;
+import io.fair_acc.chartfx.renderer.spi.marchingsquares.Isoline;
+import io.fair_acc.chartfx.renderer.spi.marchingsquares.TiledMarchingSquares;
 import io.fair_acc.chartfx.renderer.spi.utils.ColorGradient;
 import io.fair_acc.chartfx.ui.css.DataSetNode;
 import io.fair_acc.chartfx.ui.geometry.Side;
 import io.fair_acc.chartfx.ui.layout.ChartPane;
 import io.fair_acc.dataset.DataSet;
 import io.fair_acc.dataset.GridDataSet;
+import io.fair_acc.dataset.events.ChartBits;
+import io.fair_acc.dataset.events.IndexChangeLog;
 import io.fair_acc.dataset.utils.ProcessingProfiler;
 
 /**
@@ -64,7 +68,9 @@ import io.fair_acc.dataset.utils.ProcessingProfiler;
  * the the underlying number Canvas pixels number in order to improve efficiency and required texture GPU buffer. This
  * data reduction is controlled via {@link #setPointReduction(boolean)} and the reduction type (MIN, MAX, AVERAGE,
  * DOWN_SAMPLE) via {@link #setReductionType}, and the {@link #setReductionFactorX(int)} and
- * {@link #setReductionFactorY(int)} functions.
+ * {@link #setReductionFactorY(int)} functions. For very large grids, {@link #setTilePyramid(boolean)} enables a cached
+ * multi-resolution tile pyramid so that panning and zooming only touches the tiles and the resolution level that
+ * intersect with the visible axis range.
  * N.B. Regarding implementation of user-level DataSet interfaces: While the DataSet3D::getZ(int) and
  * DataSet::get(DIM_Z, int) routines should match, the DataSet3D is considered a convenience interface primarily to be
  * used for external user-level code.
@@ -77,7 +83,12 @@ import io.fair_acc.dataset.utils.ProcessingProfiler;
 public class ContourDataSetRenderer extends AbstractContourDataSetRendererParameter<ContourDataSetRenderer> implements Renderer {
     private static final Logger LOGGER = LoggerFactory.getLogger(ContourDataSetRenderer.class);
     private ContourDataSetCache localCache;
+    private final Map<DataSet, GridTilePyramid> tilePyramids = new IdentityHashMap<>();
+    private final Map<DataSet, Long> tilePyramidVersions = new IdentityHashMap<>(); // data version of the cached tiles
     protected final ColorGradientBar gradientBar = new ColorGradientBar();
+    private final TiledMarchingSquares marchingSquares = new TiledMarchingSquares();
+    private ContourDataSetCache contourGrid; // grid of the latest computed isolines
+    private long contourGridVersion;
 
     private void drawContour(final GraphicsContext gc, final ContourDataSetCache lCache) {
         final double[] levels = new double[getNumberQuantisationLevels()];
@@ -85,51 +96,41 @@ public class ContourDataSetRenderer extends AbstractContourDataSetRendererParame
             levels[i] = (i + 1) / (double) levels.length;
         }
 
-        final int xSize = lCache.xSize;
-        final int ySize = lCache.ySize;
-        final double[][] data = new double[ySize][xSize];
-        for (int yIndex = 0; yIndex < ySize; yIndex++) {
-            if (xSize >= 0)
-                System.arraycopy(lCache.reduced, yIndex * xSize + 0, data[ySize - 1 - yIndex], 0, xSize);
-        }
-
         // abort if min/max == 0 -> cannot compute contours
         final double zRange = Math.abs(lCache.zMax - lCache.zMin);
         if (zRange <= 0) {
             return;
         }
 
+        final int xSize = lCache.xSize;
+        final int ySize = lCache.ySize;
+        if (!lCache.isSameGrid(contourGrid)) {
+            contourGridVersion++;
+        }
+        contourGrid = lCache;
+        marchingSquares.setParallel(isParallelImplementation());
+        final Isoline[] isolines = marchingSquares.buildContours(lCache.reduced, xSize, ySize, levels, contourGridVersion);
+
         final ColorGradient colorGradient = getColorGradient();
-        final MarchingSquares marchingSquares = new MarchingSquares();
         final double scaleX = lCache.xDataPixelRange / xSize;
         final double scaleY = lCache.yDataPixelRange / ySize;
         gc.save();
-        gc.translate(lCache.xDataPixelMin, lCache.yDataPixelMin);
-        gc.scale(scaleX, scaleY);
-        final GeneralPath[] isolines;
-        try {
-            isolines = marchingSquares.buildContours(data, levels);
-            int levelCount = 0;
-            for (final GeneralPath path : isolines) {
-                if (path.size() > getMaxContourSegments()) {
-                    levelCount++;
-                    continue;
-                }
-                final Color color = lCache.zInverted ? colorGradient.getColor(1 - levels[levelCount++]) : colorGradient.getColor(levels[levelCount++]);
-                gc.setStroke(color);
-                gc.setLineDashes(1.0);
-                gc.setMiterLimit(10);
-                gc.setFill(color);
-                gc.setLineWidth(0.5);
-                path.draw(gc);
+        // N.B. first data row is drawn at the bottom, samples are located at the pixel centres
+        gc.translate(lCache.xDataPixelMin + 0.5 * scaleX, lCache.yDataPixelMin + (ySize - 0.5) * scaleY);
+        gc.scale(scaleX, -scaleY);
+        gc.setLineDashes(1.0);
+        gc.setMiterLimit(10);
+        gc.setLineWidth(0.5);
+        for (int i = 0; i < isolines.length; i++) {
+            if (isolines[i].getPointCount() > getMaxContourSegments()) {
+                continue;
             }
-        } catch (InterruptedException | ExecutionException e) {
-            if (LOGGER.isErrorEnabled()) {
-                LOGGER.atError().setCause(e).log("marchingSquares algorithm");
-            }
-        } finally {
-            gc.restore();
+            final Color color = lCache.zInverted ? colorGradient.getColor(1 - levels[i]) : colorGradient.getColor(levels[i]);
+            gc.setStroke(color);
+            gc.setFill(color);
+            isolines[i].draw(gc);
         }
+        gc.restore();
     }
 
     private void drawContourFast(final GraphicsContext gc, final AxisTransform axisTransform, final ContourDataSetCache lCache) {
@@ -435,15 +436,66 @@ public class ContourDataSetRenderer extends AbstractContourDataSetRendererParame
     @Override
     protected void render(GraphicsContext gc, DataSet dataSet, DataSetNode style) {
         long start = ProcessingProfiler.getTimeStamp();
-        localCache = new ContourDataSetCache(getChart(), this, dataSet); // NOPMD
+        final GridTilePyramid tilePyramid = getTilePyramid(dataSet);
+        localCache = new ContourDataSetCache(getChart(), this, dataSet, tilePyramid); // NOPMD
         ProcessingProfiler.getTimeDiff(start, "updateCachedVariables");
 
         // data reduction algorithm here
         paintCanvas(gc);
         localCache.releaseCachedVariables();
+        prefetchNeighbouringTiles(tilePyramid, (GridDataSet) dataSet, localCache);
         ProcessingProfiler.getTimeDiff(start, "finished drawing");
     }
 
+    /**
+     * @param dataSet the data set to be rendered
+     * @return the (data set specific) tile pyramid or {@code null} if disabled
+     */
+    protected GridTilePyramid getTilePyramid(final DataSet dataSet) {
+        if (!isTilePyramid() || !(dataSet instanceof GridDataSet)) {
+            tilePyramids.clear();
+            tilePyramidVersions.clear();
+            return null;
+        }
+        tilePyramids.keySet().removeIf(ds -> getDatasets().stream().noneMatch(other -> other == ds));
+        tilePyramidVersions.keySet().retainAll(tilePyramids.keySet());
+        final GridTilePyramid tilePyramid = tilePyramids.computeIfAbsent(dataSet, ds -> new GridTilePyramid());
+        if (isModifiedSinceLastRender(dataSet)) {
+            tilePyramid.invalidate();
+        }
+        tilePyramid.setMaxCacheSize(getMaxTileCacheSize());
+        return tilePyramid;
+    }
+
+    /**
+     * N.B. the data set's bit state is shared with (and possibly already cleared by) other charts, hence the version of
+     * its index change log is compared to the one of the cached tiles instead.
+     *
+     * @param dataSet the data set to be rendered
+     * @return true if the data has been modified since the data set's tile pyramid has been used last
+     */
+    private boolean isModifiedSinceLastRender(final DataSet dataSet) {
+        final IndexChangeLog changeLog = dataSet.getIndexChangeLog();
+        if (changeLog == null) {
+            // modifications are not tracked -> any data change of this chart may concern it
+            return getChart() == null || getChart().getBitState().isDirty(ChartBits.DataSetData);
+        }
+        final long version = changeLog.getVersion();
+        final Long cachedVersion = tilePyramidVersions.put(dataSet, version);
+        return cachedVersion != null && cachedVersion != version;
+    }
+
+    private void prefetchNeighbouringTiles(final GridTilePyramid tilePyramid, final GridDataSet dataSet, final ContourDataSetCache lCache) {
+        if (tilePyramid == null || lCache.pyramidLevel == 0) {
+            return;
+        }
+        // background computation of a one-tile margin around the visible range to speed up subsequent panning
+        final int tileSize = tilePyramid.getTileSize();
+        tilePyramid.prefetch(dataSet, lCache.pyramidLevel, getReductionType(), //
+                lCache.indexXMin / tileSize - 1, lCache.indexXMax / tileSize + 1, //
+                lCache.indexYMin / tileSize - 1, lCache.indexYMax / tileSize + 1);
+    }
+
     @Override
     public void shiftZAxisToLeft() {
         super.shiftZAxisToLeft();
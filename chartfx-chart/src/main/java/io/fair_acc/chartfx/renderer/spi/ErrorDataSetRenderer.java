@@ -1,5 +1,8 @@
 package io.fair_acc.chartfx.renderer.spi;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.shape.FillRule;
@@ -10,12 +13,16 @@ import org.slf4j.LoggerFactory;
 import io.fair_acc.chartfx.marker.Marker;
 import io.fair_acc.chartfx.renderer.ErrorStyle;
 import io.fair_acc.chartfx.renderer.Renderer;
+import io.fair_acc.chartfx.renderer.RendererDataReducer;
 import io.fair_acc.chartfx.renderer.spi.utils.BezierCurve;
+import io.fair_acc.chartfx.renderer.spi.utils.MarkerRasterBatch;
+import io.fair_acc.chartfx.renderer.spi.utils.StyleGroups;
 import io.fair_acc.chartfx.ui.css.DataSetNode;
 import io.fair_acc.chartfx.ui.css.DataSetStyleParser;
 import io.fair_acc.chartfx.utils.FastDoubleArrayCache;
 import io.fair_acc.dataset.DataSet;
 import io.fair_acc.dataset.DataSetError.ErrorType;
+import io.fair_acc.dataset.spi.LimitedIndexedTreeDataSet;
 import io.fair_acc.dataset.utils.ProcessingProfiler;
 
 /**
@@ -36,6 +43,19 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
     private static final Logger LOGGER = LoggerFactory.getLogger(ErrorDataSetRenderer.class);
 
     private final DataSetStyleParser styleParser = DataSetStyleParser.newInstance();
+    private final MarkerRasterBatch markerBatch = new MarkerRasterBatch();
+    private final StyleGroups styleGroups = new StyleGroups();
+    private final Map<DataSetNode, CachedDataPoints> pointsCaches = new IdentityHashMap<>();
+    // FX-thread state used by prepare(..), which may be invoked from worker threads (see updateCachedVariables())
+    private boolean cachedPolarPlot;
+    private double cachedXAxisLength;
+    private boolean cachedAssumeSortedData;
+    private boolean cachedCacheScreenCoordinates;
+    private ErrorStyle cachedErrorStyle;
+    private boolean cachedAllowNaNs;
+    private RendererDataReducer cachedDataReducer;
+    private boolean cachedReducePoints;
+    private int cachedMinRequiredReductionSize;
 
     /**
      * Creates new <code>ErrorDataSetRenderer</code>.
@@ -98,16 +118,94 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
         return true;
     }
 
+    @Override
+    public void render() {
+        markerBatch.reset();
+        super.render();
+        if (!isCacheScreenCoordinates() && !isParallelPrepare()) {
+            pointsCaches.clear();
+        } else if (!pointsCaches.isEmpty()) {
+            // release caches of data sets that have been removed
+            pointsCaches.keySet().retainAll(getDatasetNodes());
+        }
+    }
+
+    @Override
+    protected void updateCachedVariables() {
+        super.updateCachedVariables();
+        cachedPolarPlot = getChart().isPolarPlot();
+        cachedXAxisLength = xAxis.getLength();
+        cachedAssumeSortedData = isAssumeSortedData();
+        cachedCacheScreenCoordinates = isCacheScreenCoordinates();
+        cachedErrorStyle = getErrorType();
+        cachedAllowNaNs = isallowNaNs();
+        cachedDataReducer = rendererDataReducerProperty().get();
+        cachedReducePoints = isReducePoints();
+        cachedMinRequiredReductionSize = getMinRequiredReductionSize();
+    }
+
+    @Override
+    protected void drawPrepared(final GraphicsContext gc, final DataSetNode style) {
+        drawChartComponents(gc, style, getPointsCache(style));
+    }
+
+    /**
+     * @return true, N.B. derived renderers that customise {@link #render(GraphicsContext, DataSet, DataSetNode)} need to
+     *         override this accordingly
+     */
+    @Override
+    protected boolean isPrepareSupported() {
+        return true;
+    }
+
+    @Override
+    protected boolean prepare(final DataSet dataSet, final DataSetNode style) {
+        // N.B. invoked concurrently for all data sets: per-node cache and single-threaded transform per data set
+        return prepare(dataSet, style, getPointsCache(style), false) != null;
+    }
+
     @Override
     protected void render(final GraphicsContext gc, final DataSet dataSet, final DataSetNode style) {
         // N.B. print out for debugging purposes, please keep (used for
         // detecting redundant or too frequent render updates)
         // System.err.println(String.format("render for range [%f,%f] and dataset = '%s'", xMin, xMax, dataSet.getName()));
 
+        final CachedDataPoints pointsCache = isCacheScreenCoordinates() ? getPointsCache(style) : SHARED_POINTS_CACHE;
+        final CachedDataPoints points = prepare(dataSet, style, pointsCache, isParallelImplementation());
+        if (points == null) {
+            return;
+        }
+
+        // draw individual plot components
+        var timestamp = ProcessingProfiler.getTimeStamp();
+        drawChartComponents(gc, style, points);
+        if (ProcessingProfiler.getDebugState()) {
+            ProcessingProfiler.getTimeDiff(timestamp, "drawChartComponents()");
+        }
+    }
+
+    private CachedDataPoints getPointsCache(final DataSetNode style) {
+        synchronized (pointsCaches) {
+            return pointsCaches.computeIfAbsent(style, node -> new CachedDataPoints());
+        }
+    }
+
+    /**
+     * Computes the screen coordinates and performs the data reduction of the visible range of the given data set. N.B.
+     * only uses the renderer and chart state captured by {@link #updateCachedVariables()}.
+     *
+     * @param originalDataSet the data set to be rendered
+     * @param style the corresponding data set node
+     * @param pointsCache the cache to be filled
+     * @param parallel true: parallelise the screen coordinate transform of this data set
+     * @return the filled cache or {@code null} if there is nothing to be drawn
+     */
+    private CachedDataPoints prepare(final DataSet originalDataSet, final DataSetNode style, final CachedDataPoints pointsCache, final boolean parallel) {
         var timestamp = ProcessingProfiler.getTimeStamp();
+        final DataSet dataSet = getLevelOfDetail(originalDataSet);
         int indexMin;
         int indexMax; /* indexMax is excluded in the drawing */
-        if (isAssumeSortedData()) {
+        if (cachedAssumeSortedData) {
             indexMin = Math.max(0, dataSet.getIndex(DataSet.DIM_X, xMin) - 1);
             indexMax = Math.min(dataSet.getIndex(DataSet.DIM_X, xMax) + 2, dataSet.getDataCount());
         } else {
@@ -117,7 +215,7 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
 
         // zero length/range data set -> nothing to be drawn
         if (indexMax - indexMin <= 0) {
-            return;
+            return null;
         }
 
         if (ProcessingProfiler.getDebugState()) {
@@ -126,34 +224,54 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
         }
 
         final boolean enableErrorsX = true; // TODO: what is this used for?
-        final CachedDataPoints points = SHARED_POINTS_CACHE.resizeMin(indexMin, indexMax, dataSet.getDataCount(), enableErrorsX);
+        final CachedDataPoints points = pointsCache.resizeMin(indexMin, indexMax, dataSet.getDataCount(), enableErrorsX);
         if (ProcessingProfiler.getDebugState()) {
             timestamp = ProcessingProfiler.getTimeDiff(timestamp, "get CachedPoints");
         }
 
         // compute local screen coordinates
-        final boolean isPolarPlot = getChart().isPolarPlot();
-        if (isParallelImplementation()) {
+        if (cachedCacheScreenCoordinates) {
+            points.computeScreenCoordinatesIncremental(xAxis, yAxis, dataSet, style,
+                    indexMin, indexMax, cachedErrorStyle, cachedPolarPlot, cachedAllowNaNs, parallel);
+        } else if (parallel) {
             points.computeScreenCoordinatesInParallel(xAxis, yAxis, dataSet, style,
-                    indexMin, indexMax, getErrorType(), isPolarPlot,
-                    isallowNaNs());
+                    indexMin, indexMax, cachedErrorStyle, cachedPolarPlot,
+                    cachedAllowNaNs);
         } else {
             points.computeScreenCoordinates(xAxis, yAxis, dataSet, style,
-                    indexMin, indexMax, getErrorType(), isPolarPlot, isallowNaNs());
+                    indexMin, indexMax, cachedErrorStyle, cachedPolarPlot, cachedAllowNaNs);
         }
         if (ProcessingProfiler.getDebugState()) {
             timestamp = ProcessingProfiler.getTimeDiff(timestamp, "computeScreenCoordinates()");
         }
 
         // invoke data reduction algorithm
-        points.reduce(rendererDataReducerProperty().get(), isReducePoints(),
-                getMinRequiredReductionSize());
+        points.reduce(cachedDataReducer, cachedReducePoints, cachedMinRequiredReductionSize);
+        return points;
+    }
 
-        // draw individual plot components
-        drawChartComponents(gc, style, points);
-        if (ProcessingProfiler.getDebugState()) {
-            timestamp = ProcessingProfiler.getTimeDiff(timestamp, "drawChartComponents()");
+    /**
+     * @param dataSet the data set to be rendered
+     * @return level-of-detail view matching the screen resolution if the data set maintains one (see
+     *         {@link LimitedIndexedTreeDataSet#setLevelOfDetail(double)}) and more samples than pixels are visible,
+     *         otherwise the data set itself. N.B. may be invoked from worker threads and thus only uses the state
+     *         captured by {@link #updateCachedVariables()}.
+     */
+    protected DataSet getLevelOfDetail(final DataSet dataSet) {
+        if (!(dataSet instanceof LimitedIndexedTreeDataSet) || !cachedAssumeSortedData || cachedPolarPlot) {
+            return dataSet;
+        }
+        final LimitedIndexedTreeDataSet treeDataSet = (LimitedIndexedTreeDataSet) dataSet;
+        final double length = cachedXAxisLength;
+        if (treeDataSet.getLevelOfDetailCache() == null || !(length > 0) || !Double.isFinite(xMax - xMin)) {
+            return dataSet;
         }
+        final int visibleSamples = dataSet.getIndex(DataSet.DIM_X, xMax) - dataSet.getIndex(DataSet.DIM_X, xMin);
+        if (visibleSamples <= 2 * length) {
+            return dataSet;
+        }
+        final DataSet level = treeDataSet.getLevelOfDetail(Math.abs(xMax - xMin) / length);
+        return level == null ? dataSet : level;
     }
 
     /**
@@ -460,32 +578,50 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
         var markerColor = style.getMarkerColor();
         double markerSize = style.getMarkerSize();
 
-        gc.setLineWidth(style.getMarkerLineWidth());
+        double markerLineWidth = style.getMarkerLineWidth();
+
+        gc.setLineWidth(markerLineWidth);
         gc.setStroke(markerColor);
         gc.setFill(markerColor);
 
+        final boolean rasterize = isRasterizeMarkers() && markerBatch.begin(gc);
+        styleGroups.clear();
         for (int i = 0; i < points.actualDataCount; i++) {
             final double x = points.xValues[i];
             final double y = points.yValues[i];
-            if (!points.hasStyles || !styleParser.tryParse(points.styles[i])) {
-                if (markerSize == 0) {
-                    continue;
-                }
-                marker.draw(gc, x, y, markerSize);
-            } else {
-                double customSize = styleParser.getMarkerSize().orElse(markerSize);
-                if (customSize == 0) {
+            if (points.hasStyles && styleParser.tryParse(points.styles[i])) {
+                // custom styled points are drawn grouped by style below
+                styleGroups.add(styleParser.getParsedStyle(), i);
+                continue;
+            }
+            if (markerSize == 0 || (rasterize && markerBatch.add(x, y, marker, markerSize, markerLineWidth, markerColor, null))) {
+                continue;
+            }
+            marker.draw(gc, x, y, markerSize);
+        }
+
+        final int nGroups = styleGroups.sort();
+        for (int group = 0; group < nGroups; group++) {
+            final var customStyle = styleGroups.getStyle(group);
+            final double customSize = customStyle.getMarkerSize(markerSize);
+            if (customSize == 0) {
+                continue;
+            }
+            final var customColor = customStyle.getMarkerColor(markerColor);
+            final Marker customMarker = customStyle.getMarkerType(marker);
+            gc.setFill(customColor);
+            gc.setStroke(customColor);
+            for (int k = styleGroups.getGroupStart(group); k < styleGroups.getGroupEnd(group); k++) {
+                final int i = styleGroups.getIndex(k);
+                if (rasterize && markerBatch.add(points.xValues[i], points.yValues[i], customMarker, customSize, markerLineWidth, customColor, null)) {
                     continue;
                 }
-                var customColor = styleParser.getMarkerColor().orElse(markerColor);
-                Marker customMarker = styleParser.getMarkerType().orElse(marker);
-                gc.save();
-                gc.setFill(customColor);
-                gc.setStroke(customColor);
-                customMarker.draw(gc, x, y, customSize);
-                gc.restore();
+                customMarker.draw(gc, points.xValues[i], points.yValues[i], customSize);
             }
         }
+        if (rasterize) {
+            markerBatch.draw(gc);
+        }
 
         gc.restore();
     }
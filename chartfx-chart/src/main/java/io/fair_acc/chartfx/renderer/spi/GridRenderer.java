@@ -340,9 +340,9 @@ public class GridRenderer extends Parent implements Renderer {
     public void render() {
         benchDrawGrid.start();
         if (chart.isPolarPlot()) {
-            drawPolarGrid(chart.getCanvas().getGraphicsContext2D(), chart);
+            drawPolarGrid(chart.getRenderCanvas().getGraphicsContext2D(), chart);
         } else {
-            drawEuclideanGrid(chart.getCanvas().getGraphicsContext2D(), chart);
+            drawEuclideanGrid(chart.getRenderCanvas().getGraphicsContext2D(), chart);
         }
         benchDrawGrid.stop();
     }
@@ -304,9 +304,11 @@ public class HistogramRenderer extends AbstractErrorDataSetRendererParameter<His
         final double[] yValues = SHARED_ARRAYS.getArray(5, nRange);
 
         for (int i = 0; i < nRange; i++) {
-            xValues[i] = xAxis.getDisplayPosition(ds.get(DIM_X, min + i));
-            yValues[i] = yAxis.getDisplayPosition(ds.get(DIM_Y, min + i));
+            xValues[i] = ds.get(DIM_X, min + i);
+            yValues[i] = ds.get(DIM_Y, min + i);
         }
+        xAxis.getDisplayPositions(xValues, 0, xValues, 0, nRange);
+        yAxis.getDisplayPositions(yValues, 0, yValues, 0, nRange);
         BezierCurve.calcCurveControlPoints(xValues, yValues, xCp1, yCp1, xCp2, yCp2, nRange);
 
         gc.save();
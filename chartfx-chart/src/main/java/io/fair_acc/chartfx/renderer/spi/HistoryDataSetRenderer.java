@@ -35,6 +35,11 @@ public class HistoryDataSetRenderer extends ErrorDataSetRenderer implements Rend
         this.historyDepth = historyDepth;
     }
 
+    @Override
+    protected boolean isPrepareSupported() {
+        return false; // N.B. the history is rendered with a modified style intensity
+    }
+
     @Override
     protected void render(final GraphicsContext gc, final DataSet dataSet, final DataSetNode style) {
         final double originalIntensity = style.getIntensity();
@@ -69,6 +69,11 @@ public class MountainRangeRenderer extends ErrorDataSetRenderer implements Rende
 
     double zRangeMin, zRangeMax;
 
+    @Override
+    protected boolean isPrepareSupported() {
+        return false; // N.B. the 3D data set is demultiplexed and the y-axis adjusted while rendering
+    }
+
     @Override
     protected void render(final GraphicsContext gc, final DataSet dataSet, final DataSetNode style) {
         // detect and fish-out 3D DataSet, ignore others
@@ -0,0 +1,109 @@
+package io.fair_acc.chartfx.renderer.spi.marchingsquares;
+
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * Flat representation of all polylines of one contour level as computed by {@link TiledMarchingSquares}.
+ * <p>
+ * The coordinates of all polylines are stored back-to-back in the {@link #getX()} and {@link #getY()} arrays and are
+ * given in grid index units, i.e. the sample at column {@code i} and row {@code j} is located at {@code (i, j)}.
+ * Polyline {@code k} covers the index range [{@link #getPolylineStart(int) getPolylineStart(k)},
+ * {@link #getPolylineStart(int) getPolylineStart(k + 1)}[. Closed polylines repeat their first point at the end.
+ */
+public final class Isoline {
+    private static final double[] EMPTY_COORDINATES = new double[0];
+    private static final int[] EMPTY_OFFSETS = { 0 };
+    private final double level;
+    private final double[] x;
+    private final double[] y;
+    private final int[] offsets;
+
+    Isoline(final double level, final double[] x, final double[] y, final int[] offsets) {
+        this.level = level;
+        this.x = x;
+        this.y = y;
+        this.offsets = offsets;
+    }
+
+    Isoline(final double level) {
+        this(level, EMPTY_COORDINATES, EMPTY_COORDINATES, EMPTY_OFFSETS);
+    }
+
+    /**
+     * Strokes all polylines of this level as a single path using the current stroke settings and transform of the
+     * graphics context.
+     *
+     * @param gc the graphics context to draw on
+     * @return number of drawn points
+     */
+    public int draw(final GraphicsContext gc) {
+        final int nPolylines = getPolylineCount();
+        if (nPolylines == 0) {
+            return 0;
+        }
+        gc.beginPath();
+        for (int k = 0; k < nPolylines; k++) {
+            final int start = offsets[k];
+            final int end = offsets[k + 1];
+            final boolean closed = end - start > 2 && x[start] == x[end - 1] && y[start] == y[end - 1];
+            gc.moveTo(x[start], y[start]);
+            for (int i = start + 1; i < (closed ? end - 1 : end); i++) {
+                gc.lineTo(x[i], y[i]);
+            }
+            if (closed) {
+                gc.closePath();
+            }
+        }
+        gc.stroke();
+        return getPointCount();
+    }
+
+    /**
+     * @return the contour level (iso-value)
+     */
+    public double getLevel() {
+        return level;
+    }
+
+    /**
+     * @return total number of points of all polylines
+     */
+    public int getPointCount() {
+        return offsets[offsets.length - 1];
+    }
+
+    /**
+     * @return number of polylines
+     */
+    public int getPolylineCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * @param index polyline index in the range [0, {@link #getPolylineCount()}] (N.B. inclusive upper bound to
+     *        simplify range computations)
+     * @return index of the first point of the given polyline
+     */
+    public int getPolylineStart(final int index) {
+        return offsets[index];
+    }
+
+    /**
+     * @return horizontal coordinates of all polylines (N.B. internal array, not to be modified)
+     */
+    public double[] getX() { // NOPMD - direct access to internal array by design
+        return x;
+    }
+
+    /**
+     * @return vertical coordinates of all polylines (N.B. internal array, not to be modified)
+     */
+    public double[] getY() { // NOPMD - direct access to internal array by design
+        return y;
+    }
+
+    @Override
+    public String toString() {
+        return "Isoline{level=" + level + ", polylines=" + getPolylineCount() + ", points=" + getPointCount() + '}';
+    }
+}
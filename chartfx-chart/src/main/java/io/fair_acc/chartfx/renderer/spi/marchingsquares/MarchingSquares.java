@@ -16,6 +16,8 @@ import io.fair_acc.dataset.utils.ProcessingProfiler;
  * <p>
  * Implementation of the Marching Squares algorithm described in: {@code https://en.wikipedia.org/wiki/Marching_squares}
  * </p>
+ * N.B. see {@link TiledMarchingSquares} for an allocation-free implementation that is better suited for many contour
+ * levels and large grids.
  */
 public class MarchingSquares {
     private static final ExecutorService ES = Executors.newCachedThreadPool(CachedDaemonThreadFactory.getInstance());
@@ -0,0 +1,747 @@
+package io.fair_acc.chartfx.renderer.spi.marchingsquares;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import io.fair_acc.dataset.utils.CachedDaemonThreadFactory;
+import io.fair_acc.dataset.utils.ProcessingProfiler;
+
+/**
+ * Primitive-array implementation of the Marching Squares algorithm (see {@link MarchingSquares}) for many contour
+ * levels on large grids:
+ * <ul>
+ * <li>all levels are classified in one shared pass: each grid point stores the number of levels it exceeds, so that a
+ * cell is only visited for the levels that actually cross it (i.e. between the minimum and maximum of its corners),
+ * <li>the grid is split into horizontal tiles that are traced concurrently, polylines ending on the seams between
+ * tiles are stitched afterwards,
+ * <li>no per-cell or per-segment objects are allocated; the result is one flat {@link Isoline} per level,
+ * <li>the data is not copied into a padded matrix: samples outside the grid are treated as being below all levels
+ * (as well as {@code NaN} values), so that all isolines are closed,
+ * <li>results are cached and returned as-is as long as the caller-provided version of the grid data and the levels do
+ * not change, i.e. without comparing or copying the grid.
+ * </ul>
+ */
+public class TiledMarchingSquares {
+    public static final int DEFAULT_TILE_ROWS = 64;
+    public static final int MAX_LEVELS = Short.MAX_VALUE;
+    private static final String PARALLEL_WORKER_ERROR = "one parallel worker thread finished execution with error";
+    // cell edges
+    private static final int BOTTOM = 0;
+    private static final int RIGHT = 1;
+    private static final int TOP = 2;
+    private static final int LEFT = 3;
+    private static final int[] EDGE_MASK = new int[16]; // cell case -> crossed edges
+    private static final int[] SADDLE_BL_TR = { LEFT, TOP, RIGHT, BOTTOM }; // entry -> exit, isolating bottom-left and top-right
+    private static final int[] SADDLE_BR_TL = { RIGHT, BOTTOM, LEFT, TOP }; // entry -> exit, isolating bottom-right and top-left
+    private boolean parallel = true;
+    private int tileRows = DEFAULT_TILE_ROWS;
+    private final List<Tile> tiles = new ArrayList<>();
+    // cached input and result
+    private long cachedDataVersion = -1;
+    private double[] cachedLevels = new double[0];
+    private int cachedWidth = -1;
+    private int cachedHeight = -1;
+    private Isoline[] cachedResult;
+    // state of the current computation
+    private double[] data;
+    private int nx;
+    private int ny;
+    private int nxPadded; // number of grid points per row incl. the virtual guard columns
+    private double[] sortedLevels;
+    private int[] levelOrder;
+    private short[] bins = new short[0]; // number of (sorted) levels below the given sample
+
+    static {
+        for (int ndx = 0; ndx < 16; ndx++) {
+            // corner bits: 1: bottom-left, 2: bottom-right, 4: top-right, 8: top-left
+            final int bl = ndx & 1;
+            final int br = ndx >> 1 & 1;
+            final int tr = ndx >> 2 & 1;
+            final int tl = ndx >> 3 & 1;
+            EDGE_MASK[ndx] = (bl ^ br) << BOTTOM | (br ^ tr) << RIGHT | (tl ^ tr) << TOP | (bl ^ tl) << LEFT;
+        }
+    }
+
+    /**
+     * Computes the isolines of the given grid (N.B. not cached, see {@link #buildContours(double[], int, int, double[], long)}).
+     *
+     * @param data row-major grid data, i.e. {@code data[row * width + column]}, only the first {@code width * height}
+     *        values are used
+     * @param width number of columns
+     * @param height number of rows
+     * @param levels contour levels (iso-values), not required to be sorted
+     * @return one {@link Isoline} per level in the order of {@code levels}, coordinates are in grid index units
+     */
+    public Isoline[] buildContours(final double[] data, final int width, final int height, final double[] levels) {
+        return buildContours(data, width, height, levels, -1);
+    }
+
+    /**
+     * Computes (or returns the cached) isolines of the given grid.
+     *
+     * @param data row-major grid data, i.e. {@code data[row * width + column]}, only the first {@code width * height}
+     *        values are used
+     * @param width number of columns
+     * @param height number of rows
+     * @param levels contour levels (iso-values), not required to be sorted
+     * @param dataVersion caller-defined version of the grid data that changes whenever the data changes (e.g. derived
+     *        from the data set's {@link io.fair_acc.dataset.events.IndexChangeLog#getVersion() change log}), negative
+     *        if unknown: the previous result is returned if the version, the grid size and the levels are unchanged
+     * @return one {@link Isoline} per level in the order of {@code levels}, coordinates are in grid index units (N.B.
+     *         cached instance, not to be modified)
+     */
+    public synchronized Isoline[] buildContours(final double[] data, final int width, final int height, final double[] levels, final long dataVersion) {
+        if (data == null) {
+            throw new IllegalArgumentException("data must not be null");
+        }
+        if (levels == null) {
+            throw new IllegalArgumentException("levels must not be null");
+        }
+        if (width < 1 || height < 1 || data.length < width * height) {
+            throw new IllegalArgumentException("data.length(" + data.length + ") must be >= " + width + " (width) x " + height + " (height) > 0");
+        }
+        if (levels.length > MAX_LEVELS) {
+            throw new IllegalArgumentException("number of levels " + levels.length + " exceeds " + MAX_LEVELS);
+        }
+        if (2L * (width + 2) * (height + 2) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("grid size " + width + " x " + height + " is too large");
+        }
+        final int nData = width * height;
+        if (cachedResult != null && dataVersion >= 0 && dataVersion == cachedDataVersion && cachedWidth == width
+                && cachedHeight == height && Arrays.equals(cachedLevels, levels)) {
+            return cachedResult;
+        }
+
+        final long start = ProcessingProfiler.getTimeStamp();
+        this.data = data;
+        nx = width;
+        ny = height;
+        nxPadded = width + 2;
+        sortLevels(levels);
+        if (bins.length < nData) {
+            bins = new short[nData];
+        }
+        prepareTiles();
+        final List<Callable<Boolean>> classifiers = new ArrayList<>(tiles.size());
+        final List<Callable<Boolean>> tracers = new ArrayList<>(tiles.size());
+        for (final Tile tile : tiles) {
+            classifiers.add(tile::classify);
+            tracers.add(tile::trace);
+        }
+        execute(classifiers); // N.B. needs to be completed before tracing since cells span adjacent tiles
+        execute(tracers);
+        final Isoline[] result = new Isoline[levels.length];
+        final int nChunks = Math.min(levels.length, parallel ? CachedDaemonThreadFactory.getNumbersOfThreads() : 1);
+        final List<Callable<Boolean>> workers = new ArrayList<>(nChunks);
+        for (int chunk = 0; chunk < nChunks; chunk++) {
+            final int from = chunk * levels.length / nChunks;
+            final int to = (chunk + 1) * levels.length / nChunks;
+            workers.add(() -> {
+                final Stitcher stitcher = new Stitcher();
+                for (int level = from; level < to; level++) {
+                    result[levelOrder[level]] = stitcher.stitch(level);
+                }
+                return Boolean.TRUE;
+            });
+        }
+        execute(workers);
+
+        // update cache
+        cachedDataVersion = dataVersion;
+        cachedLevels = levels.clone();
+        cachedWidth = width;
+        cachedHeight = height;
+        cachedResult = result;
+        this.data = null; // NOPMD - do not retain the user's array
+        ProcessingProfiler.getTimeDiff(start, "built " + levels.length + " contours");
+        return result;
+    }
+
+    /**
+     * @return number of cell rows per tile
+     */
+    public int getTileRows() {
+        return tileRows;
+    }
+
+    /**
+     * Discards the cached result, i.e. forces a re-computation on the next call to {@link #buildContours}.
+     */
+    public synchronized void invalidate() {
+        cachedResult = null;
+    }
+
+    /**
+     * @return true: tiles and levels are processed concurrently
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * @param parallel true: tiles and levels are processed concurrently
+     * @return itself (fluent design)
+     */
+    public TiledMarchingSquares setParallel(final boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    /**
+     * @param tileRows number of cell rows per tile (N.B. only affects the performance, not the result)
+     * @return itself (fluent design)
+     */
+    public synchronized TiledMarchingSquares setTileRows(final int tileRows) {
+        if (tileRows < 1) {
+            throw new IllegalArgumentException("tileRows must be >= 1: " + tileRows);
+        }
+        this.tileRows = tileRows;
+        return this;
+    }
+
+    private int bin(final int row, final int column) { // N.B. padded coordinates
+        if (row <= 0 || column <= 0 || row > ny || column > nx) {
+            return 0; // virtual guard: below all levels
+        }
+        return bins[(row - 1) * nx + column - 1];
+    }
+
+    private int caseIndex(final int row, final int column, final int level) {
+        int ndx = 0;
+        ndx |= bin(row, column) > level ? 1 : 0;
+        ndx |= bin(row, column + 1) > level ? 2 : 0;
+        ndx |= bin(row + 1, column + 1) > level ? 4 : 0;
+        ndx |= bin(row + 1, column) > level ? 8 : 0;
+        return ndx;
+    }
+
+    private int edgeId(final int row, final int column, final int edge) {
+        switch (edge) {
+        case BOTTOM:
+            return (row * nxPadded + column) << 1;
+        case TOP:
+            return ((row + 1) * nxPadded + column) << 1;
+        case LEFT:
+            return (row * nxPadded + column) << 1 | 1;
+        case RIGHT:
+        default:
+            return (row * nxPadded + column + 1) << 1 | 1;
+        }
+    }
+
+    private void execute(final List<Callable<Boolean>> workers) {
+        try {
+            if (!parallel || workers.size() <= 1 || CachedDaemonThreadFactory.getNumbersOfThreads() <= 1) {
+                for (final Callable<Boolean> worker : workers) {
+                    worker.call();
+                }
+                return;
+            }
+            for (final Future<Boolean> future : CachedDaemonThreadFactory.getCommonPool().invokeAll(workers)) {
+                if (Boolean.FALSE.equals(future.get())) {
+                    throw new IllegalStateException(PARALLEL_WORKER_ERROR);
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(PARALLEL_WORKER_ERROR, e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(PARALLEL_WORKER_ERROR, e);
+        } catch (final Exception e) { // NOPMD - Callable::call signature
+            throw new IllegalStateException(PARALLEL_WORKER_ERROR, e);
+        }
+    }
+
+    /**
+     * @return packed exit edge (bits 0-1) and segment index (bit 2) of the cell for the given entry edge
+     */
+    private int exit(final int row, final int column, final int level, final int entry) {
+        final int ndx = caseIndex(row, column, level);
+        if (ndx == 5 || ndx == 10) {
+            final int exit = isIsolatingBottomLeft(row, column, level, ndx) ? SADDLE_BL_TR[entry] : SADDLE_BR_TL[entry];
+            return entry == BOTTOM || exit == BOTTOM ? exit : exit | 4;
+        }
+        return Integer.numberOfTrailingZeros(EDGE_MASK[ndx] & ~(1 << entry));
+    }
+
+    private boolean isIsolatingBottomLeft(final int row, final int column, final int level, final int ndx) {
+        // resolve the saddle ambiguity using the average data value at the centre of the cell
+        // N.B. saddles only occur in inner cells, i.e. all corners are within the grid
+        final int index = (row - 1) * nx + column - 1;
+        final double centre = 0.25 * (data[index] + data[index + 1] + data[index + nx] + data[index + nx + 1]);
+        return (ndx == 5) != (centre > sortedLevels[level]);
+    }
+
+    private void prepareTiles() {
+        final int nCellRows = ny + 1;
+        final int nTiles = (nCellRows + tileRows - 1) / tileRows;
+        while (tiles.size() > nTiles) {
+            tiles.remove(tiles.size() - 1);
+        }
+        while (tiles.size() < nTiles) {
+            tiles.add(new Tile());
+        }
+        for (int i = 0; i < nTiles; i++) {
+            tiles.get(i).init(i * tileRows, Math.min(nCellRows, (i + 1) * tileRows));
+        }
+    }
+
+    private void sortLevels(final double[] levels) {
+        final int nLevels = levels.length;
+        sortedLevels = levels.clone();
+        Arrays.sort(sortedLevels);
+        levelOrder = new int[nLevels];
+        final boolean[] assigned = new boolean[nLevels]; // N.B. handles duplicate levels
+        for (int i = 0; i < nLevels; i++) {
+            // first sorted index of the level (N.B. same total order as Arrays.sort)
+            int low = 0;
+            int high = nLevels;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (Double.compare(sortedLevels[mid], levels[i]) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            while (assigned[low]) {
+                low++;
+            }
+            assigned[low] = true;
+            levelOrder[low] = i;
+        }
+    }
+
+    private double value(final int row, final int column) { // N.B. padded coordinates
+        if (row <= 0 || column <= 0 || row > ny || column > nx) {
+            return Double.NaN; // virtual guard
+        }
+        return data[(row - 1) * nx + column - 1];
+    }
+
+    /**
+     * @param sorted ascending levels
+     * @param value sample value
+     * @return number of levels that are strictly below the given value (0 for NaN)
+     */
+    private static int countLevelsBelow(final double[] sorted, final double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Primitive growable int array
+     */
+    private static final class IntList {
+        private int[] elements = new int[16];
+        private int size;
+
+        void add(final int value) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size << 1);
+            }
+            elements[size++] = value;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        int get(final int index) {
+            return elements[index];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Joins the open polylines of adjacent tiles and converts the edge sequences to coordinates
+     */
+    private final class Stitcher {
+        private static final int EMPTY = -1;
+        private final IntList polyEdges = new IntList();
+        private final IntList polyOffsets = new IntList();
+        private final IntList openTile = new IntList();
+        private final IntList openChain = new IntList();
+        private int[] keys = new int[0];
+        private int[] first = new int[0];
+        private int[] second = new int[0];
+
+        Isoline stitch(final int level) {
+            polyEdges.clear();
+            polyOffsets.clear();
+            openTile.clear();
+            openChain.clear();
+            for (int t = 0; t < tiles.size(); t++) {
+                final Tile tile = tiles.get(t);
+                for (int chain = tile.levelChain[level]; chain < tile.levelChain[level + 1]; chain++) {
+                    if (tile.chainClosed.get(chain) != 0) {
+                        polyOffsets.add(polyEdges.size());
+                        append(tile, chain, false, 0);
+                    } else {
+                        openTile.add(t);
+                        openChain.add(chain);
+                    }
+                }
+            }
+            stitchOpenChains();
+            return toIsoline(level);
+        }
+
+        private void append(final Tile tile, final int chain, final boolean reverse, final int skip) {
+            final int start = tile.chainOffset.get(chain);
+            final int end = tile.chainOffset.get(chain + 1);
+            if (reverse) {
+                for (int i = end - 1 - skip; i >= start; i--) {
+                    polyEdges.add(tile.edges.get(i));
+                }
+            } else {
+                for (int i = start + skip; i < end; i++) {
+                    polyEdges.add(tile.edges.get(i));
+                }
+            }
+        }
+
+        private int endEdge(final int open, final int end) {
+            final Tile tile = tiles.get(openTile.get(open));
+            final int chain = openChain.get(open);
+            return tile.edges.get(end == 0 ? tile.chainOffset.get(chain) : tile.chainOffset.get(chain + 1) - 1);
+        }
+
+        private int index(final int nOpen) {
+            final int capacity = Integer.highestOneBit(Math.max(4, 4 * nOpen - 1)) << 1;
+            if (keys.length < capacity) {
+                keys = new int[capacity];
+                first = new int[capacity];
+                second = new int[capacity];
+            }
+            Arrays.fill(keys, 0, capacity, EMPTY);
+            final int mask = capacity - 1;
+            for (int descriptor = 0; descriptor < 2 * nOpen; descriptor++) {
+                final int edge = endEdge(descriptor >> 1, descriptor & 1);
+                int slot = (edge * 0x9E3779B1) & mask;
+                while (keys[slot] != EMPTY && keys[slot] != edge) {
+                    slot = (slot + 1) & mask;
+                }
+                if (keys[slot] == EMPTY) {
+                    keys[slot] = edge;
+                    first[slot] = descriptor;
+                    second[slot] = EMPTY;
+                } else {
+                    second[slot] = descriptor;
+                }
+            }
+            return mask;
+        }
+
+        private int partner(final int descriptor, final int capacityMask) {
+            final int edge = endEdge(descriptor >> 1, descriptor & 1);
+            int slot = (edge * 0x9E3779B1) & capacityMask;
+            while (keys[slot] != edge) {
+                slot = (slot + 1) & capacityMask;
+            }
+            return first[slot] == descriptor ? second[slot] : first[slot];
+        }
+
+        private void stitchOpenChains() {
+            final int nOpen = openChain.size();
+            if (nOpen == 0) {
+                return;
+            }
+            final int capacityMask = index(nOpen);
+            final boolean[] used = new boolean[nOpen];
+            for (int open = 0; open < nOpen; open++) {
+                if (used[open]) {
+                    continue;
+                }
+                used[open] = true;
+                polyOffsets.add(polyEdges.size());
+                append(tiles.get(openTile.get(open)), openChain.get(open), false, 0);
+                int descriptor = open << 1 | 1; // leaving via the end of the chain
+                while (true) {
+                    final int next = partner(descriptor, capacityMask);
+                    if (next == EMPTY || used[next >> 1]) {
+                        break; // N.B. closed polyline if next is the start of the first chain
+                    }
+                    used[next >> 1] = true;
+                    // N.B. skip the shared seam edge
+                    append(tiles.get(openTile.get(next >> 1)), openChain.get(next >> 1), (next & 1) == 1, 1);
+                    descriptor = next ^ 1;
+                }
+            }
+        }
+
+        private Isoline toIsoline(final int level) {
+            final int nPolylines = polyOffsets.size();
+            if (nPolylines == 0) {
+                return new Isoline(sortedLevels[level]);
+            }
+            final double isoValue = sortedLevels[level];
+            final int nEdges = polyEdges.size();
+            double[] x = new double[nEdges];
+            double[] y = new double[nEdges];
+            final int[] offsets = new int[nPolylines + 1];
+            int count = 0;
+            for (int k = 0; k < nPolylines; k++) {
+                offsets[k] = count;
+                final int end = k + 1 < nPolylines ? polyOffsets.get(k + 1) : nEdges;
+                for (int i = polyOffsets.get(k); i < end; i++) {
+                    final int edge = polyEdges.get(i);
+                    final int point = edge >>> 1;
+                    final int row = point / nxPadded;
+                    final int column = point % nxPadded;
+                    final boolean vertical = (edge & 1) == 1;
+                    final double v0 = value(row, column);
+                    final double v1 = vertical ? value(row + 1, column) : value(row, column + 1);
+                    final double t;
+                    if (Double.isNaN(v0)) {
+                        t = 1.0; // N.B. crossing at the valid sample
+                    } else if (Double.isNaN(v1)) {
+                        t = 0.0;
+                    } else {
+                        final double interpolated = (isoValue - v0) / (v1 - v0);
+                        t = Double.isNaN(interpolated) ? 0.5 : Math.max(0.0, Math.min(1.0, interpolated));
+                    }
+                    final double px = column - 1 + (vertical ? 0.0 : t);
+                    final double py = row - 1 + (vertical ? t : 0.0);
+                    if (count > offsets[k] && x[count - 1] == px && y[count - 1] == py) {
+                        continue; // N.B. may occur at the grid border
+                    }
+                    x[count] = px;
+                    y[count] = py;
+                    count++;
+                }
+            }
+            offsets[nPolylines] = count;
+            if (count < nEdges) {
+                x = Arrays.copyOf(x, count);
+                y = Arrays.copyOf(y, count);
+            }
+            return new Isoline(isoValue, x, y, offsets);
+        }
+    }
+
+    /**
+     * Horizontal band of cell rows [rowMin, rowMax[ (in padded coordinates, i.e. cell row {@code r} spans the padded
+     * grid rows {@code r} and {@code r + 1})
+     */
+    private final class Tile {
+        private int rowMin;
+        private int rowMax;
+        private int[] levelStart = new int[0]; // cells sorted by level: [levelStart[l], levelStart[l + 1][
+        private int[] cells = new int[0]; // local cell indices
+        private int[] stamp = new int[0]; // level + 1 for which the cell's segments have been visited
+        private byte[] visited = new byte[0]; // visited segments bit mask
+        private final IntList edges = new IntList();
+        private final IntList chainOffset = new IntList();
+        private final IntList chainClosed = new IntList();
+        private final IntList scratch = new IntList();
+        private int[] levelChain = new int[0]; // chains of level l: [levelChain[l], levelChain[l + 1][
+
+        Boolean classify() {
+            // N.B. each tile classifies the data rows of the lower corners of its cells
+            final int dataRowMin = Math.max(0, rowMin - 1);
+            final int dataRowMax = Math.min(ny, rowMax - 1);
+            double lastValue = Double.NaN;
+            int lastBin = 0;
+            for (int index = dataRowMin * nx; index < dataRowMax * nx; index++) {
+                final double value = data[index];
+                if (value != lastValue) { // NOPMD - exact comparison intended, NaN always re-computed (-> 0)
+                    lastValue = value;
+                    lastBin = countLevelsBelow(sortedLevels, value);
+                }
+                bins[index] = (short) lastBin;
+            }
+            return Boolean.TRUE;
+        }
+
+        void init(final int rowMin, final int rowMax) {
+            this.rowMin = rowMin;
+            this.rowMax = rowMax;
+            final int nCells = (rowMax - rowMin) * (nx + 1);
+            if (stamp.length < nCells) {
+                stamp = new int[nCells];
+                visited = new byte[nCells];
+            } else {
+                Arrays.fill(stamp, 0, nCells, 0);
+            }
+            final int nLevels = sortedLevels.length;
+            if (levelStart.length < nLevels + 1) {
+                levelStart = new int[nLevels + 1];
+                levelChain = new int[nLevels + 1];
+            }
+            edges.clear();
+            chainOffset.clear();
+            chainClosed.clear();
+        }
+
+        Boolean trace() {
+            sortCellsByLevel();
+            final int nLevels = sortedLevels.length;
+            final int nColumns = nx + 1;
+            for (int level = 0; level < nLevels; level++) {
+                levelChain[level] = chainClosed.size();
+                for (int i = levelStart[level]; i < levelStart[level + 1]; i++) {
+                    final int local = cells[i];
+                    final int row = rowMin + local / nColumns;
+                    final int column = local % nColumns;
+                    final int ndx = caseIndex(row, column, level);
+                    final int mask = EDGE_MASK[ndx];
+                    if (ndx == 5 || ndx == 10) {
+                        final int[] pairs = isIsolatingBottomLeft(row, column, level, ndx) ? SADDLE_BL_TR : SADDLE_BR_TL;
+                        traceSegment(row, column, level, BOTTOM, pairs[BOTTOM], 0);
+                        traceSegment(row, column, level, TOP, pairs[TOP], 1);
+                    } else {
+                        final int e0 = Integer.numberOfTrailingZeros(mask);
+                        traceSegment(row, column, level, e0, Integer.numberOfTrailingZeros(mask & ~(1 << e0)), 0);
+                    }
+                }
+            }
+            levelChain[nLevels] = chainClosed.size();
+            chainOffset.add(edges.size());
+            return Boolean.TRUE;
+        }
+
+        private boolean isVisited(final int row, final int column, final int level, final int segment) {
+            final int local = (row - rowMin) * (nx + 1) + column;
+            return stamp[local] == level + 1 && (visited[local] & (1 << segment)) != 0;
+        }
+
+        private void markVisited(final int row, final int column, final int level, final int segment) {
+            final int local = (row - rowMin) * (nx + 1) + column;
+            if (stamp[local] != level + 1) {
+                stamp[local] = level + 1;
+                visited[local] = 0;
+            }
+            visited[local] |= (byte) (1 << segment);
+        }
+
+        private void sortCellsByLevel() {
+            // counting sort of the (cell, level) crossings, each cell is crossed by levels [min(bins), max(bins)[
+            final int nLevels = sortedLevels.length;
+            Arrays.fill(levelStart, 0, nLevels + 1, 0);
+            int total = 0;
+            for (int row = rowMin; row < rowMax; row++) {
+                for (int column = 0; column <= nx; column++) {
+                    final int b0 = bin(row, column);
+                    final int b1 = bin(row, column + 1);
+                    final int b2 = bin(row + 1, column + 1);
+                    final int b3 = bin(row + 1, column);
+                    final int max = Math.max(Math.max(b0, b1), Math.max(b2, b3));
+                    for (int level = Math.min(Math.min(b0, b1), Math.min(b2, b3)); level < max; level++) {
+                        levelStart[level + 1]++;
+                        total++;
+                    }
+                }
+            }
+            for (int level = 0; level < nLevels; level++) {
+                levelStart[level + 1] += levelStart[level];
+            }
+            if (cells.length < total) {
+                cells = new int[total];
+            }
+            final int nColumns = nx + 1;
+            for (int row = rowMin; row < rowMax; row++) {
+                for (int column = 0; column <= nx; column++) {
+                    final int b0 = bin(row, column);
+                    final int b1 = bin(row, column + 1);
+                    final int b2 = bin(row + 1, column + 1);
+                    final int b3 = bin(row + 1, column);
+                    final int max = Math.max(Math.max(b0, b1), Math.max(b2, b3));
+                    final int local = (row - rowMin) * nColumns + column;
+                    for (int level = Math.min(Math.min(b0, b1), Math.min(b2, b3)); level < max; level++) {
+                        cells[levelStart[level]++] = local;
+                    }
+                }
+            }
+            // restore start offsets shifted by the fill above
+            for (int level = nLevels; level > 0; level--) {
+                levelStart[level] = levelStart[level - 1];
+            }
+            levelStart[0] = 0;
+        }
+
+        private void traceSegment(final int row, final int column, final int level, final int e0, final int e1, final int segment) {
+            if (isVisited(row, column, level, segment)) {
+                return;
+            }
+            markVisited(row, column, level, segment);
+            chainOffset.add(edges.size());
+            // walk backwards first: either closes the loop or ends at a tile seam
+            scratch.clear();
+            if (walk(row, column, level, e0, scratch)) {
+                edges.add(edgeId(row, column, e1));
+                edges.add(edgeId(row, column, e0));
+                for (int i = 0; i < scratch.size(); i++) {
+                    edges.add(scratch.get(i));
+                }
+                chainClosed.add(1);
+                return;
+            }
+            for (int i = scratch.size() - 1; i >= 0; i--) {
+                edges.add(scratch.get(i));
+            }
+            edges.add(edgeId(row, column, e0));
+            edges.add(edgeId(row, column, e1));
+            walk(row, column, level, e1, edges);
+            chainClosed.add(0);
+        }
+
+        /**
+         * @return true if the walk returned to an already visited segment (closed loop), false if it left the tile
+         */
+        private boolean walk(final int startRow, final int startColumn, final int level, final int startExit, final IntList out) {
+            int row = startRow;
+            int column = startColumn;
+            int exit = startExit;
+            while (true) {
+                final int entry;
+                switch (exit) {
+                case BOTTOM:
+                    row--;
+                    entry = TOP;
+                    break;
+                case TOP:
+                    row++;
+                    entry = BOTTOM;
+                    break;
+                case LEFT:
+                    column--;
+                    entry = RIGHT;
+                    break;
+                case RIGHT:
+                default:
+                    column++;
+                    entry = LEFT;
+                    break;
+                }
+                if (row < rowMin || row >= rowMax) {
+                    return false; // N.B. the seam edge has been added as last element
+                }
+                final int code = exit(row, column, level, entry);
+                final int segment = code >> 2;
+                if (isVisited(row, column, level, segment)) {
+                    return true;
+                }
+                markVisited(row, column, level, segment);
+                exit = code & 3;
+                out.add(edgeId(row, column, exit));
+            }
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package io.fair_acc.chartfx.renderer.spi.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.transform.Affine;
+
+import io.fair_acc.chartfx.marker.DefaultMarker;
+import io.fair_acc.chartfx.marker.Marker;
+import io.fair_acc.chartfx.marker.MarkerRasterizer;
+import io.fair_acc.chartfx.marker.MarkerRasterizer.Sprite;
+
+/**
+ * Collects markers of one draw call and rasterises them into an off-heap ARGB pixel buffer that is composited onto the
+ * canvas with a single {@code drawImage} call. This replaces the one-or-more path commands per marker issued by
+ * {@link Marker#draw} that otherwise saturate the Prism command buffer for large scatter plots.
+ * <p>
+ * Usage per frame:
+ * <ol>
+ * <li>{@link #reset()} once at the start of the renderer's frame,</li>
+ * <li>{@link #begin(GraphicsContext)} per data set, falling back to vector drawing if it returns {@code false},</li>
+ * <li>{@link #add} per point, drawing the point with {@link Marker#draw} if it returns {@code false},</li>
+ * <li>{@link #draw(GraphicsContext)} to composite the collected markers.</li>
+ * </ol>
+ * Each {@link #draw(GraphicsContext)} within a frame uses its own image since the canvas only reads the pixels when the
+ * scene graph is rendered. The images are sized to the bounding box of the collected markers rather than to the canvas.
+ */
+public class MarkerRasterBatch {
+    private static final int MAX_STYLE_LOOK_BACK = 16;
+    private static final int LAYER_GRANULARITY = 64; // [pixels] layer sizes are rounded up to reduce re-allocations
+    private final MarkerRasterizer rasterizer = new MarkerRasterizer();
+    private final List<Layer> layers = new ArrayList<>();
+    private final List<Sprite[]> styleSprites = new ArrayList<>();
+    private int[] styleColors = new int[8];
+    private int layerIndex;
+    private double[] xValues = new double[0];
+    private double[] yValues = new double[0];
+    private int[] styleIndices = new int[0];
+    private int count;
+    // canvas geometry in user coordinates and device pixels
+    private double originX;
+    private double originY;
+    private double scale = 1.0;
+    private int deviceWidth;
+    private int deviceHeight;
+    private final int[] bounds = new int[4];
+    // last used style for quick look-up
+    private Marker lastMarker;
+    private double lastSize = Double.NaN;
+    private double lastLineWidth = Double.NaN;
+    private Paint lastColor;
+    private int lastStyle = -1;
+
+    /**
+     * Prepares the batch for the given graphics context
+     *
+     * @param gc the graphics context the markers are going to be composited on
+     * @return {@code false} if the markers cannot be rasterised for this context (e.g. rotated/scaled transforms, as
+     *         used for exports and printing) and should be drawn as vector graphics
+     */
+    public boolean begin(final GraphicsContext gc) {
+        clearPoints();
+        final Canvas canvas = gc.getCanvas();
+        final Affine transform = gc.getTransform();
+        if (canvas == null || transform.getMxx() != 1.0 || transform.getMyy() != 1.0 || transform.getMxy() != 0.0 || transform.getMyx() != 0.0) {
+            return false;
+        }
+        scale = getRenderScale(canvas);
+        originX = -transform.getTx();
+        originY = -transform.getTy();
+        deviceWidth = (int) Math.ceil(canvas.getWidth() * scale);
+        deviceHeight = (int) Math.ceil(canvas.getHeight() * scale);
+        return deviceWidth > 0 && deviceHeight > 0;
+    }
+
+    /**
+     * Adds a marker to the batch
+     *
+     * @param x horizontal marker centre in canvas coordinates
+     * @param y vertical marker centre in canvas coordinates
+     * @param marker the marker type
+     * @param size the marker size
+     * @param lineWidth the marker line width (used by outline-type markers)
+     * @param color the marker colour
+     * @param lineDashes optional marker line dashes (may be {@code null})
+     * @return {@code false} if the marker cannot be rasterised and should be drawn using {@link Marker#draw}
+     */
+    public boolean add(final double x, final double y, final Marker marker, final double size, final double lineWidth, final Paint color, final double[] lineDashes) {
+        if (!Double.isFinite(x) || !Double.isFinite(y)) {
+            return true; // nothing to draw
+        }
+        final int style = getStyle(marker, size, lineWidth, color, lineDashes);
+        if (style < 0) {
+            return false;
+        }
+        if (count == xValues.length) {
+            final int newLength = Math.max(1024, 2 * count);
+            xValues = Arrays.copyOf(xValues, newLength);
+            yValues = Arrays.copyOf(yValues, newLength);
+            styleIndices = Arrays.copyOf(styleIndices, newLength);
+        }
+        final double devX = (x + originX) * scale;
+        final double devY = (y + originY) * scale;
+        final Sprite sprite = styleSprites.get(style)[0];
+        bounds[0] = Math.min(bounds[0], (int) Math.floor(devX) + sprite.getOffsetX());
+        bounds[1] = Math.min(bounds[1], (int) Math.floor(devY) + sprite.getOffsetY());
+        // +1: sub-pixel rounding may shift the sprite by one pixel
+        bounds[2] = Math.max(bounds[2], (int) Math.floor(devX) + sprite.getOffsetX() + sprite.getWidth() + 1);
+        bounds[3] = Math.max(bounds[3], (int) Math.floor(devY) + sprite.getOffsetY() + sprite.getHeight() + 1);
+        xValues[count] = devX;
+        yValues[count] = devY;
+        styleIndices[count] = style;
+        count++;
+        return true;
+    }
+
+    /**
+     * Composites all collected markers onto the canvas using a single image draw
+     *
+     * @param gc the graphics context the batch has been started with
+     */
+    public void draw(final GraphicsContext gc) {
+        final int xMin = Math.max(0, bounds[0]);
+        final int yMin = Math.max(0, bounds[1]);
+        final int xMax = Math.min(deviceWidth, bounds[2]);
+        final int yMax = Math.min(deviceHeight, bounds[3]);
+        if (count == 0 || xMin >= xMax || yMin >= yMax) {
+            clearPoints();
+            return;
+        }
+        // the layer covers the bounding box only, i.e. its pixel (0, 0) corresponds to device pixel (xMin, yMin)
+        final int width = xMax - xMin;
+        final int height = yMax - yMin;
+        final Layer layer = nextLayer(width, height);
+        final int[] clip = { 0, 0, width, height };
+        layer.pixelBuffer.updateBuffer(pixelBuffer -> {
+            final IntBuffer buffer = pixelBuffer.getBuffer();
+            final int stride = pixelBuffer.getWidth();
+            for (int row = 0; row < height; row++) {
+                final int offset = row * stride;
+                for (int col = 0; col < width; col++) {
+                    buffer.put(offset + col, 0);
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                final int style = styleIndices[i];
+                MarkerRasterizer.blend(buffer, stride, clip, styleSprites.get(style), xValues[i] - xMin, yValues[i] - yMin, styleColors[style]);
+            }
+            return new Rectangle2D(0, 0, width, height);
+        });
+
+        gc.save();
+        gc.setImageSmoothing(false);
+        gc.drawImage(layer.image, 0, 0, width, height, //
+                xMin / scale - originX, yMin / scale - originY, width / scale, height / scale);
+        gc.restore();
+        clearPoints();
+    }
+
+    /**
+     * @return number of markers currently collected in the batch
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return the underlying sprite atlas
+     */
+    public MarkerRasterizer getRasterizer() {
+        return rasterizer;
+    }
+
+    /**
+     * Marks the start of a new frame: pixel buffers used in the previous frame may be reused, unused ones are released.
+     */
+    public void reset() {
+        while (layers.size() > layerIndex) {
+            layers.remove(layers.size() - 1);
+        }
+        layerIndex = 0;
+        clearPoints();
+    }
+
+    private void clearPoints() {
+        count = 0;
+        styleSprites.clear();
+        lastMarker = null;
+        lastColor = null;
+        lastStyle = -1;
+        bounds[0] = Integer.MAX_VALUE;
+        bounds[1] = Integer.MAX_VALUE;
+        bounds[2] = Integer.MIN_VALUE;
+        bounds[3] = Integer.MIN_VALUE;
+    }
+
+    private int getStyle(final Marker marker, final double size, final double lineWidth, final Paint color, final double[] lineDashes) {
+        if (marker == lastMarker && size == lastSize && lineWidth == lastLineWidth && color == lastColor && (lineDashes == null || lineDashes.length == 0)) {
+            return lastStyle;
+        }
+        if (!MarkerRasterizer.isSupported(marker) || !(color instanceof Color) || (lineDashes != null && lineDashes.length > 0) || size < 0 || lineWidth < 0) {
+            return -1;
+        }
+        final Sprite[] sprites = rasterizer.getSprites((DefaultMarker) marker, size * scale, lineWidth * scale);
+        final int argb = toArgb((Color) color);
+        int style = -1;
+        // only check the most recent styles, the table is rebuilt for every draw call anyway
+        for (int i = styleSprites.size() - 1; i >= Math.max(0, styleSprites.size() - MAX_STYLE_LOOK_BACK); i--) {
+            if (styleSprites.get(i) == sprites && styleColors[i] == argb) {
+                style = i;
+                break;
+            }
+        }
+        if (style < 0) {
+            style = styleSprites.size();
+            styleSprites.add(sprites);
+            if (style >= styleColors.length) {
+                styleColors = Arrays.copyOf(styleColors, 2 * styleColors.length);
+            }
+            styleColors[style] = argb;
+        }
+        lastMarker = marker;
+        lastSize = size;
+        lastLineWidth = lineWidth;
+        lastColor = color;
+        lastStyle = style;
+        return style;
+    }
+
+    /**
+     * @param width minimum layer width [device pixels]
+     * @param height minimum layer height [device pixels]
+     * @return the layer of the previous frame at the same position if it is large enough (but not excessively large),
+     *         or a newly allocated one
+     */
+    private Layer nextLayer(final int width, final int height) {
+        final int layerWidth = Math.min(deviceWidth, roundUp(width));
+        final int layerHeight = Math.min(deviceHeight, roundUp(height));
+        if (layerIndex < layers.size()) {
+            final Layer layer = layers.get(layerIndex);
+            if (layer.width >= width && layer.height >= height && layer.width <= 2 * layerWidth && layer.height <= 2 * layerHeight) {
+                layerIndex++;
+                return layer;
+            }
+            layers.set(layerIndex, new Layer(layerWidth, layerHeight));
+        } else {
+            layers.add(new Layer(layerWidth, layerHeight));
+        }
+        return layers.get(layerIndex++);
+    }
+
+    private static int roundUp(final int size) {
+        return (size + LAYER_GRANULARITY - 1) / LAYER_GRANULARITY * LAYER_GRANULARITY;
+    }
+
+    private static double getRenderScale(final Canvas canvas) {
+        final var scene = canvas.getScene();
+        if (scene == null || scene.getWindow() == null) {
+            return 1.0;
+        }
+        final double renderScale = scene.getWindow().getRenderScaleX();
+        return renderScale > 0 ? renderScale : 1.0;
+    }
+
+    private static int toArgb(final Color color) {
+        return ((int) Math.round(color.getOpacity() * 255) << 24) | ((int) Math.round(color.getRed() * 255) << 16)
+                | ((int) Math.round(color.getGreen() * 255) << 8) | (int) Math.round(color.getBlue() * 255);
+    }
+
+    private static final class Layer {
+        private final int width;
+        private final int height;
+        private final PixelBuffer<IntBuffer> pixelBuffer;
+        private final WritableImage image;
+
+        private Layer(final int width, final int height) {
+            this.width = width;
+            this.height = height;
+            final IntBuffer buffer = ByteBuffer.allocateDirect(4 * width * height).order(ByteOrder.nativeOrder()).asIntBuffer();
+            pixelBuffer = new PixelBuffer<>(width, height, buffer, PixelFormat.getIntArgbPreInstance());
+            image = new WritableImage(pixelBuffer);
+        }
+    }
+}
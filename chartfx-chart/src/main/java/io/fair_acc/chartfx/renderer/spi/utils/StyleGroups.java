@@ -0,0 +1,143 @@
+package io.fair_acc.chartfx.renderer.spi.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.fair_acc.chartfx.ui.css.DataSetStyleParser.ParsedStyle;
+
+/**
+ * Groups data point indices by their (interned) parsed style so that renderers can set the GraphicsContext state once
+ * per style rather than once per point. The index order within a group is preserved. Internal arrays are reused, i.e.
+ * no allocation happens in steady state.
+ *
+ * <pre>{@code
+ * groups.clear();
+ * for (int i = 0; i < n; i++) {
+ *     groups.add(parser.getParsedStyle(styles[i]), i);
+ * }
+ * final int nGroups = groups.sort();
+ * for (int group = 0; group < nGroups; group++) {
+ *     ParsedStyle style = groups.getStyle(group); // apply GraphicsContext state once
+ *     for (int k = groups.getGroupStart(group); k < groups.getGroupEnd(group); k++) {
+ *         draw(groups.getIndex(k));
+ *     }
+ * }
+ * }</pre>
+ */
+public class StyleGroups {
+    private final List<ParsedStyle> styles = new ArrayList<>();
+    private final Map<ParsedStyle, Integer> styleOrdinals = new IdentityHashMap<>();
+    private ParsedStyle lastStyle;
+    private int lastOrdinal = -1;
+    private int[] ordinals = new int[0];
+    private int[] indices = new int[0];
+    private int[] sortedIndices = new int[0];
+    private int[] groupStarts = new int[1];
+    private int count;
+
+    /**
+     * @param style the parsed style of the data point
+     * @param index the data point index
+     */
+    public void add(final ParsedStyle style, final int index) {
+        if (style != lastStyle) {
+            lastOrdinal = styleOrdinals.computeIfAbsent(style, s -> {
+                styles.add(s);
+                return styles.size() - 1;
+            });
+            lastStyle = style;
+        }
+        if (count == indices.length) {
+            final int newLength = Math.max(64, 2 * count);
+            indices = Arrays.copyOf(indices, newLength);
+            ordinals = Arrays.copyOf(ordinals, newLength);
+        }
+        ordinals[count] = lastOrdinal;
+        indices[count] = index;
+        count++;
+    }
+
+    /**
+     * clears all previously added points
+     */
+    public void clear() {
+        styles.clear();
+        styleOrdinals.clear();
+        lastStyle = null;
+        lastOrdinal = -1;
+        count = 0;
+    }
+
+    /**
+     * @return number of added data points
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @param group group number
+     * @return first position (inclusive) of the group for {@link #getIndex(int)}
+     */
+    public int getGroupStart(final int group) {
+        return groupStarts[group];
+    }
+
+    /**
+     * @param group group number
+     * @return last position (exclusive) of the group for {@link #getIndex(int)}
+     */
+    public int getGroupEnd(final int group) {
+        return groupStarts[group + 1];
+    }
+
+    /**
+     * @param position position within the sorted indices
+     * @return the data point index
+     */
+    public int getIndex(final int position) {
+        return sortedIndices[position];
+    }
+
+    /**
+     * @param group group number
+     * @return the style shared by all data points of the group
+     */
+    public ParsedStyle getStyle(final int group) {
+        return styles.get(group);
+    }
+
+    /**
+     * Sorts the added points by style (stable counting sort)
+     *
+     * @return number of groups
+     */
+    public int sort() {
+        final int nGroups = styles.size();
+        if (groupStarts.length < nGroups + 1) {
+            groupStarts = new int[nGroups + 1];
+        }
+        if (sortedIndices.length < count) {
+            sortedIndices = new int[indices.length];
+        }
+        Arrays.fill(groupStarts, 0, nGroups + 1, 0);
+        for (int i = 0; i < count; i++) {
+            groupStarts[ordinals[i] + 1]++;
+        }
+        for (int group = 0; group < nGroups; group++) {
+            groupStarts[group + 1] += groupStarts[group];
+        }
+        // use group starts as insertion cursors and restore them afterwards
+        for (int i = 0; i < count; i++) {
+            sortedIndices[groupStarts[ordinals[i]]++] = indices[i];
+        }
+        for (int group = nGroups; group > 0; group--) {
+            groupStarts[group] = groupStarts[group - 1];
+        }
+        groupStarts[0] = 0;
+        return nGroups;
+    }
+}
@@ -1,7 +1,10 @@
 package io.fair_acc.chartfx.ui.css;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalDouble;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
@@ -15,10 +18,23 @@ import io.fair_acc.dataset.utils.DataSetStyleBuilder;
 
 /**
  * Parser for styles used in the ErrorDataSetRenderer
+ * <p>
+ * Parsed styles are kept as immutable {@link ParsedStyle} instances in a bounded cache that is shared between all
+ * parser instances. Repeated (per-point) style strings are thus only tokenised once, and equal style strings map to
+ * the same {@link ParsedStyle} instance, which allows renderers to group points by style identity.
  *
  * @author ennerf
  */
 public class DataSetStyleParser extends AbstractStyleParser {
+    public static final int DEFAULT_MAX_CACHE_SIZE = 1024;
+    private static final AtomicInteger STYLE_COUNTER = new AtomicInteger();
+    private static final Map<String, ParsedStyle> STYLE_CACHE = new LinkedHashMap<>(64, 0.75f, true);
+    private static int maxCacheSize = DEFAULT_MAX_CACHE_SIZE;
+    private final boolean cacheable = getClass() == DataSetStyleParser.class; // subclasses may interpret entries differently
+    private ParsedStyle current = ParsedStyle.EMPTY;
+    private String lastStyle;
+    private ParsedStyle lastParsedStyle = ParsedStyle.EMPTY;
+
     public static DataSetStyleParser newInstance() {
         return new DataSetStyleParser();
     }
@@ -26,6 +42,100 @@ public class DataSetStyleParser extends AbstractStyleParser {
     protected DataSetStyleParser() {
     }
 
+    /**
+     * clears the style cache shared by all parser instances
+     */
+    public static void clearCache() {
+        synchronized (STYLE_CACHE) {
+            STYLE_CACHE.clear();
+        }
+    }
+
+    /**
+     * @return number of style strings currently kept in the shared cache
+     */
+    public static int getCacheSize() {
+        synchronized (STYLE_CACHE) {
+            return STYLE_CACHE.size();
+        }
+    }
+
+    /**
+     * @return maximum number of style strings kept in the shared cache
+     */
+    public static int getMaxCacheSize() {
+        synchronized (STYLE_CACHE) {
+            return maxCacheSize;
+        }
+    }
+
+    /**
+     * @param size maximum number of style strings kept in the shared cache (least recently used are evicted first)
+     */
+    public static void setMaxCacheSize(final int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("maximum cache size must be positive: " + size);
+        }
+        synchronized (STYLE_CACHE) {
+            maxCacheSize = size;
+            evict();
+        }
+    }
+
+    /**
+     * @param style string
+     * @return the immutable parsed style, or {@link ParsedStyle#EMPTY} if the style did not contain relevant entries
+     */
+    public ParsedStyle getParsedStyle(final String style) {
+        if (style == null || style.isEmpty()) {
+            return ParsedStyle.EMPTY;
+        }
+        if (style.equals(lastStyle)) {
+            return lastParsedStyle;
+        }
+        ParsedStyle parsedStyle = null;
+        if (cacheable) {
+            synchronized (STYLE_CACHE) {
+                parsedStyle = STYLE_CACHE.get(style);
+            }
+        }
+        if (parsedStyle == null) {
+            parsedStyle = parse(style) ? new ParsedStyle(this) : ParsedStyle.EMPTY;
+            if (cacheable) {
+                synchronized (STYLE_CACHE) {
+                    final ParsedStyle previous = STYLE_CACHE.putIfAbsent(style, parsedStyle);
+                    if (previous == null) {
+                        evict();
+                    } else {
+                        parsedStyle = previous; // keep styles interned
+                    }
+                }
+            }
+        }
+        lastStyle = style;
+        lastParsedStyle = parsedStyle;
+        return parsedStyle;
+    }
+
+    /**
+     * @return the style of the last {@link #tryParse(String)} call
+     */
+    public ParsedStyle getParsedStyle() {
+        return current;
+    }
+
+    @Override
+    public boolean tryParse(final String style) {
+        current = getParsedStyle(style);
+        return current != ParsedStyle.EMPTY;
+    }
+
+    private static void evict() {
+        while (STYLE_CACHE.size() > maxCacheSize) {
+            STYLE_CACHE.remove(STYLE_CACHE.keySet().iterator().next());
+        }
+    }
+
     @Override
     protected boolean parseEntry(String key, String value) {
         switch (key) {
@@ -86,82 +196,86 @@ public class DataSetStyleParser extends AbstractStyleParser {
 
     // Generic
     public Optional<Boolean> getVisible() {
-        return optional(visible);
+        return optional(current.visible);
     }
 
     public OptionalDouble getIntensity() {
-        return optional(intensity);
+        return optional(current.intensity);
     }
 
     // Marker
     public Optional<Marker> getMarkerType() {
-        return optional(markerType);
+        return optional(current.markerType);
     }
 
     public OptionalDouble getMarkerLineWidth() {
-        return optional(markerLineWidth);
+        return optional(current.markerLineWidth);
     }
 
     public OptionalDouble getMarkerSize() {
-        return optional(markerSize);
+        return optional(current.markerSize);
     }
 
     public Optional<Paint> getMarkerColor() {
-        return optional(markerColor);
+        return optional(current.markerColor);
     }
 
     public Optional<double[]> getMarkerLineDashes() {
-        return optional(markerLineDashes);
+        return optional(current.markerLineDashes);
     }
 
     // Line
     public OptionalDouble getLineWidth() {
-        return optional(lineWidth);
+        return optional(current.lineWidth);
     }
 
     public Optional<Paint> getLineColor() {
-        return optional(lineColor);
+        return optional(current.lineColor);
     }
 
     public Optional<double[]> getLineDashes() {
-        return optional(lineDashes);
+        return optional(current.lineDashes);
     }
 
     // Shape
     public Optional<Paint> getFillColor() {
-        return optional(fillColor);
+        return optional(current.fillColor);
     }
 
     public Optional<Paint> getStrokeColor() {
-        return optional(strokeColor);
+        return optional(current.strokeColor);
     }
 
     public OptionalDouble getStrokeWidth() {
-        return optional(strokeWidth);
+        return optional(current.strokeWidth);
     }
 
     public Optional<double[]> getStrokeDashes() {
-        return optional(strokeDashPattern);
+        return optional(current.strokeDashPattern);
     }
 
     // Text
     public Optional<Font> getFont() {
-        return optional(font);
+        return optional(current.font);
     }
 
     public Optional<FontWeight> getFontWeight() {
-        return optional(fontWeight);
+        return optional(current.fontWeight);
     }
 
     public OptionalDouble getFontSize() {
-        return optional(fontSize);
+        return optional(current.fontSize);
     }
 
     public Optional<FontPosture> getFontStyle() {
-        return optional(fontStyle);
+        return optional(current.fontStyle);
     }
 
     public Optional<Font> getFontFull() {
+        final Font font = current.font;
+        final FontWeight fontWeight = current.fontWeight;
+        final double fontSize = current.fontSize;
+        final FontPosture fontStyle = current.fontStyle;
         if (font == null && Double.isNaN(fontSize) && fontStyle == null && fontWeight == null) {
             return Optional.empty();
         } else if (fontWeight == null && fontStyle == null && Double.isNaN(fontSize)) {
@@ -245,4 +359,110 @@ public class DataSetStyleParser extends AbstractStyleParser {
     private FontWeight fontWeight;
     private double fontSize;
     private FontPosture fontStyle;
+
+    /**
+     * Immutable snapshot of a parsed style string.
+     * N.B. the returned dash arrays are shared and must not be modified.
+     */
+    public static final class ParsedStyle {
+        public static final ParsedStyle EMPTY = new ParsedStyle(null);
+        private final int id;
+
+        // Generic
+        private final Boolean visible;
+        private final double intensity;
+
+        // Marker
+        private final Marker markerType;
+        private final double markerLineWidth;
+        private final double markerSize;
+        private final Paint markerColor;
+        private final double[] markerLineDashes;
+
+        // Line
+        private final double lineWidth;
+        private final Color lineColor;
+        private final double[] lineDashes;
+
+        // Shape
+        private final Paint fillColor;
+        private final Paint strokeColor;
+        private final double strokeWidth;
+        private final double[] strokeDashPattern;
+
+        // Text
+        private final Font font;
+        private final FontWeight fontWeight;
+        private final double fontSize;
+        private final FontPosture fontStyle;
+
+        private ParsedStyle(final DataSetStyleParser parser) {
+            id = parser == null ? -1 : STYLE_COUNTER.getAndIncrement();
+            visible = parser == null ? null : parser.visible;
+            intensity = parser == null ? Double.NaN : parser.intensity;
+            markerType = parser == null ? null : parser.markerType;
+            markerLineWidth = parser == null ? Double.NaN : parser.markerLineWidth;
+            markerSize = parser == null ? Double.NaN : parser.markerSize;
+            markerColor = parser == null ? null : parser.markerColor;
+            markerLineDashes = parser == null ? null : parser.markerLineDashes;
+            lineWidth = parser == null ? Double.NaN : parser.lineWidth;
+            lineColor = parser == null ? null : parser.lineColor;
+            lineDashes = parser == null ? null : parser.lineDashes;
+            fillColor = parser == null ? null : parser.fillColor;
+            strokeColor = parser == null ? null : parser.strokeColor;
+            strokeWidth = parser == null ? Double.NaN : parser.strokeWidth;
+            strokeDashPattern = parser == null ? null : parser.strokeDashPattern;
+            font = parser == null ? null : parser.font;
+            fontWeight = parser == null ? null : parser.fontWeight;
+            fontSize = parser == null ? Double.NaN : parser.fontSize;
+            fontStyle = parser == null ? null : parser.fontStyle;
+        }
+
+        /**
+         * @return unique (process-wide) id of this style, -1 for {@link #EMPTY}
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * @param defaultValue value returned if the style does not define a marker type
+         * @return the marker type
+         */
+        public Marker getMarkerType(final Marker defaultValue) {
+            return markerType == null ? defaultValue : markerType;
+        }
+
+        /**
+         * @param defaultValue value returned if the style does not define a marker line width
+         * @return the marker line width
+         */
+        public double getMarkerLineWidth(final double defaultValue) {
+            return Double.isNaN(markerLineWidth) ? defaultValue : markerLineWidth;
+        }
+
+        /**
+         * @param defaultValue value returned if the style does not define a marker size
+         * @return the marker size
+         */
+        public double getMarkerSize(final double defaultValue) {
+            return Double.isNaN(markerSize) ? defaultValue : markerSize;
+        }
+
+        /**
+         * @param defaultValue value returned if the style does not define a marker color
+         * @return the marker color
+         */
+        public Paint getMarkerColor(final Paint defaultValue) {
+            return markerColor == null ? defaultValue : markerColor;
+        }
+
+        /**
+         * @param defaultValue value returned if the style does not define marker line dashes
+         * @return the marker line dashes
+         */
+        public double[] getMarkerLineDashes(final double[] defaultValue) {
+            return markerLineDashes == null ? defaultValue : markerLineDashes;
+        }
+    }
 }
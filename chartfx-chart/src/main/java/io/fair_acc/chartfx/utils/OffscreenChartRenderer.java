@@ -0,0 +1,291 @@
+package io.fair_acc.chartfx.utils;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+
+import javafx.application.Platform;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.WritableImage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.fair_acc.bench.DurationMeasure;
+import io.fair_acc.bench.Measurable;
+import io.fair_acc.bench.MeasurementRecorder;
+import io.fair_acc.bench.TimeMeasure;
+import io.fair_acc.chartfx.Chart;
+import io.fair_acc.dataset.utils.CachedDaemonThreadFactory;
+
+import ar.com.hjg.pngj.FilterType;
+
+/**
+ * Renders charts that are not shown in any window into PNG encoded images, e.g., for web dashboards or e-logbooks.
+ * <p>
+ * Charts may be submitted from any thread. The JavaFX thread processes up to {@link #getMaxChartsPerPulse()} charts
+ * per task: each chart is laid out and drawn via {@link Chart#updateOffscreen()} and then snapshot into a pooled
+ * {@link WritableImage}. The images are handed to a worker pool that encodes them via {@link WriteFxImage} so that
+ * the comparatively expensive compression does not block the JavaFX thread. The JavaFX toolkit needs to be running,
+ * but may use a headless platform (e.g. Monocle with the software pipeline).
+ * <p>
+ * A chart that is not yet part of a scene gets attached to an offscreen scene of the requested size. Charts must not
+ * be part of a shown window or nested inside other nodes, and must not be submitted again before the previous
+ * request has been completed.
+ * <p>
+ * Measurements: 'offscreen-render' (JavaFX thread time per chart), 'offscreen-encode' (worker time per image), and
+ * 'offscreen-chartInterval' (time between two completed images while busy, i.e. the inverse of the throughput in
+ * charts per second).
+ */
+public class OffscreenChartRenderer implements Measurable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OffscreenChartRenderer.class);
+    public static final int DEFAULT_MAX_CHARTS_PER_PULSE = 16;
+    private final ExecutorService encoderPool;
+    private final Queue<Request> requests = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong lastCompletion = new AtomicLong();
+    private final SnapshotParameters snapshotParameters = new SnapshotParameters();
+    private volatile int maxChartsPerPulse = DEFAULT_MAX_CHARTS_PER_PULSE;
+    private volatile int compressionLevel = Deflater.BEST_SPEED;
+    private volatile boolean alpha = true;
+    private volatile FilterType filterType = FilterType.FILTER_NONE;
+    private volatile DurationMeasure benchRender = DurationMeasure.DISABLED;
+    private volatile TimeMeasure benchEncode = TimeMeasure.DISABLED;
+    private volatile TimeMeasure benchChartInterval = TimeMeasure.DISABLED;
+
+    /**
+     * Creates a renderer that encodes images using the common chart-fx thread pool
+     */
+    public OffscreenChartRenderer() {
+        this(CachedDaemonThreadFactory.getCommonPool());
+    }
+
+    /**
+     * @param encoderPool worker pool used for encoding the images
+     */
+    public OffscreenChartRenderer(final ExecutorService encoderPool) {
+        if (encoderPool == null) {
+            throw new IllegalArgumentException("encoderPool must not be null");
+        }
+        this.encoderPool = encoderPool;
+    }
+
+    /**
+     * @return {@link Deflater} compression level used for encoding
+     */
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * @return PNG line filter used for encoding
+     */
+    public FilterType getFilterType() {
+        return filterType;
+    }
+
+    /**
+     * @return maximum number of charts that are rendered within one JavaFX task before yielding to other events
+     */
+    public int getMaxChartsPerPulse() {
+        return maxChartsPerPulse;
+    }
+
+    /**
+     * @return number of submitted charts that have not been completed yet
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * @return whether the encoded images contain an alpha channel
+     */
+    public boolean isAlpha() {
+        return alpha;
+    }
+
+    /**
+     * @param alpha whether the encoded images contain an alpha channel
+     * @return itself (fluent design)
+     */
+    public OffscreenChartRenderer setAlpha(final boolean alpha) {
+        this.alpha = alpha;
+        return this;
+    }
+
+    /**
+     * @param compressionLevel {@link Deflater#BEST_SPEED} (1) to {@link Deflater#BEST_COMPRESSION} (9), or 0 for no
+     *        compression
+     * @return itself (fluent design)
+     */
+    public OffscreenChartRenderer setCompressionLevel(final int compressionLevel) {
+        if (compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("compressionLevel must be within [0, 9]: " + compressionLevel);
+        }
+        this.compressionLevel = compressionLevel;
+        return this;
+    }
+
+    /**
+     * @param filterType PNG line filter used for encoding
+     * @return itself (fluent design)
+     */
+    public OffscreenChartRenderer setFilterType(final FilterType filterType) {
+        this.filterType = filterType == null ? FilterType.FILTER_NONE : filterType;
+        return this;
+    }
+
+    /**
+     * @param maxChartsPerPulse maximum number of charts that are rendered within one JavaFX task before yielding to
+     *        other events
+     * @return itself (fluent design)
+     */
+    public OffscreenChartRenderer setMaxChartsPerPulse(final int maxChartsPerPulse) {
+        if (maxChartsPerPulse <= 0) {
+            throw new IllegalArgumentException("maxChartsPerPulse must be positive: " + maxChartsPerPulse);
+        }
+        this.maxChartsPerPulse = maxChartsPerPulse;
+        return this;
+    }
+
+    @Override
+    public void setRecorder(final MeasurementRecorder recorder) {
+        benchRender = recorder.newDuration("offscreen-render");
+        benchEncode = recorder.newTime("offscreen-encode");
+        benchChartInterval = recorder.newTime("offscreen-chartInterval");
+    }
+
+    /**
+     * Queues a chart for offscreen rendering. May be called from any thread.
+     *
+     * @param chart the chart to be rendered
+     * @param width image width in pixel
+     * @param height image height in pixel
+     * @return future that completes with the PNG encoded image
+     */
+    public CompletableFuture<ByteBuffer> submit(final Chart chart, final int width, final int height) {
+        if (chart == null) {
+            throw new IllegalArgumentException("chart must not be null");
+        }
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("image size must be positive: " + width + "x" + height);
+        }
+        final Request request = new Request(chart, width, height);
+        if (pending.getAndIncrement() == 0) {
+            // start a new busy period
+            lastCompletion.set(System.nanoTime());
+        }
+        requests.add(request);
+        schedule();
+        return request.result;
+    }
+
+    private void schedule() {
+        if (!requests.isEmpty() && scheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::processRequests);
+        }
+    }
+
+    private void processRequests() {
+        final int nMax = maxChartsPerPulse;
+        for (int i = 0; i < nMax; i++) {
+            final Request request = requests.poll();
+            if (request == null) {
+                break;
+            }
+            WritableImage image = null;
+            try {
+                final DurationMeasure bench = benchRender;
+                bench.start();
+                try {
+                    image = render(request);
+                } finally {
+                    bench.stop();
+                }
+                final WritableImage rendered = image;
+                encoderPool.execute(() -> encode(request, rendered));
+            } catch (final RuntimeException e) { // NOPMD - any failure is forwarded to the caller
+                if (image != null) {
+                    // rejected by the encoder pool -> the image has not been handed over
+                    WritableImageCache.getInstance().add(image);
+                }
+                LOGGER.atError().setCause(e).log("could not render chart offscreen");
+                complete(request, null, e);
+            }
+        }
+        scheduled.set(false);
+        // remaining requests are processed in a separate task so that other events are not blocked
+        schedule();
+    }
+
+    private WritableImage render(final Request request) {
+        final Chart chart = request.chart;
+        if (chart.getParent() != null || chart.isShowing()) {
+            throw new IllegalArgumentException("chart must not be part of a shown window or nested in another node");
+        }
+        final Scene scene = chart.getScene();
+        if (scene == null || scene.getWidth() != request.width || scene.getHeight() != request.height) {
+            if (scene != null) {
+                scene.setRoot(new Group()); // detach from the previous offscreen scene
+            }
+            new Scene(chart, request.width, request.height); // NOPMD - referenced through the chart
+        }
+        chart.resize(request.width, request.height);
+        chart.updateOffscreen();
+        final WritableImage image = WritableImageCache.getInstance().getImage(request.width, request.height);
+        try {
+            return chart.snapshot(snapshotParameters, image);
+        } catch (final RuntimeException e) { // NOPMD - return the pooled image before forwarding the failure
+            WritableImageCache.getInstance().add(image);
+            throw e;
+        }
+    }
+
+    private void encode(final Request request, final WritableImage image) {
+        try {
+            final long start = System.nanoTime();
+            final ByteBuffer encoded = WriteFxImage.encode(image, null, alpha, compressionLevel, filterType);
+            benchEncode.recordTime(TimeUnit.NANOSECONDS, System.nanoTime() - start);
+            complete(request, encoded, null);
+        } catch (final RuntimeException e) { // NOPMD - any failure is forwarded to the caller
+            complete(request, null, e);
+        } finally {
+            WritableImageCache.getInstance().add(image);
+        }
+    }
+
+    private void complete(final Request request, final ByteBuffer encoded, final Throwable error) {
+        final long now = System.nanoTime();
+        benchChartInterval.recordTime(TimeUnit.NANOSECONDS, now - lastCompletion.getAndSet(now));
+        pending.decrementAndGet();
+        if (error == null) {
+            request.result.complete(encoded);
+        } else {
+            request.result.completeExceptionally(error);
+        }
+    }
+
+    private static class Request {
+        private final Chart chart;
+        private final int width;
+        private final int height;
+        private final CompletableFuture<ByteBuffer> result = new CompletableFuture<>();
+
+        private Request(final Chart chart, final int width, final int height) {
+            this.chart = chart;
+            this.width = width;
+            this.height = height;
+        }
+    }
+}
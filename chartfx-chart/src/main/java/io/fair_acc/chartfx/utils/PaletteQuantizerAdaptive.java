@@ -0,0 +1,194 @@
+package io.fair_acc.chartfx.utils;
+
+import io.fair_acc.dataset.utils.AssertUtils;
+
+/**
+ * Palette for a sequence of (similar) frames, e.g. periodic chart exports, that is only re-estimated if the previous
+ * palette no longer fits the new frame:
+ * <ul>
+ * <li>images with at most {@code nColors} distinct colours use an exact {@link PaletteQuantizerExact} palette, which
+ * is kept as long as it contains all colours of the new frame,
+ * <li>other images use a {@link PaletteQuantizerNeuQuant} palette trained on a sub-sample of the pixels, which is kept
+ * as long as the mean quantisation error of the new frame does not exceed the error of the frame it has been trained
+ * on by more than the {@link #setReuseTolerance(double) reuse tolerance}.
+ * </ul>
+ * Pass an instance as user palette to {@link WriteFxImage#encodePalette} to have it updated for each encoded image.
+ */
+public class PaletteQuantizerAdaptive implements PaletteQuantizer {
+    public static final double DEFAULT_REUSE_TOLERANCE = 1.25;
+    private static final int N_ERROR_SAMPLES = 4096;
+    private final boolean alpha;
+    private final int nColors;
+    private double reuseTolerance = DEFAULT_REUSE_TOLERANCE;
+    private PaletteQuantizer palette;
+    private int[] paletteColors = new int[0];
+    private double referenceError;
+    private long estimateCount;
+    private long reuseCount;
+
+    /**
+     * @param alpha true: reserve index 0 for transparent pixels
+     * @param nColors maximum number of palette entries
+     */
+    public PaletteQuantizerAdaptive(final boolean alpha, final int nColors) {
+        if (nColors < 2 || nColors > PaletteQuantizerExact.MAX_COLORS) {
+            throw new IllegalArgumentException("nColors must be within [2, " + PaletteQuantizerExact.MAX_COLORS + "]: " + nColors);
+        }
+        this.alpha = alpha;
+        this.nColors = nColors;
+    }
+
+    @Override
+    public int[] getColor(final int i) {
+        return getPalette().getColor(i);
+    }
+
+    @Override
+    public int getColorCount() {
+        return getPalette().getColorCount();
+    }
+
+    /**
+     * @return number of times a new palette has been estimated
+     */
+    public long getEstimateCount() {
+        return estimateCount;
+    }
+
+    /**
+     * @return the current palette
+     * @throws IllegalStateException if no frame has been processed yet
+     */
+    public PaletteQuantizer getPalette() {
+        if (palette == null) {
+            throw new IllegalStateException("update(..) needs to be called before the palette can be used");
+        }
+        return palette;
+    }
+
+    /**
+     * @return number of times the previous palette has been re-used
+     */
+    public long getReuseCount() {
+        return reuseCount;
+    }
+
+    /**
+     * @return maximum ratio between the mean quantisation error of a new frame and the frame the palette has been
+     *         trained on for which the palette is re-used
+     */
+    public double getReuseTolerance() {
+        return reuseTolerance;
+    }
+
+    @Override
+    public int getTransparentIndex() {
+        return getPalette().getTransparentIndex();
+    }
+
+    public boolean isAlpha() {
+        return alpha;
+    }
+
+    @Override
+    public int lookup(final int r, final int g, final int b) {
+        return getPalette().lookup(r, g, b);
+    }
+
+    @Override
+    public int lookup(final int r, final int g, final int b, final int a) {
+        return getPalette().lookup(r, g, b, a);
+    }
+
+    /**
+     * Forces the estimation of a new palette for the next frame.
+     *
+     * @return itself (fluent design)
+     */
+    public PaletteQuantizerAdaptive reset() {
+        palette = null;
+        return this;
+    }
+
+    /**
+     * @param reuseTolerance maximum ratio between the mean quantisation error of a new frame and the frame the palette
+     *            has been trained on for which the palette is re-used (N.B. 1.0: re-use only if not worse)
+     * @return itself (fluent design)
+     */
+    public PaletteQuantizerAdaptive setReuseTolerance(final double reuseTolerance) {
+        AssertUtils.gtEqThanZero("reuseTolerance", reuseTolerance);
+        this.reuseTolerance = reuseTolerance;
+        return this;
+    }
+
+    /**
+     * Checks whether the current palette fits the given frame and estimates a new one otherwise.
+     *
+     * @param pixels the ARGB pixels in row-major order
+     * @param width image width
+     * @param height image height
+     * @return true if a new palette has been estimated, false if the previous palette has been re-used
+     */
+    public boolean update(final int[] pixels, final int width, final int height) {
+        AssertUtils.notNull("pixels", pixels);
+        final int length = width * height;
+        if (pixels.length < length) {
+            throw new IllegalArgumentException("pixels.length(" + pixels.length + ") must be >= " + width + " (width) x " + height + " (height)");
+        }
+        if (palette instanceof PaletteQuantizerExact && ((PaletteQuantizerExact) palette).covers(pixels, length)) {
+            reuseCount++;
+            return false;
+        }
+        final PaletteQuantizerExact exact = PaletteQuantizerExact.create(pixels, width, height, alpha, nColors);
+        if (exact != null) {
+            setPalette(exact, pixels, length);
+            return true;
+        }
+        if (palette instanceof PaletteQuantizerNeuQuant && computeMeanError(pixels, length) <= reuseTolerance * referenceError + 1.0) {
+            reuseCount++;
+            return false;
+        }
+
+        final PaletteQuantizerNeuQuant neuQuant = new PaletteQuantizerNeuQuant(width, height, (row, col) -> pixels[row * width + col]);
+        neuQuant.setParReserveAlphaColor(alpha);
+        neuQuant.setParNcolors(nColors);
+        neuQuant.setParSampledTraining(true);
+        neuQuant.run();
+        setPalette(neuQuant, pixels, length);
+        return true;
+    }
+
+    private double computeMeanError(final int[] pixels, final int length) {
+        final int step = Math.max(1, length / N_ERROR_SAMPLES);
+        long sum = 0;
+        int count = 0;
+        for (int i = 0; i < length; i += step) {
+            final int pixel = pixels[i];
+            final int a = pixel >>> 24;
+            if (alpha && a < PaletteQuantizerExact.DEFAULT_TRANSPARENCY_THRESHOLD) {
+                continue;
+            }
+            final int r = pixel >> 16 & 0xFF;
+            final int g = pixel >> 8 & 0xFF;
+            final int b = pixel & 0xFF;
+            final int rgb = paletteColors[alpha ? palette.lookup(r, g, b, a) : palette.lookup(r, g, b)];
+            sum += Math.abs((rgb >> 16 & 0xFF) - r) + Math.abs((rgb >> 8 & 0xFF) - g) + Math.abs((rgb & 0xFF) - b);
+            count++;
+        }
+        return count == 0 ? 0.0 : sum / (double) count;
+    }
+
+    private void setPalette(final PaletteQuantizer newPalette, final int[] pixels, final int length) {
+        palette = newPalette;
+        final int count = newPalette.getColorCount();
+        if (paletteColors.length < count) {
+            paletteColors = new int[count];
+        }
+        for (int i = 0; i < count; i++) {
+            final int[] color = newPalette.getColor(i);
+            paletteColors[i] = color[0] << 16 | color[1] << 8 | color[2];
+        }
+        referenceError = computeMeanError(pixels, length);
+        estimateCount++;
+    }
+}
@@ -0,0 +1,186 @@
+package io.fair_acc.chartfx.utils;
+
+import java.util.Arrays;
+
+/**
+ * Lossless palette for images with few distinct colours (e.g. chart images without anti-aliased gradients): each
+ * distinct RGB colour is stored once and looked up via a primitive open-addressing {@code int -> int} hash, i.e.
+ * without training, boxing, or per-pixel distance searches.
+ * <p>
+ * Colours that are not part of the palette (e.g. when re-using it for a slightly different frame) are mapped to the
+ * closest palette entry. If the palette is created with a reserved transparent colour, pixels with an alpha value below
+ * the transparency threshold are mapped to index 0, consistent with {@link PaletteQuantizerNeuQuant}.
+ */
+public class PaletteQuantizerExact implements PaletteQuantizer {
+    public static final int MAX_COLORS = 256;
+    public static final int DEFAULT_TRANSPARENCY_THRESHOLD = 127;
+    private static final int EMPTY = -1; // N.B. keys are 24-bit RGB values
+    private static final int HASH_BITS = 10; // load factor <= 0.25 for 256 colours
+    private static final int HASH_MASK = (1 << HASH_BITS) - 1;
+    private final int[] keys = new int[1 << HASH_BITS];
+    private final int[] values = new int[1 << HASH_BITS];
+    private final int[] colors = new int[MAX_COLORS];
+    private final boolean reserveAlphaColor;
+    private int nColors;
+
+    protected PaletteQuantizerExact(final boolean reserveAlphaColor) {
+        this.reserveAlphaColor = reserveAlphaColor;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * @param pixels the ARGB pixels to be checked
+     * @param length number of pixels
+     * @return true if all (opaque) pixels are represented exactly by this palette
+     */
+    public boolean covers(final int[] pixels, final int length) {
+        long last = Long.MIN_VALUE; // N.B. differs from any pixel value
+        for (int i = 0; i < length; i++) {
+            final int pixel = pixels[i];
+            if (pixel == last || reserveAlphaColor && isTransparent(pixel)) {
+                continue;
+            }
+            if (find(pixel & 0xFFFFFF) < 0) {
+                return false;
+            }
+            last = pixel;
+        }
+        return true;
+    }
+
+    @Override
+    public int[] getColor(final int i) {
+        int index = i;
+        if (reserveAlphaColor) {
+            index--;
+            if (index < 0) {
+                return new int[] { 0, 0, 0, 0 };
+            }
+        }
+        if (index < 0 || index >= nColors) {
+            throw new IllegalArgumentException("index out of range [0, " + getColorCount() + "[");
+        }
+        final int rgb = colors[index];
+        return new int[] { rgb >> 16 & 0xFF, rgb >> 8 & 0xFF, rgb & 0xFF, 255 };
+    }
+
+    @Override
+    public int getColorCount() { // includes transparent color if applicable
+        return reserveAlphaColor ? nColors + 1 : nColors;
+    }
+
+    @Override
+    public int getTransparentIndex() { // -1 if not exists
+        return reserveAlphaColor ? 0 : -1;
+    }
+
+    public boolean isReserveAlphaColor() {
+        return reserveAlphaColor;
+    }
+
+    @Override
+    public int lookup(final int r, final int g, final int b) {
+        final int rgb = r << 16 | g << 8 | b;
+        int index = find(rgb);
+        if (index < 0) {
+            index = findClosest(r, g, b);
+        }
+        return reserveAlphaColor ? index + 1 : index;
+    }
+
+    @Override
+    public int lookup(final int r, final int g, final int b, final int a) {
+        if (reserveAlphaColor && a < DEFAULT_TRANSPARENCY_THRESHOLD) {
+            return 0; // extra entry: transparent
+        }
+        return lookup(r, g, b);
+    }
+
+    private int add(final int rgb) {
+        int slot = hash(rgb);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == rgb) {
+                return values[slot];
+            }
+            slot = (slot + 1) & HASH_MASK;
+        }
+        final int maxColors = reserveAlphaColor ? MAX_COLORS - 1 : MAX_COLORS;
+        if (nColors >= maxColors) {
+            return -1;
+        }
+        keys[slot] = rgb;
+        values[slot] = nColors;
+        colors[nColors] = rgb;
+        return nColors++;
+    }
+
+    private int find(final int rgb) {
+        int slot = hash(rgb);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == rgb) {
+                return values[slot];
+            }
+            slot = (slot + 1) & HASH_MASK;
+        }
+        return -1;
+    }
+
+    private int findClosest(final int r, final int g, final int b) {
+        int best = 0;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < nColors; i++) {
+            final int rgb = colors[i];
+            final int distance = Math.abs((rgb >> 16 & 0xFF) - r) + Math.abs((rgb >> 8 & 0xFF) - g) + Math.abs((rgb & 0xFF) - b);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Builds the exact palette of the given image if it contains few enough colours.
+     *
+     * @param pixels the ARGB pixels in row-major order
+     * @param width image width
+     * @param height image height
+     * @param alpha true: reserve index 0 for transparent pixels
+     * @param maxColors maximum number of palette entries (including the transparent colour, at most {@link #MAX_COLORS})
+     * @return the exact palette or {@code null} if the image contains more distinct colours
+     */
+    public static PaletteQuantizerExact create(final int[] pixels, final int width, final int height, final boolean alpha, final int maxColors) {
+        if (pixels == null) {
+            throw new IllegalArgumentException("pixels must not be null");
+        }
+        if (width < 0 || height < 0 || pixels.length < width * height) {
+            throw new IllegalArgumentException("pixels.length(" + pixels.length + ") must be >= " + width + " (width) x " + height + " (height)");
+        }
+        final PaletteQuantizerExact palette = new PaletteQuantizerExact(alpha);
+        final int limit = Math.min(maxColors, MAX_COLORS) - (alpha ? 1 : 0);
+        final int length = width * height;
+        long last = Long.MIN_VALUE; // N.B. differs from any pixel value
+        for (int i = 0; i < length; i++) {
+            final int pixel = pixels[i];
+            if (pixel == last || alpha && isTransparent(pixel)) {
+                continue; // N.B. chart images contain long runs of identical pixels
+            }
+            if (palette.add(pixel & 0xFFFFFF) < 0 || palette.nColors > limit) {
+                return null;
+            }
+            last = pixel;
+        }
+        if (palette.nColors == 0) {
+            palette.add(0); // PNG requires at least one palette entry
+        }
+        return palette;
+    }
+
+    private static int hash(final int key) {
+        return (key * 0x9E3779B1) >>> (Integer.SIZE - HASH_BITS);
+    }
+
+    private static boolean isTransparent(final int argb) {
+        return (argb >>> 24) < DEFAULT_TRANSPARENCY_THRESHOLD;
+    }
+}
@@ -51,6 +51,7 @@ public class PaletteQuantizerNeuQuant implements PaletteQuantizer {
     private double _parGammaBetta; // = beta * gamma;
     private boolean parReserveAlphaColor = false;
     private int parMaxPixelsToSample = 30000;
+    private boolean parSampledTraining = false; // true: train on at most ~parMaxPixelsToSample pixels irrespective of the image size
 
     private int _parSamplefac; // 1-30
     private double[][] network; // the network itself //WARNING: BGR
@@ -61,7 +62,7 @@ public class PaletteQuantizerNeuQuant implements PaletteQuantizer {
     private final int width;
     private final int height;
     private final PixelGetter pixelGetter;
-    private boolean done = false;
+    private volatile boolean done = false; // N.B. lookups may be issued concurrently once trained
 
     public PaletteQuantizerNeuQuant(final int w, final int h, final PixelGetter pixelGetter) {
         width = w;
@@ -121,6 +122,10 @@ public class PaletteQuantizerNeuQuant implements PaletteQuantizer {
         return parReserveAlphaColor ? 0 : -1;
     }
 
+    public boolean isParSampledTraining() {
+        return parSampledTraining;
+    }
+
     public boolean isParReserveAlphaColor() {
         return parReserveAlphaColor;
     }
@@ -141,7 +146,7 @@ public class PaletteQuantizerNeuQuant implements PaletteQuantizer {
         return indexSearch(b, g, r) + 1;
     }
 
-    public void run() {
+    public synchronized void run() {
         if (done) {
             return;
         }
@@ -189,6 +194,14 @@ public class PaletteQuantizerNeuQuant implements PaletteQuantizer {
         this.parReserveAlphaColor = parReserveAlphaColor;
     }
 
+    /**
+     * @param parSampledTraining true: limits the training to about {@link #setParMaxPixelsToSample(int)} pixels for
+     *            arbitrarily large images (default: false, i.e. every 30th pixel at most)
+     */
+    public void setParSampledTraining(final boolean parSampledTraining) {
+        this.parSampledTraining = parSampledTraining;
+    }
+
     public void setParTransparencyThreshold(final int parTransparencyThreshold) {
         this.parTransparencyThreshold = parTransparencyThreshold;
     }
@@ -407,7 +420,7 @@ public class PaletteQuantizerNeuQuant implements PaletteQuantizer {
         _parSamplefac = width * height / parMaxPixelsToSample;
         if (_parSamplefac < 1) {
             _parSamplefac = 1;
-        } else if (_parSamplefac > 30) {
+        } else if (_parSamplefac > 30 && !parSampledTraining) {
             _parSamplefac = 30;
         }
     }
@@ -465,7 +478,7 @@ public class PaletteQuantizerNeuQuant implements PaletteQuantizer {
 
     private void learn() {
         int biasRadius = _parInitBiasRadius;
-        final int alphadec = 30 + (_parSamplefac - 1) / 3;
+        final int alphadec = 30 + (Math.min(_parSamplefac, 30) - 1) / 3;
         final int lengthcount = width * height;
         int samplepixels = lengthcount / _parSamplefac;
         if (samplepixels < 1000) {
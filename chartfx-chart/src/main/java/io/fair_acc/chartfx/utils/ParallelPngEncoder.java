@@ -0,0 +1,557 @@
+package io.fair_acc.chartfx.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import io.fair_acc.dataset.utils.CachedDaemonThreadFactory;
+
+/**
+ * Multi-threaded PNG encoder in the spirit of 'pigz': the scanlines are split into chunks of about
+ * {@link #DEFAULT_CHUNK_SIZE} bytes which are filtered and deflated independently and concatenated into a single
+ * zlib stream.
+ * <p>
+ * The encoding is performed in two parallel phases:
+ * <ol>
+ * <li>each row is converted to RGB(A) bytes and filtered with the PNG filter type (None, Sub, Up, Average, Paeth) that
+ * minimises the sum of absolute differences, the per-chunk Adler-32 checksum is computed alongside;</li>
+ * <li>each chunk is deflated with the last 32 kB of the preceding chunk as preset dictionary (to retain the
+ * compression ratio across chunk boundaries), terminated with a sync-flush to obtain byte-aligned output, and written
+ * as its own IDAT chunk including its CRC.</li>
+ * </ol>
+ * The last chunk finishes the deflate stream and the combined Adler-32 checksum is appended as a trailing IDAT chunk,
+ * i.e. the concatenation of all IDAT chunks forms one valid zlib stream.
+ * <p>
+ * The calling thread takes part in the work, so that the encoder may also be used from within a (saturated) thread
+ * pool. Chunk and deflater buffers are retained and reused by subsequent invocations. Instances are thread-safe but
+ * encode one image at a time.
+ */
+public class ParallelPngEncoder {
+    /** default uncompressed chunk size in bytes (same as pigz) */
+    public static final int DEFAULT_CHUNK_SIZE = 128 * 1024;
+    private static final int WINDOW_SIZE = 32 * 1024;
+    private static final int CHUNK_OVERHEAD = 12; // length, type and CRC of a PNG chunk
+    private static final int HEADER_SIZE = 8 + 25; // signature + IHDR
+    private static final int TRAILER_SIZE = CHUNK_OVERHEAD + 4 + CHUNK_OVERHEAD; // Adler-32 IDAT + IEND
+    private static final int ADLER_BASE = 65521;
+    private static final byte[] IDAT = "IDAT".getBytes(StandardCharsets.US_ASCII);
+    private static final byte FILTER_NONE = 0;
+    private static final byte FILTER_SUB = 1;
+    private static final byte FILTER_UP = 2;
+    private static final byte FILTER_AVERAGE = 3;
+    private static final byte FILTER_PAETH = 4;
+
+    private final ExecutorService executorService;
+    private final ConcurrentLinkedQueue<Deflater> deflaterPool = new ConcurrentLinkedQueue<>();
+    private final List<Chunk> chunks = new ArrayList<>();
+    private int compressionLevel = Deflater.BEST_SPEED;
+    private boolean alpha = true;
+    private boolean adaptiveFiltering = true;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int nThreads = CachedDaemonThreadFactory.getNumbersOfThreads();
+
+    // state of the image being encoded
+    private int[] pixels;
+    private int width;
+    private int height;
+    private int bytesPerPixel;
+    private int rowBytes;
+    private int nChunks;
+
+    /**
+     * Creates an encoder that uses the common chart-fx thread pool.
+     */
+    public ParallelPngEncoder() {
+        this(CachedDaemonThreadFactory.getCommonPool());
+    }
+
+    /**
+     * @param executorService executor that provides the worker threads
+     */
+    public ParallelPngEncoder(final ExecutorService executorService) {
+        if (executorService == null) {
+            throw new IllegalArgumentException("executorService must not be null");
+        }
+        this.executorService = executorService;
+    }
+
+    /**
+     * Encodes the given ARGB pixels as PNG image.
+     *
+     * @param argb pixels in row-major order, e.g. as obtained via {@code PixelFormat.getIntArgbInstance()}
+     * @param width image width
+     * @param height image height
+     * @param byteBuffer optional byte buffer to store the output in, pass null to return a new one
+     * @return a byte buffer with the encoded image, flipped and ready to be read
+     */
+    public synchronized ByteBuffer encode(final int[] argb, final int width, final int height, final ByteBuffer byteBuffer) {
+        if (argb == null) {
+            throw new IllegalArgumentException("argb must not be null");
+        }
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("invalid image size " + width + " x " + height);
+        }
+        if (argb.length < width * height) {
+            throw new IllegalArgumentException("argb.length(" + argb.length + ") must be >= " + (width * height) + " = " + width + " (width) x " + height + " (height)");
+        }
+        this.pixels = argb;
+        this.width = width;
+        this.height = height;
+        bytesPerPixel = alpha ? 4 : 3;
+        rowBytes = width * bytesPerPixel + 1;
+        final int rowsPerChunk = Math.max(1, chunkSize / rowBytes);
+        nChunks = (height + rowsPerChunk - 1) / rowsPerChunk;
+        while (chunks.size() < nChunks) {
+            chunks.add(new Chunk());
+        }
+        for (int i = 0; i < nChunks; i++) {
+            chunks.get(i).setRange(i, i * rowsPerChunk, Math.min(height, (i + 1) * rowsPerChunk));
+        }
+
+        try {
+            runParallel(true);
+            runParallel(false);
+        } finally {
+            this.pixels = null; // NOPMD -- do not retain the user's pixel data
+        }
+
+        // assemble the output
+        int requiredSize = HEADER_SIZE + TRAILER_SIZE;
+        long adler = 1L;
+        for (int i = 0; i < nChunks; i++) {
+            final Chunk chunk = chunks.get(i);
+            requiredSize += CHUNK_OVERHEAD + chunk.compressedLength;
+            adler = combineAdler32(adler, chunk.adler, chunk.rawLength);
+        }
+        final ByteBuffer output = byteBuffer == null ? ByteBuffer.allocate(requiredSize) : byteBuffer;
+        if (output.remaining() < requiredSize) {
+            throw new IllegalArgumentException("byteBuffer too small: remaining = " + output.remaining() + " vs. required " + requiredSize);
+        }
+        final CRC32 crc = new CRC32();
+        WriteFxImage.writeImageHeader(width, height, alpha, output, crc);
+        for (int i = 0; i < nChunks; i++) {
+            final Chunk chunk = chunks.get(i);
+            output.putInt(chunk.compressedLength);
+            output.put(IDAT);
+            output.put(chunk.compressed, 0, chunk.compressedLength);
+            output.putInt((int) chunk.crc);
+        }
+        // zlib trailer: Adler-32 of the uncompressed (filtered) data
+        output.putInt(4);
+        crc.reset();
+        crc.update(IDAT);
+        final byte[] adlerBytes = { (byte) (adler >> 24), (byte) (adler >> 16), (byte) (adler >> 8), (byte) adler };
+        crc.update(adlerBytes);
+        output.put(adlerBytes);
+        output.putInt((int) crc.getValue());
+        WriteFxImage.writeImageFooter(output, crc);
+        return output.flip();
+    }
+
+    /**
+     * @return compression level used for encoding
+     */
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * @return number of threads (including the calling thread) used for encoding
+     */
+    public int getNumberOfThreads() {
+        return nThreads;
+    }
+
+    /**
+     * @return uncompressed chunk size in bytes
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return true: filter type is chosen per row, false: no filtering
+     */
+    public boolean isAdaptiveFiltering() {
+        return adaptiveFiltering;
+    }
+
+    /**
+     * @return whether the alpha channel is encoded
+     */
+    public boolean isAlpha() {
+        return alpha;
+    }
+
+    /**
+     * @param adaptiveFiltering true: filter type is chosen per row (default), false: no filtering (faster)
+     * @return itself (fluent design)
+     */
+    public synchronized ParallelPngEncoder setAdaptiveFiltering(final boolean adaptiveFiltering) {
+        this.adaptiveFiltering = adaptiveFiltering;
+        return this;
+    }
+
+    /**
+     * @param alpha whether to encode the alpha channel (RGBA) or not (RGB)
+     * @return itself (fluent design)
+     */
+    public synchronized ParallelPngEncoder setAlpha(final boolean alpha) {
+        this.alpha = alpha;
+        return this;
+    }
+
+    /**
+     * @param chunkSize uncompressed chunk size in bytes (N.B. at least one row per chunk)
+     * @return itself (fluent design)
+     */
+    public synchronized ParallelPngEncoder setChunkSize(final int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * @param compressionLevel {@link Deflater#BEST_COMPRESSION} (9) to {@link Deflater#NO_COMPRESSION} (0)
+     * @return itself (fluent design)
+     */
+    public synchronized ParallelPngEncoder setCompressionLevel(final int compressionLevel) {
+        if (compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("compressionLevel must be within [0, 9]: " + compressionLevel);
+        }
+        this.compressionLevel = compressionLevel;
+        return this;
+    }
+
+    /**
+     * @param nThreads number of threads (including the calling thread) used for encoding
+     * @return itself (fluent design)
+     */
+    public synchronized ParallelPngEncoder setNumberOfThreads(final int nThreads) {
+        if (nThreads <= 0) {
+            throw new IllegalArgumentException("nThreads must be positive: " + nThreads);
+        }
+        this.nThreads = nThreads;
+        return this;
+    }
+
+    private byte[] getZlibHeader() {
+        // CMF: deflate with 32k window, FLG: compression level hint with valid check bits
+        if (compressionLevel <= Deflater.BEST_SPEED) {
+            return new byte[] { 0x78, 0x01 };
+        } else if (compressionLevel <= 5) {
+            return new byte[] { 0x78, 0x5E };
+        } else if (compressionLevel == 6) {
+            return new byte[] { 0x78, (byte) 0x9C };
+        }
+        return new byte[] { 0x78, (byte) 0xDA };
+    }
+
+    private void runParallel(final boolean filterPhase) {
+        final AtomicInteger nextChunk = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(nChunks);
+        final Runnable worker = () -> {
+            int index;
+            while ((index = nextChunk.getAndIncrement()) < nChunks) {
+                try {
+                    if (filterPhase) {
+                        chunks.get(index).filter();
+                    } else {
+                        chunks.get(index).deflate();
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }
+        };
+        final int nHelpers = Math.min(nThreads, nChunks) - 1;
+        for (int i = 0; i < nHelpers; i++) {
+            try {
+                executorService.execute(worker);
+            } catch (RejectedExecutionException e) {
+                break; // the calling thread processes the remaining chunks
+            }
+        }
+        worker.run();
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while encoding", e);
+        }
+        for (int i = 0; i < nChunks; i++) {
+            if (chunks.get(i).failure != null) {
+                throw new IllegalStateException("could not encode chunk " + i, chunks.get(i).failure);
+            }
+        }
+    }
+
+    /**
+     * Combines the Adler-32 checksums of two consecutive byte sequences (see zlib's adler32_combine).
+     *
+     * @param adler1 checksum of the first sequence
+     * @param adler2 checksum of the second sequence
+     * @param length2 length of the second sequence
+     * @return checksum of the concatenated sequence
+     */
+    protected static long combineAdler32(final long adler1, final long adler2, final long length2) {
+        final long rem = length2 % ADLER_BASE;
+        long sum1 = adler1 & 0xFFFF;
+        long sum2 = (rem * sum1) % ADLER_BASE;
+        sum1 += (adler2 & 0xFFFF) + ADLER_BASE - 1;
+        sum2 += ((adler1 >> 16) & 0xFFFF) + ((adler2 >> 16) & 0xFFFF) + ADLER_BASE - rem;
+        if (sum1 >= ADLER_BASE) {
+            sum1 -= ADLER_BASE;
+        }
+        if (sum1 >= ADLER_BASE) {
+            sum1 -= ADLER_BASE;
+        }
+        if (sum2 >= (ADLER_BASE << 1)) {
+            sum2 -= ADLER_BASE << 1;
+        }
+        if (sum2 >= ADLER_BASE) {
+            sum2 -= ADLER_BASE;
+        }
+        return sum1 | (sum2 << 16);
+    }
+
+    private static int paeth(final int a, final int b, final int c) {
+        final int p = a + b - c;
+        final int pa = Math.abs(p - a);
+        final int pb = Math.abs(p - b);
+        final int pc = Math.abs(p - c);
+        if (pa <= pb && pa <= pc) {
+            return a;
+        }
+        return pb <= pc ? b : c;
+    }
+
+    private class Chunk {
+        private final Adler32 adler32 = new Adler32();
+        private final CRC32 crc32 = new CRC32();
+        private byte[] raw = new byte[0];
+        private byte[] compressed = new byte[0];
+        private byte[] previousRow = new byte[0];
+        private byte[] currentRow = new byte[0];
+        private int index;
+        private int rowStart;
+        private int rowEnd;
+        private int rawLength;
+        private int compressedLength;
+        private long adler;
+        private long crc;
+        private Throwable failure;
+
+        private void deflate() {
+            try {
+                final Deflater deflater = getDeflater();
+                try {
+                    int pos = 0;
+                    if (index == 0) {
+                        final byte[] header = getZlibHeader();
+                        ensureCompressedCapacity(header.length);
+                        System.arraycopy(header, 0, compressed, 0, header.length);
+                        pos = header.length;
+                    } else {
+                        // prime with the tail of the preceding chunk to retain the compression ratio
+                        final Chunk previous = chunks.get(index - 1);
+                        final int dictLength = Math.min(WINDOW_SIZE, previous.rawLength);
+                        deflater.setDictionary(previous.raw, previous.rawLength - dictLength, dictLength);
+                    }
+                    deflater.setInput(raw, 0, rawLength);
+                    ensureCompressedCapacity(pos + rawLength + (rawLength >> 3) + 64);
+                    if (index == nChunks - 1) {
+                        deflater.finish();
+                        while (!deflater.finished()) {
+                            if (pos == compressed.length) {
+                                ensureCompressedCapacity(2 * compressed.length);
+                            }
+                            pos += deflater.deflate(compressed, pos, compressed.length - pos);
+                        }
+                    } else {
+                        while (true) {
+                            pos += deflater.deflate(compressed, pos, compressed.length - pos, Deflater.SYNC_FLUSH);
+                            if (pos < compressed.length) {
+                                break;
+                            }
+                            ensureCompressedCapacity(2 * compressed.length);
+                        }
+                    }
+                    compressedLength = pos;
+                } finally {
+                    deflaterPool.offer(deflater);
+                }
+                crc32.reset();
+                crc32.update(IDAT);
+                crc32.update(compressed, 0, compressedLength);
+                crc = crc32.getValue();
+            } catch (RuntimeException e) { // NOPMD -- rethrown by the calling thread
+                failure = e;
+            }
+        }
+
+        private void ensureCompressedCapacity(final int capacity) {
+            if (compressed.length < capacity) {
+                final byte[] newArray = new byte[capacity];
+                System.arraycopy(compressed, 0, newArray, 0, compressed.length);
+                compressed = newArray;
+            }
+        }
+
+        private void filter() {
+            try {
+                rawLength = (rowEnd - rowStart) * rowBytes;
+                if (raw.length < rawLength) {
+                    raw = new byte[rawLength];
+                }
+                if (currentRow.length < rowBytes) {
+                    currentRow = new byte[rowBytes];
+                    previousRow = new byte[rowBytes];
+                }
+                if (rowStart == 0) {
+                    Arrays.fill(previousRow, 0, rowBytes, (byte) 0);
+                } else {
+                    convertRow(rowStart - 1, previousRow);
+                }
+                int pos = 0;
+                for (int row = rowStart; row < rowEnd; row++) {
+                    convertRow(row, currentRow);
+                    filterRow(pos);
+                    pos += rowBytes;
+                    final byte[] tmp = previousRow;
+                    previousRow = currentRow;
+                    currentRow = tmp;
+                }
+                adler32.reset();
+                adler32.update(raw, 0, rawLength);
+                adler = adler32.getValue();
+            } catch (RuntimeException e) { // NOPMD -- rethrown by the calling thread
+                failure = e;
+            }
+        }
+
+        private void convertRow(final int row, final byte[] target) {
+            // target[0] is reserved for the filter type so that byte offsets are identical to the filtered output
+            int pos = 1;
+            final int offset = row * width;
+            if (alpha) {
+                for (int x = 0; x < width; x++) {
+                    final int pixel = pixels[offset + x];
+                    target[pos++] = (byte) (pixel >> 16); // red
+                    target[pos++] = (byte) (pixel >> 8); // green
+                    target[pos++] = (byte) pixel; // blue
+                    target[pos++] = (byte) (pixel >> 24); // alpha
+                }
+            } else {
+                for (int x = 0; x < width; x++) {
+                    final int pixel = pixels[offset + x];
+                    target[pos++] = (byte) (pixel >> 16); // red
+                    target[pos++] = (byte) (pixel >> 8); // green
+                    target[pos++] = (byte) pixel; // blue
+                }
+            }
+        }
+
+        private void filterRow(final int offset) {
+            final byte[] cur = currentRow;
+            final byte[] prev = previousRow;
+            final int bpp = bytesPerPixel;
+            byte filterType = FILTER_NONE;
+            if (adaptiveFiltering) {
+                // minimum sum of absolute differences heuristic (see PNG specification, section 12.8)
+                long sumNone = 0;
+                long sumSub = 0;
+                long sumUp = 0;
+                long sumAverage = 0;
+                long sumPaeth = 0;
+                for (int i = 1; i < rowBytes; i++) {
+                    final int x = cur[i] & 0xFF;
+                    final int a = i > bpp ? cur[i - bpp] & 0xFF : 0;
+                    final int b = prev[i] & 0xFF;
+                    final int c = i > bpp ? prev[i - bpp] & 0xFF : 0;
+                    sumNone += Math.abs((byte) x);
+                    sumSub += Math.abs((byte) (x - a));
+                    sumUp += Math.abs((byte) (x - b));
+                    sumAverage += Math.abs((byte) (x - ((a + b) >> 1)));
+                    sumPaeth += Math.abs((byte) (x - paeth(a, b, c)));
+                }
+                long best = sumNone;
+                if (sumSub < best) {
+                    best = sumSub;
+                    filterType = FILTER_SUB;
+                }
+                if (sumUp < best) {
+                    best = sumUp;
+                    filterType = FILTER_UP;
+                }
+                if (sumAverage < best) {
+                    best = sumAverage;
+                    filterType = FILTER_AVERAGE;
+                }
+                if (sumPaeth < best) {
+                    filterType = FILTER_PAETH;
+                }
+            }
+
+            raw[offset] = filterType;
+            switch (filterType) {
+            case FILTER_SUB:
+                for (int i = 1; i < rowBytes; i++) {
+                    raw[offset + i] = (byte) (cur[i] - (i > bpp ? cur[i - bpp] : 0));
+                }
+                break;
+            case FILTER_UP:
+                for (int i = 1; i < rowBytes; i++) {
+                    raw[offset + i] = (byte) (cur[i] - prev[i]);
+                }
+                break;
+            case FILTER_AVERAGE:
+                for (int i = 1; i < rowBytes; i++) {
+                    final int a = i > bpp ? cur[i - bpp] & 0xFF : 0;
+                    raw[offset + i] = (byte) (cur[i] - ((a + (prev[i] & 0xFF)) >> 1));
+                }
+                break;
+            case FILTER_PAETH:
+                for (int i = 1; i < rowBytes; i++) {
+                    final int a = i > bpp ? cur[i - bpp] & 0xFF : 0;
+                    final int c = i > bpp ? prev[i - bpp] & 0xFF : 0;
+                    raw[offset + i] = (byte) (cur[i] - paeth(a, prev[i] & 0xFF, c));
+                }
+                break;
+            case FILTER_NONE:
+            default:
+                System.arraycopy(cur, 1, raw, offset + 1, rowBytes - 1);
+                break;
+            }
+        }
+
+        private Deflater getDeflater() {
+            final Deflater deflater = deflaterPool.poll();
+            if (deflater == null) {
+                return new Deflater(compressionLevel, true);
+            }
+            deflater.reset();
+            deflater.setLevel(compressionLevel);
+            return deflater;
+        }
+
+        private void setRange(final int index, final int rowStart, final int rowEnd) {
+            this.index = index;
+            this.rowStart = rowStart;
+            this.rowEnd = rowEnd;
+            failure = null;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package io.fair_acc.chartfx.utils;
 import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -26,6 +27,7 @@ import javafx.beans.InvalidationListener;
 import javafx.beans.Observable;
 import javafx.scene.Scene;
 import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
 import javafx.scene.image.WritableImage;
 import javafx.util.Duration;
 
@@ -35,6 +37,11 @@ import org.slf4j.LoggerFactory;
 /**
  * Simple class to make a periodic (or on-demand) screen-shot of given JavaFX scene to file. Class permits to add an ISO
  * date-time string
+ * <p>
+ * Alternatively, the screen-shots can be recorded into a single differential recording via
+ * {@link #startRecording(Path)}: only the tiles that changed w.r.t. the previous screen-shot are stored (see
+ * {@link TileRecordingWriter}) and can be played back via {@link TileRecordingReader}. Only the snapshot and pixel copy
+ * are performed on the JavaFX thread, the differencing and encoding is pipelined on the recording's writer thread.
  *
  * @author rstein
  */
@@ -52,6 +59,8 @@ public class PeriodicScreenCapture implements Observable {
     private final boolean addDateTime;
     protected final List<InvalidationListener> listeners = new LinkedList<>();
     private final Timer timer = new Timer("sample-update-timer", true); // for non-JavaFX tasks
+    private volatile TileRecordingWriter recorder; // NOPMD -- accessed from the JavaFX and caller threads
+    private WritableImage snapshotImage;
 
     public PeriodicScreenCapture(final Path path, final String fileName, final Scene scene, final double delay,
             final double period) {
@@ -99,7 +108,26 @@ public class PeriodicScreenCapture implements Observable {
         return isoDateTimeFormatString;
     }
 
+    /**
+     * @return the active differential recording, or null if screen-shots are written as individual PNG files
+     */
+    public TileRecordingWriter getRecorder() {
+        return recorder;
+    }
+
+    /**
+     * @return true if screen-shots are written to a differential recording rather than individual PNG files
+     */
+    public boolean isRecording() {
+        return recorder != null;
+    }
+
     public void performScreenCapture() {
+        final TileRecordingWriter activeRecorder = recorder;
+        if (activeRecorder != null) {
+            recordScreenCapture(activeRecorder);
+            return;
+        }
         try {
             final WritableImage image = primaryScene.snapshot(null);
             // open save in separate thread
@@ -129,6 +157,46 @@ public class PeriodicScreenCapture implements Observable {
         isoDateTimeFormatString = newFormat;
     }
 
+    /**
+     * Starts recording subsequent screen-shots into the given differential recording instead of individual PNG files.
+     * Frames are appended if the recording already exists.
+     *
+     * @param recordingFile the recording container file
+     * @throws IOException in case the recording cannot be opened
+     */
+    public void startRecording(final Path recordingFile) throws IOException {
+        startRecording(new TileRecordingWriter(recordingFile));
+    }
+
+    /**
+     * Starts recording subsequent screen-shots into the given differential recording instead of individual PNG files.
+     *
+     * @param recordingWriter the recording to append to (N.B. is closed by {@link #stopRecording()})
+     * @throws IOException in case a previous recording could not be closed
+     */
+    public void startRecording(final TileRecordingWriter recordingWriter) throws IOException {
+        if (recordingWriter == null) {
+            throw new IllegalArgumentException("recordingWriter must not be null");
+        }
+        stopRecording();
+        recorder = recordingWriter;
+    }
+
+    /**
+     * Stops the differential recording (if any), writes the pending frames and closes the recording file. Subsequent
+     * screen-shots are written as individual PNG files.
+     *
+     * @throws IOException in case pending frames could not be written
+     */
+    public void stopRecording() throws IOException {
+        final TileRecordingWriter activeRecorder = recorder;
+        recorder = null;
+        if (activeRecorder != null) {
+            activeRecorder.close();
+            fireInvalidated();
+        }
+    }
+
     public void start() {
         if (periodicTask != null) {
             periodicTask.stop();
@@ -145,6 +213,33 @@ public class PeriodicScreenCapture implements Observable {
         }
     }
 
+    private void recordScreenCapture(final TileRecordingWriter activeRecorder) {
+        try {
+            final long now = System.currentTimeMillis();
+            if (snapshotImage != null && (snapshotImage.getWidth() != Math.ceil(primaryScene.getWidth()) || snapshotImage.getHeight() != Math.ceil(primaryScene.getHeight()))) {
+                snapshotImage = null; // NOPMD -- scene has been resized
+            }
+            snapshotImage = primaryScene.snapshot(snapshotImage);
+            final int w = (int) snapshotImage.getWidth();
+            final int h = (int) snapshotImage.getHeight();
+            final int[] pixels = activeRecorder.getFrameBuffer(w * h);
+            snapshotImage.getPixelReader().getPixels(0, 0, w, h, PixelFormat.getIntArgbInstance(), pixels, 0, w);
+            if (!activeRecorder.submitFrame(now, pixels, w, h)) {
+                LOGGER.debug("recording falls behind, dropped screen capture frame");
+            }
+        } catch (final IllegalStateException e) {
+            if (recorder == activeRecorder) {
+                LOGGER.error("error while recording screen captured image", e);
+            } else {
+                // N.B. recording has been stopped concurrently while capturing this frame
+                LOGGER.debug("recording stopped, dropped screen capture frame");
+            }
+        } catch (final Exception e) {
+            // continue at all costs
+            LOGGER.error("error while recording screen captured image", e);
+        }
+    }
+
     private void writeImage(final Image image) {
         final long now = System.currentTimeMillis();
         try {
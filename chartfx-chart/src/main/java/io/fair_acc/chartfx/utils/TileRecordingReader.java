@@ -0,0 +1,307 @@
+package io.fair_acc.chartfx.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Random-access reader for differential screen recordings written by {@link TileRecordingWriter}.
+ * <p>
+ * The frame index is built by scanning the record headers only (tile payloads are skipped). A frame is reconstructed by
+ * applying the changed tiles of all frames since the preceding key frame; sequential playback continues from the last
+ * reconstructed frame. Frames that have been appended while the recording is still being written can be picked up
+ * via {@link #refresh()}.
+ */
+public class TileRecordingReader implements Closeable {
+    private final FileChannel channel;
+    private final FrameIndex index = new FrameIndex();
+    private final Inflater inflater = new Inflater();
+    private ByteBuffer record = ByteBuffer.allocate(64 * 1024);
+    private byte[] tileBytes = new byte[0];
+    private int[] current = new int[0];
+    private int currentIndex = -1;
+
+    /**
+     * @param file the container file
+     * @throws IOException in case the file cannot be read or is not a valid recording
+     */
+    public TileRecordingReader(final Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("file must not be null");
+        }
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            checkFileHeader(channel);
+            refresh();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+
+    /**
+     * @param timeStamp time-stamp to search for
+     * @return index of the last frame recorded at or before the given time-stamp, 0 if the time-stamp precedes the
+     *         recording, or -1 if the recording is empty
+     */
+    public int findFrame(final long timeStamp) {
+        final int pos = Arrays.binarySearch(index.timeStamps, 0, index.size, timeStamp);
+        if (pos >= 0) {
+            // return the last of equal time-stamps
+            int last = pos;
+            while (last + 1 < index.size && index.timeStamps[last + 1] == timeStamp) {
+                last++;
+            }
+            return last;
+        }
+        return index.size == 0 ? -1 : Math.max(0, -pos - 2);
+    }
+
+    /**
+     * @return number of complete frames in the recording
+     */
+    public int getFrameCount() {
+        return index.size;
+    }
+
+    /**
+     * @param frameIndex frame index
+     * @return height of the given frame
+     */
+    public int getHeight(final int frameIndex) {
+        checkIndex(frameIndex);
+        return index.heights[frameIndex];
+    }
+
+    /**
+     * @param frameIndex frame index
+     * @return time-stamp of the given frame
+     */
+    public long getTimeStamp(final int frameIndex) {
+        checkIndex(frameIndex);
+        return index.timeStamps[frameIndex];
+    }
+
+    /**
+     * @param frameIndex frame index
+     * @return width of the given frame
+     */
+    public int getWidth(final int frameIndex) {
+        checkIndex(frameIndex);
+        return index.widths[frameIndex];
+    }
+
+    /**
+     * @param frameIndex frame index
+     * @return true if the frame contains all tiles
+     */
+    public boolean isKeyFrame(final int frameIndex) {
+        checkIndex(frameIndex);
+        return index.keyFrames[frameIndex];
+    }
+
+    /**
+     * Reconstructs the given frame.
+     *
+     * @param frameIndex frame index
+     * @param target optional storage for the ARGB pixels in row-major order, a new array is allocated if null or too
+     *            small
+     * @return the ARGB pixels of the frame
+     * @throws IOException in case the recording cannot be read or is corrupt
+     */
+    public int[] readFrame(final int frameIndex, final int[] target) throws IOException {
+        checkIndex(frameIndex);
+        final int nPixels = index.widths[frameIndex] * index.heights[frameIndex];
+        int start = frameIndex;
+        while (start >= 0 && !index.keyFrames[start]) {
+            start--;
+        }
+        if (start < 0) {
+            throw new IOException("no key frame preceding frame " + frameIndex);
+        }
+        if (currentIndex >= start && currentIndex <= frameIndex) {
+            start = currentIndex + 1; // continue from the previously reconstructed frame
+        }
+        for (int i = start; i <= frameIndex; i++) {
+            applyFrame(i);
+            currentIndex = i;
+        }
+        final int[] result = target == null || target.length < nPixels ? new int[nPixels] : target;
+        System.arraycopy(current, 0, result, 0, nPixels);
+        return result;
+    }
+
+    /**
+     * Scans for frames that have been appended since the last scan.
+     *
+     * @return number of complete frames in the recording
+     * @throws IOException in case the recording cannot be read
+     */
+    public final int refresh() throws IOException {
+        scanFrames(channel, index);
+        return index.size;
+    }
+
+    private void applyFrame(final int frameIndex) throws IOException {
+        final long offset = index.offsets[frameIndex];
+        final int recordSize = index.recordSizes[frameIndex];
+        if (record.capacity() < recordSize) {
+            record = ByteBuffer.allocate(recordSize);
+        }
+        record.clear().limit(recordSize);
+        readFully(channel, record, offset);
+        record.flip();
+        record.position(2 * Integer.BYTES + Long.BYTES);
+        final int width = record.getInt();
+        final int height = record.getInt();
+        final int tileSize = record.getInt();
+        record.get(); // key-frame flag, already indexed
+        final int nTiles = record.getInt();
+        if (current.length < width * height) {
+            current = Arrays.copyOf(current, width * height);
+        }
+        for (int i = 0; i < nTiles; i++) {
+            final int x0 = record.getInt() * tileSize;
+            final int y0 = record.getInt() * tileSize;
+            final int length = record.getInt();
+            if (x0 < 0 || y0 < 0 || x0 >= width || y0 >= height || length < 0 || length > record.remaining()) {
+                throw new IOException("corrupt tile in frame " + frameIndex);
+            }
+            final int tileWidth = Math.min(width, x0 + tileSize) - x0;
+            final int tileHeight = Math.min(height, y0 + tileSize) - y0;
+            final int nBytes = 4 * tileWidth * tileHeight;
+            if (tileBytes.length < nBytes) {
+                tileBytes = new byte[nBytes];
+            }
+            inflater.reset();
+            inflater.setInput(record.array(), record.arrayOffset() + record.position(), length);
+            try {
+                if (inflater.inflate(tileBytes, 0, nBytes) != nBytes) {
+                    throw new IOException("truncated tile in frame " + frameIndex);
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("corrupt tile in frame " + frameIndex, e);
+            }
+            record.position(record.position() + length);
+            int j = 0;
+            for (int y = 0; y < tileHeight; y++) {
+                final int rowOffset = (y0 + y) * width + x0;
+                for (int x = 0; x < tileWidth; x++) {
+                    current[rowOffset + x] = (tileBytes[j] & 0xFF) << 24 | (tileBytes[j + 1] & 0xFF) << 16 | (tileBytes[j + 2] & 0xFF) << 8 | (tileBytes[j + 3] & 0xFF);
+                    j += 4;
+                }
+            }
+        }
+    }
+
+    private void checkIndex(final int frameIndex) {
+        if (frameIndex < 0 || frameIndex >= index.size) {
+            throw new IndexOutOfBoundsException("frameIndex " + frameIndex + " out of range [0, " + index.size + ")");
+        }
+    }
+
+    protected static void checkFileHeader(final FileChannel channel) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(TileRecordingWriter.FILE_HEADER_SIZE);
+        if (channel.size() < header.capacity()) {
+            throw new IOException("file too short for a recording header");
+        }
+        readFully(channel, header, 0);
+        final byte[] magic = new byte[TileRecordingWriter.FILE_MAGIC.length];
+        header.flip().get(magic);
+        if (!Arrays.equals(magic, TileRecordingWriter.FILE_MAGIC)) {
+            throw new IOException("not a tile recording");
+        }
+        final int version = header.getInt();
+        if (version != TileRecordingWriter.FILE_VERSION) {
+            throw new IOException("unsupported tile recording version " + version);
+        }
+    }
+
+    /**
+     * Scans the frame record headers starting after the last indexed frame.
+     *
+     * @param channel the container file
+     * @param index optional index to be extended
+     * @return file offset past the last complete frame record
+     * @throws IOException in case the recording cannot be read
+     */
+    protected static long scanFrames(final FileChannel channel, final FrameIndex index) throws IOException {
+        final long size = channel.size();
+        final ByteBuffer header = ByteBuffer.allocate(TileRecordingWriter.FRAME_HEADER_SIZE);
+        long position = index == null ? TileRecordingWriter.FILE_HEADER_SIZE : index.end;
+        while (position + header.capacity() <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            header.flip();
+            final int magic = header.getInt();
+            final long recordSize = 2L * Integer.BYTES + (header.getInt() & 0xFFFFFFFFL);
+            if (magic != TileRecordingWriter.FRAME_MAGIC || recordSize < header.capacity() || recordSize > Integer.MAX_VALUE || position + recordSize > size) {
+                break; // truncated or partially written record
+            }
+            if (index != null) {
+                final long timeStamp = header.getLong();
+                final int width = header.getInt();
+                final int height = header.getInt();
+                header.getInt(); // tile size
+                final boolean keyFrame = header.get() != 0;
+                index.add(position, (int) recordSize, timeStamp, width, height, keyFrame);
+                index.end = position + recordSize;
+            }
+            position += recordSize;
+        }
+        return position;
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position) throws IOException {
+        long pos = position;
+        while (buffer.hasRemaining()) {
+            final int n = channel.read(buffer, pos);
+            if (n < 0) {
+                throw new IOException("unexpected end of recording at " + pos);
+            }
+            pos += n;
+        }
+    }
+
+    protected static class FrameIndex {
+        private long[] offsets = new long[16];
+        private int[] recordSizes = new int[16];
+        private long[] timeStamps = new long[16];
+        private int[] widths = new int[16];
+        private int[] heights = new int[16];
+        private boolean[] keyFrames = new boolean[16];
+        private int size;
+        private long end = TileRecordingWriter.FILE_HEADER_SIZE;
+
+        private void add(final long offset, final int recordSize, final long timeStamp, final int width, final int height, final boolean keyFrame) {
+            if (size == offsets.length) {
+                final int capacity = 2 * size;
+                offsets = Arrays.copyOf(offsets, capacity);
+                recordSizes = Arrays.copyOf(recordSizes, capacity);
+                timeStamps = Arrays.copyOf(timeStamps, capacity);
+                widths = Arrays.copyOf(widths, capacity);
+                heights = Arrays.copyOf(heights, capacity);
+                keyFrames = Arrays.copyOf(keyFrames, capacity);
+            }
+            offsets[size] = offset;
+            recordSizes[size] = recordSize;
+            timeStamps[size] = timeStamp;
+            widths[size] = width;
+            heights[size] = height;
+            keyFrames[size] = keyFrame;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package io.fair_acc.chartfx.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only writer for differential screen recordings: consecutive ARGB frames are split into square tiles and only
+ * those tiles that changed w.r.t. the previous frame are deflated and appended to the container file. Storage thus
+ * scales with the rate of change rather than the frame rate. A key frame containing all tiles is written periodically
+ * (see {@link #setKeyFrameInterval(int)}) and whenever the frame size changes, so that {@link TileRecordingReader}
+ * can seek to arbitrary frames.
+ * <p>
+ * Frames are submitted via {@link #submitFrame(long, int[], int, int)} from the capturing (e.g. JavaFX) thread and are
+ * differenced, encoded and written by a dedicated background thread. Pixel buffers should be obtained via
+ * {@link #getFrameBuffer(int)} and are recycled once the frame has been written. If the writer thread falls behind by
+ * more than {@link #MAX_PENDING_FRAMES}, new frames are dropped rather than blocking the caller.
+ * <p>
+ * Container layout (big-endian): file header {@code "CFXTILES", int version}, followed by frame records
+ * {@code int FRAME_MAGIC, int recordLength, long timeStamp, int width, int height, int tileSize, byte keyFrame,
+ * int nTiles, nTiles x (int tileX, int tileY, int length, byte[length] deflated ARGB)} where {@code recordLength} is
+ * the number of bytes following this field.
+ */
+public class TileRecordingWriter implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TileRecordingWriter.class);
+    public static final byte[] FILE_MAGIC = { 'C', 'F', 'X', 'T', 'I', 'L', 'E', 'S' };
+    public static final int FILE_VERSION = 1;
+    public static final int FILE_HEADER_SIZE = FILE_MAGIC.length + Integer.BYTES;
+    public static final int FRAME_MAGIC = 0x4652414D; // "FRAM"
+    public static final int FRAME_HEADER_SIZE = 2 * Integer.BYTES + Long.BYTES + 3 * Integer.BYTES + 1 + Integer.BYTES;
+    public static final int TILE_HEADER_SIZE = 3 * Integer.BYTES;
+    public static final int DEFAULT_TILE_SIZE = 64;
+    public static final int DEFAULT_KEY_FRAME_INTERVAL = 600;
+    public static final int MAX_PENDING_FRAMES = 4;
+    private static final Frame END_OF_RECORDING = new Frame(0, new int[0], 0, 0);
+    private final FileChannel channel;
+    private final int tileSize;
+    private final BlockingQueue<Frame> pendingFrames = new ArrayBlockingQueue<>(MAX_PENDING_FRAMES + 1);
+    private final Object outstandingLock = new Object();
+    private int outstandingFrames; // guarded by outstandingLock
+    private final ConcurrentLinkedQueue<int[]> freeBuffers = new ConcurrentLinkedQueue<>();
+    private final Deflater deflater;
+    private final Thread writerThread;
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private volatile boolean closed; // NOPMD -- shared with the writer thread
+    private volatile int keyFrameInterval = DEFAULT_KEY_FRAME_INTERVAL;
+    private volatile IOException writeException; // NOPMD -- shared with the writer thread
+
+    // state owned by the writer thread
+    private int[] previous = new int[0];
+    private int previousWidth = -1;
+    private int previousHeight = -1;
+    private int framesSinceKeyFrame;
+    private int[] tilePixels = new int[0];
+    private byte[] tileBytes = new byte[0];
+    private byte[] compressed = new byte[0];
+    private ByteBuffer record = ByteBuffer.allocate(64 * 1024);
+    private long writtenFrames;
+    private long writtenTiles;
+    private long writtenBytes;
+
+    /**
+     * Opens the given container file with the {@link #DEFAULT_TILE_SIZE} and deflater {@link Deflater#BEST_SPEED}.
+     * Frames are appended if the file already exists.
+     *
+     * @param file the container file
+     * @throws IOException in case the file cannot be opened or is not a valid recording
+     */
+    public TileRecordingWriter(final Path file) throws IOException {
+        this(file, DEFAULT_TILE_SIZE, Deflater.BEST_SPEED);
+    }
+
+    /**
+     * Opens the given container file. Frames are appended if the file already exists.
+     *
+     * @param file the container file
+     * @param tileSize edge length of the square tiles in pixels
+     * @param compressionLevel {@link Deflater#BEST_COMPRESSION} (9) to {@link Deflater#NO_COMPRESSION} (0)
+     * @throws IOException in case the file cannot be opened or is not a valid recording
+     */
+    public TileRecordingWriter(final Path file, final int tileSize, final int compressionLevel) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("file must not be null");
+        }
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("tileSize must be positive: " + tileSize);
+        }
+        if (compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("compressionLevel must be within [0, 9]: " + compressionLevel);
+        }
+        this.tileSize = tileSize;
+        deflater = new Deflater(compressionLevel);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                final ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).put(FILE_MAGIC).putInt(FILE_VERSION).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+            } else {
+                TileRecordingReader.checkFileHeader(channel);
+                // drop a possibly truncated record of an earlier, aborted recording
+                channel.truncate(TileRecordingReader.scanFrames(channel, null));
+            }
+            channel.position(channel.size());
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        writerThread = new Thread(this::processFrames, "TileRecordingWriter-" + file.getFileName());
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Writes all pending frames and closes the container file.
+     *
+     * @throws IOException if a pending frame could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (outstandingLock) {
+            if (closed) {
+                return;
+            }
+            closed = true; // N.B. under the lock: no frame can be queued behind the end-of-recording marker
+        }
+        try {
+            // N.B. no interrupt: this would close the (interruptible) file channel
+            pendingFrames.put(END_OF_RECORDING);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        deflater.end();
+        channel.close();
+        if (writeException != null) {
+            throw writeException;
+        }
+    }
+
+    /**
+     * @return number of frames that have been dropped because the writer could not keep up
+     */
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    /**
+     * @param size minimum number of pixels
+     * @return a (recycled) pixel buffer to be filled and passed to {@link #submitFrame(long, int[], int, int)}
+     */
+    public int[] getFrameBuffer(final int size) {
+        int[] buffer;
+        while ((buffer = freeBuffers.poll()) != null) {
+            if (buffer.length >= size) {
+                return buffer;
+            }
+        }
+        return new int[size];
+    }
+
+    /**
+     * @return number of frames between two key frames
+     */
+    public int getKeyFrameInterval() {
+        return keyFrameInterval;
+    }
+
+    /**
+     * @return edge length of the square tiles in pixels
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * @return number of bytes that have been appended to the container
+     */
+    public synchronized long getWrittenBytes() {
+        return writtenBytes;
+    }
+
+    /**
+     * @return number of frames that have been appended to the container
+     */
+    public synchronized long getWrittenFrames() {
+        return writtenFrames;
+    }
+
+    /**
+     * @return number of (changed) tiles that have been appended to the container
+     */
+    public synchronized long getWrittenTiles() {
+        return writtenTiles;
+    }
+
+    /**
+     * @return true if the recording is open and no write error occurred
+     */
+    public boolean isOpen() {
+        return !closed && writeException == null;
+    }
+
+    /**
+     * @param keyFrameInterval number of frames between two key frames (full frame with all tiles)
+     * @return itself (fluent design)
+     */
+    public TileRecordingWriter setKeyFrameInterval(final int keyFrameInterval) {
+        if (keyFrameInterval <= 0) {
+            throw new IllegalArgumentException("keyFrameInterval must be positive: " + keyFrameInterval);
+        }
+        this.keyFrameInterval = keyFrameInterval;
+        return this;
+    }
+
+    /**
+     * Queues a frame to be differenced against its predecessor and written by the background thread. The ownership of
+     * the pixel buffer passes to the writer (N.B. it must not be modified afterwards).
+     *
+     * @param timeStamp time-stamp of the frame, e.g. in milliseconds since the epoch
+     * @param argb pixels in row-major order
+     * @param width frame width
+     * @param height frame height
+     * @return true if the frame has been queued, false if it has been dropped because the writer could not keep up
+     */
+    public boolean submitFrame(final long timeStamp, final int[] argb, final int width, final int height) {
+        if (argb == null) {
+            throw new IllegalArgumentException("argb must not be null");
+        }
+        if (width <= 0 || height <= 0 || argb.length < width * height) {
+            throw new IllegalArgumentException("invalid frame size " + width + " x " + height + " for argb.length = " + argb.length);
+        }
+        if (!isOpen()) {
+            throw new IllegalStateException("recording is closed", writeException);
+        }
+        synchronized (outstandingLock) {
+            if (closed) {
+                throw new IllegalStateException("recording is closed");
+            }
+            if (outstandingFrames < MAX_PENDING_FRAMES && pendingFrames.offer(new Frame(timeStamp, argb, width, height))) {
+                outstandingFrames++;
+                return true;
+            }
+        }
+        droppedFrames.incrementAndGet();
+        freeBuffers.offer(argb);
+        return false;
+    }
+
+    /**
+     * Waits until all pending frames have been written.
+     *
+     * @param timeout maximum time to wait
+     * @param unit time unit of the timeout argument
+     * @return true if all pending frames have been written
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean flush(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (outstandingLock) {
+            while (outstandingFrames > 0) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(outstandingLock, remaining);
+            }
+        }
+        return true;
+    }
+
+    private void processFrames() {
+        while (true) {
+            final Frame frame;
+            try {
+                frame = pendingFrames.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (frame == END_OF_RECORDING) { // NOPMD -- identity check of the sentinel
+                return;
+            }
+            try {
+                if (writeException == null) {
+                    writeFrame(frame);
+                }
+            } catch (IOException e) {
+                writeException = e;
+                LOGGER.atError().setCause(e).log("could not write frame to recording");
+            } finally {
+                freeBuffers.offer(frame.argb);
+                synchronized (outstandingLock) {
+                    outstandingFrames--;
+                    outstandingLock.notifyAll();
+                }
+            }
+        }
+    }
+
+    private void writeFrame(final Frame frame) throws IOException {
+        final int width = frame.width;
+        final int height = frame.height;
+        final boolean keyFrame = width != previousWidth || height != previousHeight || framesSinceKeyFrame >= keyFrameInterval - 1;
+        if (keyFrame) {
+            if (previous.length < width * height) {
+                previous = new int[width * height];
+            }
+            previousWidth = width;
+            previousHeight = height;
+            framesSinceKeyFrame = 0;
+        } else {
+            framesSinceKeyFrame++;
+        }
+
+        record.clear();
+        record.putInt(FRAME_MAGIC).putInt(0).putLong(frame.timeStamp).putInt(width).putInt(height).putInt(tileSize);
+        record.put((byte) (keyFrame ? 1 : 0)).putInt(0);
+        int nTiles = 0;
+        for (int tileY = 0; tileY * tileSize < height; tileY++) {
+            for (int tileX = 0; tileX * tileSize < width; tileX++) {
+                if (keyFrame || isTileChanged(frame.argb, width, height, tileX, tileY)) {
+                    writeTile(frame.argb, width, height, tileX, tileY);
+                    nTiles++;
+                }
+            }
+        }
+        record.putInt(Integer.BYTES, record.position() - 2 * Integer.BYTES);
+        record.putInt(FRAME_HEADER_SIZE - Integer.BYTES, nTiles);
+        record.flip();
+        final int nBytes = record.remaining();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+        synchronized (this) {
+            writtenFrames++;
+            writtenTiles += nTiles;
+            writtenBytes += nBytes;
+        }
+    }
+
+    private boolean isTileChanged(final int[] argb, final int width, final int height, final int tileX, final int tileY) {
+        final int x0 = tileX * tileSize;
+        final int x1 = Math.min(width, x0 + tileSize);
+        final int y1 = Math.min(height, (tileY + 1) * tileSize);
+        for (int y = tileY * tileSize; y < y1; y++) {
+            final int offset = y * width;
+            if (!Arrays.equals(argb, offset + x0, offset + x1, previous, offset + x0, offset + x1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeTile(final int[] argb, final int width, final int height, final int tileX, final int tileY) {
+        final int x0 = tileX * tileSize;
+        final int tileWidth = Math.min(width, x0 + tileSize) - x0;
+        final int y0 = tileY * tileSize;
+        final int tileHeight = Math.min(height, y0 + tileSize) - y0;
+        final int nPixels = tileWidth * tileHeight;
+        if (tilePixels.length < nPixels) {
+            tilePixels = new int[nPixels];
+            tileBytes = new byte[4 * nPixels];
+        }
+        // copy the tile to the reference frame and serialise it as big-endian ARGB
+        for (int y = 0; y < tileHeight; y++) {
+            final int offset = (y0 + y) * width + x0;
+            System.arraycopy(argb, offset, previous, offset, tileWidth);
+            System.arraycopy(argb, offset, tilePixels, y * tileWidth, tileWidth);
+        }
+        for (int i = 0, j = 0; i < nPixels; i++) {
+            final int pixel = tilePixels[i];
+            tileBytes[j++] = (byte) (pixel >> 24);
+            tileBytes[j++] = (byte) (pixel >> 16);
+            tileBytes[j++] = (byte) (pixel >> 8);
+            tileBytes[j++] = (byte) pixel;
+        }
+        final int nBytes = 4 * nPixels;
+        deflater.reset();
+        deflater.setInput(tileBytes, 0, nBytes);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, Math.max(1024, 2 * compressed.length));
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        ensureRecordCapacity(TILE_HEADER_SIZE + length);
+        record.putInt(tileX).putInt(tileY).putInt(length).put(compressed, 0, length);
+    }
+
+    private void ensureRecordCapacity(final int additionalBytes) {
+        if (record.remaining() < additionalBytes) {
+            final ByteBuffer newRecord = ByteBuffer.allocate(Math.max(2 * record.capacity(), record.position() + additionalBytes));
+            record.flip();
+            newRecord.put(record);
+            record = newRecord;
+        }
+    }
+
+    private static class Frame {
+        private final long timeStamp;
+        private final int[] argb;
+        private final int width;
+        private final int height;
+
+        private Frame(final long timeStamp, final int[] argb, final int width, final int height) {
+            this.timeStamp = timeStamp;
+            this.argb = argb;
+            this.width = width;
+            this.height = height;
+        }
+    }
+}
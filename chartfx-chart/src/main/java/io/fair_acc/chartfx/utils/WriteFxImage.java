@@ -5,11 +5,18 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.zip.CRC32;
 import java.util.zip.Deflater;
 
 import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
 import javafx.scene.image.PixelReader;
 import javafx.scene.image.PixelWriter;
 import javafx.scene.image.WritableImage;
@@ -20,6 +27,7 @@ import org.slf4j.LoggerFactory;
 
 import io.fair_acc.dataset.utils.ArrayCache;
 import io.fair_acc.dataset.utils.ByteBufferOutputStream;
+import io.fair_acc.dataset.utils.CachedDaemonThreadFactory;
 
 import ar.com.hjg.pngj.FilterType;
 import ar.com.hjg.pngj.ImageInfo;
@@ -47,6 +55,9 @@ public final class WriteFxImage {
     private static final int HEADER_SIZE = 8 + 12 + 13 + 12 + 12; // size of all the headers and other Metadata
     private static final String INTERNAL_ARRAY_CACHE_NAME = "WriteFxImage-internalArray";
     private static final String INTERNAL_LINE_ARRAY_CACHE_NAME = "WriteFxImage-internalLineArray";
+    private static final String INTERNAL_PIXEL_ARRAY_CACHE_NAME = "WriteFxImage-internalPixelArray";
+    private static final ConcurrentLinkedQueue<ParallelPngEncoder> PARALLEL_ENCODERS = new ConcurrentLinkedQueue<>();
+    private static final int PARALLEL_PALETTE_LOOKUP_THRESHOLD = 1 << 16; // [pixels]
 
     /**
      * private constructor for static utility class
@@ -242,6 +253,68 @@ public final class WriteFxImage {
         return outputByteBuffer;
     }
 
+    /**
+     * Encodes a JavaFx image as an RGBA png image with fastest (lossless) compression using multiple threads
+     *
+     * @param image The input image to be encoded
+     * @return a byte buffer with the encoded image
+     * @see ParallelPngEncoder
+     */
+    public static ByteBuffer encodeParallel(final Image image) {
+        return encodeParallel(image, null, true, Deflater.BEST_SPEED);
+    }
+
+    /**
+     * Encodes a JavaFx image as an RGB(A) png image using multiple threads. The scanlines are split into chunks that
+     * are adaptively filtered and deflated in parallel (see {@link ParallelPngEncoder}). If you pass in a ByteBuffer
+     * to use, please make sure that it has enough capacity, e.g. by using {@link #getCompressedSizeBound(int, int,
+     * boolean) getCompressedSizeBound(width, height, alpha)}.
+     *
+     * @param image            The input image to be encoded
+     * @param byteBuffer       optional byte buffer to store the output in, pass
+     *                         null to return a new one.
+     * @param alpha            whether to include alpha information in the image
+     * @param compressionLevel {@link Deflater#BEST_COMPRESSION} (9) to
+     *                         {@link Deflater#NO_COMPRESSION} (0)
+     * @return a byte buffer with the encoded image
+     * @see "https://tools.ietf.org/html/rfc2083"
+     */
+    public static ByteBuffer encodeParallel(final Image image, final ByteBuffer byteBuffer, final boolean alpha, final int compressionLevel) {
+        if (image == null) {
+            throw new IllegalArgumentException(IMAGE_MUST_NOT_BE_NULL);
+        }
+        final PixelReader pr = image.getPixelReader();
+        if (pr == null) {
+            throw new IllegalStateException(IMAGE_PIXEL_READER_NOT_AVAILABLE);
+        }
+        final int w = (int) image.getWidth();
+        final int h = (int) image.getHeight();
+        final int[] pixels = ArrayCache.getCachedIntArray(INTERNAL_PIXEL_ARRAY_CACHE_NAME, w * h);
+        final ParallelPngEncoder pooledEncoder = PARALLEL_ENCODERS.poll();
+        final ParallelPngEncoder encoder = pooledEncoder == null ? new ParallelPngEncoder() : pooledEncoder;
+        try {
+            pr.getPixels(0, 0, w, h, PixelFormat.getIntArgbInstance(), pixels, 0, w);
+            return encoder.setAlpha(alpha).setCompressionLevel(compressionLevel).encode(pixels, w, h, byteBuffer);
+        } finally {
+            PARALLEL_ENCODERS.offer(encoder);
+            ArrayCache.release(INTERNAL_PIXEL_ARRAY_CACHE_NAME, pixels);
+        }
+    }
+
+    /**
+     * Encodes the image as indexed-colour PNG.
+     *
+     * @param image the image to be encoded
+     * @param byteBuffer optional output buffer, a new buffer is allocated if {@code null}
+     * @param alpha true: reserve a transparent palette entry
+     * @param compressionLevel the deflate compression level
+     * @param filterType the PNG row filter type
+     * @param userPalette optional fixed palette, a {@link PaletteQuantizerAdaptive} is updated for the given image and
+     *            re-used across consecutive calls. If omitted, a new palette is estimated via
+     *            {@link #estimatePalette(int[], int, int, boolean, int)}. N.B. lookups are performed concurrently for
+     *            large images.
+     * @return the encoded image
+     */
     public static ByteBuffer encodePalette(final Image image, final ByteBuffer byteBuffer, final boolean alpha, final int compressionLevel, final FilterType filterType, final PaletteQuantizer... userPalette) { // NOPMD w.r.t path complexity
         if (image == null) {
             throw new IllegalArgumentException(IMAGE_MUST_NOT_BE_NULL);
@@ -253,7 +326,13 @@ public final class WriteFxImage {
         final int[] uncompressedImageData = ArrayCache.getCachedIntArray(INTERNAL_ARRAY_CACHE_NAME, nPixel);
         copyImageDataToPixelBuffer(image, uncompressedImageData);
 
-        PaletteQuantizer palette = userPalette.length > 0 && userPalette[0] != null ? userPalette[0] : estimatePalette(uncompressedImageData, w, h, alpha, DEFAULT_PALETTE_COLOR_COUNT);
+        final PaletteQuantizer palette;
+        if (userPalette.length > 0 && userPalette[0] instanceof PaletteQuantizerAdaptive) {
+            ((PaletteQuantizerAdaptive) userPalette[0]).update(uncompressedImageData, w, h);
+            palette = userPalette[0];
+        } else {
+            palette = userPalette.length > 0 && userPalette[0] != null ? userPalette[0] : estimatePalette(uncompressedImageData, w, h, alpha, DEFAULT_PALETTE_COLOR_COUNT);
+        }
         // add in addition ~ 256*(3..4) bytes to store palette info
         // N.B. alpha with palette has a bug, thus forcing it here
         final int bytesPerPixel = 3; // (alpha ? 4 : 3);
@@ -270,27 +349,14 @@ public final class WriteFxImage {
 
             preparePaletteHeader(pngWriter, palette);
 
+            // map pixels to palette indices (in-place)
+            mapToPalette(palette, uncompressedImageData, w, h, alpha);
+
             final int[] lineArray = ArrayCache.getCachedIntArray(INTERNAL_LINE_ARRAY_CACHE_NAME, w);
             final ImageLineInt line = new ImageLineInt(pngWriter.imgInfo, lineArray);
-            if (alpha) {
-                int row = 0;
-                for (int i = 0; i < nPixel; i++) {
-                    final int lineIndex = i % w;
-                    final int pixel = uncompressedImageData[i];
-                    lineArray[lineIndex] = palette.lookup(pixel >> 16 & 0xFF, pixel >> 8 & 0xFF, pixel & 0xFF, pixel >> 24 & 0xFF);
-                    if (lineIndex == w - 1) {
-                        pngWriter.writeRow(line, row++);
-                    }
-                }
-            } else {
-                for (int i = 0; i < nPixel; i++) {
-                    final int lineIndex = i % w;
-                    final int pixel = uncompressedImageData[i];
-                    lineArray[lineIndex] = palette.lookup(pixel >> 16 & 0xFF, pixel >> 8 & 0xFF, pixel & 0xFF);
-                    if (lineIndex == w - 1) {
-                        pngWriter.writeRow(line);
-                    }
-                }
+            for (int row = 0; row < h; row++) {
+                System.arraycopy(uncompressedImageData, row * w, lineArray, 0, w);
+                pngWriter.writeRow(line, row);
             }
             pngWriter.end();
             ArrayCache.release(INTERNAL_ARRAY_CACHE_NAME, uncompressedImageData);
@@ -313,15 +379,24 @@ public final class WriteFxImage {
         }
         final int w = (int) image.getWidth();
         final int h = (int) image.getHeight();
+        final int[] pixels = new int[w * h];
+        pr.getPixels(0, 0, w, h, PixelFormat.getIntArgbInstance(), pixels, 0, w);
 
-        PaletteQuantizerNeuQuant cuant = new PaletteQuantizerNeuQuant(w, h, (x, y) -> pr.getArgb(y, x));
-        cuant.setParReserveAlphaColor(alpha);
-        cuant.setParNcolors(nColors);
-        cuant.run();
-
-        return cuant;
+        return estimatePalette(pixels, w, h, alpha, nColors);
     }
 
+    /**
+     * Estimates the palette of the given image: images with at most {@code nColors} distinct colours (typical for
+     * charts) are represented losslessly by a {@link PaletteQuantizerExact}, otherwise a {@link PaletteQuantizerNeuQuant}
+     * is trained on a sub-sample of the pixels.
+     *
+     * @param pixelArray the ARGB pixels in row-major order
+     * @param width image width
+     * @param heigth image height
+     * @param alpha true: reserve a transparent palette entry
+     * @param nColors maximum number of palette entries
+     * @return the palette
+     */
     public static PaletteQuantizer estimatePalette(final int[] pixelArray, final int width, final int heigth, final boolean alpha, final int nColors) {
         if (pixelArray == null) {
             throw new IllegalArgumentException("pixelArray must not be null");
@@ -331,9 +406,15 @@ public final class WriteFxImage {
             throw new IllegalArgumentException("pixelArray.length(" + pixelArray.length + " must be >= " + (width * heigth) + " = " + width + " (width) x" + heigth + " (height)");
         }
 
+        final PaletteQuantizerExact exact = PaletteQuantizerExact.create(pixelArray, width, heigth, alpha, nColors);
+        if (exact != null) {
+            return exact;
+        }
+
         PaletteQuantizerNeuQuant cuant = new PaletteQuantizerNeuQuant(width, heigth, (x, y) -> pixelArray[x * width + y]);
         cuant.setParReserveAlphaColor(alpha);
         cuant.setParNcolors(nColors);
+        cuant.setParSampledTraining(true);
         cuant.run();
 
         return cuant;
@@ -366,11 +447,58 @@ public final class WriteFxImage {
      */
     public static void savePng(final Image image, final File file) throws IOException {
         try (OutputStream os = Files.newOutputStream(file.toPath())) {
-            final ByteBuffer buffer = WriteFxImage.encode(image);
+            final ByteBuffer buffer = WriteFxImage.encodeParallel(image);
             os.write(buffer.array(), 0, buffer.limit());
         }
     }
 
+    /**
+     * Replaces the ARGB pixels by their palette indices, concurrently for large images.
+     */
+    private static void mapToPalette(final PaletteQuantizer palette, final int[] pixels, final int width, final int height, final boolean alpha) {
+        final int nPixel = width * height;
+        if (nPixel < PARALLEL_PALETTE_LOOKUP_THRESHOLD || CachedDaemonThreadFactory.getNumbersOfThreads() <= 1) {
+            mapToPalette(palette, pixels, 0, nPixel, alpha);
+            return;
+        }
+        palette.getColorCount(); // N.B. trains lazily initialised palettes once before forking the lookup workers
+        final int nChunks = Math.min(height, 4 * CachedDaemonThreadFactory.getNumbersOfThreads());
+        final int rowsPerChunk = (height + nChunks - 1) / nChunks;
+        final List<Callable<Boolean>> workers = new ArrayList<>(nChunks);
+        for (int row = 0; row < height; row += rowsPerChunk) {
+            final int from = row * width;
+            final int to = Math.min(height, row + rowsPerChunk) * width;
+            workers.add(() -> {
+                mapToPalette(palette, pixels, from, to, alpha);
+                return Boolean.TRUE;
+            });
+        }
+        try {
+            for (final Future<Boolean> future : CachedDaemonThreadFactory.getCommonPool().invokeAll(workers)) {
+                future.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("palette lookup interrupted", e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("palette lookup failed", e.getCause());
+        }
+    }
+
+    private static void mapToPalette(final PaletteQuantizer palette, final int[] pixels, final int from, final int to, final boolean alpha) {
+        int lastPixel = 0;
+        int lastIndex = -1;
+        for (int i = from; i < to; i++) {
+            final int pixel = pixels[i];
+            if (pixel != lastPixel || lastIndex < 0) {
+                // N.B. chart images contain long runs of identical pixels
+                lastPixel = pixel;
+                lastIndex = alpha ? palette.lookup(pixel >> 16 & 0xFF, pixel >> 8 & 0xFF, pixel & 0xFF, pixel >> 24 & 0xFF) : palette.lookup(pixel >> 16 & 0xFF, pixel >> 8 & 0xFF, pixel & 0xFF);
+            }
+            pixels[i] = lastIndex;
+        }
+    }
+
     private static void preparePaletteHeader(PngWriter pngWriter, PaletteQuantizer cuant) {
         // create palette
         PngChunkPLTE palette = pngWriter.getMetadata().createPLTEChunk();
@@ -475,7 +603,7 @@ public final class WriteFxImage {
      * @param outputByteBuffer the buffer to write into
      * @param crc              The checksum calculator
      */
-    private static void writeImageFooter(final ByteBuffer outputByteBuffer, final CRC32 crc) {
+    static void writeImageFooter(final ByteBuffer outputByteBuffer, final CRC32 crc) {
         outputByteBuffer.putInt(0);
         crc.reset();
         write("IEND".getBytes(), outputByteBuffer, crc);
@@ -491,7 +619,7 @@ public final class WriteFxImage {
      * @param outputByteBuffer the buffer to write into
      * @param crc              the checksum calculator
      */
-    private static void writeImageHeader(final int width, final int height, final boolean alpha, final ByteBuffer outputByteBuffer, final CRC32 crc) {
+    static void writeImageHeader(final int width, final int height, final boolean alpha, final ByteBuffer outputByteBuffer, final CRC32 crc) {
         // File Signature - "\211PNG\r\n\032\n" - 8950 4e47 0d0a 1a0a
         outputByteBuffer.put(new byte[] { (byte) 0x89, 0x50, 0x4e, 0x47, 0x0d, 0x0a, 0x1a, 0x0a });
         // IHDR
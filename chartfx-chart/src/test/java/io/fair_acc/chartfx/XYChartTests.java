@@ -0,0 +1,177 @@
+package io.fair_acc.chartfx;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javafx.scene.Scene;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.stage.Stage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.framework.junit5.Start;
+
+import io.fair_acc.chartfx.axes.spi.DefaultNumericAxis;
+import io.fair_acc.chartfx.renderer.spi.ErrorDataSetRenderer;
+import io.fair_acc.chartfx.renderer.spi.MetaDataRenderer;
+import io.fair_acc.chartfx.ui.utils.JavaFXInterceptorUtils.SelectiveJavaFxInterceptor;
+import io.fair_acc.chartfx.utils.FXUtils;
+import io.fair_acc.dataset.spi.DoubleDataSet;
+
+/**
+ * Tests the layered and parallel rendering of {@link XYChart}
+ */
+@ExtendWith(ApplicationExtension.class)
+@ExtendWith(SelectiveJavaFxInterceptor.class)
+class XYChartTests {
+    private static final int WAIT_N_FX_PULSES = 3;
+    private static final int MAX_TIMEOUT_MILLIS = 1000;
+    private XYChart chart;
+    private CountingRenderer staticRenderer;
+    private CountingRenderer liveRenderer;
+    private DoubleDataSet liveDataSet;
+
+    @Start
+    public void start(Stage stage) {
+        chart = new XYChart(new DefaultNumericAxis(0, 10, 1), new DefaultNumericAxis(-1, 1, 0.5));
+        staticRenderer = new CountingRenderer();
+        staticRenderer.getDatasets().add(new DoubleDataSet("static").set(new double[] { 0, 5, 10 }, new double[] { 0, 0.5, 0 }));
+        liveRenderer = new CountingRenderer();
+        liveDataSet = new DoubleDataSet("live").set(new double[] { 0, 5, 10 }, new double[] { 0, -0.5, 0 });
+        liveRenderer.getDatasets().add(liveDataSet);
+        chart.getRenderers().setAll(staticRenderer, liveRenderer);
+
+        stage.setScene(new Scene(chart, 300, 200));
+        stage.show();
+    }
+
+    @Test
+    void testLayeredRendering() throws Exception {
+        assertFalse(chart.isLayeredRendering());
+        assertSame(chart.getCanvas(), chart.getRenderCanvas());
+
+        FXUtils.runAndWait(() -> chart.setLayeredRendering(true));
+        assertTrue(FXUtils.waitForFxTicks(chart.getScene(), WAIT_N_FX_PULSES, MAX_TIMEOUT_MILLIS));
+        assertTrue(staticRenderer.renderCanvasWidth > 0, "layer has been sized");
+        assertNotSame(chart.getCanvas(), staticRenderer.lastCanvas);
+        assertNotSame(staticRenderer.lastCanvas, liveRenderer.lastCanvas);
+        assertSame(chart.getCanvas(), chart.getRenderCanvas());
+
+        // only the layer of the modified data set is redrawn
+        final int nStatic = staticRenderer.counter;
+        final int nLive = liveRenderer.counter;
+        FXUtils.runAndWait(() -> liveDataSet.set(1, 5, 0.25));
+        assertTrue(FXUtils.waitForFxTicks(chart.getScene(), WAIT_N_FX_PULSES, MAX_TIMEOUT_MILLIS));
+        assertEquals(nStatic, staticRenderer.counter);
+        assertTrue(liveRenderer.counter > nLive);
+
+        // changes affecting the whole canvas redraw all layers
+        FXUtils.runAndWait(() -> chart.getXAxis().set(0, 20));
+        assertTrue(FXUtils.waitForFxTicks(chart.getScene(), WAIT_N_FX_PULSES, MAX_TIMEOUT_MILLIS));
+        assertTrue(staticRenderer.counter > nStatic);
+
+        // back to drawing everything onto the main canvas
+        FXUtils.runAndWait(() -> chart.setLayeredRendering(false));
+        assertTrue(FXUtils.waitForFxTicks(chart.getScene(), WAIT_N_FX_PULSES, MAX_TIMEOUT_MILLIS));
+        assertSame(chart.getCanvas(), staticRenderer.lastCanvas);
+        assertSame(chart.getCanvas(), liveRenderer.lastCanvas);
+    }
+
+    @Test
+    void testLayeredRenderingWithSharedDataSet() throws Exception {
+        // the second chart draws the same data set after the first chart has cleared its dirty bits
+        final CountingRenderer sharedRenderer = new CountingRenderer();
+        final Stage secondStage = FXUtils.runAndWait(() -> {
+            final XYChart second = new XYChart(new DefaultNumericAxis(0, 10, 1), new DefaultNumericAxis(-1, 1, 0.5));
+            sharedRenderer.getDatasets().add(liveDataSet);
+            second.getRenderers().setAll(sharedRenderer);
+            second.setLayeredRendering(true);
+            chart.setLayeredRendering(true);
+            final Stage stage = new Stage();
+            stage.setScene(new Scene(second, 300, 200));
+            stage.show();
+            return stage;
+        });
+        try {
+            assertTrue(FXUtils.waitForFxTicks(chart.getScene(), WAIT_N_FX_PULSES, MAX_TIMEOUT_MILLIS));
+            assertTrue(FXUtils.waitForFxTicks(secondStage.getScene(), WAIT_N_FX_PULSES, MAX_TIMEOUT_MILLIS));
+            final int nStatic = staticRenderer.counter;
+            final int nLive = liveRenderer.counter;
+            final int nShared = sharedRenderer.counter;
+            FXUtils.runAndWait(() -> liveDataSet.set(1, 5, 0.25));
+            assertTrue(FXUtils.waitForFxTicks(chart.getScene(), WAIT_N_FX_PULSES, MAX_TIMEOUT_MILLIS));
+            assertTrue(FXUtils.waitForFxTicks(secondStage.getScene(), WAIT_N_FX_PULSES, MAX_TIMEOUT_MILLIS));
+            assertEquals(nStatic, staticRenderer.counter);
+            assertTrue(liveRenderer.counter > nLive, "first chart redrawn");
+            assertTrue(sharedRenderer.counter > nShared, "second chart redrawn");
+        } finally {
+            FXUtils.runAndWait(secondStage::close);
+        }
+    }
+
+    @Test
+    void testParallelRendering() throws Exception {
+        assertFalse(chart.isParallelRendering());
+        FXUtils.runAndWait(() -> {
+            for (int i = 0; i < 8; i++) {
+                staticRenderer.getDatasets().add(new DoubleDataSet("static" + i).set(new double[] { 0, 2 + i, 10 }, new double[] { -0.1 * i, 0.1 * i, 0 }));
+            }
+        });
+        assertTrue(FXUtils.waitForFxTicks(chart.getScene(), WAIT_N_FX_PULSES, MAX_TIMEOUT_MILLIS));
+        final int[] sequential = FXUtils.runAndWait(this::snapshotCanvas);
+
+        final int nStatic = staticRenderer.counter;
+        FXUtils.runAndWait(() -> chart.setParallelRendering(true));
+        assertTrue(FXUtils.waitForFxTicks(chart.getScene(), WAIT_N_FX_PULSES, MAX_TIMEOUT_MILLIS));
+        assertTrue(chart.isParallelRendering());
+        assertTrue(staticRenderer.counter > nStatic);
+        assertArrayEquals(sequential, FXUtils.runAndWait(this::snapshotCanvas), "parallel and sequential rendering are identical");
+    }
+
+    private int[] snapshotCanvas() {
+        final int width = (int) chart.getCanvas().getWidth();
+        final int height = (int) chart.getCanvas().getHeight();
+        final WritableImage image = chart.getCanvas().snapshot(null, new WritableImage(width, height));
+        final int[] pixels = new int[width * height];
+        image.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        return pixels;
+    }
+
+    @Test
+    void testLayeredRenderingWithNonCacheableRenderer() throws Exception {
+        // renderers below a non-cacheable renderer share the main canvas to keep the z-order
+        FXUtils.runAndWait(() -> {
+            chart.getRenderers().setAll(staticRenderer, new MetaDataRenderer(chart), liveRenderer);
+            chart.setLayeredRendering(true);
+        });
+        assertTrue(FXUtils.waitForFxTicks(chart.getScene(), WAIT_N_FX_PULSES, MAX_TIMEOUT_MILLIS));
+        assertSame(chart.getCanvas(), staticRenderer.lastCanvas);
+        assertNotSame(chart.getCanvas(), liveRenderer.lastCanvas);
+
+        // without non-cacheable renderers, all renderers are drawn onto their own layer again
+        FXUtils.runAndWait(() -> chart.getRenderers().setAll(staticRenderer, liveRenderer));
+        assertTrue(FXUtils.waitForFxTicks(chart.getScene(), WAIT_N_FX_PULSES, MAX_TIMEOUT_MILLIS));
+        assertNotSame(chart.getCanvas(), staticRenderer.lastCanvas);
+        assertNotSame(chart.getCanvas(), liveRenderer.lastCanvas);
+    }
+
+    private static class CountingRenderer extends ErrorDataSetRenderer {
+        private int counter;
+        private Object lastCanvas;
+        private double renderCanvasWidth;
+
+        @Override
+        public void render() {
+            counter++;
+            lastCanvas = getChart().getRenderCanvas();
+            renderCanvasWidth = getChart().getRenderCanvas().getWidth();
+            super.render();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package io.fair_acc.chartfx.axes.spi;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.fair_acc.chartfx.axes.Axis;
+import io.fair_acc.chartfx.ui.geometry.Side;
+
+/**
+ * Compares the per-point {@link Axis#getDisplayPosition(double)} against the bulk
+ * {@link Axis#getDisplayPositions(double[], int, double[], int, int)} conversion for linear and logarithmic axes.
+ * <p>
+ * Not part of the unit tests, run via the main method.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Djava.awt.headless=true" })
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AxisTransformBenchmark {
+    @Param({ "DefaultNumericAxis", "DefaultNumericAxisLog", "LinearAxis", "LogarithmicAxis" })
+    private String axisType;
+    @Param({ "1000", "100000" })
+    private int nSamples;
+    private Axis axis;
+    private double[] values;
+    private double[] positions;
+
+    @Setup
+    public void setup() {
+        switch (axisType) {
+        case "DefaultNumericAxisLog":
+            final DefaultNumericAxis logAxis = new DefaultNumericAxis("log", 0.1, 1000.0, 1.0);
+            logAxis.setLogAxis(true);
+            axis = logAxis;
+            break;
+        case "LinearAxis":
+            axis = new LinearAxis("linear", 0.1, 1000.0, 1.0);
+            break;
+        case "LogarithmicAxis":
+            axis = new LogarithmicAxis("log", 0.1, 1000.0, 1.0);
+            break;
+        case "DefaultNumericAxis":
+        default:
+            axis = new DefaultNumericAxis("linear", 0.1, 1000.0, 1.0);
+            break;
+        }
+        axis.setSide(Side.LEFT);
+        ((AbstractAxis) axis).resize(800, 800);
+        axis.updateCachedTransforms();
+
+        final Random rnd = new Random(42);
+        values = new double[nSamples];
+        positions = new double[nSamples];
+        for (int i = 0; i < nSamples; i++) {
+            values[i] = 0.1 + 1000.0 * rnd.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public void bulk(final Blackhole blackhole) {
+        axis.getDisplayPositions(values, 0, positions, 0, nSamples);
+        blackhole.consume(positions);
+    }
+
+    @Benchmark
+    public void scalar(final Blackhole blackhole) {
+        for (int i = 0; i < nSamples; i++) {
+            positions[i] = axis.getDisplayPosition(values[i]);
+        }
+        blackhole.consume(positions);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        final Options opt = new OptionsBuilder().include(AxisTransformBenchmark.class.getSimpleName()).build();
+        new Runner(opt).run();
+    }
+}
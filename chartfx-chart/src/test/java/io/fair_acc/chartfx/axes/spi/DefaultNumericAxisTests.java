@@ -1,5 +1,6 @@
 package io.fair_acc.chartfx.axes.spi;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -11,6 +12,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.fair_acc.chartfx.axes.LogAxisType;
+import io.fair_acc.chartfx.ui.geometry.Side;
 import io.fair_acc.dataset.spi.fastutil.DoubleArrayList;
 
 /**
@@ -93,4 +95,39 @@ public class DefaultNumericAxisTests {
         tickValues.clear();
         axis.calculateMinorTickValues(tickValues);
     }
+
+    @Test
+    public void bulkTransformTests() {
+        final double[] values = { -1.0, 0.0, 0.5, 1.0, 2.5, 7.0, 10.0, 100.0, Double.NaN };
+        for (final Side side : new Side[] { Side.BOTTOM, Side.LEFT }) {
+            for (final boolean log : new boolean[] { false, true }) {
+                for (final boolean inverted : new boolean[] { false, true }) {
+                    final DefaultNumericAxis axis = new DefaultNumericAxis("axis name", 0.1, 10, 1.0);
+                    axis.setSide(side);
+                    axis.resize(500, 500);
+                    axis.setLogAxis(log);
+                    axis.invertAxis(inverted);
+                    axis.updateAxisRange(500);
+                    assertTrue(Double.isFinite(axis.getDisplayPosition(1.0)));
+
+                    final double[] expected = new double[values.length];
+                    final double[] positions = new double[values.length + 2];
+                    for (int i = 0; i < values.length; i++) {
+                        expected[i] = axis.getDisplayPosition(values[i]);
+                    }
+                    axis.getDisplayPositions(values, 0, positions, 2, values.length);
+                    for (int i = 0; i < values.length; i++) {
+                        assertEquals(expected[i], positions[i + 2], 1e-9, "position " + i + " for " + side + " log=" + log + " inverted=" + inverted);
+                    }
+
+                    final double[] inverse = new double[values.length];
+                    for (int i = 0; i < values.length; i++) {
+                        expected[i] = axis.getValueForDisplay(positions[i + 2]);
+                    }
+                    axis.getValuesForDisplay(positions, 2, inverse, 0, values.length);
+                    assertArrayEquals(expected, inverse, 1e-9);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,191 @@
+package io.fair_acc.chartfx.bench;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.framework.junit5.Start;
+
+import io.fair_acc.bench.MeasurementRecorder;
+import io.fair_acc.bench.TimeMeasure;
+import io.fair_acc.bench.ValueMeasure;
+import io.fair_acc.chartfx.XYChart;
+import io.fair_acc.chartfx.axes.spi.DefaultNumericAxis;
+import io.fair_acc.chartfx.renderer.ErrorStyle;
+import io.fair_acc.chartfx.renderer.datareduction.DefaultDataReducer;
+import io.fair_acc.chartfx.renderer.spi.ErrorDataSetRenderer;
+import io.fair_acc.chartfx.ui.utils.JavaFXInterceptorUtils;
+import io.fair_acc.chartfx.ui.utils.TestFx;
+import io.fair_acc.chartfx.utils.FXUtils;
+
+/**
+ * Tests for {@link FrameBudgetController}
+ */
+@ExtendWith(ApplicationExtension.class)
+@ExtendWith(JavaFXInterceptorUtils.SelectiveJavaFxInterceptor.class)
+class FrameBudgetControllerTests {
+    private static final double TARGET_FRAME_TIME = 10.0; // [ms]
+    private static final int WAIT_N_FX_PULSES = 3;
+    private static final int MAX_TIMEOUT_MILLIS = 1000;
+    private XYChart chart;
+    private XYChart lowPriorityChart;
+    private ErrorDataSetRenderer renderer;
+    private DefaultDataReducer reducer;
+
+    @Start
+    public void start(final Stage stage) {
+        renderer = new ErrorDataSetRenderer();
+        renderer.setParallelImplementation(false);
+        renderer.setDrawMarker(true);
+        renderer.setErrorStyle(ErrorStyle.ERRORBARS);
+        reducer = new DefaultDataReducer();
+        reducer.setMinPointPixelDistance(3);
+        renderer.setRendererDataReducer(reducer);
+        chart = new XYChart(new DefaultNumericAxis(), new DefaultNumericAxis());
+        chart.getRenderers().set(0, renderer);
+        lowPriorityChart = new XYChart(new DefaultNumericAxis(), new DefaultNumericAxis());
+        lowPriorityChart.setMinRedrawInterval(20);
+
+        stage.setScene(new Scene(chart, 300, 200));
+        stage.show();
+    }
+
+    @Test
+    void testConstraints() {
+        assertThrows(IllegalArgumentException.class, () -> new FrameBudgetController(0.0));
+        assertThrows(IllegalArgumentException.class, () -> new FrameBudgetController(Double.NaN));
+        final FrameBudgetController controller = new FrameBudgetController(TARGET_FRAME_TIME);
+        assertEquals(TARGET_FRAME_TIME, controller.getTargetFrameTime());
+        assertThrows(IllegalArgumentException.class, () -> controller.setDegradeFrames(0));
+        assertThrows(IllegalArgumentException.class, () -> controller.setRestoreFrames(0));
+        assertThrows(IllegalArgumentException.class, () -> controller.setRestoreThreshold(1.1));
+        assertThrows(IllegalArgumentException.class, () -> controller.setSmoothing(0.0));
+        assertThrows(IllegalArgumentException.class, () -> controller.setLowPriorityRedrawInterval(-1));
+        assertThrows(IllegalArgumentException.class, () -> controller.setDegradationLevel(FrameBudgetController.MAX_DEGRADATION_LEVEL + 1));
+        assertSame(controller, controller.setDegradeFrames(3).setRestoreFrames(4).setRestoreThreshold(0.5).setSmoothing(0.5).setLowPriorityRedrawInterval(50).setTargetFrameTime(5.0));
+        assertEquals(3, controller.getDegradeFrames());
+        assertEquals(4, controller.getRestoreFrames());
+        assertEquals(0.5, controller.getRestoreThreshold());
+        assertEquals(0.5, controller.getSmoothing());
+        assertEquals(50, controller.getLowPriorityRedrawInterval());
+        assertEquals(5.0, controller.getTargetFrameTime());
+    }
+
+    @TestFx
+    void testDegradeAndRestore() {
+        final FrameBudgetController controller = new FrameBudgetController(TARGET_FRAME_TIME).setDegradeFrames(2).setRestoreFrames(3).setSmoothing(1.0).setLowPriorityRedrawInterval(100);
+        controller.add(chart).add(lowPriorityChart, true);
+        assertEquals(0, controller.getDegradationLevel());
+
+        // overloaded -> degrade one level every 'degradeFrames'
+        for (int level = 1; level <= FrameBudgetController.MAX_DEGRADATION_LEVEL; level++) {
+            controller.recordFrameTime(TimeUnit.MILLISECONDS, 20);
+            assertEquals(level - 1, controller.getDegradationLevel());
+            controller.recordFrameTime(TimeUnit.MILLISECONDS, 20);
+            assertEquals(level, controller.getDegradationLevel());
+            assertTrue(renderer.isParallelImplementation());
+        }
+        controller.recordFrameTime(TimeUnit.MILLISECONDS, 20);
+        controller.recordFrameTime(TimeUnit.MILLISECONDS, 20);
+        assertEquals(FrameBudgetController.MAX_DEGRADATION_LEVEL, controller.getDegradationLevel());
+        assertEquals(FrameBudgetController.MAX_DEGRADATION_LEVEL, controller.getDegradeCount());
+        assertEquals(20.0, controller.getFrameTime(), 1e-9);
+        assertFalse(renderer.isDrawMarker());
+        assertEquals(ErrorStyle.ERRORSURFACE, renderer.getErrorType());
+        assertEquals(12, reducer.getMinPointPixelDistance());
+        assertEquals(0, chart.getMinRedrawInterval());
+        assertEquals(400, lowPriorityChart.getMinRedrawInterval());
+
+        // within hysteresis band -> no change
+        for (int i = 0; i < 10; i++) {
+            controller.recordFrameTime(TimeUnit.MILLISECONDS, 8);
+        }
+        assertEquals(FrameBudgetController.MAX_DEGRADATION_LEVEL, controller.getDegradationLevel());
+
+        // headroom -> restore one level every 'restoreFrames'
+        controller.setDegradationLevel(3);
+        assertTrue(renderer.isParallelImplementation());
+        assertFalse(renderer.isDrawMarker());
+        assertEquals(ErrorStyle.ERRORBARS, renderer.getErrorType());
+        assertEquals(6, reducer.getMinPointPixelDistance());
+        assertEquals(20, lowPriorityChart.getMinRedrawInterval());
+        for (int i = 0; i < 3 * 3; i++) {
+            controller.recordFrameTime(TimeUnit.MILLISECONDS, 2);
+        }
+        assertEquals(0, controller.getDegradationLevel());
+        assertEquals(3, controller.getRestoreCount());
+        assertFalse(renderer.isParallelImplementation());
+        assertTrue(renderer.isDrawMarker());
+        assertEquals(ErrorStyle.ERRORBARS, renderer.getErrorType());
+        assertEquals(3, reducer.getMinPointPixelDistance());
+        assertEquals(20, lowPriorityChart.getMinRedrawInterval());
+
+        // removing a degraded chart restores its settings
+        controller.setDegradationLevel(FrameBudgetController.MAX_DEGRADATION_LEVEL);
+        controller.remove(chart).remove(lowPriorityChart);
+        assertFalse(renderer.isParallelImplementation());
+        assertTrue(renderer.isDrawMarker());
+        assertEquals(3, reducer.getMinPointPixelDistance());
+        assertEquals(20, lowPriorityChart.getMinRedrawInterval());
+    }
+
+    @Test
+    void testFrameAccounting() throws Exception {
+        final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        final FrameBudgetController controller = new FrameBudgetController(TARGET_FRAME_TIME);
+        FXUtils.runAndWait(() -> {
+            controller.setRecorder(MeasurementRecorder.printRecorder(messages::add));
+            controller.add(chart);
+        });
+        for (int frame = 0; frame < 3; frame++) {
+            FXUtils.runAndWait(chart::invalidate);
+            assertTrue(FXUtils.waitForFxTicks(chart.getScene(), WAIT_N_FX_PULSES, MAX_TIMEOUT_MILLIS));
+        }
+        // each pulse that updates the chart is closed as one frame at the end of the scene's layout pass
+        final long nFrames = messages.stream().filter(msg -> msg.startsWith("budget-frameTime")).count();
+        assertTrue(nFrames >= 3, messages.toString());
+        assertTrue(messages.stream().anyMatch(msg -> msg.startsWith("chart-runPostLayout")), messages.toString());
+        assertTrue(messages.stream().anyMatch(msg -> msg.startsWith("chart-drawAxes")), "forwards other chart measures");
+        assertTrue(controller.getFrameTime() > 0.0);
+
+        // idle pulses and removed charts do not produce frames
+        FXUtils.runAndWait(() -> controller.remove(chart));
+        FXUtils.runAndWait(chart::invalidate);
+        assertTrue(FXUtils.waitForFxTicks(chart.getScene(), WAIT_N_FX_PULSES, MAX_TIMEOUT_MILLIS));
+        assertEquals(nFrames, messages.stream().filter(msg -> msg.startsWith("budget-frameTime")).count(), messages.toString());
+    }
+
+    @TestFx
+    void testDegradationLevelGauge() {
+        final List<String> values = new ArrayList<>();
+        final MeasurementRecorder recorder = new MeasurementRecorder() {
+            @Override
+            public TimeMeasure newTime(final String tag, final IntSupplier level) {
+                return TimeMeasure.DISABLED;
+            }
+
+            @Override
+            public ValueMeasure newValue(final String tag, final IntSupplier level) {
+                return value -> values.add(tag + "=" + value);
+            }
+        };
+        final FrameBudgetController controller = new FrameBudgetController(TARGET_FRAME_TIME);
+        controller.setRecorder(recorder.addPrefix("test"));
+        controller.setDegradationLevel(2).setDegradationLevel(2).setDegradationLevel(0);
+        assertEquals(List.of("test-budget-degradationLevel=2", "test-budget-degradationLevel=0"), values);
+    }
+}
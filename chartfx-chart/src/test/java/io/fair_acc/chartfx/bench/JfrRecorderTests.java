@@ -0,0 +1,126 @@
+package io.fair_acc.chartfx.bench;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import io.fair_acc.bench.AggregateDurationMeasure;
+import io.fair_acc.bench.BenchLevel;
+import io.fair_acc.bench.DurationMeasure;
+import io.fair_acc.bench.TimeMeasure;
+
+/**
+ * Tests for {@link JfrRecorder} and {@link JfrFrameTimeParser}
+ */
+class JfrRecorderTests {
+    private static final int N_FRAMES = 5;
+
+    @Test
+    void testEventNames() {
+        assertEquals("io.fair_acc.chartfx.chart.drawAxes", JfrRecorder.getEventName("chart-drawAxes"));
+        assertEquals("io.fair_acc.chartfx.ds.RecomputeLimits.single", JfrRecorder.getEventName("ds-RecomputeLimits-single"));
+        assertEquals("io.fair_acc.chartfx._2d.a_b", JfrRecorder.getEventName("2d--a b-"));
+        assertEquals("io.fair_acc.chartfx._", JfrRecorder.getEventName(""));
+        assertThrows(IllegalArgumentException.class, () -> JfrRecorder.getEventName(null));
+    }
+
+    @Test
+    void testFrameBreakdown(@TempDir final Path tempDir) throws Exception {
+        final JfrRecorder recorder = MeasurementRecorders.newJfr();
+        final DurationMeasure preLayout = recorder.newDuration("chart-runPreLayout");
+        final DurationMeasure postLayout = recorder.newDuration("chart-runPostLayout");
+        final DurationMeasure drawCanvas = recorder.newDebugDuration("chart-drawCanvas");
+        final DurationMeasure readLock = recorder.newTraceDuration("test-readLock"); // disabled by default
+        final AggregateDurationMeasure computeCoords = recorder.newDebugDurationSum("test-computeCoords");
+        final TimeMeasure external = recorder.newTime("test-external");
+        assertThrows(IllegalStateException.class, postLayout::stop);
+        assertNotNull(JfrRecorder.getConfiguration());
+
+        final Path file = tempDir.resolve("test.jfr");
+        try (Recording recording = JfrRecorder.startRecording(file)) {
+            for (int frame = 0; frame < N_FRAMES; frame++) {
+                preLayout.start();
+                readLock.start();
+                sleep(1);
+                readLock.stop();
+                preLayout.stop();
+                postLayout.start();
+                drawCanvas.start();
+                for (int i = 0; i < 3; i++) {
+                    computeCoords.start();
+                    sleep(1);
+                    computeCoords.stop();
+                }
+                computeCoords.recordResult();
+                drawCanvas.stop();
+                sleep(1);
+                external.recordTime(TimeUnit.MICROSECONDS, 500);
+                postLayout.stop();
+            }
+            // outside of any frame
+            external.recordTime(TimeUnit.MICROSECONDS, 100);
+        }
+
+        final List<JfrFrameTimeParser.Frame> frames = JfrFrameTimeParser.parse(file);
+        assertEquals(N_FRAMES, frames.size());
+        for (final JfrFrameTimeParser.Frame frame : frames) {
+            assertEquals(Thread.currentThread().getName(), frame.getThreadName());
+            final long preLayoutTime = frame.getStageDuration("chart-runPreLayout");
+            final long postLayoutTime = frame.getStageDuration("chart-runPostLayout");
+            final long drawCanvasTime = frame.getStageDuration("chart-drawCanvas");
+            assertTrue(preLayoutTime >= TimeUnit.MILLISECONDS.toNanos(1), frame.toString());
+            assertTrue(drawCanvasTime >= TimeUnit.MILLISECONDS.toNanos(3), frame.toString());
+            assertTrue(postLayoutTime > drawCanvasTime, frame.toString());
+            assertTrue(frame.getDuration() >= preLayoutTime + postLayoutTime, frame.toString());
+            assertTrue(frame.getStageDuration("test-computeCoords") >= TimeUnit.MILLISECONDS.toNanos(3), frame.toString());
+            assertEquals(TimeUnit.MICROSECONDS.toNanos(500), frame.getStageDuration("test-external"), frame.toString());
+            assertFalse(frame.getStages().containsKey("test-readLock"), "trace events are disabled by default");
+        }
+
+        final String summary = JfrFrameTimeParser.summarize(frames);
+        assertTrue(summary.contains("frame (total)"), summary);
+        assertTrue(summary.contains("chart-drawCanvas"), summary);
+        assertEquals(2 + 5, summary.lines().count(), summary); // header + total + 5 stages
+
+        // custom frame boundaries
+        assertEquals(N_FRAMES, JfrFrameTimeParser.parse(file, "runPreLayout", "drawCanvas").size());
+        assertEquals(0, JfrFrameTimeParser.parse(file, "unknown", "drawCanvas").size());
+    }
+
+    @Test
+    void testSameTagAtDifferentLevels(@TempDir final Path tempDir) throws Exception {
+        final JfrRecorder recorder = MeasurementRecorders.newJfr();
+        final TimeMeasure info = recorder.newTime("test-levels");
+        final TimeMeasure debug = recorder.newDebugTime("test-levels");
+        final String eventName = JfrRecorder.getEventName("test-levels");
+        assertEquals(1, FlightRecorder.getFlightRecorder().getEventTypes().stream().filter(type -> type.getName().equals(eventName)).count());
+
+        final Path file = tempDir.resolve("levels.jfr");
+        try (Recording recording = JfrRecorder.startRecording(file)) {
+            info.recordTime(TimeUnit.MICROSECONDS, 1);
+            debug.recordTime(TimeUnit.MICROSECONDS, 2);
+        }
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream().filter(event -> event.getEventType().getName().equals(eventName)).toList();
+        assertEquals(2, events.size());
+        assertEquals(BenchLevel.Info.getAsInt(), events.get(0).getInt(JfrRecorder.FIELD_LEVEL));
+        assertEquals(BenchLevel.Debug.getAsInt(), events.get(1).getInt(JfrRecorder.FIELD_LEVEL));
+    }
+
+    private static void sleep(final long millis) throws InterruptedException {
+        Thread.sleep(millis); // NOPMD - needed to create measurable durations
+    }
+}
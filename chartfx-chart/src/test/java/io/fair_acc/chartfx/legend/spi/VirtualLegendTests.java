@@ -0,0 +1,108 @@
+package io.fair_acc.chartfx.legend.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.framework.junit5.Start;
+
+import io.fair_acc.chartfx.XYChart;
+import io.fair_acc.chartfx.axes.spi.DefaultNumericAxis;
+import io.fair_acc.chartfx.renderer.spi.ErrorDataSetRenderer;
+import io.fair_acc.chartfx.ui.css.DataSetNode;
+import io.fair_acc.chartfx.ui.geometry.Side;
+import io.fair_acc.chartfx.ui.utils.JavaFXInterceptorUtils;
+import io.fair_acc.chartfx.ui.utils.TestFx;
+import io.fair_acc.dataset.spi.DoubleDataSet;
+
+/**
+ * Tests {@link VirtualLegend} and {@link LegendSymbolAtlas}
+ */
+@ExtendWith(ApplicationExtension.class)
+@ExtendWith(JavaFXInterceptorUtils.SelectiveJavaFxInterceptor.class)
+class VirtualLegendTests {
+    private static final int N_DATA_SETS = 2000;
+    private XYChart chart;
+    private VirtualLegend legend;
+    private ErrorDataSetRenderer renderer;
+
+    @Start
+    public void start(final Stage stage) {
+        legend = new VirtualLegend();
+        legend.setVertical(true);
+        legend.setSide(Side.RIGHT);
+        renderer = new ErrorDataSetRenderer();
+        for (int i = 0; i < N_DATA_SETS; i++) {
+            renderer.getDatasets().add(new DoubleDataSet("channel " + i).set(new double[] { 0, 1 }, new double[] { i, i + 1.0 }));
+        }
+        chart = new XYChart(new DefaultNumericAxis(), new DefaultNumericAxis());
+        chart.setLegend(legend);
+        chart.getRenderers().setAll(renderer);
+
+        stage.setScene(new Scene(chart, 600, 400));
+        stage.show();
+    }
+
+    @TestFx
+    void testVirtualLegend() {
+        assertSame(legend, legend.getNode());
+        assertTrue(legend.isVertical());
+        chart.updateOffscreen();
+
+        // one row per data set, but bounded number of row nodes and distinct symbols
+        assertEquals(N_DATA_SETS, legend.getItems().size());
+        final LegendSymbolAtlas atlas = legend.getAtlas();
+        assertNotNull(atlas.getImage());
+        final int nSymbols = atlas.getSymbolCount();
+        assertTrue(nSymbols > 1 && nSymbols < N_DATA_SETS / 10, "distinct symbols: " + nSymbols);
+        assertTrue(legend.lookupAll(".chart-legend-item").size() < N_DATA_SETS / 10, "recycled rows");
+
+        final List<DataSetNode> nodes = renderer.getDatasetNodes();
+        for (final DataSetNode node : nodes) {
+            final Rectangle2D viewport = atlas.getViewport(node);
+            assertNotNull(viewport);
+            assertTrue(viewport.getMaxX() <= atlas.getImage().getWidth() && viewport.getMaxY() <= atlas.getImage().getHeight());
+        }
+
+        // redraws without style changes do not touch the atlas
+        final long updates = atlas.getUpdateCount();
+        chart.invalidate();
+        chart.updateOffscreen();
+        assertEquals(updates, atlas.getUpdateCount());
+
+        // style changes only affect the changed data set
+        final DataSetNode changed = nodes.get(0);
+        DataSetNode sameStyle = null;
+        for (int i = 1; i < nodes.size() && sameStyle == null; i++) {
+            if (atlas.getViewport(nodes.get(i)).equals(atlas.getViewport(changed))) {
+                sameStyle = nodes.get(i);
+            }
+        }
+        assertNotNull(sameStyle, "data sets sharing an atlas cell");
+        changed.setLineWidth(changed.getLineWidth() + 2.0);
+        chart.updateOffscreen();
+        assertEquals(updates + 1, atlas.getUpdateCount());
+        assertNotEquals(atlas.getViewport(sameStyle), atlas.getViewport(changed));
+
+        // hidden legend entries
+        nodes.get(1).setShowInLegend(false);
+        chart.updateOffscreen();
+        assertEquals(N_DATA_SETS - 1, legend.getItems().size());
+        assertFalse(legend.getItems().contains(nodes.get(1)));
+        renderer.setShowInLegend(false);
+        chart.updateOffscreen();
+        assertTrue(legend.getItems().isEmpty());
+        assertEquals(0, legend.prefHeight(-1));
+    }
+}
@@ -0,0 +1,136 @@
+package io.fair_acc.chartfx.marker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.IntBuffer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import io.fair_acc.chartfx.marker.MarkerRasterizer.Sprite;
+
+class MarkerRasterizerTests {
+    @ParameterizedTest
+    @EnumSource(DefaultMarker.class)
+    void testSpriteCoverage(final DefaultMarker marker) {
+        final double size = 5.0;
+        final double lineWidth = 1.0;
+        final Sprite sprite = MarkerRasterizer.rasterize(marker, size, lineWidth, 0.5, 0.5);
+        assertEquals(sprite.getWidth(), sprite.getHeight());
+        assertEquals(-sprite.getOffsetX(), sprite.getWidth() / 2);
+
+        double area = 0.0;
+        for (int row = 0; row < sprite.getHeight(); row++) {
+            for (int col = 0; col < sprite.getWidth(); col++) {
+                area += sprite.getCoverage(col, row) / 255.0;
+                // symmetric shapes centred on the pixel centre
+                assertEquals(sprite.getCoverage(col, row), sprite.getCoverage(sprite.getWidth() - 1 - col, row), marker + " x-symmetry");
+                assertEquals(sprite.getCoverage(col, row), sprite.getCoverage(col, sprite.getHeight() - 1 - row), marker + " y-symmetry");
+            }
+        }
+
+        final double expected;
+        switch (marker) {
+        case RECTANGLE:
+        case RECTANGLE1:
+            expected = 4 * size * size;
+            break;
+        case RECTANGLE2:
+            expected = 4 * (size + 0.5) * (size + 0.5) - 4 * (size - 0.5) * (size - 0.5);
+            break;
+        case CIRCLE:
+        case CIRCLE1:
+            expected = Math.PI * size * size;
+            break;
+        case CIRCLE2:
+            expected = 2 * Math.PI * size * lineWidth;
+            break;
+        case DIAMOND:
+        case DIAMOND1:
+            expected = 2 * size * size;
+            break;
+        case DIAMOND2:
+            expected = 4 * Math.sqrt(2) * size * lineWidth;
+            break;
+        case PLUS:
+            expected = 2 * (2 * size + lineWidth) * lineWidth - lineWidth * lineWidth;
+            break;
+        case CROSS:
+        default:
+            expected = 2 * (2 * Math.sqrt(2) * size + lineWidth) * lineWidth - lineWidth * lineWidth;
+            break;
+        }
+        assertEquals(expected, area, 0.1 * expected, marker + " area");
+    }
+
+    @Test
+    void testBlend() {
+        final int width = 20;
+        final int[] pixels = new int[width * width];
+        final IntBuffer buffer = IntBuffer.wrap(pixels);
+        final int[] clip = { 0, 0, width, width };
+        final MarkerRasterizer rasterizer = new MarkerRasterizer();
+        final Sprite[] sprites = rasterizer.getSprites(DefaultMarker.RECTANGLE, 2.0, 1.0);
+        assertSame(sprites, rasterizer.getSprites(DefaultMarker.RECTANGLE, 2.0, 1.0));
+        assertEquals(MarkerRasterizer.SUB_PIXEL_STEPS * MarkerRasterizer.SUB_PIXEL_STEPS, sprites.length);
+
+        // opaque red square covering pixels [8, 12) x [8, 12)
+        MarkerRasterizer.blend(buffer, width, clip, sprites, 10.0, 10.0, 0xFFFF0000);
+        assertEquals(0xFFFF0000, pixels[10 * width + 10]);
+        assertEquals(0xFFFF0000, pixels[8 * width + 8]);
+        assertEquals(0, pixels[7 * width + 7]);
+        assertEquals(0, pixels[12 * width + 12]);
+
+        // semi-transparent blue on top: premultiplied src-over
+        MarkerRasterizer.blend(buffer, width, clip, sprites, 10.0, 10.0, 0x800000FF);
+        final int blended = pixels[10 * width + 10];
+        assertEquals(0xFF, blended >>> 24);
+        assertEquals(0x7F, (blended >> 16) & 0xFF, 1);
+        assertEquals(0x80, blended & 0xFF, 1);
+        // semi-transparent on empty background keeps premultiplied alpha
+        MarkerRasterizer.blend(buffer, width, clip, sprites, 3.0, 3.0, 0x800000FF);
+        assertEquals(0x80000080, pixels[3 * width + 3]);
+
+        // clipped at the buffer boundaries
+        MarkerRasterizer.blend(buffer, width, clip, sprites, 0.0, 19.9, 0xFF00FF00);
+        assertEquals(0xFF00FF00, pixels[19 * width]);
+        MarkerRasterizer.blend(buffer, width, clip, sprites, -100.0, 300.0, 0xFF00FF00);
+    }
+
+    @Test
+    void testAtlasBounds() {
+        final MarkerRasterizer rasterizer = new MarkerRasterizer();
+        rasterizer.setMaxAtlasSize(4);
+        assertEquals(4, rasterizer.getMaxAtlasSize());
+        for (int i = 1; i <= 10; i++) {
+            rasterizer.getSprites(DefaultMarker.CIRCLE, i, 1.0);
+        }
+        assertEquals(4, rasterizer.getAtlasSize());
+        rasterizer.setMaxAtlasSize(2);
+        assertEquals(2, rasterizer.getAtlasSize());
+        rasterizer.clear();
+        assertEquals(0, rasterizer.getAtlasSize());
+
+        assertThrows(IllegalArgumentException.class, () -> rasterizer.setMaxAtlasSize(0));
+        assertThrows(IllegalArgumentException.class, () -> rasterizer.getSprites(DefaultMarker.CIRCLE, -1.0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> rasterizer.getSprites(DefaultMarker.CIRCLE, Double.NaN, 1.0));
+    }
+
+    @Test
+    void testSupportedMarkers() {
+        for (DefaultMarker marker : DefaultMarker.values()) {
+            assertTrue(MarkerRasterizer.isSupported(marker));
+        }
+        assertFalse(MarkerRasterizer.isSupported(null));
+        assertFalse(MarkerRasterizer.isSupported((gc, x, y, size) -> {}));
+        assertTrue(MarkerRasterizer.isOutline(DefaultMarker.CIRCLE2));
+        assertTrue(MarkerRasterizer.isOutline(DefaultMarker.PLUS));
+        assertFalse(MarkerRasterizer.isOutline(DefaultMarker.CIRCLE));
+        assertFalse(MarkerRasterizer.isOutline(null));
+    }
+}
@@ -0,0 +1,151 @@
+package io.fair_acc.chartfx.plugins;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import io.fair_acc.chartfx.axes.Axis;
+import io.fair_acc.chartfx.axes.spi.DefaultNumericAxis;
+import io.fair_acc.chartfx.ui.geometry.Side;
+import io.fair_acc.dataset.DataSet;
+import io.fair_acc.dataset.spi.DoubleDataSet;
+import io.fair_acc.dataset.spi.DoubleGridDataSet;
+import io.fair_acc.dataset.spi.fastutil.IntArrayList;
+
+/**
+ * Tests for {@link io.fair_acc.chartfx.plugins.ScreenSpaceIndex}.
+ */
+class ScreenSpaceIndexTests {
+    private static final double RADIUS = 5.0;
+
+    @Test
+    void testUnsortedDataSet() {
+        final Axis xAxis = createAxis(Side.BOTTOM, 0, 100);
+        final Axis yAxis = createAxis(Side.LEFT, 0, 100);
+        final Random rnd = new Random(42);
+        final DoubleDataSet dataSet = new DoubleDataSet("unsorted");
+        for (int i = 0; i < 10_000; i++) {
+            dataSet.add(-10.0 + 120.0 * rnd.nextDouble(), -10.0 + 120.0 * rnd.nextDouble());
+        }
+        final ScreenSpaceIndex index = new ScreenSpaceIndex();
+        assertFalse(index.isValid());
+        assertEquals(-1, index.findNearest(10, 10, RADIUS));
+        assertSame(index, index.update(dataSet, xAxis, yAxis, RADIUS));
+        assertTrue(index.isValid());
+        assertTrue(index.getIndexedCount() < dataSet.getDataCount(), "points outside the visible area are not indexed");
+
+        for (int k = 0; k < 200; k++) {
+            final double x = 500 * rnd.nextDouble();
+            final double y = 500 * rnd.nextDouble();
+            assertEquals(findNearestBruteForce(dataSet, xAxis, yAxis, x, y, RADIUS), index.findNearest(x, y, RADIUS));
+        }
+
+        final IntArrayList selection = index.findInRectangle(100, 200, 150, 260, new IntArrayList());
+        final IntArrayList expected = new IntArrayList();
+        for (int i = 0; i < dataSet.getDataCount(); i++) {
+            final double x = xAxis.getDisplayPosition(dataSet.get(DataSet.DIM_X, i));
+            final double y = yAxis.getDisplayPosition(dataSet.get(DataSet.DIM_Y, i));
+            if ((float) x >= 100 && (float) x <= 150 && (float) y >= 200 && (float) y <= 260) {
+                expected.add(i);
+            }
+        }
+        assertArrayEquals(expected.toArray(new int[0]), selection.toArray(new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> index.findInRectangle(0, 0, 1, 1, null));
+        assertThrows(IllegalArgumentException.class, () -> index.update(null, xAxis, yAxis, RADIUS));
+    }
+
+    @Test
+    void testInvalidation() {
+        final TestAxis xAxis = createAxis(Side.BOTTOM, 0, 100);
+        final Axis yAxis = createAxis(Side.LEFT, 0, 100);
+        final DoubleDataSet dataSet = new DoubleDataSet("test");
+        dataSet.add(50, 50);
+        dataSet.add(10, 10);
+        final ScreenSpaceIndex index = new ScreenSpaceIndex().update(dataSet, xAxis, yAxis, RADIUS);
+        final double x = xAxis.getDisplayPosition(50);
+        final double y = yAxis.getDisplayPosition(50);
+        assertEquals(0, index.findNearest(x, y, RADIUS));
+
+        // data modification
+        dataSet.set(0, 20, 20);
+        assertEquals(-1, index.update(dataSet, xAxis, yAxis, RADIUS).findNearest(x, y, RADIUS));
+        dataSet.add(50, 50);
+        assertEquals(2, index.update(dataSet, xAxis, yAxis, RADIUS).findNearest(x, y, RADIUS));
+
+        // axis range modification
+        xAxis.setMax(200);
+        xAxis.updateAxisRange(500);
+        assertEquals(-1, index.update(dataSet, xAxis, yAxis, RADIUS).findNearest(x, y, RADIUS));
+        assertEquals(2, index.findNearest(xAxis.getDisplayPosition(50), y, RADIUS));
+
+        index.invalidate();
+        assertFalse(index.isValid());
+        assertEquals(0, index.getIndexedCount());
+    }
+
+    @Test
+    void testGridDataSet() {
+        final Axis xAxis = createAxis(Side.BOTTOM, 0, 10);
+        final Axis yAxis = createAxis(Side.LEFT, 0, 10);
+        final double[] xGrid = { 1, 2, 3, 4, 5 };
+        final double[] yGrid = { 2, 4, 6 };
+        final double[] zValues = new double[xGrid.length * yGrid.length];
+        final DoubleGridDataSet dataSet = new DoubleGridDataSet("grid", true, new double[][] { xGrid, yGrid }, zValues);
+        final ScreenSpaceIndex index = new ScreenSpaceIndex().update(dataSet, xAxis, yAxis, RADIUS);
+        assertEquals(15, index.getIndexedCount());
+
+        final double x = xAxis.getDisplayPosition(3);
+        final double y = yAxis.getDisplayPosition(4);
+        final int nearest = index.findNearest(x + 1, y - 1, RADIUS);
+        assertEquals(2 + 5, nearest);
+        assertEquals(3, dataSet.get(DataSet.DIM_X, nearest));
+        assertEquals(4, dataSet.get(DataSet.DIM_Y, nearest));
+        assertEquals(-1, index.findNearest(xAxis.getDisplayPosition(3.5), y, RADIUS));
+
+        final IntArrayList selection = index.findInRectangle(xAxis.getDisplayPosition(1.5), yAxis.getDisplayPosition(5),
+                xAxis.getDisplayPosition(3.5), yAxis.getDisplayPosition(3), new IntArrayList());
+        assertArrayEquals(new int[] { 1 + 5, 2 + 5 }, selection.toArray(new int[0]));
+    }
+
+    private static TestAxis createAxis(final Side side, final double min, final double max) {
+        final TestAxis axis = new TestAxis(min, max);
+        axis.setSide(side);
+        axis.resize(500, 500);
+        axis.updateAxisRange(500);
+        return axis;
+    }
+
+    private static int findNearestBruteForce(final DataSet dataSet, final Axis xAxis, final Axis yAxis, final double x, final double y, final double maxDistance) {
+        int nearest = -1;
+        double best = maxDistance * maxDistance;
+        for (int i = 0; i < dataSet.getDataCount(); i++) {
+            // same single precision screen coordinates as the index
+            final double dx = (float) xAxis.getDisplayPosition(dataSet.get(DataSet.DIM_X, i)) - x;
+            final double dy = (float) yAxis.getDisplayPosition(dataSet.get(DataSet.DIM_Y, i)) - y;
+            final double distance2 = dx * dx + dy * dy;
+            if (distance2 < best || (nearest < 0 && distance2 <= best)) {
+                best = distance2;
+                nearest = i;
+            }
+        }
+        return nearest;
+    }
+
+    private static class TestAxis extends DefaultNumericAxis {
+        private TestAxis(final double min, final double max) {
+            super("axis", min, max, 10);
+        }
+
+        @Override
+        protected void updateAxisRange(final double length) { // NOPMD -- exposes the layout step for headless tests
+            super.updateAxisRange(length);
+        }
+    }
+}
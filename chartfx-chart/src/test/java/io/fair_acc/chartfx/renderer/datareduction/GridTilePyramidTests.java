@@ -0,0 +1,189 @@
+package io.fair_acc.chartfx.renderer.datareduction;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static io.fair_acc.dataset.DataSet.DIM_Z;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import io.fair_acc.dataset.GridDataSet;
+import io.fair_acc.dataset.spi.DoubleGridDataSet;
+
+public class GridTilePyramidTests {
+    private static final int WIDTH = 37;
+    private static final int HEIGHT = 23;
+
+    @ParameterizedTest
+    @EnumSource(ReductionType.class)
+    public void testLevelsFromSource(final ReductionType reductionType) {
+        final GridDataSet dataSet = getTestDataSet();
+        for (int level = 1; level <= 4; level++) {
+            final GridTilePyramid pyramid = new GridTilePyramid(4, GridTilePyramid.DEFAULT_MAX_CACHE_SIZE);
+            assertLevel(pyramid, dataSet, level, reductionType, false);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ReductionType.class)
+    public void testLevelsFromChildren(final ReductionType reductionType) {
+        final GridDataSet dataSet = getTestDataSet();
+        final GridTilePyramid pyramid = new GridTilePyramid(4, GridTilePyramid.DEFAULT_MAX_CACHE_SIZE);
+        for (int level = 1; level <= 4; level++) {
+            // coarser levels are derived from the cached finer levels
+            assertLevel(pyramid, dataSet, level, reductionType, true);
+        }
+    }
+
+    @Test
+    public void testCacheBounds() {
+        final GridDataSet dataSet = getTestDataSet();
+        final long maxCacheSize = 4L * 4 * 4 * Double.BYTES;
+        final GridTilePyramid pyramid = new GridTilePyramid(4, maxCacheSize);
+        final int width = GridTilePyramid.getLevelSize(WIDTH, 1);
+        final int height = GridTilePyramid.getLevelSize(HEIGHT, 1);
+        pyramid.copySubFrame(dataSet, 1, ReductionType.MAX, 0, width - 1, 0, height - 1, new double[width * height], false);
+        assertTrue(pyramid.getCacheSize() <= maxCacheSize);
+        assertEquals(4, pyramid.getTileCount());
+
+        pyramid.setMaxCacheSize(0);
+        assertEquals(0, pyramid.getTileCount());
+        assertEquals(0, pyramid.getCacheSize());
+
+        pyramid.setMaxCacheSize(GridTilePyramid.DEFAULT_MAX_CACHE_SIZE);
+        pyramid.copySubFrame(dataSet, 1, ReductionType.MAX, 0, width - 1, 0, height - 1, new double[width * height], true);
+        assertEquals(15, pyramid.getTileCount());
+        pyramid.invalidate();
+        assertEquals(0, pyramid.getTileCount());
+
+        assertThrows(IllegalArgumentException.class, () -> new GridTilePyramid(1, 100));
+        assertThrows(IllegalArgumentException.class, () -> new GridTilePyramid(4, -1));
+    }
+
+    @Test
+    public void testPrefetch() {
+        final GridDataSet dataSet = getTestDataSet();
+        final GridTilePyramid pyramid = new GridTilePyramid(4, GridTilePyramid.DEFAULT_MAX_CACHE_SIZE);
+        assertDoesNotThrow(() -> pyramid.prefetch(dataSet, 2, ReductionType.MIN, -1, 10, -1, 10).get(10, TimeUnit.SECONDS));
+        assertEquals(6, pyramid.getTileCount());
+    }
+
+    @Test
+    public void testShapeChange() {
+        final GridTilePyramid pyramid = new GridTilePyramid(4, GridTilePyramid.DEFAULT_MAX_CACHE_SIZE);
+        pyramid.prefetch(getTestDataSet(), 1, ReductionType.DOWN_SAMPLE, 0, 10, 0, 10);
+
+        // a differently shaped grid discards all tiles, including those still being computed for the previous shape
+        final int width = 8;
+        final int height = 6;
+        final double[] z = new double[width * height];
+        for (int i = 0; i < z.length; i++) {
+            z[i] = i;
+        }
+        final GridDataSet small = new DoubleGridDataSet("small", false, new double[][] { new double[width], new double[height] }, z);
+        final double[] expected = new double[(width / 2) * (height / 2)];
+        for (int y = 0; y < height / 2; y++) {
+            for (int x = 0; x < width / 2; x++) {
+                expected[y * (width / 2) + x] = z[2 * y * width + 2 * x];
+            }
+        }
+        for (int i = 0; i < 2; i++) {
+            final double[] result = new double[expected.length];
+            pyramid.copySubFrame(small, 1, ReductionType.DOWN_SAMPLE, 0, width / 2 - 1, 0, height / 2 - 1, result, false);
+            assertArrayEquals(expected, result, "pass " + i);
+        }
+    }
+
+    @Test
+    public void testLevelSelection() {
+        assertEquals(0, GridTilePyramid.getLevel(0.5, 10, 10));
+        assertEquals(0, GridTilePyramid.getLevel(Double.NaN, 10, 10));
+        assertEquals(1, GridTilePyramid.getLevel(3.9, 10, 10));
+        assertEquals(2, GridTilePyramid.getLevel(5.5, 9, 10));
+        assertEquals(3, GridTilePyramid.getLevel(100, 100, 3));
+
+        assertEquals(19, GridTilePyramid.getLevelSize(WIDTH, 1));
+        assertEquals(3, GridTilePyramid.getLevelSize(HEIGHT, 3));
+        assertEquals(4, new GridTilePyramid(4, 0).getMaxLevel(getTestDataSet()));
+    }
+
+    private static void assertLevel(final GridTilePyramid pyramid, final GridDataSet dataSet, final int level, final ReductionType reductionType, final boolean parallel) {
+        final int width = GridTilePyramid.getLevelSize(WIDTH, level);
+        final int height = GridTilePyramid.getLevelSize(HEIGHT, level);
+        final double[] result = new double[width * height];
+        pyramid.copySubFrame(dataSet, level, reductionType, 0, width - 1, 0, height - 1, result, parallel);
+        assertArrayEquals(reference(dataSet, level, reductionType), result, 1e-12, reductionType + " level " + level);
+
+        // sub-frame that does not start at a tile boundary
+        final double[] subFrame = new double[(width - 1) * (height - 1)];
+        pyramid.copySubFrame(dataSet, level, reductionType, 1, width - 1, 1, height - 1, subFrame, parallel);
+        for (int y = 1; y < height; y++) {
+            for (int x = 1; x < width; x++) {
+                assertEquals(result[y * width + x], subFrame[(y - 1) * (width - 1) + x - 1], 1e-12);
+            }
+        }
+    }
+
+    private static double[] reference(final GridDataSet dataSet, final int level, final ReductionType reductionType) {
+        final int blockSize = 1 << level;
+        final int width = GridTilePyramid.getLevelSize(WIDTH, level);
+        final int height = GridTilePyramid.getLevelSize(HEIGHT, level);
+        final double[] result = new double[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                double min = Double.MAX_VALUE;
+                double max = -Double.MAX_VALUE;
+                double sum = 0;
+                int count = 0;
+                for (int srcY = y * blockSize; srcY < Math.min(HEIGHT, (y + 1) * blockSize); srcY++) {
+                    for (int srcX = x * blockSize; srcX < Math.min(WIDTH, (x + 1) * blockSize); srcX++) {
+                        final double value = dataSet.get(DIM_Z, srcY * WIDTH + srcX);
+                        min = Math.min(min, value);
+                        max = Math.max(max, value);
+                        sum += value;
+                        count++;
+                    }
+                }
+                switch (reductionType) {
+                case MIN:
+                    result[y * width + x] = min;
+                    break;
+                case MAX:
+                    result[y * width + x] = max;
+                    break;
+                case DOWN_SAMPLE:
+                    result[y * width + x] = dataSet.get(DIM_Z, y * blockSize * WIDTH + x * blockSize);
+                    break;
+                case AVERAGE:
+                default:
+                    result[y * width + x] = sum / count;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static GridDataSet getTestDataSet() {
+        final double[] x = new double[WIDTH];
+        final double[] y = new double[HEIGHT];
+        final double[] z = new double[WIDTH * HEIGHT];
+        for (int i = 0; i < WIDTH; i++) {
+            x[i] = i;
+        }
+        for (int i = 0; i < HEIGHT; i++) {
+            y[i] = i;
+        }
+        for (int i = 0; i < z.length; i++) {
+            z[i] = Math.sin(0.1 * i) * Math.cos(0.37 * i);
+        }
+        return new DoubleGridDataSet("test", false, new double[][] { x, y }, z);
+    }
+}
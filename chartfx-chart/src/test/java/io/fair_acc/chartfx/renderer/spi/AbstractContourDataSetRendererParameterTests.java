@@ -64,6 +64,14 @@ public class AbstractContourDataSetRendererParameterTests {
         assertTrue(renderer.isSmooth());
         renderer.setSmooth(false);
         assertFalse(renderer.isSmooth());
+
+        assertFalse(renderer.isTilePyramid());
+        renderer.setTilePyramid(true);
+        assertTrue(renderer.isTilePyramid());
+        renderer.setMaxTileCacheSize(1024);
+        assertEquals(1024, renderer.getMaxTileCacheSize());
+        renderer.setMaxTileCacheSize(-1);
+        assertEquals(0, renderer.getMaxTileCacheSize());
     }
 
     /**
@@ -58,6 +58,18 @@ public class AbstractErrorDataSetRendererParameterTests {
         renderer.setDrawMarker(false);
         assertFalse(renderer.isDrawMarker());
 
+        assertFalse(renderer.isRasterizeMarkers());
+        renderer.setRasterizeMarkers(true);
+        assertTrue(renderer.isRasterizeMarkers());
+        renderer.setRasterizeMarkers(false);
+        assertFalse(renderer.isRasterizeMarkers());
+
+        assertFalse(renderer.isCacheScreenCoordinates());
+        renderer.setCacheScreenCoordinates(true);
+        assertTrue(renderer.isCacheScreenCoordinates());
+        renderer.setCacheScreenCoordinates(false);
+        assertFalse(renderer.isCacheScreenCoordinates());
+
         renderer.setDynamicBarWidth(true);
         assertTrue(renderer.isDynamicBarWidth());
         renderer.setDynamicBarWidth(false);
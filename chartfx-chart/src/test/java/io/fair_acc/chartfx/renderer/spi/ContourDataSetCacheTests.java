@@ -202,6 +202,17 @@ public class ContourDataSetCacheTests {
         ContourDataSetCache.copySubFrame(dataSet, dataBuffer, true, false, 0, 2, false, 0, 3);
         assertArrayEquals(TEST_DATA_Z, dataBuffer, "data buffer content - parallel copySubFrame");
 
+        // in-place flips of a normally ordered frame need to match the inverted computeCoordinates(..) ordering
+        final double[] flipBuffer = Arrays.copyOf(TEST_DATA_Z, TEST_DATA_Z.length);
+        ContourDataSetCache.flipSubFrame(flipBuffer, TEST_DATA_X.length, TEST_DATA_Y.length, true, false);
+        assertArrayEquals(TEST_DATA_Z_X_INVERTED, flipBuffer, "flipSubFrame - X inverted");
+        System.arraycopy(TEST_DATA_Z, 0, flipBuffer, 0, TEST_DATA_Z.length);
+        ContourDataSetCache.flipSubFrame(flipBuffer, TEST_DATA_X.length, TEST_DATA_Y.length, false, true);
+        assertArrayEquals(TEST_DATA_Z_Y_INVERTED, flipBuffer, "flipSubFrame - Y inverted");
+        System.arraycopy(TEST_DATA_Z, 0, flipBuffer, 0, TEST_DATA_Z.length);
+        ContourDataSetCache.flipSubFrame(flipBuffer, TEST_DATA_X.length, TEST_DATA_Y.length, true, true);
+        assertArrayEquals(TEST_DATA_Z_XY_INVERTED, flipBuffer, "flipSubFrame - XY inverted");
+
         // requires FX to be tested, now in ContourDataSetRendererTests
         // final ContourDataSetCache cache = FXUtils.runAndWait(() -> new ContourDataSetCache(new XYChart(), new ContourDataSetRenderer(), dataSet));
         // assertDoesNotThrow(() -> cache.convertDataArrayToImage(TEST_DATA_Z, TEST_DATA_X.length, TEST_DATA_Y.length, ColorGradient.DEFAULT), "data to colour image conversion");
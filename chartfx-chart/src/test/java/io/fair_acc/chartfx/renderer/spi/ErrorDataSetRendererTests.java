@@ -95,6 +95,12 @@ public class ErrorDataSetRendererTests {
         testRenderer(lineStyle);
         renderer.setPointReduction(true);
         testRenderer(lineStyle);
+        renderer.setRasterizeMarkers(true);
+        testRenderer(lineStyle);
+        renderer.setRasterizeMarkers(false);
+        renderer.setCacheScreenCoordinates(true);
+        testRenderer(lineStyle);
+        renderer.setCacheScreenCoordinates(false);
         renderer.setDrawMarker(false);
         testRenderer(lineStyle);
         renderer.setDrawBubbles(true);
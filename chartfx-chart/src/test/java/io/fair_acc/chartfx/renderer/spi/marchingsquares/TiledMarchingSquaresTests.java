@@ -0,0 +1,203 @@
+package io.fair_acc.chartfx.renderer.spi.marchingsquares;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link TiledMarchingSquares} and {@link Isoline}
+ */
+class TiledMarchingSquaresTests {
+    private static final int WIDTH = 97;
+    private static final int HEIGHT = 83;
+
+    @Test
+    void testCaching() {
+        final double[] data = createSmoothField(1);
+        final double[] levels = { 0.2, 0.5, 0.8 };
+        final TiledMarchingSquares engine = new TiledMarchingSquares();
+        final Isoline[] first = engine.buildContours(data, WIDTH, HEIGHT, levels, 1);
+        assertSame(first, engine.buildContours(data.clone(), WIDTH, HEIGHT, levels.clone(), 1));
+
+        data[WIDTH * HEIGHT / 2] += 0.1;
+        final Isoline[] changedData = engine.buildContours(data, WIDTH, HEIGHT, levels, 2);
+        assertNotSame(first, changedData);
+        final Isoline[] changedLevels = engine.buildContours(data, WIDTH, HEIGHT, new double[] { 0.2, 0.5 }, 2);
+        assertNotSame(changedData, changedLevels);
+        assertEquals(2, changedLevels.length);
+
+        engine.invalidate();
+        final Isoline[] invalidated = engine.buildContours(data, WIDTH, HEIGHT, new double[] { 0.2, 0.5 }, 2);
+        assertNotSame(changedLevels, invalidated);
+
+        // unknown data version: always recomputed
+        assertNotSame(invalidated, engine.buildContours(data, WIDTH, HEIGHT, new double[] { 0.2, 0.5 }));
+        final Isoline[] unknown = engine.buildContours(data, WIDTH, HEIGHT, levels, -1);
+        assertNotSame(unknown, engine.buildContours(data, WIDTH, HEIGHT, levels, -1));
+    }
+
+    @Test
+    void testCircle() {
+        final double[] data = new double[WIDTH * HEIGHT];
+        for (int row = 0; row < HEIGHT; row++) {
+            for (int column = 0; column < WIDTH; column++) {
+                data[row * WIDTH + column] = Math.hypot(column - 40.3, row - 35.7);
+            }
+        }
+        final double[] radii = { 30.0, 5.0, 20.0 };
+        final Isoline[] isolines = new TiledMarchingSquares().setTileRows(7).buildContours(data, WIDTH, HEIGHT, radii);
+        assertEquals(radii.length, isolines.length);
+        for (int i = 0; i < radii.length; i++) {
+            final Isoline isoline = isolines[i];
+            assertEquals(radii[i], isoline.getLevel());
+            // N.B. 'distance > radius' is inside the isoline -> circle plus the boundary of the grid
+            assertEquals(2, isoline.getPolylineCount(), isoline.toString());
+            for (int k = 0; k < isoline.getPolylineCount(); k++) {
+                assertClosed(isoline, k);
+            }
+            int onCircle = 0;
+            for (int j = 0; j < isoline.getPointCount(); j++) {
+                final double x = isoline.getX()[j];
+                final double y = isoline.getY()[j];
+                if (x > 0 && y > 0 && x < WIDTH - 1 && y < HEIGHT - 1) {
+                    assertEquals(radii[i], Math.hypot(x - 40.3, y - 35.7), 0.1);
+                    onCircle++;
+                }
+            }
+            assertTrue(onCircle > 2.0 * Math.PI * radii[i], "points on circle: " + onCircle);
+        }
+    }
+
+    @Test
+    void testConstraints() {
+        final TiledMarchingSquares engine = new TiledMarchingSquares();
+        final double[] levels = { 0.5 };
+        assertThrows(IllegalArgumentException.class, () -> engine.buildContours(null, 2, 2, levels));
+        assertThrows(IllegalArgumentException.class, () -> engine.buildContours(new double[4], 2, 2, null));
+        assertThrows(IllegalArgumentException.class, () -> engine.buildContours(new double[4], 3, 2, levels));
+        assertThrows(IllegalArgumentException.class, () -> engine.buildContours(new double[4], 0, 2, levels));
+        assertThrows(IllegalArgumentException.class, () -> engine.buildContours(new double[4], 2, 2, new double[TiledMarchingSquares.MAX_LEVELS + 1]));
+        assertThrows(IllegalArgumentException.class, () -> engine.setTileRows(0));
+        assertSame(engine, engine.setTileRows(3));
+        assertEquals(3, engine.getTileRows());
+        assertSame(engine, engine.setParallel(false));
+        assertEquals(false, engine.isParallel());
+
+        // constant field below all levels -> no isolines
+        final Isoline[] empty = engine.buildContours(new double[16], 4, 4, new double[] { 1.0 });
+        assertEquals(0, empty[0].getPolylineCount());
+        assertEquals(0, empty[0].getPointCount());
+        assertEquals(0, empty[0].getX().length);
+    }
+
+    @Test
+    void testInterpolation() {
+        final double[] data = createSmoothField(2);
+        data[10 * WIDTH + 10] = Double.NaN;
+        final double[] levels = createLevels(13);
+        final Isoline[] isolines = new TiledMarchingSquares().setTileRows(5).buildContours(data, WIDTH, HEIGHT, levels);
+        for (final Isoline isoline : isolines) {
+            for (int k = 0; k < isoline.getPolylineCount(); k++) {
+                assertClosed(isoline, k);
+            }
+            for (int j = 0; j < isoline.getPointCount(); j++) {
+                final double x = isoline.getX()[j];
+                final double y = isoline.getY()[j];
+                final int column = (int) Math.floor(x);
+                final int row = (int) Math.floor(y);
+                final double v0 = column >= 0 && row >= 0 ? data[row * WIDTH + column] : Double.NaN;
+                final double v1;
+                final double t;
+                if (x != column) { // horizontal edge
+                    assertEquals(row, y);
+                    v1 = data[row * WIDTH + column + 1];
+                    t = x - column;
+                } else if (y != row) { // vertical edge
+                    v1 = data[(row + 1) * WIDTH + column];
+                    t = y - row;
+                } else {
+                    continue; // on a sample next to the boundary or a NaN value
+                }
+                assertTrue(Double.isFinite(v0) && Double.isFinite(v1));
+                assertEquals(isoline.getLevel(), v0 + t * (v1 - v0), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void testTileStitching() {
+        final double[] data = createSmoothField(3);
+        final double[] levels = createLevels(17);
+        final Isoline[] reference = new TiledMarchingSquares().setParallel(false).setTileRows(Integer.MAX_VALUE / 2).buildContours(data, WIDTH, HEIGHT, levels);
+        for (final int tileRows : new int[] { 1, 2, 7, TiledMarchingSquares.DEFAULT_TILE_ROWS }) {
+            for (final boolean parallel : new boolean[] { false, true }) {
+                final Isoline[] tiled = new TiledMarchingSquares().setParallel(parallel).setTileRows(tileRows).buildContours(data, WIDTH, HEIGHT, levels);
+                for (int i = 0; i < levels.length; i++) {
+                    final String msg = "tileRows = " + tileRows + " level = " + levels[i];
+                    assertEquals(levels[i], tiled[i].getLevel(), msg);
+                    assertEquals(reference[i].getPolylineCount(), tiled[i].getPolylineCount(), msg);
+                    assertEquals(reference[i].getPointCount(), tiled[i].getPointCount(), msg);
+                    assertArrayEquals(sortedPoints(reference[i]), sortedPoints(tiled[i]), msg);
+                }
+            }
+        }
+    }
+
+    private static void assertClosed(final Isoline isoline, final int k) {
+        final int start = isoline.getPolylineStart(k);
+        final int end = isoline.getPolylineStart(k + 1) - 1;
+        assertTrue(end > start, "non-trivial polyline");
+        assertEquals(isoline.getX()[start], isoline.getX()[end], isoline.toString());
+        assertEquals(isoline.getY()[start], isoline.getY()[end], isoline.toString());
+    }
+
+    private static double[] createLevels(final int nLevels) {
+        final double[] levels = new double[nLevels];
+        for (int i = 0; i < nLevels; i++) {
+            levels[i] = ((7 * i) % nLevels + 0.5) / nLevels; // N.B. deliberately unsorted
+        }
+        return levels;
+    }
+
+    private static double[] createSmoothField(final long seed) {
+        final Random rnd = new Random(seed);
+        final double[] data = new double[WIDTH * HEIGHT];
+        for (int peak = 0; peak < 12; peak++) {
+            final double x0 = rnd.nextDouble() * WIDTH;
+            final double y0 = rnd.nextDouble() * HEIGHT;
+            final double sigma = 3.0 + 10.0 * rnd.nextDouble();
+            final double amplitude = rnd.nextDouble() - 0.3;
+            for (int row = 0; row < HEIGHT; row++) {
+                for (int column = 0; column < WIDTH; column++) {
+                    final double r2 = (column - x0) * (column - x0) + (row - y0) * (row - y0);
+                    data[row * WIDTH + column] += amplitude * Math.exp(-r2 / (2 * sigma * sigma));
+                }
+            }
+        }
+        for (int i = 0; i < data.length; i++) {
+            data[i] = 0.5 + data[i] + 0.01 * rnd.nextGaussian();
+        }
+        return data;
+    }
+
+    private static double[] sortedPoints(final Isoline isoline) {
+        // N.B. excludes the closing points since the start of closed polylines depends on the tiling
+        final double[] points = new double[isoline.getPointCount() - isoline.getPolylineCount()];
+        int count = 0;
+        for (int k = 0; k < isoline.getPolylineCount(); k++) {
+            for (int j = isoline.getPolylineStart(k); j < isoline.getPolylineStart(k + 1) - 1; j++) {
+                points[count++] = isoline.getY()[j] * 4 * WIDTH + isoline.getX()[j];
+            }
+        }
+        Arrays.sort(points);
+        return points;
+    }
+}
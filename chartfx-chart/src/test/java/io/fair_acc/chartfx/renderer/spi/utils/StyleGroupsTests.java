@@ -0,0 +1,47 @@
+package io.fair_acc.chartfx.renderer.spi.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import io.fair_acc.chartfx.ui.css.DataSetStyleParser;
+import io.fair_acc.chartfx.ui.css.DataSetStyleParser.ParsedStyle;
+
+class StyleGroupsTests {
+    @Test
+    void testGrouping() {
+        final DataSetStyleParser parser = DataSetStyleParser.newInstance();
+        final ParsedStyle red = parser.getParsedStyle("-fx-marker-color: red;");
+        final ParsedStyle blue = parser.getParsedStyle("-fx-marker-color: blue;");
+        final ParsedStyle[] pointStyles = { red, blue, red, red, blue, red };
+
+        final StyleGroups groups = new StyleGroups();
+        for (int run = 0; run < 2; run++) {
+            groups.clear();
+            for (int i = 0; i < pointStyles.length; i++) {
+                groups.add(pointStyles[i], 10 + i);
+            }
+            assertEquals(pointStyles.length, groups.getCount());
+            assertEquals(2, groups.sort());
+
+            assertSame(red, groups.getStyle(0));
+            assertArrayEquals(new int[] { 10, 12, 13, 15 }, getIndices(groups, 0));
+            assertSame(blue, groups.getStyle(1));
+            assertArrayEquals(new int[] { 11, 14 }, getIndices(groups, 1));
+        }
+
+        groups.clear();
+        assertEquals(0, groups.sort());
+        assertEquals(0, groups.getCount());
+    }
+
+    private static int[] getIndices(final StyleGroups groups, final int group) {
+        final int[] indices = new int[groups.getGroupEnd(group) - groups.getGroupStart(group)];
+        for (int k = groups.getGroupStart(group); k < groups.getGroupEnd(group); k++) {
+            indices[k - groups.getGroupStart(group)] = groups.getIndex(k);
+        }
+        return indices;
+    }
+}
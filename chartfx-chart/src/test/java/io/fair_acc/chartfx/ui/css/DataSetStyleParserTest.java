@@ -94,4 +94,48 @@ class DataSetStyleParserTest {
         assertTrue(parser.tryParse(style));
         assertArrayEquals(new double[] { 1, 2, 3 }, parser.getLineDashes().orElseThrow());
     }
+
+    @Test
+    void testStyleCache() {
+        DataSetStyleParser.clearCache();
+        assertEquals(0, DataSetStyleParser.getCacheSize());
+
+        final String style = builder.reset().setMarkerType("circle").setMarkerSize(3).setMarkerColor("red").build();
+        final String sameStyle = new String(style); // NOPMD - explicitly a different instance
+        assertTrue(parser.tryParse(style));
+        final var parsedStyle = parser.getParsedStyle();
+        assertEquals(1, DataSetStyleParser.getCacheSize());
+        assertEquals(Color.RED, parsedStyle.getMarkerColor(Color.BLUE));
+        assertEquals(3.0, parsedStyle.getMarkerSize(1.0));
+        assertEquals(2.0, parsedStyle.getMarkerLineWidth(2.0));
+
+        // equal strings are interned to the same immutable instance, also across parser instances
+        assertSame(parsedStyle, parser.getParsedStyle(sameStyle));
+        assertSame(parsedStyle, DataSetStyleParser.newInstance().getParsedStyle(sameStyle));
+        assertEquals(1, DataSetStyleParser.getCacheSize());
+
+        // previously parsed styles are not affected by subsequent parsing
+        assertTrue(parser.tryParse(builder.reset().setMarkerColor("blue").build()));
+        assertEquals(Color.BLUE, parser.getMarkerColor().orElseThrow());
+        assertEquals(Color.RED, parsedStyle.getMarkerColor(null));
+        assertNotEquals(parsedStyle.getId(), parser.getParsedStyle().getId());
+
+        // irrelevant or empty styles
+        assertSame(DataSetStyleParser.ParsedStyle.EMPTY, parser.getParsedStyle(null));
+        assertSame(DataSetStyleParser.ParsedStyle.EMPTY, parser.getParsedStyle("unknown-key: 42;"));
+        assertFalse(parser.tryParse("unknown-key: 42;"));
+        assertFalse(parser.getMarkerColor().isPresent());
+
+        // bounded cache
+        final int maxCacheSize = DataSetStyleParser.getMaxCacheSize();
+        DataSetStyleParser.setMaxCacheSize(2);
+        assertEquals(2, DataSetStyleParser.getCacheSize());
+        for (int i = 0; i < 10; i++) {
+            parser.getParsedStyle(builder.reset().setMarkerSize(i).build());
+        }
+        assertEquals(2, DataSetStyleParser.getCacheSize());
+        assertThrows(IllegalArgumentException.class, () -> DataSetStyleParser.setMaxCacheSize(0));
+        DataSetStyleParser.setMaxCacheSize(maxCacheSize);
+        DataSetStyleParser.clearCache();
+    }
 }
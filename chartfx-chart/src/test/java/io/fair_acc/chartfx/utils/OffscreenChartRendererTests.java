@@ -0,0 +1,82 @@
+package io.fair_acc.chartfx.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javafx.scene.image.Image;
+import javafx.stage.Stage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.framework.junit5.Start;
+
+import io.fair_acc.chartfx.XYChart;
+import io.fair_acc.chartfx.axes.spi.DefaultNumericAxis;
+import io.fair_acc.dataset.spi.DoubleDataSet;
+
+/**
+ * Tests for {@link io.fair_acc.chartfx.utils.OffscreenChartRenderer}.
+ */
+@ExtendWith(ApplicationExtension.class)
+class OffscreenChartRendererTests {
+    @Start
+    public void start(Stage stage) {
+        // starts the JavaFX toolkit, the charts are never shown
+    }
+
+    @Test
+    void testRendering() throws Exception {
+        final List<String> measurements = new ArrayList<>();
+        final OffscreenChartRenderer renderer = new OffscreenChartRenderer().setMaxChartsPerPulse(2);
+        renderer.setRecorder((tag, level) -> (unit, time) -> {
+            synchronized (measurements) {
+                measurements.add(tag);
+            }
+        });
+
+        final List<CompletableFuture<ByteBuffer>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final XYChart chart = FXUtils.runAndWait(() -> new XYChart(new DefaultNumericAxis(), new DefaultNumericAxis()));
+            chart.getDatasets().add(new DoubleDataSet("test").set(new double[] { 0, 1, 2 }, new double[] { 0, i, 0 }));
+            results.add(renderer.submit(chart, 200 + i, 100));
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            final ByteBuffer png = results.get(i).get(10, TimeUnit.SECONDS);
+            final Image image = new Image(new ByteArrayInputStream(png.array(), 0, png.limit()));
+            assertEquals(200 + i, image.getWidth());
+            assertEquals(100, image.getHeight());
+        }
+        assertEquals(0, renderer.getPendingCount());
+        synchronized (measurements) {
+            assertTrue(measurements.contains("offscreen-render"));
+            assertTrue(measurements.contains("offscreen-encode"));
+            assertTrue(measurements.contains("offscreen-chartInterval"));
+        }
+    }
+
+    @Test
+    void testParameters() throws Exception {
+        final OffscreenChartRenderer renderer = new OffscreenChartRenderer();
+        assertEquals(OffscreenChartRenderer.DEFAULT_MAX_CHARTS_PER_PULSE, renderer.getMaxChartsPerPulse());
+        assertThrows(IllegalArgumentException.class, () -> new OffscreenChartRenderer(null));
+        assertThrows(IllegalArgumentException.class, () -> renderer.setMaxChartsPerPulse(0));
+        assertThrows(IllegalArgumentException.class, () -> renderer.setCompressionLevel(10));
+        assertThrows(IllegalArgumentException.class, () -> renderer.submit(null, 10, 10));
+
+        final XYChart chart = FXUtils.runAndWait(XYChart::new);
+        assertThrows(IllegalArgumentException.class, () -> renderer.submit(chart, 0, 10));
+        assertEquals(5, renderer.setCompressionLevel(5).getCompressionLevel());
+        assertFalse(renderer.setAlpha(false).isAlpha());
+    }
+}
@@ -0,0 +1,174 @@
+package io.fair_acc.chartfx.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link io.fair_acc.chartfx.utils.PaletteQuantizerExact} and
+ * {@link io.fair_acc.chartfx.utils.PaletteQuantizerAdaptive}.
+ */
+class PaletteQuantizerTests {
+    private static final int WIDTH = 200;
+    private static final int HEIGHT = 120;
+    private static final int[] CHART_COLORS = { 0xFFFFFFFF, 0xFF000000, 0xFFFF0000, 0xFF0000FF, 0xFF00AA00, 0xFFDDDDDD };
+
+    @Test
+    void testExactPalette() {
+        final int[] pixels = createChartImage(42);
+        assertThrows(IllegalArgumentException.class, () -> PaletteQuantizerExact.create(null, WIDTH, HEIGHT, false, 256));
+        assertThrows(IllegalArgumentException.class, () -> PaletteQuantizerExact.create(pixels, WIDTH + 1, HEIGHT, false, 256));
+
+        final PaletteQuantizerExact palette = PaletteQuantizerExact.create(pixels, WIDTH, HEIGHT, false, 256);
+        assertNotNull(palette);
+        assertFalse(palette.isReserveAlphaColor());
+        assertEquals(CHART_COLORS.length, palette.getColorCount());
+        assertEquals(-1, palette.getTransparentIndex());
+        assertTrue(palette.covers(pixels, pixels.length));
+        for (final int pixel : pixels) {
+            final int[] color = palette.getColor(palette.lookup(pixel >> 16 & 0xFF, pixel >> 8 & 0xFF, pixel & 0xFF));
+            assertArrayEquals(new int[] { pixel >> 16 & 0xFF, pixel >> 8 & 0xFF, pixel & 0xFF, 255 }, color);
+        }
+        // unknown colours are mapped to the closest entry
+        assertArrayEquals(new int[] { 0xFF, 0, 0, 255 }, palette.getColor(palette.lookup(0xF0, 0x05, 0x02)));
+        assertFalse(palette.covers(new int[] { 0xFF123456 }, 1));
+        assertThrows(IllegalArgumentException.class, () -> palette.getColor(CHART_COLORS.length));
+
+        // too many colours
+        assertNull(PaletteQuantizerExact.create(pixels, WIDTH, HEIGHT, false, CHART_COLORS.length - 1));
+        assertNull(PaletteQuantizerExact.create(createNoiseImage(1), WIDTH, HEIGHT, false, 256));
+    }
+
+    @Test
+    void testExactPaletteAlpha() {
+        final int[] pixels = createChartImage(42);
+        for (int i = 0; i < WIDTH; i++) {
+            pixels[i] = 0x00FFFFFF; // transparent first row
+        }
+        final PaletteQuantizerExact palette = PaletteQuantizerExact.create(pixels, WIDTH, HEIGHT, true, 256);
+        assertNotNull(palette);
+        assertTrue(palette.isReserveAlphaColor());
+        assertEquals(0, palette.getTransparentIndex());
+        assertEquals(CHART_COLORS.length + 1, palette.getColorCount());
+        assertArrayEquals(new int[] { 0, 0, 0, 0 }, palette.getColor(0));
+        assertEquals(0, palette.lookup(0xFF, 0xFF, 0xFF, 0));
+        final int index = palette.lookup(0xFF, 0, 0, 0xFF);
+        assertTrue(index > 0);
+        assertArrayEquals(new int[] { 0xFF, 0, 0, 255 }, palette.getColor(index));
+
+        // fully transparent images still have one palette entry
+        final PaletteQuantizerExact empty = PaletteQuantizerExact.create(new int[4], 2, 2, true, 256);
+        assertEquals(2, empty.getColorCount());
+    }
+
+    @Test
+    void testAdaptivePalette() {
+        assertThrows(IllegalArgumentException.class, () -> new PaletteQuantizerAdaptive(false, 1));
+        assertThrows(IllegalArgumentException.class, () -> new PaletteQuantizerAdaptive(false, 257));
+        final PaletteQuantizerAdaptive palette = new PaletteQuantizerAdaptive(false, 256);
+        assertThrows(IllegalStateException.class, palette::getColorCount);
+        assertThrows(IllegalArgumentException.class, () -> palette.update(new int[10], WIDTH, HEIGHT));
+        assertThrows(IllegalArgumentException.class, () -> palette.setReuseTolerance(-1.0));
+        assertSame(palette, palette.setReuseTolerance(PaletteQuantizerAdaptive.DEFAULT_REUSE_TOLERANCE));
+
+        // chart-like frames: exact palette that is kept while the colours do not change
+        assertTrue(palette.update(createChartImage(1), WIDTH, HEIGHT));
+        assertTrue(palette.getPalette() instanceof PaletteQuantizerExact);
+        final PaletteQuantizer exact = palette.getPalette();
+        assertFalse(palette.update(createChartImage(2), WIDTH, HEIGHT));
+        assertSame(exact, palette.getPalette());
+        final int[] newColor = createChartImage(3);
+        newColor[17] = 0xFF123456;
+        assertTrue(palette.update(newColor, WIDTH, HEIGHT));
+        assertEquals(CHART_COLORS.length + 1, palette.getColorCount());
+
+        // noisy frames: trained palette that is kept for statistically similar frames
+        assertTrue(palette.update(createDarkNoiseImage(4), WIDTH, HEIGHT));
+        assertTrue(palette.getPalette() instanceof PaletteQuantizerNeuQuant);
+        final PaletteQuantizer trained = palette.getPalette();
+        assertFalse(palette.update(createDarkNoiseImage(5), WIDTH, HEIGHT));
+        assertSame(trained, palette.getPalette());
+        // ... but re-trained if the colour distribution changes
+        assertTrue(palette.update(createNoiseImage(6), WIDTH, HEIGHT));
+        assertEquals(4, palette.getEstimateCount());
+        assertEquals(2, palette.getReuseCount());
+
+        assertSame(palette, palette.reset());
+        assertThrows(IllegalStateException.class, () -> palette.lookup(0, 0, 0));
+    }
+
+    @Test
+    void testSampledTraining() {
+        final int width = 1200;
+        final int height = 1000;
+        final int[] pixels = new int[width * height];
+        final Random rnd = new Random(42);
+        for (int i = 0; i < pixels.length; i++) {
+            // smooth gradient with some noise
+            pixels[i] = 0xFF000000 | ((i % width) * 255 / width) << 16 | ((i / width) * 255 / height) << 8 | rnd.nextInt(32);
+        }
+        final PaletteQuantizerNeuQuant reference = new PaletteQuantizerNeuQuant(width, height, (row, col) -> pixels[row * width + col]);
+        final PaletteQuantizerNeuQuant sampled = new PaletteQuantizerNeuQuant(width, height, (row, col) -> pixels[row * width + col]);
+        sampled.setParSampledTraining(true);
+        assertTrue(sampled.isParSampledTraining());
+        reference.run();
+        sampled.run();
+        assertEquals(reference.getColorCount(), sampled.getColorCount());
+
+        final double referenceError = meanError(reference, pixels);
+        final double sampledError = meanError(sampled, pixels);
+        assertTrue(sampledError < 2.0 * referenceError + 1.0, "sampled error " + sampledError + " vs. " + referenceError);
+    }
+
+    private static int[] createChartImage(final long seed) {
+        final Random rnd = new Random(seed);
+        final int[] pixels = new int[WIDTH * HEIGHT];
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = CHART_COLORS[0];
+        }
+        for (int k = 1; k < CHART_COLORS.length; k++) {
+            // horizontal 'traces'
+            final int row = 1 + rnd.nextInt(HEIGHT - 2);
+            for (int x = 0; x < WIDTH; x++) {
+                pixels[row * WIDTH + x] = CHART_COLORS[k];
+            }
+        }
+        return pixels;
+    }
+
+    private static int[] createDarkNoiseImage(final long seed) {
+        final int[] pixels = createNoiseImage(seed);
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = 0xFF000000 | (pixels[i] & 0x3F3F3F);
+        }
+        return pixels;
+    }
+
+    private static int[] createNoiseImage(final long seed) {
+        final Random rnd = new Random(seed);
+        final int[] pixels = new int[WIDTH * HEIGHT];
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = 0xFF000000 | rnd.nextInt(0x1000000);
+        }
+        return pixels;
+    }
+
+    private static double meanError(final PaletteQuantizer palette, final int[] pixels) {
+        long sum = 0;
+        for (int i = 0; i < pixels.length; i += 7) {
+            final int pixel = pixels[i];
+            final int[] color = palette.getColor(palette.lookup(pixel >> 16 & 0xFF, pixel >> 8 & 0xFF, pixel & 0xFF));
+            sum += Math.abs(color[0] - (pixel >> 16 & 0xFF)) + Math.abs(color[1] - (pixel >> 8 & 0xFF)) + Math.abs(color[2] - (pixel & 0xFF));
+        }
+        return sum / (pixels.length / 7.0);
+    }
+}
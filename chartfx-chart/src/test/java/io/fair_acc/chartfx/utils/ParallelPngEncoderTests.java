@@ -0,0 +1,134 @@
+package io.fair_acc.chartfx.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Adler32;
+import java.util.zip.Deflater;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests for {@link io.fair_acc.chartfx.utils.ParallelPngEncoder}.
+ */
+class ParallelPngEncoderTests {
+    private static final int WIDTH = 333;
+    private static final int HEIGHT = 217;
+
+    @Test
+    void testAdler32Combine() {
+        final byte[] data = new byte[100_000];
+        new Random(42).nextBytes(data);
+        final Adler32 adler = new Adler32();
+        adler.update(data);
+        final long expected = adler.getValue();
+        for (final int split : new int[] { 0, 1, 5552, 65_521, 70_000, data.length }) {
+            adler.reset();
+            adler.update(data, 0, split);
+            final long first = adler.getValue();
+            adler.reset();
+            adler.update(data, split, data.length - split);
+            assertEquals(expected, ParallelPngEncoder.combineAdler32(first, adler.getValue(), data.length - split), "split = " + split);
+        }
+    }
+
+    @Test
+    void testExceptions() {
+        final ParallelPngEncoder encoder = new ParallelPngEncoder();
+        assertThrows(IllegalArgumentException.class, () -> new ParallelPngEncoder(null));
+        assertThrows(IllegalArgumentException.class, () -> encoder.encode(null, 1, 1, null));
+        assertThrows(IllegalArgumentException.class, () -> encoder.encode(new int[1], 0, 1, null));
+        assertThrows(IllegalArgumentException.class, () -> encoder.encode(new int[1], 2, 1, null));
+        assertThrows(IllegalArgumentException.class, () -> encoder.encode(new int[4], 2, 2, ByteBuffer.allocate(10)));
+        assertThrows(IllegalArgumentException.class, () -> encoder.setCompressionLevel(10));
+        assertThrows(IllegalArgumentException.class, () -> encoder.setChunkSize(0));
+        assertThrows(IllegalArgumentException.class, () -> encoder.setNumberOfThreads(0));
+    }
+
+    @Test
+    void testGetterSetter() {
+        final ParallelPngEncoder encoder = new ParallelPngEncoder();
+        assertEquals(Deflater.BEST_SPEED, encoder.getCompressionLevel());
+        assertEquals(ParallelPngEncoder.DEFAULT_CHUNK_SIZE, encoder.getChunkSize());
+        assertSame(encoder, encoder.setCompressionLevel(Deflater.BEST_COMPRESSION));
+        assertEquals(Deflater.BEST_COMPRESSION, encoder.getCompressionLevel());
+        assertSame(encoder, encoder.setChunkSize(1000));
+        assertEquals(1000, encoder.getChunkSize());
+        assertSame(encoder, encoder.setAlpha(false));
+        assertEquals(false, encoder.isAlpha());
+        assertSame(encoder, encoder.setAdaptiveFiltering(false));
+        assertEquals(false, encoder.isAdaptiveFiltering());
+        assertSame(encoder, encoder.setNumberOfThreads(3));
+        assertEquals(3, encoder.getNumberOfThreads());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { Deflater.NO_COMPRESSION, Deflater.BEST_SPEED, 6, Deflater.BEST_COMPRESSION })
+    void testRoundTrip(final int compressionLevel) throws IOException {
+        final int[] pixels = createTestImage();
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            // small chunks so that the image is split into many independently deflated IDAT chunks
+            final ParallelPngEncoder encoder = new ParallelPngEncoder(executor).setCompressionLevel(compressionLevel).setChunkSize(4096);
+            for (final boolean alpha : new boolean[] { true, false }) {
+                for (final boolean adaptiveFiltering : new boolean[] { true, false }) {
+                    encoder.setAlpha(alpha).setAdaptiveFiltering(adaptiveFiltering);
+                    assertImageEqual(pixels, encoder.encode(pixels, WIDTH, HEIGHT, null), alpha);
+                    // re-use of internal and user-supplied buffers
+                    final ByteBuffer buffer = ByteBuffer.allocate(WriteFxImage.getCompressedSizeBound(WIDTH, HEIGHT, alpha));
+                    assertSame(buffer, encoder.encode(pixels, WIDTH, HEIGHT, buffer));
+                    assertImageEqual(pixels, buffer, alpha);
+                }
+            }
+            // single chunk, single row and single pixel images
+            encoder.setChunkSize(ParallelPngEncoder.DEFAULT_CHUNK_SIZE).setAlpha(true).setAdaptiveFiltering(true);
+            assertImageEqual(pixels, encoder.encode(pixels, WIDTH, HEIGHT, null), true);
+            assertImageEqual(new int[] { 0x80FF2010 }, encoder.encode(new int[] { 0x80FF2010 }, 1, 1, null), true);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void assertImageEqual(final int[] expected, final ByteBuffer png, final boolean alpha) throws IOException {
+        final BufferedImage image = ImageIO.read(new ByteArrayInputStream(png.array(), png.position(), png.limit()));
+        assertNotNull(image);
+        final int w = image.getWidth();
+        final int h = image.getHeight();
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                final int mask = alpha ? 0xFFFFFFFF : 0x00FFFFFF;
+                assertEquals(expected[y * w + x] & mask, image.getRGB(x, y) & mask, "pixel(" + x + ", " + y + ")");
+            }
+        }
+    }
+
+    private static int[] createTestImage() {
+        // smooth gradients (favour Up/Average/Paeth filters) overlaid with noise (favours None/Sub)
+        final Random rnd = new Random(42);
+        final int[] pixels = new int[WIDTH * HEIGHT];
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                final int noise = y % 50 < 10 ? rnd.nextInt(256) : 0;
+                final int a = 0xFF - (x % 64);
+                final int r = (x + noise) & 0xFF;
+                final int g = (y * 3) & 0xFF;
+                final int b = (x * y) & 0xFF;
+                pixels[y * WIDTH + x] = a << 24 | r << 16 | g << 8 | b;
+            }
+        }
+        return pixels;
+    }
+}
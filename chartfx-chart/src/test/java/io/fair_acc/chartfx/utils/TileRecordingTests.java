@@ -0,0 +1,199 @@
+package io.fair_acc.chartfx.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for {@link io.fair_acc.chartfx.utils.TileRecordingWriter} and
+ * {@link io.fair_acc.chartfx.utils.TileRecordingReader}.
+ */
+class TileRecordingTests {
+    private static final int WIDTH = 150;
+    private static final int HEIGHT = 100;
+    private static final int TILE_SIZE = 32;
+
+    @Test
+    void testExceptions(@TempDir final Path tempDir) throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> new TileRecordingWriter(null));
+        assertThrows(IllegalArgumentException.class, () -> new TileRecordingWriter(tempDir.resolve("a.rec"), 0, Deflater.BEST_SPEED));
+        assertThrows(IllegalArgumentException.class, () -> new TileRecordingWriter(tempDir.resolve("a.rec"), TILE_SIZE, 10));
+        assertThrows(IllegalArgumentException.class, () -> new TileRecordingReader(null));
+
+        final Path invalidFile = tempDir.resolve("invalid.rec");
+        Files.write(invalidFile, "not a recording file".getBytes());
+        assertThrows(IOException.class, () -> new TileRecordingReader(invalidFile));
+        assertThrows(IOException.class, () -> new TileRecordingWriter(invalidFile));
+
+        final TileRecordingWriter writer = new TileRecordingWriter(tempDir.resolve("b.rec"));
+        assertEquals(TileRecordingWriter.DEFAULT_TILE_SIZE, writer.getTileSize());
+        assertThrows(IllegalArgumentException.class, () -> writer.submitFrame(0, null, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> writer.submitFrame(0, new int[1], 2, 1));
+        assertThrows(IllegalArgumentException.class, () -> writer.setKeyFrameInterval(0));
+        assertSame(writer, writer.setKeyFrameInterval(10));
+        assertEquals(10, writer.getKeyFrameInterval());
+        assertTrue(writer.isOpen());
+        writer.close();
+        assertFalse(writer.isOpen());
+        assertThrows(IllegalStateException.class, () -> writer.submitFrame(0, new int[1], 1, 1));
+    }
+
+    @Test
+    void testRecordingAndPlayback(@TempDir final Path tempDir) throws IOException, InterruptedException {
+        final Path file = tempDir.resolve("recording.rec");
+        final List<int[]> frames = createFrames(40);
+
+        try (TileRecordingWriter writer = new TileRecordingWriter(file, TILE_SIZE, Deflater.BEST_SPEED)) {
+            writer.setKeyFrameInterval(16);
+            for (int i = 0; i < frames.size(); i++) {
+                submit(writer, 1000L * i, frames.get(i), WIDTH, HEIGHT);
+            }
+            assertTrue(writer.flush(10, TimeUnit.SECONDS));
+            assertEquals(frames.size(), writer.getWrittenFrames());
+            // storage scales with the change rate: a single changed tile per frame in-between key frames
+            final int tilesPerFrame = ((WIDTH + TILE_SIZE - 1) / TILE_SIZE) * ((HEIGHT + TILE_SIZE - 1) / TILE_SIZE);
+            assertEquals(3 * tilesPerFrame + (frames.size() - 3) - 8, writer.getWrittenTiles());
+        }
+
+        try (TileRecordingReader reader = new TileRecordingReader(file)) {
+            assertEquals(frames.size(), reader.getFrameCount());
+            assertTrue(reader.isKeyFrame(0));
+            assertFalse(reader.isKeyFrame(1));
+            assertTrue(reader.isKeyFrame(16));
+            assertEquals(WIDTH, reader.getWidth(5));
+            assertEquals(HEIGHT, reader.getHeight(5));
+            assertEquals(5000L, reader.getTimeStamp(5));
+            assertEquals(5, reader.findFrame(5000L));
+            assertEquals(5, reader.findFrame(5999L));
+            assertEquals(0, reader.findFrame(-1L));
+            assertEquals(frames.size() - 1, reader.findFrame(Long.MAX_VALUE));
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.getTimeStamp(frames.size()));
+
+            // sequential playback
+            final int[] buffer = new int[WIDTH * HEIGHT];
+            for (int i = 0; i < frames.size(); i++) {
+                assertSame(buffer, reader.readFrame(i, buffer));
+                assertArrayEquals(frames.get(i), buffer, "frame " + i);
+            }
+            // random access
+            for (final int i : new int[] { 37, 3, 20, 16, 15, 0, 39 }) {
+                assertArrayEquals(frames.get(i), reader.readFrame(i, null), "frame " + i);
+            }
+        }
+    }
+
+    @Test
+    void testAppendAndTruncatedRecord(@TempDir final Path tempDir) throws IOException, InterruptedException {
+        final Path file = tempDir.resolve("recording.rec");
+        final List<int[]> frames = createFrames(6);
+        try (TileRecordingWriter writer = new TileRecordingWriter(file, TILE_SIZE, Deflater.BEST_SPEED)) {
+            for (int i = 0; i < 3; i++) {
+                submit(writer, i, frames.get(i), WIDTH, HEIGHT);
+            }
+        }
+        // simulate an aborted write of a fourth frame
+        final long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(20).putInt(TileRecordingWriter.FRAME_MAGIC).putInt(1000).flip());
+        }
+        try (TileRecordingReader reader = new TileRecordingReader(file)) {
+            assertEquals(3, reader.getFrameCount());
+        }
+
+        // append to the existing recording (truncated record is dropped)
+        try (TileRecordingWriter writer = new TileRecordingWriter(file, TILE_SIZE, Deflater.BEST_SPEED);
+                TileRecordingReader reader = new TileRecordingReader(file)) {
+            assertEquals(size, Files.size(file));
+            for (int i = 3; i < frames.size(); i++) {
+                submit(writer, i, frames.get(i), WIDTH, HEIGHT);
+            }
+            assertTrue(writer.flush(10, TimeUnit.SECONDS));
+            assertEquals(frames.size(), reader.refresh());
+            assertTrue(reader.isKeyFrame(3));
+            for (int i = 0; i < frames.size(); i++) {
+                assertArrayEquals(frames.get(i), reader.readFrame(i, null), "frame " + i);
+            }
+        }
+    }
+
+    @Test
+    void testFrameSizeChange(@TempDir final Path tempDir) throws IOException, InterruptedException {
+        final Path file = tempDir.resolve("recording.rec");
+        final Random rnd = new Random(42);
+        final int[] small = new int[40 * 30];
+        final int[] large = new int[70 * 50];
+        for (int i = 0; i < small.length; i++) {
+            small[i] = rnd.nextInt();
+        }
+        for (int i = 0; i < large.length; i++) {
+            large[i] = rnd.nextInt();
+        }
+        try (TileRecordingWriter writer = new TileRecordingWriter(file, TILE_SIZE, Deflater.NO_COMPRESSION)) {
+            submit(writer, 0, small, 40, 30);
+            submit(writer, 1, large, 70, 50);
+            submit(writer, 2, small, 40, 30);
+        }
+        try (TileRecordingReader reader = new TileRecordingReader(file)) {
+            assertEquals(3, reader.getFrameCount());
+            assertEquals(70, reader.getWidth(1));
+            assertTrue(reader.isKeyFrame(1));
+            assertTrue(reader.isKeyFrame(2));
+            assertArrayEquals(large, reader.readFrame(1, null));
+            assertArrayEquals(small, reader.readFrame(2, null));
+            assertArrayEquals(small, reader.readFrame(0, null));
+        }
+    }
+
+    private static List<int[]> createFrames(final int nFrames) {
+        // static background with a single moving 'cursor' tile, and a few frames without any change
+        final List<int[]> frames = new ArrayList<>();
+        final Random rnd = new Random(42);
+        int[] frame = new int[WIDTH * HEIGHT];
+        for (int i = 0; i < frame.length; i++) {
+            frame[i] = 0xFF000000 | (i % WIDTH) << 8 | rnd.nextInt(4);
+        }
+        for (int k = 0; k < nFrames; k++) {
+            frame = frame.clone();
+            if (k % 5 != 4) {
+                final int x = (7 * k) % (WIDTH - 10);
+                final int y = (3 * k) % (HEIGHT - 10);
+                // N.B. keep the changed area within a single tile
+                final int x0 = Math.min(x, (x / TILE_SIZE) * TILE_SIZE + TILE_SIZE - 3);
+                final int y0 = Math.min(y, (y / TILE_SIZE) * TILE_SIZE + TILE_SIZE - 3);
+                for (int dy = 0; dy < 3; dy++) {
+                    for (int dx = 0; dx < 3; dx++) {
+                        frame[(y0 + dy) * WIDTH + x0 + dx] = 0xFF000000 | rnd.nextInt();
+                    }
+                }
+            }
+            frames.add(frame);
+        }
+        return frames;
+    }
+
+    private static void submit(final TileRecordingWriter writer, final long timeStamp, final int[] pixels, final int width, final int height) throws InterruptedException {
+        final int[] buffer = writer.getFrameBuffer(width * height);
+        System.arraycopy(pixels, 0, buffer, 0, width * height);
+        assertTrue(writer.submitFrame(timeStamp, buffer, width, height));
+        // avoid dropped frames in the test
+        assertTrue(writer.flush(10, TimeUnit.SECONDS));
+    }
+}
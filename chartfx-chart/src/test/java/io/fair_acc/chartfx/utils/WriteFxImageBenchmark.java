@@ -3,6 +3,8 @@ package io.fair_acc.chartfx.utils;
 import static io.fair_acc.chartfx.utils.WriteFxImageBenchmark.Implementation.NEWREF;
 import static io.fair_acc.chartfx.utils.WriteFxImageBenchmark.Implementation.OLDREF;
 import static io.fair_acc.chartfx.utils.WriteFxImageBenchmark.Implementation.PALETTE;
+import static io.fair_acc.chartfx.utils.WriteFxImageBenchmark.Implementation.PALETTE_REUSE;
+import static io.fair_acc.chartfx.utils.WriteFxImageBenchmark.Implementation.PARALLEL;
 
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
@@ -88,6 +90,7 @@ public class WriteFxImageBenchmark {
                 writeFxImage(testimage, alpha, keepBuffer, Deflater.NO_COMPRESSION, NEWREF);
                 writeFxImage(testimage, alpha, keepBuffer, Deflater.BEST_SPEED, NEWREF);
                 writeFxImage(testimage, alpha, keepBuffer, Deflater.BEST_COMPRESSION, NEWREF);
+                writeFxImage(testimage, alpha, keepBuffer, Deflater.BEST_SPEED, PARALLEL);
             }
         }
         writeImageIoImage(testimage, false, false);
@@ -101,6 +104,7 @@ public class WriteFxImageBenchmark {
                 writeFxImage(testimage2, alpha, keepBuffer, Deflater.NO_COMPRESSION, NEWREF);
                 writeFxImage(testimage2, alpha, keepBuffer, Deflater.BEST_SPEED, NEWREF);
                 writeFxImage(testimage2, alpha, keepBuffer, Deflater.BEST_COMPRESSION, NEWREF);
+                writeFxImage(testimage2, alpha, keepBuffer, Deflater.BEST_SPEED, PARALLEL);
             }
         }
         writeImageIoImage(testimage2, false, false);
@@ -123,10 +127,14 @@ public class WriteFxImageBenchmark {
             for (int compressionLevel = Deflater.NO_COMPRESSION; compressionLevel <= Deflater.BEST_COMPRESSION; compressionLevel++) {
                 writeFxImage(image, alpha, true, compressionLevel, OLDREF);
                 writeFxImage(image, alpha, true, compressionLevel, NEWREF);
+                // multi-threaded chunked deflate with adaptive filtering
+                writeFxImage(image, alpha, true, compressionLevel, PARALLEL);
                 // compute palette on-the-fly
                 writeFxImage(image, alpha, true, compressionLevel, PALETTE);
                 // use pre-computed palette
                 writeFxImage(image, alpha, true, compressionLevel, PALETTE, alpha ? userPaletteRGBA : userPaletteRGB);
+                // re-use palette across consecutive frames if still adequate
+                writeFxImage(image, alpha, true, compressionLevel, PALETTE_REUSE, new PaletteQuantizerAdaptive(alpha, DEFAULT_PALETTE_COLOR_COUNT));
                 LOGGER.atInfo().log(" "); // deliberatly empty line for better readability
             }
         }
@@ -144,11 +152,18 @@ public class WriteFxImageBenchmark {
             }
             break;
         case PALETTE:
+        case PALETTE_REUSE:
             for (int i = 0; i < N_ITER; i++) {
                 final ByteBuffer bb = WriteFxImage.encodePalette(image, keepBuffer ? byteBuffer : null, alpha, compression, FilterType.FILTER_NONE, quantizer.length == 0 ? null : quantizer[0]);
                 size += bb.limit();
             }
             break;
+        case PARALLEL:
+            for (int i = 0; i < N_ITER; i++) {
+                final ByteBuffer bb = WriteFxImage.encodeParallel(image, keepBuffer ? byteBuffer : null, alpha, compression);
+                size += bb.limit();
+            }
+            break;
         case NEWREF:
         default:
             for (int i = 0; i < N_ITER; i++) {
@@ -206,7 +221,9 @@ public class WriteFxImageBenchmark {
     public enum Implementation {
         OLDREF,
         NEWREF,
-        PALETTE;
+        PALETTE,
+        PALETTE_REUSE,
+        PARALLEL;
 
         public String getName() {
             switch (this) {
@@ -216,6 +233,10 @@ public class WriteFxImageBenchmark {
                 return "NewRef ";
             case PALETTE:
                 return "Palette";
+            case PALETTE_REUSE:
+                return "PalReus";
+            case PARALLEL:
+                return "Paral. ";
             default:
                 return "unknown";
             }
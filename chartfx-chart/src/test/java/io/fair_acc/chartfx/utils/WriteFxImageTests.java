@@ -60,6 +60,7 @@ public class WriteFxImageTests {
         final ByteBuffer pngOutput = ByteBuffer.allocate(100);
 
         assertThrows(IllegalArgumentException.class, () -> WriteFxImage.encode(null, pngOutput, true, Deflater.BEST_SPEED, null));
+        assertThrows(IllegalArgumentException.class, () -> WriteFxImage.encodeParallel(null, pngOutput, true, Deflater.BEST_SPEED));
     }
 
     @Start
@@ -231,6 +232,24 @@ public class WriteFxImageTests {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("testWritingImageByteBufferProvider")
+    public void testWritingImageByteBufferParallel(final int testImageID, final boolean allocateNewBuffer, final boolean encodeRGBA, final int compressionLevel, final FilterType filterType) throws IOException {
+        final Image testImage = getTestImage(testImageID);
+        final int requiredSize = WriteFxImage.getCompressedSizeBound((int) testImage.getWidth(), (int) testImage.getHeight(), encodeRGBA);
+        final ByteBuffer pngOutput = allocateNewBuffer ? ByteBuffer.allocate(requiredSize) : null;
+        final ByteBuffer pngOutReal = WriteFxImage.encodeParallel(testImage, pngOutput, encodeRGBA, compressionLevel);
+        if (allocateNewBuffer) {
+            assertSame(pngOutput, pngOutReal);
+        }
+
+        // load from png
+        try (final InputStream is = new ByteArrayInputStream(pngOutReal.array(), pngOutReal.position(), pngOutReal.limit())) {
+            final Image recovered = new Image(is);
+            assertImageSimilar(testImage, recovered, /* threshold */ 0.0, encodeRGBA);
+        }
+    }
+
     @Test
     public void testWritingImageByteBuffer1x1() throws IOException {
         // convert to png
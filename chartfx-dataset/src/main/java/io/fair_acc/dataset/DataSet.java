@@ -6,6 +6,7 @@ import java.util.List;
 import io.fair_acc.bench.Measurable;
 import io.fair_acc.dataset.events.ChartBits;
 import io.fair_acc.dataset.events.EventSource;
+import io.fair_acc.dataset.events.IndexChangeLog;
 import io.fair_acc.dataset.locks.DataSetLock;
 import io.fair_acc.dataset.utils.IndexedStringConsumer;
 
@@ -97,6 +98,16 @@ public interface DataSet extends EventSource, Serializable, Measurable.EmptyDefa
      */
     int getIndex(final int dimIndex, final double... x);
 
+    /**
+     * Optional payload of the {@link ChartBits#DataSetDataAdded} and {@link ChartBits#DataSetDataRemoved} events
+     * describing which data point indices have been modified, e.g. to update cached screen coordinates incrementally.
+     *
+     * @return log of modified index ranges or {@code null} if the data set does not track them
+     */
+    default IndexChangeLog getIndexChangeLog() {
+        return null;
+    }
+
     /**
      * Gets the name of the data set.
      *
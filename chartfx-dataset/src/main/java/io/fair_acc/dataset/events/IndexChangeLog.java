@@ -0,0 +1,207 @@
+package io.fair_acc.dataset.events;
+
+/**
+ * Optional payload of the {@link ChartBits#DataSetDataAdded} and {@link ChartBits#DataSetDataRemoved} events that
+ * records which data point indices have been modified.
+ * <p>
+ * Writers annotate their modification (e.g. appended points, in-place changes, or a ring-buffer shift that drops the
+ * oldest points) while holding the write lock and before firing the corresponding event. Data events that have not
+ * been annotated invalidate the whole index range, so that data sets that do not track their changes keep the
+ * previous full-update semantics.
+ * <p>
+ * Consumers store the {@link #getVersion() version} of the state they have processed and later query the accumulated
+ * changes via {@link #getChangesSince(long, Changes)}. Modifications that are recorded before any consumer has
+ * queried the log again (e.g. many single-point appends between two chart updates) are merged into the newest entry,
+ * i.e. the version only advances once per observed state. Only the last {@value #CAPACITY} entries are retained, older
+ * versions are reported as unknown.
+ * <p>
+ * An annotation covers the next data event fired by the same thread, as long as no other writer has annotated or fired
+ * a data event in between. Annotations whose event is never fired thus do not hide un-annotated modifications of other
+ * writers.
+ */
+public class IndexChangeLog implements StateListener {
+    public static final int CAPACITY = 64;
+    private final Changes[] entries = new Changes[CAPACITY];
+    private final boolean[] fullUpdates = new boolean[CAPACITY];
+    private long version;
+    private boolean observed = true; // whether the latest version may be known to a consumer (N.B. no entry yet)
+    private Thread annotatingThread; // writer whose next data event is covered by the latest annotation
+
+    public IndexChangeLog() {
+        for (int i = 0; i < CAPACITY; i++) {
+            entries[i] = new Changes();
+        }
+    }
+
+    /**
+     * @return version of the latest recorded modification
+     */
+    public synchronized long getVersion() {
+        observed = true;
+        return version;
+    }
+
+    /**
+     * Accumulates all modifications that have been recorded after the given version.
+     *
+     * @param sinceVersion version of the previously processed state (see {@link #getVersion()})
+     * @param result storage for the accumulated changes in the current index space
+     * @return true if the changes are known, false if the whole index range needs to be considered as changed
+     */
+    public synchronized boolean getChangesSince(final long sinceVersion, final Changes result) {
+        observed = true;
+        result.reset();
+        if (sinceVersion < 0 || sinceVersion > version || version - sinceVersion > CAPACITY) {
+            return false;
+        }
+        for (long v = sinceVersion + 1; v <= version; v++) {
+            final int slot = (int) (v % CAPACITY);
+            if (fullUpdates[slot]) {
+                result.reset();
+                return false;
+            }
+            final Changes entry = entries[slot];
+            result.apply(entry.shift, entry.from, entry.to);
+        }
+        return true;
+    }
+
+    /**
+     * Records that all data points may have changed.
+     */
+    public synchronized void markAll() {
+        record(0, 0, 0, true);
+        annotate();
+    }
+
+    /**
+     * Records that points have been appended to the end of the data set.
+     *
+     * @param oldCount data count before the points have been added
+     * @param newCount data count after the points have been added
+     */
+    public void markAppended(final int oldCount, final int newCount) {
+        markChanged(oldCount, newCount);
+    }
+
+    /**
+     * Records that the data points within the given index range have been modified, inserted or removed. Insertions
+     * and removals need to include the indices of all following points that moved by that operation.
+     *
+     * @param fromIndex first modified index (inclusive)
+     * @param toIndex last modified index (exclusive)
+     */
+    public synchronized void markChanged(final int fromIndex, final int toIndex) {
+        record(0, fromIndex, toIndex, false);
+        annotate();
+    }
+
+    /**
+     * Records a ring-buffer shift: the first {@code shift} data points have been dropped, i.e. a previous index
+     * {@code i} now corresponds to {@code i - shift}. The points within the given (post-shift) index range have
+     * subsequently been modified, typically the newly appended points.
+     *
+     * @param shift number of data points that have been dropped at the beginning
+     * @param fromIndex first modified index after the shift (inclusive)
+     * @param toIndex last modified index after the shift (exclusive)
+     */
+    public synchronized void markShifted(final int shift, final int fromIndex, final int toIndex) {
+        if (shift < 0) {
+            throw new IllegalArgumentException("shift must not be negative: " + shift);
+        }
+        record(shift, fromIndex, toIndex, false);
+        annotate();
+    }
+
+    /**
+     * Marks the whole index range as modified if the data event has not been annotated by the firing writer.
+     */
+    @Override
+    public synchronized void accept(final BitState source, final int bits) {
+        if (annotatingThread != Thread.currentThread()) {
+            record(0, 0, 0, true);
+        }
+        annotatingThread = null;
+    }
+
+    private void annotate() {
+        annotatingThread = Thread.currentThread();
+    }
+
+    private void record(final int shift, final int fromIndex, final int toIndex, final boolean full) {
+        if (observed) {
+            // new entry, the previous version may be the reference state of a consumer
+            version++;
+            observed = false;
+            final int slot = (int) (version % CAPACITY);
+            entries[slot].reset();
+            fullUpdates[slot] = false;
+        }
+        // merge into the newest entry: equivalent to accumulating both since no consumer can refer to the state between
+        final int slot = (int) (version % CAPACITY);
+        entries[slot].apply(shift, Math.max(0, fromIndex), Math.max(0, toIndex));
+        fullUpdates[slot] |= full;
+    }
+
+    /**
+     * Accumulated modifications: a previous index {@code i} corresponds to the current index {@code i - getShift()},
+     * except for the current indices within [{@link #getFrom()}, {@link #getTo()}) which need to be updated.
+     */
+    public static class Changes {
+        private int shift;
+        private int from;
+        private int to;
+
+        /**
+         * @return first modified index (inclusive) in the current index space
+         */
+        public int getFrom() {
+            return from;
+        }
+
+        /**
+         * @return number of data points that have been dropped at the beginning
+         */
+        public int getShift() {
+            return shift;
+        }
+
+        /**
+         * @return last modified index (exclusive) in the current index space
+         */
+        public int getTo() {
+            return to;
+        }
+
+        /**
+         * @return true if no data point has been modified
+         */
+        public boolean isEmpty() {
+            return shift == 0 && from >= to;
+        }
+
+        protected void apply(final int shift, final int fromIndex, final int toIndex) {
+            if (shift > 0) {
+                this.shift += shift;
+                from = Math.max(0, from - shift);
+                to = Math.max(0, to - shift);
+            }
+            if (fromIndex >= toIndex) {
+                return;
+            }
+            if (from >= to) {
+                from = fromIndex;
+                to = toIndex;
+            } else {
+                from = Math.min(from, fromIndex);
+                to = Math.max(to, toIndex);
+            }
+        }
+
+        protected void reset() {
+            shift = 0;
+            from = 0;
+            to = 0;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package io.fair_acc.dataset.remote;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import io.fair_acc.dataset.DataSet;
+import io.fair_acc.dataset.DataSetError.ErrorType;
+import io.fair_acc.dataset.spi.DoubleErrorDataSet;
+import io.fair_acc.dataset.spi.MultiDimDoubleDataSet;
+import io.fair_acc.dataset.utils.AssertUtils;
+
+/**
+ * Decodes the key/delta frame stream produced by {@link DataSetDeltaEncoder} and keeps the reconstructed state in a
+ * local {@link DataSet}: a {@link DoubleErrorDataSet} for two-dimensional data (y-errors only) and a
+ * {@link MultiDimDoubleDataSet} (without errors) otherwise.
+ * <p>
+ * Delta frames can only be applied on top of the frame with the preceding sequence number. After a lost frame, the
+ * decoder rejects further delta frames until the next key frame, see {@link #isSynchronised()}.
+ * <p>
+ * N.B. not thread-safe: use one decoder per stream.
+ */
+public class DataSetDeltaDecoder {
+    private static final ErrorType[] ERROR_TYPES = ErrorType.values();
+    private double[][] columns = new double[0][];
+    private byte[] errorTypes = new byte[0];
+    private int dataCount;
+    private long sequence;
+    private boolean synchronised;
+    private DataSet dataSet;
+    private double[] zeros = new double[0];
+
+    /**
+     * Applies a frame to the local state
+     *
+     * @param frame the encoded frame (consumed from its position up to the end of the frame)
+     * @return the updated data set (the same instance as long as the dimension does not change)
+     * @throws IllegalStateException if the frame is a delta frame that does not apply to the current state
+     */
+    public DataSet decode(final ByteBuffer frame) {
+        AssertUtils.notNull("frame", frame);
+        if (frame.getInt() != DataSetDeltaEncoder.MAGIC) {
+            throw new IllegalArgumentException("not a data set update frame");
+        }
+        final byte type = frame.get();
+        final int dimension = frame.get();
+        frame.getShort(); // reserved
+        final long frameSequence = frame.getLong();
+        final int count = frame.getInt();
+        final byte[] frameErrorTypes = new byte[dimension];
+        frame.get(frameErrorTypes);
+
+        final boolean keyFrame = type == DataSetDeltaEncoder.KEY_FRAME;
+        if (!keyFrame && (!synchronised || frameSequence != sequence + 1 || count != dataCount || !Arrays.equals(frameErrorTypes, errorTypes))) {
+            synchronised = false;
+            throw new IllegalStateException("delta frame " + frameSequence + " does not apply to frame " + sequence + ", waiting for key frame");
+        }
+        String name = null;
+        if (keyFrame) {
+            final byte[] nameBytes = new byte[frame.getShort()];
+            frame.get(nameBytes);
+            name = new String(nameBytes, StandardCharsets.UTF_8);
+            errorTypes = frameErrorTypes;
+            dataCount = count;
+            int nColumns = 0;
+            for (final byte errorType : errorTypes) {
+                nColumns += errorType == ErrorType.NO_ERROR.ordinal() ? 1 : 3;
+            }
+            columns = Arrays.copyOf(columns, nColumns);
+            for (int column = 0; column < nColumns; column++) {
+                if (columns[column] == null || columns[column].length < count) {
+                    columns[column] = new double[count];
+                }
+            }
+        }
+        try {
+            for (final double[] column : columns) {
+                XorColumnCoder.decode(frame, column, count, keyFrame);
+            }
+        } catch (final RuntimeException e) {
+            synchronised = false;
+            throw e;
+        }
+        sequence = frameSequence;
+        synchronised = true;
+        return update(dimension, name);
+    }
+
+    /**
+     * @return the reconstructed data set, {@code null} before the first key frame
+     */
+    public DataSet getDataSet() {
+        return dataSet;
+    }
+
+    /**
+     * @return sequence number of the last applied frame
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return {@code true} if delta frames can be applied, {@code false} if waiting for a key frame
+     */
+    public boolean isSynchronised() {
+        return synchronised;
+    }
+
+    private DataSet update(final int dimension, final String name) {
+        if (dataSet == null || dataSet.getDimension() != dimension) {
+            dataSet = dimension == 2 ? new DoubleErrorDataSet(name == null ? "" : name, dataCount) : new MultiDimDoubleDataSet(name == null ? "" : name, dimension, dataCount);
+        }
+        final String newName = name == null ? dataSet.getName() : name;
+        if (dataSet instanceof DoubleErrorDataSet) {
+            final DoubleErrorDataSet errorDataSet = (DoubleErrorDataSet) dataSet;
+            final double[] x = columns[0];
+            final double[] y = columns[getColumn(1)];
+            final boolean hasErrors = errorTypes[1] != ErrorType.NO_ERROR.ordinal();
+            final double[] errorNeg = hasErrors ? columns[getColumn(1) + 1] : getZeros(y);
+            final double[] errorPos = hasErrors ? columns[getColumn(1) + 2] : errorNeg;
+            errorDataSet.lock().writeLockGuard(() -> errorDataSet.setName(newName).setErrorType(DataSet.DIM_Y, ERROR_TYPES[errorTypes[1]]));
+            errorDataSet.set(x, y, errorNeg, errorPos, dataCount, true);
+        } else {
+            final MultiDimDoubleDataSet multiDimDataSet = (MultiDimDoubleDataSet) dataSet;
+            final double[][] values = new double[dimension][];
+            for (int dim = 0; dim < dimension; dim++) {
+                values[dim] = columns[getColumn(dim)];
+            }
+            multiDimDataSet.lock().writeLockGuard(() -> multiDimDataSet.setName(newName));
+            multiDimDataSet.set(values, dataCount, true);
+        }
+        return dataSet;
+    }
+
+    private int getColumn(final int dim) {
+        int column = 0;
+        for (int d = 0; d < dim; d++) {
+            column += errorTypes[d] == ErrorType.NO_ERROR.ordinal() ? 1 : 3;
+        }
+        return column;
+    }
+
+    private double[] getZeros(final double[] template) {
+        if (zeros.length < template.length) {
+            zeros = new double[template.length];
+        }
+        return zeros;
+    }
+}
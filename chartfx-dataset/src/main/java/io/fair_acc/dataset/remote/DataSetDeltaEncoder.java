@@ -0,0 +1,203 @@
+package io.fair_acc.dataset.remote;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import io.fair_acc.dataset.DataSet;
+import io.fair_acc.dataset.DataSetError;
+import io.fair_acc.dataset.DataSetError.ErrorType;
+import io.fair_acc.dataset.GridDataSet;
+import io.fair_acc.dataset.utils.AssertUtils;
+import io.fair_acc.dataset.utils.ByteArrayCache;
+
+/**
+ * Encodes successive states of a {@link DataSet} into a compact binary update stream for remote chart clients.
+ * <p>
+ * The stream consists of key frames, which contain the full data set, and delta frames, which only contain the
+ * (XOR-)differences w.r.t. the previous frame. Both are compressed with the byte-aligned {@link XorColumnCoder}, so that
+ * unchanged samples cost less than one byte and slowly changing samples a few bytes. A key frame is emitted for the
+ * first frame, every {@link #getKeyFrameInterval()} frames, whenever the data count, dimension or error layout changes
+ * and on request (e.g. when a new client connects, see {@link #requestKeyFrame()}).
+ * <p>
+ * Frame layout (big-endian):
+ * <pre>
+ *   int    magic ('CFDD')
+ *   byte   frame type (0: key frame, 1: delta frame)
+ *   byte   dimension
+ *   short  reserved
+ *   long   sequence number (delta frames apply to the frame with sequence - 1)
+ *   int    data count
+ *   byte[] error type ordinal per dimension
+ *   key frames only: short name length, byte[] UTF-8 name
+ *   per dimension: values, followed by negative and positive errors for dimensions with errors (XorColumnCoder)
+ * </pre>
+ * The returned buffers are backed by pooled arrays, which should be returned via {@link #release(ByteBuffer)} once the
+ * frame has been sent.
+ * <p>
+ * N.B. not thread-safe: use one encoder per data set/stream.
+ *
+ * @see DataSetDeltaDecoder
+ */
+public class DataSetDeltaEncoder {
+    public static final int MAGIC = 0x43464444; // 'CFDD'
+    public static final byte KEY_FRAME = 0;
+    public static final byte DELTA_FRAME = 1;
+    public static final int DEFAULT_KEY_FRAME_INTERVAL = 100;
+    private static final int MAX_NAME_LENGTH = Short.MAX_VALUE;
+    private final ByteArrayCache pool = ByteArrayCache.getInstance();
+    private int keyFrameInterval = DEFAULT_KEY_FRAME_INTERVAL;
+    private double[][] reference = new double[0][];
+    private double[] scratch = new double[0];
+    private byte[] errorTypes = new byte[0];
+    private byte[] referenceErrorTypes = new byte[0];
+    private int referenceCount = -1;
+    private int framesSinceKeyFrame;
+    private boolean keyFrameRequested = true;
+    private long sequence;
+    private long keyFrameCount;
+
+    /**
+     * @param dataSet the data set to be encoded (under its read lock)
+     * @return the encoded frame (position: 0, limit: frame length) backed by a pooled array
+     */
+    public ByteBuffer encode(final DataSet dataSet) {
+        AssertUtils.notNull("dataSet", dataSet);
+        if (dataSet instanceof GridDataSet) {
+            throw new IllegalArgumentException("grid data sets are not supported");
+        }
+        if (dataSet.getDimension() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("dimension exceeds " + Byte.MAX_VALUE + ": " + dataSet.getDimension());
+        }
+        return dataSet.lock().readLockGuard(() -> encodeFrame(dataSet));
+    }
+
+    /**
+     * @return number of encoded key frames
+     */
+    public long getKeyFrameCount() {
+        return keyFrameCount;
+    }
+
+    /**
+     * @return maximum number of frames between key frames
+     */
+    public int getKeyFrameInterval() {
+        return keyFrameInterval;
+    }
+
+    /**
+     * @return sequence number of the last encoded frame
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @param buffer a frame returned by {@link #encode(DataSet)} that is no longer used
+     */
+    public void release(final ByteBuffer buffer) {
+        if (buffer != null && buffer.hasArray()) {
+            pool.add(buffer.array());
+        }
+    }
+
+    /**
+     * forces the next frame to be a key frame, e.g. for newly connected clients
+     *
+     * @return itself (fluent design)
+     */
+    public DataSetDeltaEncoder requestKeyFrame() {
+        keyFrameRequested = true;
+        return this;
+    }
+
+    /**
+     * @param interval maximum number of frames between key frames (1: key frames only)
+     * @return itself (fluent design)
+     */
+    public DataSetDeltaEncoder setKeyFrameInterval(final int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("interval must be >= 1: " + interval);
+        }
+        keyFrameInterval = interval;
+        return this;
+    }
+
+    private ByteBuffer encodeFrame(final DataSet dataSet) {
+        final int dimension = dataSet.getDimension();
+        final int dataCount = dataSet.getDataCount();
+        if (errorTypes.length != dimension) {
+            errorTypes = new byte[dimension];
+        }
+        int nColumns = 0;
+        for (int dim = 0; dim < dimension; dim++) {
+            final ErrorType errorType = dataSet instanceof DataSetError ? ((DataSetError) dataSet).getErrorType(dim) : ErrorType.NO_ERROR;
+            errorTypes[dim] = (byte) errorType.ordinal();
+            nColumns += errorType == ErrorType.NO_ERROR ? 1 : 3;
+        }
+        final boolean keyFrame = keyFrameRequested || framesSinceKeyFrame + 1 >= keyFrameInterval || dataCount != referenceCount || !Arrays.equals(errorTypes, referenceErrorTypes);
+        final byte[] name = keyFrame ? getName(dataSet) : new byte[0];
+
+        final int maxSize = 24 + dimension + 2 + name.length + nColumns * XorColumnCoder.getMaxEncodedSize(dataCount);
+        final ByteBuffer out = ByteBuffer.wrap(pool.getArray(maxSize));
+        out.putInt(MAGIC).put(keyFrame ? KEY_FRAME : DELTA_FRAME).put((byte) dimension).putShort((short) 0);
+        out.putLong(sequence + 1).putInt(dataCount).put(errorTypes);
+        if (keyFrame) {
+            out.putShort((short) name.length).put(name);
+        }
+
+        if (reference.length != nColumns || keyFrame) {
+            reference = Arrays.copyOf(reference, nColumns);
+        }
+        if (scratch.length < dataCount) {
+            scratch = new double[dataCount];
+        }
+        int column = 0;
+        for (int dim = 0; dim < dimension; dim++) {
+            encodeColumn(out, dataSet, dim, 0, column++, dataCount, keyFrame);
+            if (errorTypes[dim] != ErrorType.NO_ERROR.ordinal()) {
+                encodeColumn(out, dataSet, dim, -1, column++, dataCount, keyFrame);
+                encodeColumn(out, dataSet, dim, +1, column++, dataCount, keyFrame);
+            }
+        }
+
+        if (keyFrame) {
+            keyFrameRequested = false;
+            framesSinceKeyFrame = 0;
+            keyFrameCount++;
+            referenceCount = dataCount;
+            referenceErrorTypes = errorTypes.clone();
+        } else {
+            framesSinceKeyFrame++;
+        }
+        sequence++;
+        out.flip();
+        return out;
+    }
+
+    private void encodeColumn(final ByteBuffer out, final DataSet dataSet, final int dim, final int error, final int column, final int dataCount, final boolean keyFrame) {
+        for (int i = 0; i < dataCount; i++) {
+            if (error == 0) {
+                scratch[i] = dataSet.get(dim, i);
+            } else {
+                final DataSetError errorDataSet = (DataSetError) dataSet;
+                scratch[i] = error < 0 ? errorDataSet.getErrorNegative(dim, i) : errorDataSet.getErrorPositive(dim, i);
+            }
+        }
+        if (keyFrame) {
+            XorColumnCoder.encode(out, scratch, null, dataCount);
+            if (reference[column] == null || reference[column].length < dataCount) {
+                reference[column] = new double[dataCount];
+            }
+            System.arraycopy(scratch, 0, reference[column], 0, dataCount);
+        } else {
+            XorColumnCoder.encode(out, scratch, reference[column], dataCount);
+        }
+    }
+
+    private static byte[] getName(final DataSet dataSet) {
+        final byte[] name = dataSet.getName() == null ? new byte[0] : dataSet.getName().getBytes(StandardCharsets.UTF_8);
+        return name.length > MAX_NAME_LENGTH ? Arrays.copyOf(name, MAX_NAME_LENGTH) : name;
+    }
+}
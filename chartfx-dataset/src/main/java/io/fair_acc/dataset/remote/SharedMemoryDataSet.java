@@ -0,0 +1,315 @@
+package io.fair_acc.dataset.remote;
+
+import static io.fair_acc.dataset.remote.SharedMemoryLayout.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import io.fair_acc.dataset.DataSet;
+import io.fair_acc.dataset.events.ChartBits;
+import io.fair_acc.dataset.spi.AbstractErrorDataSet;
+import io.fair_acc.dataset.utils.AssertUtils;
+
+/**
+ * Read-only {@link DataSet} view on the latest frame of a shared-memory ring file written by a
+ * {@link SharedMemoryDataSetPublisher}, typically running in another process on the same host.
+ * <p>
+ * {@link #update()} pins the latest complete frame (validated via the slot's seqlock) and notifies the listeners, while
+ * {@link #get(int, int)} and the error accessors read directly from the mapping, i.e. without deserialisation or copy.
+ * Since the publisher does not wait for its subscribers, the pinned frame is overwritten once the publisher wraps around
+ * the ring: size the ring such that frames are consumed within {@code nSlots - 1} publications and use {@link #isValid()}
+ * to detect torn reads (e.g. after rendering). Frames are identified by the publisher's run id together with their
+ * sequence number, i.e. an open view also picks up the frames of a re-started publisher. The header of each new run is
+ * re-validated: a changed number or size of the slots is handled by re-mapping the file, a changed dimension cannot be
+ * represented by an existing view and is reported by {@link #update()}.
+ */
+public class SharedMemoryDataSet extends AbstractErrorDataSet<SharedMemoryDataSet> implements AutoCloseable {
+    private static final long serialVersionUID = 5043715323213617842L;
+    private static final int MAX_UPDATE_ATTEMPTS = 16;
+    private static final ErrorType[] ERROR_TYPES = ErrorType.values();
+    private final transient FileChannel channel;
+    private transient MappedByteBuffer buffer; // N.B. replaced under the write lock if a new run changes the layout
+    private int nSlots;
+    private int slotSize;
+    private int layoutRun; // run id of the publisher whose layout is mapped
+    private final int[] valueOffsets;
+    private final int[] errorOffsets; // negative errors, followed by the positive errors, -1: no errors
+    private final int[] tmpErrorTypes;
+    private int run;
+    private long frame;
+    private int slot = -1;
+    private int dataCount;
+    private long timeStamp;
+
+    /**
+     * @param file the shared ring file
+     * @throws IOException in case the file cannot be mapped or has not been initialised by a publisher
+     */
+    public SharedMemoryDataSet(final Path file) throws IOException {
+        this(Header.read(file));
+    }
+
+    private SharedMemoryDataSet(final Header header) throws IOException {
+        super(header.name, header.dimension, createErrorTypes(header.dimension));
+        channel = header.channel;
+        nSlots = header.nSlots;
+        slotSize = header.slotSize;
+        layoutRun = header.runId;
+        try {
+            buffer = map(channel, nSlots, slotSize);
+        } catch (final IOException e) {
+            channel.close();
+            throw e;
+        }
+        valueOffsets = new int[header.dimension];
+        errorOffsets = new int[header.dimension];
+        tmpErrorTypes = new int[header.dimension];
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close(); // N.B. the mapping stays valid until garbage-collected
+    }
+
+    @Override
+    public double get(final int dimIndex, final int index) {
+        return buffer.getDouble(valueOffsets[dimIndex] + Double.BYTES * index);
+    }
+
+    @Override
+    public int getDataCount() {
+        return dataCount;
+    }
+
+    @Override
+    public double getErrorNegative(final int dimIndex, final int index) {
+        final int offset = errorOffsets[dimIndex];
+        return offset < 0 ? 0.0 : buffer.getDouble(offset + Double.BYTES * index);
+    }
+
+    @Override
+    public double getErrorPositive(final int dimIndex, final int index) {
+        final int offset = errorOffsets[dimIndex];
+        return offset < 0 ? 0.0 : buffer.getDouble(offset + Double.BYTES * (dataCount + index));
+    }
+
+    /**
+     * @return publisher run id of the pinned frame, 0 if none
+     */
+    public int getRunId() {
+        return run;
+    }
+
+    /**
+     * @return sequence number of the pinned frame, 0 if none
+     */
+    public long getSequence() {
+        return frame;
+    }
+
+    /**
+     * @return publication time stamp of the pinned frame in [ms] since epoch
+     */
+    public long getTimeStamp() {
+        return timeStamp;
+    }
+
+    @Override
+    public double[] getValues(final int dimIndex) {
+        final double[] values = new double[dataCount];
+        buffer.duplicate().order(BYTE_ORDER).position(valueOffsets[dimIndex]).asDoubleBuffer().get(values);
+        return values;
+    }
+
+    /**
+     * @return {@code true} if the pinned frame has not (yet) been overwritten by the publisher
+     */
+    public boolean isValid() {
+        if (slot < 0) {
+            return true;
+        }
+        VarHandle.loadLoadFence();
+        return (long) LONG_HANDLE.getOpaque(buffer, slot + SLOT_SEQUENCE) == 2 * frame && (int) INT_HANDLE.getOpaque(buffer, slot + SLOT_RUN_ID) == run;
+    }
+
+    @Override
+    public DataSet set(final DataSet other, final boolean copy) {
+        throw new UnsupportedOperationException("shared-memory views are read-only");
+    }
+
+    /**
+     * Pins the latest complete frame and notifies the listeners if it differs from the current one
+     *
+     * @return {@code true} if a new frame has been pinned
+     * @throws IllegalStateException if the publisher has been re-started with a different dimension
+     * @throws UncheckedIOException if the file could not be re-mapped for a re-started publisher with a different
+     *         number or size of the slots
+     */
+    public boolean update() {
+        for (int attempt = 0; attempt < MAX_UPDATE_ATTEMPTS; attempt++) {
+            final int latestRun = (int) INT_HANDLE.getAcquire(buffer, OFFSET_RUN_ID);
+            final long latest = (long) LONG_HANDLE.getAcquire(buffer, OFFSET_LATEST);
+            if (latest == 0 || (latest == frame && latestRun == run)) {
+                return false;
+            }
+            if (latestRun != layoutRun && !updateLayout(latestRun)) {
+                continue; // header is being (re-)initialised
+            }
+            final int latestSlot = HEADER_SIZE + (int) ((latest - 1) % nSlots) * slotSize;
+            final long sequence = (long) LONG_HANDLE.getAcquire(buffer, latestSlot + SLOT_SEQUENCE);
+            if (sequence != 2 * latest || (int) INT_HANDLE.getOpaque(buffer, latestSlot + SLOT_RUN_ID) != latestRun) {
+                continue; // being overwritten by a newer frame or (re-)started run
+            }
+            final int count = buffer.getInt(latestSlot + SLOT_DATA_COUNT);
+            final long stamp = buffer.getLong(latestSlot + SLOT_TIME_STAMP);
+            boolean validErrorTypes = true;
+            for (int dim = 0; dim < tmpErrorTypes.length; dim++) {
+                tmpErrorTypes[dim] = buffer.getInt(latestSlot + SLOT_ERROR_TYPES + Integer.BYTES * dim);
+                validErrorTypes &= tmpErrorTypes[dim] >= 0 && tmpErrorTypes[dim] < ERROR_TYPES.length;
+            }
+            VarHandle.loadLoadFence();
+            if (!validErrorTypes) {
+                continue; // torn read
+            }
+            if ((long) LONG_HANDLE.getOpaque(buffer, latestSlot + SLOT_SEQUENCE) != sequence || (int) INT_HANDLE.getOpaque(buffer, latestSlot + SLOT_RUN_ID) != latestRun) {
+                continue;
+            }
+            lock().writeLockGuard(() -> pin(latestRun, latest, latestSlot, count, stamp));
+            fireInvalidated(ChartBits.DataSetData);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Validates the header of a new publisher run and re-maps the file if the number or size of the slots changed
+     *
+     * @param latestRun the new run id
+     * @return {@code false} if the header is being (re-)initialised
+     */
+    private boolean updateLayout(final int latestRun) {
+        if ((int) INT_HANDLE.getAcquire(buffer, OFFSET_MAGIC) != MAGIC || buffer.getInt(OFFSET_VERSION) != VERSION) {
+            return false;
+        }
+        final int newDimension = buffer.getInt(OFFSET_DIMENSION);
+        final int newSlots = buffer.getInt(OFFSET_N_SLOTS);
+        final int newSlotSize = buffer.getInt(OFFSET_SLOT_SIZE);
+        VarHandle.loadLoadFence();
+        if ((int) INT_HANDLE.getOpaque(buffer, OFFSET_RUN_ID) != latestRun) {
+            return false;
+        }
+        if (newDimension != getDimension()) {
+            throw new IllegalStateException("publisher run " + latestRun + " uses dimension " + newDimension + " instead of " + getDimension() + ": the view needs to be re-opened");
+        }
+        if (newSlots != nSlots || newSlotSize != slotSize) {
+            final MappedByteBuffer mapping;
+            try {
+                mapping = map(channel, newSlots, newSlotSize);
+            } catch (final IOException e) {
+                throw new UncheckedIOException("could not re-map the layout of publisher run " + latestRun, e);
+            }
+            lock().writeLockGuard(() -> {
+                buffer = mapping;
+                nSlots = newSlots;
+                slotSize = newSlotSize;
+                slot = -1;
+                dataCount = 0; // N.B. the previous frame's offsets are not valid for the new mapping
+            });
+        }
+        layoutRun = latestRun;
+        return true;
+    }
+
+    private static MappedByteBuffer map(final FileChannel channel, final int nSlots, final int slotSize) throws IOException {
+        final MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE + (long) nSlots * slotSize);
+        mapping.order(BYTE_ORDER);
+        return mapping;
+    }
+
+    private void pin(final int latestRun, final long latest, final int latestSlot, final int count, final long stamp) {
+        run = latestRun;
+        frame = latest;
+        slot = latestSlot;
+        dataCount = count;
+        timeStamp = stamp;
+        int offset = latestSlot + getDataOffset(getDimension());
+        for (int dim = 0; dim < tmpErrorTypes.length; dim++) {
+            final ErrorType errorType = ERROR_TYPES[tmpErrorTypes[dim]];
+            setErrorType(dim, errorType);
+            valueOffsets[dim] = offset;
+            offset += Double.BYTES * count;
+            if (errorType == ErrorType.NO_ERROR) {
+                errorOffsets[dim] = -1;
+            } else {
+                errorOffsets[dim] = offset;
+                offset += 2 * Double.BYTES * count;
+            }
+        }
+    }
+
+    private static ErrorType[] createErrorTypes(final int dimension) {
+        final ErrorType[] errorTypes = new ErrorType[dimension];
+        Arrays.fill(errorTypes, ErrorType.NO_ERROR);
+        return errorTypes;
+    }
+
+    /**
+     * File layout as initialised by the publisher
+     */
+    private static final class Header {
+        private final FileChannel channel;
+        private final int runId;
+        private final String name;
+        private final int dimension;
+        private final int nSlots;
+        private final int slotSize;
+
+        private Header(final FileChannel channel, final ByteBuffer header, final int runId) {
+            this.channel = channel;
+            this.runId = runId;
+            // N.B. clamped since the header may be concurrently re-initialised (validated via the run id afterwards)
+            final byte[] nameBytes = new byte[Math.max(0, Math.min(NAME_CAPACITY, header.getInt(OFFSET_NAME_LENGTH)))];
+            header.get(OFFSET_NAME, nameBytes);
+            name = new String(nameBytes, StandardCharsets.UTF_8);
+            dimension = header.getInt(OFFSET_DIMENSION);
+            nSlots = header.getInt(OFFSET_N_SLOTS);
+            slotSize = header.getInt(OFFSET_SLOT_SIZE);
+        }
+
+        private static Header read(final Path file) throws IOException {
+            AssertUtils.notNull("file", file);
+            final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                if (channel.size() < HEADER_SIZE) {
+                    throw new IOException("file too short for shared-memory header: " + file);
+                }
+                final ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(BYTE_ORDER);
+                for (int attempt = 0; attempt < MAX_UPDATE_ATTEMPTS; attempt++) {
+                    // N.B. the publisher clears the magic word and changes the run id before rewriting the header
+                    final int runId = (int) INT_HANDLE.getAcquire(header, OFFSET_RUN_ID);
+                    if ((int) INT_HANDLE.getAcquire(header, OFFSET_MAGIC) != MAGIC || header.getInt(OFFSET_VERSION) != VERSION) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    final Header result = new Header(channel, header, runId);
+                    VarHandle.loadLoadFence();
+                    if ((int) INT_HANDLE.getOpaque(header, OFFSET_RUN_ID) == runId) {
+                        return result;
+                    }
+                }
+                throw new IOException("file has not been initialised by a SharedMemoryDataSetPublisher: " + file);
+            } catch (final IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package io.fair_acc.dataset.remote;
+
+import static io.fair_acc.dataset.remote.SharedMemoryLayout.*;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import io.fair_acc.dataset.DataSet;
+import io.fair_acc.dataset.DataSetError;
+import io.fair_acc.dataset.DataSetError.ErrorType;
+import io.fair_acc.dataset.GridDataSet;
+import io.fair_acc.dataset.utils.AssertUtils;
+
+/**
+ * Publishes {@link DataSet} frames into a memory-mapped ring file that can be consumed without serialisation by
+ * {@link SharedMemoryDataSet} views in other processes on the same host.
+ * <p>
+ * Each frame is written into the next slot of the ring, protected by a per-slot seqlock: the slot sequence number is
+ * odd while the frame is being written and even once it is complete, after which the frame is announced as the latest
+ * one in the file header. The publisher never waits for subscribers, i.e. subscribers need to pick up (and finish
+ * rendering) a frame before the publisher wraps around the ring.
+ * <p>
+ * N.B. a single publisher per file. {@link GridDataSet}s are not supported.
+ */
+public class SharedMemoryDataSetPublisher implements AutoCloseable {
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int dimension;
+    private final int nSlots;
+    private final int slotSize;
+    private final int[] errorTypes;
+    private final int runId;
+    private long sequence;
+
+    /**
+     * Creates (or re-uses) the ring file. A re-started publisher starts a new run with a new run id and restarts the
+     * frame sequence, which subscribers of the previous run pick up (re-mapping the file if the number or size of the
+     * slots changed, while a different dimension requires re-opening the subscriber).
+     *
+     * @param file the shared file, preferably on a memory-backed file system (e.g. '/dev/shm')
+     * @param name name of the published data set
+     * @param dimension dimension of the published data sets
+     * @param nSlots number of ring slots (&gt;= 2)
+     * @param slotCapacity maximum frame size in bytes
+     * @throws IOException in case the file cannot be created or mapped
+     */
+    public SharedMemoryDataSetPublisher(final Path file, final String name, final int dimension, final int nSlots, final int slotCapacity) throws IOException {
+        AssertUtils.notNull("file", file);
+        AssertUtils.notNull("name", name);
+        if (dimension < 1) {
+            throw new IllegalArgumentException("dimension must be >= 1: " + dimension);
+        }
+        if (nSlots < 2) {
+            throw new IllegalArgumentException("nSlots must be >= 2: " + nSlots);
+        }
+        if (slotCapacity < getDataOffset(dimension)) {
+            throw new IllegalArgumentException("slotCapacity must be >= " + getDataOffset(dimension) + ": " + slotCapacity);
+        }
+        final byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > NAME_CAPACITY) {
+            throw new IllegalArgumentException("name exceeds " + NAME_CAPACITY + " bytes: " + name);
+        }
+        this.dimension = dimension;
+        this.nSlots = nSlots;
+        this.slotSize = align(slotCapacity);
+        this.errorTypes = new int[dimension];
+        final long fileSize = HEADER_SIZE + (long) this.nSlots * this.slotSize;
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("ring file exceeds 2 GB: nSlots = " + nSlots + " slotCapacity = " + slotCapacity);
+        }
+
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+        } catch (final IOException e) {
+            channel.close();
+            throw e;
+        }
+        buffer.order(BYTE_ORDER);
+        // N.B. a re-used file is still marked as initialised by the previous run: clear the magic word first, so that
+        // subscribers opening the file meanwhile do not accept a partially written header
+        // (never truncate the file: accessing truncated regions of a mapping crashes running subscribers)
+        INT_HANDLE.setRelease(buffer, OFFSET_MAGIC, 0);
+        LONG_HANDLE.setRelease(buffer, OFFSET_LATEST, 0L);
+        VarHandle.storeStoreFence();
+        // written before the remaining header: subscribers detect concurrent re-initialisations via the run id
+        runId = (int) INT_HANDLE.getOpaque(buffer, OFFSET_RUN_ID) + 1;
+        INT_HANDLE.setRelease(buffer, OFFSET_RUN_ID, runId);
+        VarHandle.storeStoreFence();
+        buffer.putInt(OFFSET_VERSION, VERSION);
+        buffer.putInt(OFFSET_N_SLOTS, nSlots);
+        buffer.putInt(OFFSET_SLOT_SIZE, slotSize);
+        buffer.putInt(OFFSET_DIMENSION, dimension);
+        buffer.putInt(OFFSET_NAME_LENGTH, nameBytes.length);
+        buffer.put(OFFSET_NAME, nameBytes);
+        // N.B. written last: subscribers only accept fully initialised files
+        VarHandle.storeStoreFence();
+        INT_HANDLE.setRelease(buffer, OFFSET_MAGIC, MAGIC);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close(); // N.B. the mapping stays valid until garbage-collected
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * @return number of ring slots
+     */
+    public int getNumberOfSlots() {
+        return nSlots;
+    }
+
+    /**
+     * @return id of this publisher run, distinguishes the frames of a re-started publisher from those of the previous run
+     */
+    public int getRunId() {
+        return runId;
+    }
+
+    /**
+     * @return sequence number of the last published frame
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return maximum frame size in bytes
+     */
+    public int getSlotSize() {
+        return slotSize;
+    }
+
+    /**
+     * Copies the data set content (under its read lock) into the next ring slot and announces it to the subscribers
+     *
+     * @param dataSet the data set to be published
+     * @return sequence number of the published frame
+     */
+    public long publish(final DataSet dataSet) {
+        AssertUtils.notNull("dataSet", dataSet);
+        if (dataSet.getDimension() != dimension) {
+            throw new IllegalArgumentException("data set dimension " + dataSet.getDimension() + " does not match the publisher's dimension " + dimension);
+        }
+        if (dataSet instanceof GridDataSet) {
+            throw new IllegalArgumentException("grid data sets are not supported");
+        }
+        return dataSet.lock().readLockGuard(() -> write(dataSet));
+    }
+
+    private long write(final DataSet dataSet) {
+        final int dataCount = dataSet.getDataCount();
+        int nErrorDimensions = 0;
+        for (int dim = 0; dim < dimension; dim++) {
+            errorTypes[dim] = dataSet instanceof DataSetError ? ((DataSetError) dataSet).getErrorType(dim).ordinal() : ErrorType.NO_ERROR.ordinal();
+            nErrorDimensions += errorTypes[dim] == ErrorType.NO_ERROR.ordinal() ? 0 : 1;
+        }
+        final long frameSize = getFrameSize(dimension, dataCount, nErrorDimensions);
+        if (frameSize > slotSize) {
+            throw new IllegalArgumentException("frame of " + frameSize + " bytes exceeds the slot size of " + slotSize + " bytes");
+        }
+
+        final long frame = sequence + 1;
+        final int slot = HEADER_SIZE + (int) ((frame - 1) % nSlots) * slotSize;
+        LONG_HANDLE.setOpaque(buffer, slot + SLOT_SEQUENCE, 2 * frame - 1);
+        VarHandle.storeStoreFence();
+
+        buffer.putLong(slot + SLOT_TIME_STAMP, System.currentTimeMillis());
+        buffer.putInt(slot + SLOT_DATA_COUNT, dataCount);
+        INT_HANDLE.setOpaque(buffer, slot + SLOT_RUN_ID, runId);
+        int offset = slot + getDataOffset(dimension);
+        for (int dim = 0; dim < dimension; dim++) {
+            buffer.putInt(slot + SLOT_ERROR_TYPES + Integer.BYTES * dim, errorTypes[dim]);
+            for (int i = 0; i < dataCount; i++, offset += Double.BYTES) {
+                buffer.putDouble(offset, dataSet.get(dim, i));
+            }
+            if (errorTypes[dim] != ErrorType.NO_ERROR.ordinal()) {
+                final DataSetError errorDataSet = (DataSetError) dataSet;
+                for (int i = 0; i < dataCount; i++, offset += Double.BYTES) {
+                    buffer.putDouble(offset, errorDataSet.getErrorNegative(dim, i));
+                }
+                for (int i = 0; i < dataCount; i++, offset += Double.BYTES) {
+                    buffer.putDouble(offset, errorDataSet.getErrorPositive(dim, i));
+                }
+            }
+        }
+
+        LONG_HANDLE.setRelease(buffer, slot + SLOT_SEQUENCE, 2 * frame);
+        LONG_HANDLE.setRelease(buffer, OFFSET_LATEST, frame);
+        sequence = frame;
+        return frame;
+    }
+}
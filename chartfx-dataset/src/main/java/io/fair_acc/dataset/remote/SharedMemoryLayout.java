@@ -0,0 +1,82 @@
+package io.fair_acc.dataset.remote;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Memory layout of the shared-memory ring file used by {@link SharedMemoryDataSetPublisher} and
+ * {@link SharedMemoryDataSet}.
+ * <pre>
+ * file header (HEADER_SIZE bytes):
+ *    0  int    magic ('CFXS'), cleared while a publisher (re-)initialises the file
+ *    4  int    run id, changed by each (re-)initialisation
+ *    8  int    layout version
+ *   12  int    number of slots
+ *   16  int    slot size [bytes]
+ *   20  int    data set dimension
+ *   24  long   sequence number of the latest complete frame of the current run (0: none)
+ *   32  int    name length [bytes]
+ *   36  int    reserved
+ *   40  byte[] UTF-8 encoded data set name (NAME_CAPACITY bytes)
+ * slot (frame 'n' is written to slot '(n - 1) % nSlots'):
+ *    0  long   seqlock word: 2n - 1 while writing frame 'n', 2n once complete
+ *    8  long   publication time stamp [ms]
+ *   16  int    data count
+ *   20  int    run id of the frame (frame sequence numbers restart with each run)
+ *   24  int[]  error type ordinal per dimension (padded to 8 bytes)
+ *   ..  double values per dimension, followed by negative and positive errors for dimensions with errors
+ * </pre>
+ * N.B. native byte order, since the transport is limited to processes on the same host.
+ */
+final class SharedMemoryLayout {
+    static final int MAGIC = 0x43465853; // 'CFXS'
+    static final int VERSION = 1;
+    static final int OFFSET_MAGIC = 0;
+    static final int OFFSET_RUN_ID = 4;
+    static final int OFFSET_VERSION = 8;
+    static final int OFFSET_N_SLOTS = 12;
+    static final int OFFSET_SLOT_SIZE = 16;
+    static final int OFFSET_DIMENSION = 20;
+    static final int OFFSET_LATEST = 24;
+    static final int OFFSET_NAME_LENGTH = 32;
+    static final int OFFSET_NAME = 40;
+    static final int NAME_CAPACITY = 216;
+    static final int HEADER_SIZE = OFFSET_NAME + NAME_CAPACITY;
+    static final int SLOT_SEQUENCE = 0;
+    static final int SLOT_TIME_STAMP = 8;
+    static final int SLOT_DATA_COUNT = 16;
+    static final int SLOT_RUN_ID = 20;
+    static final int SLOT_ERROR_TYPES = 24;
+    static final ByteOrder BYTE_ORDER = ByteOrder.nativeOrder();
+    /** atomic/ordered access to the 8-byte aligned sequence numbers */
+    static final VarHandle LONG_HANDLE = MethodHandles.byteBufferViewVarHandle(long[].class, BYTE_ORDER);
+    /** atomic/ordered access to the 4-byte aligned magic word and run ids */
+    static final VarHandle INT_HANDLE = MethodHandles.byteBufferViewVarHandle(int[].class, BYTE_ORDER);
+
+    private SharedMemoryLayout() {
+        // utility class
+    }
+
+    /**
+     * @param dimension data set dimension
+     * @return offset of the first value w.r.t. the slot start
+     */
+    static int getDataOffset(final int dimension) {
+        return align(SLOT_ERROR_TYPES + Integer.BYTES * dimension);
+    }
+
+    /**
+     * @param dimension data set dimension
+     * @param dataCount number of data points
+     * @param nErrorDimensions number of dimensions with errors
+     * @return number of bytes required by a frame
+     */
+    static long getFrameSize(final int dimension, final int dataCount, final int nErrorDimensions) {
+        return getDataOffset(dimension) + (long) Double.BYTES * dataCount * (dimension + 2L * nErrorDimensions);
+    }
+
+    static int align(final int offset) {
+        return (offset + 7) & ~7;
+    }
+}
@@ -12,6 +12,7 @@ import io.fair_acc.bench.MeasurementRecorder;
 import io.fair_acc.dataset.*;
 import io.fair_acc.dataset.events.BitState;
 import io.fair_acc.dataset.events.ChartBits;
+import io.fair_acc.dataset.events.IndexChangeLog;
 import io.fair_acc.dataset.locks.DataSetLock;
 import io.fair_acc.dataset.locks.DefaultDataSetLock;
 import io.fair_acc.dataset.spi.utils.MathUtils;
@@ -41,6 +42,7 @@ public abstract class AbstractDataSet<D extends AbstractStylable<D>> extends Abs
     protected final int dimension;
     private final List<AxisDescription> axesDescriptions = new ArrayList<>();
     private final transient BitState state = BitState.initDirty(this);
+    private final transient IndexChangeLog indexChangeLog = new IndexChangeLog();
     private final transient DataSetLock<? extends DataSet> lock = new DefaultDataSetLock<>(this);
     private final StringHashMapList dataLabels = new StringHashMapList();
     private final StringHashMapList dataStyles = new StringHashMapList();
@@ -62,6 +64,7 @@ public abstract class AbstractDataSet<D extends AbstractStylable<D>> extends Abs
         AssertUtils.gtThanZero("dimension", dimension);
         this.name = name;
         this.dimension = dimension;
+        state.addInvalidateListener(ChartBits.DataSetData, indexChangeLog);
         for (int i = 0; i < this.dimension; i++) {
             final String axisName = i < DEFAULT_AXES_NAME.length ? DEFAULT_AXES_NAME[i] : "dim" + (i + 1) + "-Axis";
             final AxisDescription axisDescription = new DefaultAxisDescription(i, axisName, "a.u.");
@@ -698,6 +701,11 @@ public abstract class AbstractDataSet<D extends AbstractStylable<D>> extends Abs
         return state;
     }
 
+    @Override
+    public IndexChangeLog getIndexChangeLog() {
+        return indexChangeLog;
+    }
+
     protected boolean copyMetaData(final DataSet other) {
         this.setName(other.getName());
         if (!(other instanceof DataSetMetaData)) {
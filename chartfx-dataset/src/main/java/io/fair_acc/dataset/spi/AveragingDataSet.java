@@ -1,22 +1,64 @@
 package io.fair_acc.dataset.spi;
 
-import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import io.fair_acc.dataset.AxisDescription;
 import io.fair_acc.dataset.DataSet;
+import io.fair_acc.dataset.DataSetError;
 import io.fair_acc.dataset.events.ChartBits;
+import io.fair_acc.dataset.utils.CachedDaemonThreadFactory;
 
 /**
- * TODO: Change to ErrorDataSet and calculate standard deviation.
+ * Running average over the last {@link #getAverageSize()} added data sets. The y-values are stored in a pre-allocated
+ * ring of primitive slabs and the per-point mean and variance are updated incrementally (sliding Welford update with
+ * Kahan-compensated mean). To bound rounding drift, the statistics are re-computed exactly (two-pass) once per ring
+ * cycle. The x-values are taken from the most recently added data set.
+ * <p>
+ * The y-errors correspond to the sample standard deviation of the averaged data sets. While only one data set is
+ * averaged, the errors of the input data set (if any) are passed through.
+ * <p>
+ * Apart from growing the internal storage, adding data sets does not allocate. Large data sets are updated in parallel
+ * chunks.
  *
  * @author braeun
  */
-public class AveragingDataSet extends AbstractDataSet<AveragingDataSet> implements DataSet {
-    private static final long serialVersionUID = 1L;
+public class AveragingDataSet extends AbstractErrorDataSet<AveragingDataSet> implements DataSetError {
+    private static final long serialVersionUID = 2L;
+    private static final int MIN_PARALLEL_CHUNK_SIZE = 1 << 16;
+    private static final int MODE_ADD = 0;
+    private static final int MODE_REPLACE = 1;
+    private static final int MODE_RESYNC = 2;
     private int averageSize = 1;
     private int fuzzyCount;
-    private InternalDataSet dataset;
-    private final ArrayDeque<DataSet> deque = new ArrayDeque<>();
+
+    // ring of y-value slabs, the oldest entry is at 'ringHead'
+    private double[][] slabs = new double[1][];
+    private int[] slabCounts = new int[1];
+    private int ringHead;
+    private int nSlabs;
+    private boolean uniformCount = true;
+    private int updatesSinceResync;
+    private int dataCount;
+
+    // per-point statistics
+    private double[] xValues = new double[0];
+    private double[] mean = new double[0];
+    private double[] meanCompensation = new double[0];
+    private double[] m2 = new double[0];
+    private double[] inputErrorsNeg = new double[0];
+    private double[] inputErrorsPos = new double[0];
+    private boolean inputHasErrors;
+
+    // parallel update state
+    private final transient List<Chunk> workers = new ArrayList<>();
+    private transient double[] input;
+    private transient int inputSlot;
+    private transient int mode;
 
     /**
      * @param name data set name (assumes 2-dim DataSet
@@ -39,7 +81,7 @@ public class AveragingDataSet extends AbstractDataSet<AveragingDataSet> implemen
      * @param fuzzyCount binning accuracy @see #setFuzzyCount
      */
     public AveragingDataSet(String name, final int nDims, int fuzzyCount) {
-        super(name, nDims);
+        super(name, nDims, getErrorTypes(nDims));
         this.fuzzyCount = fuzzyCount;
     }
 
@@ -47,26 +89,50 @@ public class AveragingDataSet extends AbstractDataSet<AveragingDataSet> implemen
      * @param ds new DataSet to be added to average
      */
     public void add(DataSet ds) {
-        if (averageSize == 1) {
-            dataset = new InternalDataSet(ds);
-        } else if (dataset == null || deque.isEmpty()) {
-            dataset = new InternalDataSet(ds);
-            deque.clear();
-            deque.add(new InternalDataSet(ds));
-        } else if (deque.size() < averageSize) {
-            dataset.opScale(deque.size());
-            dataset.opAdd(ds);
-            deque.add(new InternalDataSet(ds));
-            dataset.opScale(1.0 / deque.size());
-        } else {
-            dataset.opScale(deque.size());
-            dataset.opSub(deque.pop());
-            dataset.opAdd(ds);
-            deque.add(new InternalDataSet(ds));
-            dataset.opScale(1.0 / deque.size());
-        }
-        dataset.recomputeLimits(DIM_X);
-        dataset.recomputeLimits(DIM_Y);
+        lock().writeLock();
+        ds.lock().readLock();
+        try {
+            final int n = ds.getDataCount();
+            if (nSlabs > 0 && Math.abs(dataCount - n) > fuzzyCount) {
+                throw new IllegalArgumentException("Datasets do not match");
+            }
+            ensureCapacity(n);
+            final double[] xIn = ds.getValues(DIM_X);
+            System.arraycopy(xIn, 0, xValues, 0, n);
+            copyInputErrors(ds, n);
+
+            final boolean wasUniform = uniformCount && (nSlabs == 0 || n == dataCount);
+            if (nSlabs < averageSize) {
+                inputSlot = (ringHead + nSlabs) % averageSize;
+                nSlabs++;
+                mode = MODE_ADD;
+            } else {
+                inputSlot = ringHead;
+                ringHead = (ringHead + 1) % averageSize;
+                mode = MODE_REPLACE;
+            }
+            slabCounts[inputSlot] = n;
+            uniformCount = isUniform();
+            dataCount = getMinSlabCount();
+            input = ds.getValues(DIM_Y);
+
+            if (wasUniform && uniformCount && ++updatesSinceResync < averageSize) {
+                runChunked(n); // incremental update
+            } else {
+                // copy the new slab data and re-compute the statistics exactly
+                System.arraycopy(input, 0, slabs[inputSlot], 0, n);
+                mode = MODE_RESYNC;
+                runChunked(dataCount);
+                updatesSinceResync = 0;
+            }
+            input = null;
+
+            recomputeLimits(DIM_X);
+            recomputeLimits(DIM_Y);
+        } finally {
+            ds.lock().readUnLock();
+            lock().writeUnLock();
+        }
         fireInvalidated(ChartBits.DataSetDataAdded);
     }
 
@@ -74,18 +140,37 @@ public class AveragingDataSet extends AbstractDataSet<AveragingDataSet> implemen
      * clear all data
      */
     public void clear() {
-        deque.clear();
-        dataset = null;
+        lock().writeLockGuard(() -> {
+            Arrays.fill(slabCounts, 0);
+            ringHead = 0;
+            nSlabs = 0;
+            dataCount = 0;
+            uniformCount = true;
+            updatesSinceResync = 0;
+            inputHasErrors = false;
+        });
+    }
+
+    @Override
+    public final double get(final int dimIndex, final int index) {
+        if (index < 0 || index >= dataCount) {
+            return Double.NaN;
+        }
+        switch (dimIndex) {
+        case DIM_X:
+            return xValues[index];
+        case DIM_Y:
+            return mean[index];
+        default:
+            return Double.NaN;
+        }
     }
 
     /**
      * @return number of data sets that have been averaged
      */
     public int getAverageCount() {
-        if (averageSize == 1) {
-            return dataset == null ? 0 : 1;
-        }
-        return deque.size();
+        return nSlabs;
     }
 
     /**
@@ -97,7 +182,29 @@ public class AveragingDataSet extends AbstractDataSet<AveragingDataSet> implemen
 
     @Override
     public int getDataCount() {
-        return dataset == null ? 0 : dataset.getDataCount();
+        return dataCount;
+    }
+
+    @Override
+    public double getErrorNegative(final int dimIndex, final int index) {
+        if (dimIndex != DIM_Y || index < 0 || index >= dataCount) {
+            return 0.0;
+        }
+        if (nSlabs == 1) {
+            return inputHasErrors ? inputErrorsNeg[index] : 0.0;
+        }
+        return Math.sqrt(m2[index] / (nSlabs - 1));
+    }
+
+    @Override
+    public double getErrorPositive(final int dimIndex, final int index) {
+        if (dimIndex != DIM_Y || index < 0 || index >= dataCount) {
+            return 0.0;
+        }
+        if (nSlabs == 1) {
+            return inputHasErrors ? inputErrorsPos[index] : 0.0;
+        }
+        return Math.sqrt(m2[index] / (nSlabs - 1));
     }
 
     /**
@@ -111,18 +218,34 @@ public class AveragingDataSet extends AbstractDataSet<AveragingDataSet> implemen
 
     @Override
     public String getStyle(int index) {
-        if (dataset == null) {
+        if (dataCount == 0) {
             return "";
         }
-        return dataset.getStyle(index);
+        return super.getStyle(index);
     }
 
     @Override
-    public final double get(final int dimIndex, final int index) {
-        if (dataset == null) {
-            return Double.NaN;
+    public double getValue(int dimIndex, double... x) {
+        return get(dimIndex, getIndex(DIM_X, x[0]));
+    }
+
+    @Override
+    public DataSet set(final DataSet other, final boolean copy) {
+        if (other instanceof AveragingDataSet) {
+            lock().writeLockGuard(() -> other.lock().writeLockGuard(() -> copyState((AveragingDataSet) other)));
+        } else {
+            // non AveragingDataSet: add the other data set as a single data set
+            this.clear();
+            this.add(other);
         }
-        return dataset.get(dimIndex, index);
+        lock().writeLockGuard(() -> {
+            getAxisDescriptions().forEach(AxisDescription::clear);
+            for (int dim = 0; dim < getDimension(); dim++) {
+                recomputeLimits(dim);
+            }
+        });
+        fireInvalidated(ChartBits.DataSetData);
+        return getThis();
     }
 
     /**
@@ -133,10 +256,13 @@ public class AveragingDataSet extends AbstractDataSet<AveragingDataSet> implemen
             return;
         }
         if (averageSize != avgCount) {
-            deque.clear();
-            dataset = null;
+            lock().writeLockGuard(() -> {
+                slabs = new double[avgCount][];
+                slabCounts = new int[avgCount];
+                averageSize = avgCount;
+                clear();
+            });
         }
-        averageSize = avgCount;
     }
 
     /**
@@ -150,84 +276,206 @@ public class AveragingDataSet extends AbstractDataSet<AveragingDataSet> implemen
         this.fuzzyCount = fuzzyCount;
     }
 
-    private class InternalDataSet extends DoubleErrorDataSet {
-        private static final long serialVersionUID = 1L;
+    private void copyInputErrors(final DataSet ds, final int n) {
+        // input errors are only reported while a single data set is averaged
+        inputHasErrors = (nSlabs == 0 || averageSize == 1) && ds instanceof DataSetError;
+        if (!inputHasErrors) {
+            return;
+        }
+        final DataSetError errorDataSet = (DataSetError) ds;
+        for (int i = 0; i < n; i++) {
+            inputErrorsNeg[i] = errorDataSet.getErrorNegative(DIM_Y, i);
+            inputErrorsPos[i] = errorDataSet.getErrorPositive(DIM_Y, i);
+        }
+    }
+
+    private void copyState(final AveragingDataSet other) {
+        fuzzyCount = other.fuzzyCount;
+        averageSize = other.averageSize;
+        slabs = new double[other.slabs.length][];
+        for (int slot = 0; slot < slabs.length; slot++) {
+            slabs[slot] = other.slabs[slot] == null ? null : other.slabs[slot].clone();
+        }
+        slabCounts = other.slabCounts.clone();
+        ringHead = other.ringHead;
+        nSlabs = other.nSlabs;
+        uniformCount = other.uniformCount;
+        updatesSinceResync = other.updatesSinceResync;
+        dataCount = other.dataCount;
+        xValues = other.xValues.clone();
+        mean = other.mean.clone();
+        meanCompensation = other.meanCompensation.clone();
+        m2 = other.m2.clone();
+        inputErrorsNeg = other.inputErrorsNeg.clone();
+        inputErrorsPos = other.inputErrorsPos.clone();
+        inputHasErrors = other.inputHasErrors;
+    }
 
-        public InternalDataSet(DataSet ds) {
-            super(ds.getName(), ds.getValues(DataSet.DIM_X), ds.getValues(DataSet.DIM_Y), new double[ds.getDataCount()], new double[ds.getDataCount()],
-                    ds.getDataCount(), true);
+    private void ensureCapacity(final int n) {
+        if (xValues.length < n) {
+            xValues = Arrays.copyOf(xValues, n);
+            mean = Arrays.copyOf(mean, n);
+            meanCompensation = Arrays.copyOf(meanCompensation, n);
+            m2 = Arrays.copyOf(m2, n);
+            inputErrorsNeg = new double[n];
+            inputErrorsPos = new double[n];
+        }
+        final int slot = nSlabs < averageSize ? (ringHead + nSlabs) % averageSize : ringHead;
+        if (slabs[slot] == null || slabs[slot].length < n) {
+            slabs[slot] = slabs[slot] == null ? new double[n] : Arrays.copyOf(slabs[slot], n);
         }
+    }
 
-        public boolean isIncompatible(DataSet d) {
-            return Math.abs(super.getDataCount() - d.getDataCount()) > fuzzyCount;
+    private int getMinSlabCount() {
+        int min = Integer.MAX_VALUE;
+        for (int k = 0; k < nSlabs; k++) {
+            min = Math.min(min, slabCounts[(ringHead + k) % averageSize]);
         }
+        return nSlabs == 0 ? 0 : min;
+    }
 
-        public void opAdd(DataSet d) {
-            if (isIncompatible(d)) {
-                throw new IllegalArgumentException("Datasets do not match");
+    private boolean isUniform() {
+        final int first = slabCounts[ringHead];
+        for (int k = 1; k < nSlabs; k++) {
+            if (slabCounts[(ringHead + k) % averageSize] != first) {
+                return false;
             }
+        }
+        return true;
+    }
 
-            yValues.size(d.getDataCount());
-            for (int i = 0; i < yValues.size(); i++) {
-                yValues.elements()[i] += d.get(DataSet.DIM_Y, i);
+    private void runChunked(final int n) {
+        final int nThreads = Math.min(CachedDaemonThreadFactory.getNumbersOfThreads(), n / MIN_PARALLEL_CHUNK_SIZE);
+        if (nThreads <= 1) {
+            update(0, n);
+            return;
+        }
+        final int chunkSize = (n + nThreads - 1) / nThreads;
+        while (workers.size() < nThreads) {
+            workers.add(new Chunk());
+        }
+        while (workers.size() > nThreads) {
+            workers.remove(workers.size() - 1);
+        }
+        for (int i = 0; i < nThreads; i++) {
+            workers.get(i).from = i * chunkSize;
+            workers.get(i).to = Math.min(n, (i + 1) * chunkSize);
+        }
+        try {
+            for (final Future<Boolean> future : CachedDaemonThreadFactory.getCommonPool().invokeAll(workers)) {
+                future.get();
             }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("averaging has been interrupted", e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("averaging failed", e.getCause());
         }
+    }
 
-        public void opScale(double f) {
-            for (int i = 0; i < yValues.size(); i++) {
-                yValues.elements()[i] *= f;
-            }
+    private void update(final int from, final int to) {
+        switch (mode) {
+        case MODE_ADD:
+            updateAdd(from, to);
+            break;
+        case MODE_REPLACE:
+            updateReplace(from, to);
+            break;
+        case MODE_RESYNC:
+        default:
+            resync(from, to);
+            break;
         }
+    }
 
-        public void opSub(DataSet d) {
-            if (isIncompatible(d)) {
-                throw new IllegalArgumentException("Datasets do not match");
-            }
-            yValues.size(d.getDataCount());
-            for (int i = 0; i < yValues.size(); i++) {
-                yValues.elements()[i] -= d.get(DataSet.DIM_Y, i);
+    /**
+     * Welford update for a window that grows by one data set
+     */
+    private void updateAdd(final int from, final int to) {
+        final double[] slab = slabs[inputSlot];
+        final double k = nSlabs;
+        for (int i = from; i < to; i++) {
+            final double value = input[i];
+            slab[i] = value;
+            if (k == 1) {
+                mean[i] = value;
+                meanCompensation[i] = 0.0;
+                m2[i] = 0.0;
+                continue;
             }
+            final double delta = value - mean[i];
+            addToMean(i, delta / k);
+            m2[i] += delta * (value - mean[i]);
         }
     }
 
-    @Override
-    public double getValue(int dimIndex, double... x) {
-        return get(dimIndex, getIndex(DIM_X, x[0]));
+    /**
+     * Sliding Welford update replacing the oldest data set with the new one at constant window size
+     */
+    private void updateReplace(final int from, final int to) {
+        final double[] slab = slabs[inputSlot];
+        final double k = nSlabs;
+        for (int i = from; i < to; i++) {
+            final double value = input[i];
+            final double old = slab[i];
+            slab[i] = value;
+            final double oldMean = mean[i];
+            final double delta = value - old;
+            addToMean(i, delta / k);
+            m2[i] = Math.max(0.0, m2[i] + delta * (value - mean[i] + old - oldMean));
+        }
     }
 
-    @Override
-    public DataSet set(final DataSet other, final boolean copy) {
-        lock().writeLockGuard(() -> other.lock().writeLockGuard(() -> {
-            if (other instanceof AveragingDataSet) {
-                this.fuzzyCount = ((AveragingDataSet) other).getFuzzyCount();
-                this.averageSize = ((AveragingDataSet) other).getAverageSize();
-                if (copy) {
-                    this.clear();
-                    ((AveragingDataSet) other).deque.forEach(ds -> this.add(new DefaultDataSet(ds)));
-                } else {
-                    this.dataset = ((AveragingDataSet) other).dataset;
-                    this.deque.clear();
-                    this.deque.addAll(((AveragingDataSet) other).deque);
-                }
-                getAxisDescriptions().forEach(AxisDescription::clear);
-                for (int dim = 0; dim < getDimension(); dim++) {
-                    recomputeLimits(dim);
-                }
-                return;
-            }
-            // non AveragingDataSet: add the other data set as a single data set
-            this.clear();
-            if (copy) {
-                this.add(new DefaultDataSet(other));
-            } else {
-                this.add(other);
+    private void addToMean(final int i, final double increment) {
+        // Kahan-compensated summation
+        final double y = increment - meanCompensation[i];
+        final double t = mean[i] + y;
+        meanCompensation[i] = (t - mean[i]) - y;
+        mean[i] = t;
+    }
+
+    /**
+     * exact two-pass computation of mean and variance over all slabs in the window
+     */
+    private void resync(final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            double sum = 0.0;
+            double compensation = 0.0;
+            for (int k = 0; k < nSlabs; k++) {
+                final double y = slabs[k][i] - compensation;
+                final double t = sum + y;
+                compensation = (t - sum) - y;
+                sum = t;
             }
-            getAxisDescriptions().forEach(AxisDescription::clear);
-            for (int dim = 0; dim < getDimension(); dim++) {
-                recomputeLimits(dim);
+            final double avg = sum / nSlabs;
+            double sumSquares = 0.0;
+            for (int k = 0; k < nSlabs; k++) {
+                final double diff = slabs[k][i] - avg;
+                sumSquares += diff * diff;
             }
-        }));
-        fireInvalidated(ChartBits.DataSetData);
-        return getThis();
+            mean[i] = avg;
+            meanCompensation[i] = 0.0;
+            m2[i] = sumSquares;
+        }
+    }
+
+    private class Chunk implements Callable<Boolean> {
+        private int from;
+        private int to;
+
+        @Override
+        public Boolean call() {
+            update(from, to);
+            return Boolean.TRUE;
+        }
+    }
+
+    private static ErrorType[] getErrorTypes(final int nDims) {
+        final ErrorType[] errorTypes = new ErrorType[nDims];
+        Arrays.fill(errorTypes, ErrorType.NO_ERROR);
+        if (nDims > DIM_Y) {
+            errorTypes[DIM_Y] = ErrorType.ASYMMETRIC;
+        }
+        return errorTypes;
     }
 }
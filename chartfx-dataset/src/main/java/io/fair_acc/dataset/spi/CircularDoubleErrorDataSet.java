@@ -20,6 +20,7 @@ public class CircularDoubleErrorDataSet extends AbstractErrorDataSet<CircularDou
     protected DoubleCircularBuffer yErrorsNeg;
     protected CircularBuffer<String> dataLabels;
     protected CircularBuffer<String> dataStyles;
+    private long appendedCount;
 
     /**
      * Creates a new instance of <code>CircularDoubleErrorDataSet</code>.
@@ -79,12 +80,14 @@ public class CircularDoubleErrorDataSet extends AbstractErrorDataSet<CircularDou
      */
     public CircularDoubleErrorDataSet add(final double x, final double y, final double yErrorNeg, final double yErrorPos, final String label, final String style) {
         lock().writeLockGuard(() -> {
+            final int previousCount = xValues.available();
             xValues.put(x);
             yValues.put(y);
             yErrorsPos.put(yErrorPos);
             yErrorsNeg.put(yErrorNeg);
             dataLabels.put(label);
             dataStyles.put(style);
+            markPut(previousCount, 1);
 
             // assumes in X sorted data range
             getAxisDescription(DIM_X).setMin(xValues.get(0));
@@ -141,12 +144,14 @@ public class CircularDoubleErrorDataSet extends AbstractErrorDataSet<CircularDou
         AssertUtils.gtOrEqual("Y error pos", dataCount, yErrPos.length);
 
         lock().writeLockGuard(() -> {
+            final int previousCount = xValues.available();
             this.xValues.put(xVals, dataCount);
             this.yValues.put(yVals, dataCount);
             this.yErrorsNeg.put(yErrNeg, dataCount);
             this.yErrorsPos.put(yErrPos, dataCount);
             dataLabels.put(new String[yVals.length], dataCount);
             dataStyles.put(new String[yVals.length], dataCount);
+            markPut(previousCount, dataCount);
 
             // assumes in X sorted data range
             getAxisDescription(DIM_X).setMin(xValues.get(0));
@@ -158,6 +163,14 @@ public class CircularDoubleErrorDataSet extends AbstractErrorDataSet<CircularDou
         return getThis();
     }
 
+    /**
+     * @return total number of data points that have been added to this data set, including points that have already
+     *         been dropped by the circular buffer (N.B. not cleared by {@link #reset()}, to be read under the read lock)
+     */
+    public long getAppendedCount() {
+        return appendedCount;
+    }
+
     @Override
     public int getDataCount() {
         return xValues.available();
@@ -208,6 +221,18 @@ public class CircularDoubleErrorDataSet extends AbstractErrorDataSet<CircularDou
         throw new UnsupportedOperationException("Removing data labels is not supported for this type of DataSet");
     }
 
+    /**
+     * records the ring-buffer shift and the newly appended points in the index change log and the appended count
+     *
+     * @param previousCount number of data points before the put
+     * @param nPut number of points that have been put into the buffer
+     */
+    private void markPut(final int previousCount, final int nPut) {
+        appendedCount += nPut;
+        final int count = xValues.available();
+        getIndexChangeLog().markShifted(previousCount + nPut - count, count - Math.min(nPut, count), count);
+    }
+
     /**
      * resets all data
      *
@@ -101,6 +101,7 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
         lock().writeLockGuard(() -> {
             xValues.add(x);
             yValues.add(y);
+            getIndexChangeLog().markAppended(xValues.size() - 1, xValues.size());
 
             if ((label != null) && !label.isEmpty()) {
                 addDataLabel(xValues.size() - 1, label);
@@ -131,6 +132,7 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
             resize(addAt + newElements);
             xValues.setElements(addAt, xValuesNew);
             yValues.setElements(addAt, yValuesNew);
+            getIndexChangeLog().markAppended(addAt, addAt + newElements);
 
             getAxisDescription(DIM_X).add(xValuesNew);
             getAxisDescription(DIM_Y).add(yValuesNew);
@@ -179,6 +181,7 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
 
             xValues.add(indexAt, x);
             yValues.add(indexAt, y);
+            getIndexChangeLog().markChanged(indexAt, xValues.size());
             getDataLabelMap().addValueAndShiftKeys(indexAt, xValues.size(), label);
             getDataStyleMap().shiftKeys(indexAt, xValues.size());
             getAxisDescription(DIM_X).add(x);
@@ -206,6 +209,7 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
             final int indexAt = Math.max(0, Math.min(index, getDataCount() + 1));
             xValues.addElements(indexAt, x, 0, min);
             yValues.addElements(indexAt, y, 0, min);
+            getIndexChangeLog().markChanged(indexAt, xValues.size());
             getAxisDescription(DIM_X).add(x, min);
             getAxisDescription(DIM_Y).add(y, min);
             getDataLabelMap().shiftKeys(indexAt, xValues.size());
@@ -293,6 +297,7 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
             AssertUtils.indexOrder(fromIndex, "fromIndex", toIndex, "toIndex");
 
             final int clampedToIndex = Math.min(toIndex, getDataCount());
+            getIndexChangeLog().markChanged(fromIndex, getDataCount());
             xValues.removeElements(fromIndex, clampedToIndex);
             yValues.removeElements(fromIndex, clampedToIndex);
 
@@ -315,6 +320,7 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
      */
     public DoubleDataSet resize(final int size) {
         lock().writeLockGuard(() -> {
+            getIndexChangeLog().markChanged(Math.min(size, xValues.size()), Math.max(size, xValues.size()));
             xValues.size(size);
             yValues.size(size);
         });
@@ -444,6 +450,7 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
     public DoubleDataSet set(final int index, final double x, final double y) {
         lock().writeLockGuard(() -> {
             final int dataCount = Math.max(index + 1, this.getDataCount());
+            getIndexChangeLog().markChanged(Math.min(index, this.getDataCount()), dataCount);
             xValues.size(dataCount);
             yValues.size(dataCount);
             xValues.elements()[index] = x;
@@ -463,6 +470,7 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
             resize(Math.max(index + x.length, xValues.size()));
             System.arraycopy(x, 0, xValues.elements(), index, x.length);
             System.arraycopy(y, 0, yValues.elements(), index, y.length);
+            getIndexChangeLog().markChanged(index, index + x.length);
             getDataLabelMap().remove(index, index + x.length);
             getDataStyleMap().remove(index, index + x.length);
 
@@ -483,6 +491,7 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
         lock().writeLockGuard(() -> {
             xValues.trim(0);
             yValues.trim(0);
+            getIndexChangeLog().markChanged(0, 0); // values are unchanged
         });
         fireInvalidated(ChartBits.DataSetData);
         return getThis();
@@ -125,6 +125,7 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
             yValues.add(y);
             yErrorsNeg.add(yErrorNeg);
             yErrorsPos.add(yErrorPos);
+            getIndexChangeLog().markAppended(xValues.size() - 1, xValues.size());
 
             if (label != null && !label.isEmpty()) {
                 addDataLabel(xValues.size() - 1, label);
@@ -163,6 +164,7 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
             yValues.setElements(addAt, yValuesNew, 0, newElements);
             yErrorsNeg.setElements(addAt, yErrorsNegNew, 0, newElements);
             yErrorsPos.setElements(addAt, yErrorsPosNew, 0, newElements);
+            getIndexChangeLog().markAppended(addAt, addAt + newElements);
 
             getAxisDescription(DIM_X).add(xValuesNew);
             getAxisDescription(DIM_Y).add(yValuesNew);
@@ -231,6 +233,7 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
             yValues.add(indexAt, y);
             yErrorsNeg.add(indexAt, yErrorNeg);
             yErrorsPos.add(indexAt, yErrorPos);
+            getIndexChangeLog().markChanged(indexAt, xValues.size());
             getDataLabelMap().addValueAndShiftKeys(indexAt, xValues.size(), label);
             getDataStyleMap().shiftKeys(indexAt, xValues.size());
             getAxisDescription(DIM_X).add(x);
@@ -266,6 +269,7 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
             yValues.addElements(indexAt, y, 0, min);
             yErrorsNeg.addElements(indexAt, yErrorNeg, 0, min);
             yErrorsPos.addElements(indexAt, yErrorPos, 0, min);
+            getIndexChangeLog().markChanged(indexAt, xValues.size());
 
             // recompute ranges
             getAxisDescription(DIM_X).add(x);
@@ -373,6 +377,7 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
             AssertUtils.indexOrder(fromIndex, "fromIndex", toIndex, "toIndex");
 
             final int clampedToIndex = Math.min(toIndex, getDataCount());
+            getIndexChangeLog().markChanged(fromIndex, getDataCount());
             xValues.removeElements(fromIndex, clampedToIndex);
             yValues.removeElements(fromIndex, clampedToIndex);
             yErrorsNeg.removeElements(fromIndex, clampedToIndex);
@@ -397,6 +402,7 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
      */
     public DoubleErrorDataSet resize(final int size) {
         lock().writeLockGuard(() -> {
+            getIndexChangeLog().markChanged(Math.min(size, xValues.size()), Math.max(size, xValues.size()));
             xValues.size(size);
             yValues.size(size);
             yErrorsPos.size(size);
@@ -574,6 +580,7 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
     public DoubleErrorDataSet set(final int index, final double x, final double y, final double yErrorNeg, final double yErrorPos) {
         lock().writeLockGuard(() -> {
             final int dataCount = Math.max(index + 1, this.getDataCount());
+            getIndexChangeLog().markChanged(Math.min(index, this.getDataCount()), dataCount);
             xValues.size(dataCount);
             yValues.size(dataCount);
             xValues.elements()[index] = x;
@@ -600,6 +607,7 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
             System.arraycopy(y, 0, yValues.elements(), index, y.length);
             System.arraycopy(yErrorNeg, 0, yErrorsNeg.elements(), index, yErrorNeg.length);
             System.arraycopy(yErrorPos, 0, yErrorsPos.elements(), index, yErrorPos.length);
+            getIndexChangeLog().markChanged(index, index + x.length);
             getDataLabelMap().remove(index, index + x.length);
             getDataStyleMap().remove(index, index + x.length);
 
@@ -622,6 +630,7 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
             yValues.trim(0);
             yErrorsPos.trim(0);
             yErrorsNeg.trim(0);
+            getIndexChangeLog().markChanged(0, 0); // values are unchanged
         });
         fireInvalidated(ChartBits.DataSetDataRemoved);
         return getThis();
@@ -1,6 +1,7 @@
 package io.fair_acc.dataset.spi;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 
@@ -9,12 +10,30 @@ import io.fair_acc.dataset.DataSet2D;
 import io.fair_acc.dataset.events.ChartBits;
 
 /**
+ * DataSet composed of several (sorted) sub-datasets. The data point indices of the fragments are tracked in a
+ * prefix-offset index that is maintained on {@link #add(DataSet)}, so that point look-ups are O(log(fragments)), and
+ * O(1) for sequential (in-order) access.
+ * <p>
+ * Optionally, the fragments may be {@link #compact() compacted} into contiguous columns. {@link #getValues(int)} and
+ * {@link #get(int, int)} then operate directly on these columns. Appending fragments in ascending order keeps the
+ * columns up-to-date, other modifications drop them, in which case they are lazily re-created by the next
+ * {@link #getValues(int)} call.
+ * <p>
+ * N.B. the fragments are expected not to change after they have been added.
+ *
  * @author braeun
  */
 public class FragmentedDataSet extends AbstractDataSet<FragmentedDataSet> implements DataSet2D {
     private static final long serialVersionUID = 2540953806461866839L;
+    private static final double[][] NO_COLUMNS = new double[2][];
     protected int dataCount;
     protected final ArrayList<DataSet> list = new ArrayList<>();
+    // offsets[k] is the index of the first data point of fragment k, offsets[list.size()] == dataCount
+    protected int[] offsets = new int[8];
+    // last accessed fragment, used as a hint for sequential access
+    private int cursor;
+    // contiguous copies of the fragment data per dimension (null if not compacted)
+    private volatile double[][] columns = NO_COLUMNS;
 
     /**
      * @param name data set name
@@ -28,10 +47,17 @@ public class FragmentedDataSet extends AbstractDataSet<FragmentedDataSet> implem
      */
     public void add(final DataSet set) {
         lock().writeLockGuard(() -> {
-            list.add(set);
+            ensureLimits(set);
             /* Trace data is expected to be sorted in ascending order */
-            list.sort(Comparator.comparingDouble(o -> o.getAxisDescription(DIM_X).getMin()));
-            dataCount += set.getDataCount();
+            final double xMin = set.getAxisDescription(DIM_X).getMin();
+            final boolean append = list.isEmpty() || list.get(list.size() - 1).getAxisDescription(DIM_X).getMin() <= xMin;
+            list.add(set);
+            if (append) {
+                appendFragmentIndex(set);
+            } else {
+                list.sort(Comparator.comparingDouble(o -> o.getAxisDescription(DIM_X).getMin()));
+                updateFragmentIndex();
+            }
             getAxisDescription(DIM_X).add(set.getAxisDescription(DIM_X).getMax());
             getAxisDescription(DIM_X).add(set.getAxisDescription(DIM_X).getMin());
             getAxisDescription(DIM_Y).add(set.getAxisDescription(DIM_Y).getMax());
@@ -60,12 +86,43 @@ public class FragmentedDataSet extends AbstractDataSet<FragmentedDataSet> implem
      */
     public void clear() {
         lock().writeLockGuard(() -> {
-            dataCount = 0;
             list.clear();
+            updateFragmentIndex();
             fireInvalidated(ChartBits.DataSetDataRemoved);
         });
     }
 
+    /**
+     * Copies the data of all fragments into contiguous columns, so that {@link #getValues(int)} returns the internal
+     * storage without copying. The columns are kept up-to-date as long as fragments are appended in ascending order.
+     *
+     * @return itself (fluent design)
+     */
+    public FragmentedDataSet compact() {
+        lock().writeLockGuard(() -> {
+            final double[][] newColumns = new double[getDimension()][];
+            for (int dim = 0; dim < newColumns.length; dim++) {
+                newColumns[dim] = copyColumn(dim, dataCount);
+            }
+            columns = newColumns;
+        });
+        return getThis();
+    }
+
+    /**
+     * @return true if all dimensions are stored in contiguous columns
+     * @see #compact()
+     */
+    public boolean isCompacted() {
+        final double[][] cols = columns;
+        for (int dim = 0; dim < getDimension(); dim++) {
+            if (dim >= cols.length || cols[dim] == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public int getDataCount() {
         return dataCount;
@@ -85,40 +142,82 @@ public class FragmentedDataSet extends AbstractDataSet<FragmentedDataSet> implem
         return list;
     }
 
-    @Override
-    public String getStyle(int i) {
-        for (final DataSet dataset : list) {
-            if (i < dataset.getDataCount()) {
-                return dataset.getStyle(i);
+    /**
+     * @param index global data point index
+     * @return index of the fragment that contains the data point, or -1 if the index is out of range
+     */
+    public int getFragmentIndex(final int index) {
+        final int nFragments = list.size();
+        final int[] localOffsets = offsets;
+        if (index < 0 || index >= localOffsets[nFragments]) {
+            return -1;
+        }
+        // sequential access: same or next fragment
+        int fragment = cursor;
+        if (fragment < nFragments && localOffsets[fragment] <= index) {
+            if (index < localOffsets[fragment + 1]) {
+                return fragment;
+            }
+            if (fragment + 1 < nFragments && index < localOffsets[fragment + 2]) {
+                cursor = fragment + 1;
+                return fragment + 1;
             }
-            i -= dataset.getDataCount();
         }
-        return "";
+        // random access: binary search for the last offset <= index, skipping empty fragments
+        fragment = Arrays.binarySearch(localOffsets, 0, nFragments + 1, index);
+        if (fragment < 0) {
+            fragment = -fragment - 2;
+        }
+        while (localOffsets[fragment + 1] == index) {
+            fragment++;
+        }
+        cursor = fragment;
+        return fragment;
+    }
+
+    /**
+     * @param fragment fragment index
+     * @return global index of the first data point of the given fragment
+     */
+    public int getFragmentOffset(final int fragment) {
+        return offsets[fragment];
+    }
+
+    @Override
+    public String getStyle(final int i) {
+        final int fragment = getFragmentIndex(i);
+        if (fragment < 0) {
+            return "";
+        }
+        return list.get(fragment).getStyle(i - offsets[fragment]);
     }
 
     @Override
     public double get(final int dimIndex, final int index) {
-        int i = index;
-        for (final DataSet dataset : list) {
-            if (i < dataset.getDataCount()) {
-                return dataset.get(dimIndex, i);
-            }
-            i -= dataset.getDataCount();
+        final double[][] cols = columns;
+        if (dimIndex < cols.length && cols[dimIndex] != null) {
+            return index >= 0 && index < dataCount ? cols[dimIndex][index] : Double.NaN;
         }
-        return Double.NaN;
+        final int fragment = getFragmentIndex(index);
+        if (fragment < 0) {
+            return Double.NaN;
+        }
+        return list.get(fragment).get(dimIndex, index - offsets[fragment]);
     }
 
     @Override
     public double[] getValues(final int dimIndex) {
         return lock().readLockGuard(() -> {
-            final double[] tmp = new double[dataCount];
-            int index = 0;
-            for (final DataSet dataset : list) {
-                for (int i = 0; i < dataset.getDataCount(); i++) {
-                    tmp[index++] = dataset.get(dimIndex, i);
+            synchronized (list) { // concurrent readers may request the same column
+                final double[][] cols = columns;
+                if (dimIndex < cols.length && cols[dimIndex] != null) {
+                    return cols[dimIndex];
                 }
+                final double[][] newColumns = Arrays.copyOf(cols, Math.max(cols.length, getDimension()));
+                newColumns[dimIndex] = copyColumn(dimIndex, dataCount);
+                columns = newColumns;
+                return newColumns[dimIndex];
             }
-            return tmp;
         });
     }
 
@@ -135,4 +234,77 @@ public class FragmentedDataSet extends AbstractDataSet<FragmentedDataSet> implem
         fireInvalidated(ChartBits.DataSetData);
         return getThis();
     }
+
+    /**
+     * Re-computes the prefix-offset index after the fragment list has been modified. Drops the compacted columns.
+     */
+    protected void updateFragmentIndex() {
+        final int nFragments = list.size();
+        if (offsets.length < nFragments + 1) {
+            offsets = new int[Math.max(2 * offsets.length, nFragments + 1)];
+        }
+        offsets[0] = 0;
+        for (int k = 0; k < nFragments; k++) {
+            offsets[k + 1] = offsets[k] + list.get(k).getDataCount();
+        }
+        dataCount = offsets[nFragments];
+        cursor = 0;
+        columns = NO_COLUMNS;
+    }
+
+    /**
+     * @param set fragment whose x and y limits are required for sorting and range estimates
+     */
+    protected static void ensureLimits(final DataSet set) {
+        for (int dim = DIM_X; dim <= DIM_Y; dim++) {
+            if (!set.getAxisDescription(dim).isDefined()) {
+                set.recomputeLimits(dim);
+            }
+        }
+    }
+
+    private void appendFragmentIndex(final DataSet set) {
+        final int nFragments = list.size();
+        if (offsets.length < nFragments + 1) {
+            offsets = Arrays.copyOf(offsets, Math.max(2 * offsets.length, nFragments + 1));
+        }
+        final int oldCount = offsets[nFragments - 1];
+        final int newCount = oldCount + set.getDataCount();
+        offsets[nFragments] = newCount;
+        dataCount = newCount;
+
+        // extend existing columns
+        final double[][] cols = columns;
+        if (cols == NO_COLUMNS) {
+            return;
+        }
+        final double[][] newColumns = cols.clone();
+        for (int dim = 0; dim < newColumns.length; dim++) {
+            double[] column = newColumns[dim];
+            if (column == null) {
+                continue;
+            }
+            if (column.length < newCount) {
+                column = Arrays.copyOf(column, Math.max(newCount, column.length + (column.length >> 1)));
+                newColumns[dim] = column;
+            }
+            for (int i = oldCount; i < newCount; i++) {
+                column[i] = set.get(dim, i - oldCount);
+            }
+        }
+        columns = newColumns;
+    }
+
+    private double[] copyColumn(final int dimIndex, final int length) {
+        final double[] column = new double[length];
+        for (int k = 0; k < list.size(); k++) {
+            final DataSet dataset = list.get(k);
+            final int offset = offsets[k];
+            final int count = offsets[k + 1] - offset;
+            for (int i = 0; i < count; i++) {
+                column[offset + i] = dataset.get(dimIndex, i);
+            }
+        }
+        return column;
+    }
 }
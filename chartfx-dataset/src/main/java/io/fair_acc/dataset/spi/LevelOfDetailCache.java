@@ -0,0 +1,547 @@
+package io.fair_acc.dataset.spi;
+
+import java.util.Arrays;
+
+import io.fair_acc.dataset.AxisDescription;
+import io.fair_acc.dataset.DataSet;
+import io.fair_acc.dataset.events.IndexChangeLog;
+import io.fair_acc.dataset.locks.DataSetLock;
+import io.fair_acc.dataset.utils.AssertUtils;
+
+/**
+ * Hierarchical, time-bucketed level-of-detail (LOD) cache of x-sorted data: level {@code k} partitions the x-axis into
+ * buckets of width {@code baseBucketWidth * levelFactor^k} and keeps the number of samples as well as the min, max,
+ * and mean of the y-values for each non-empty bucket.
+ * <p>
+ * The cache is maintained incrementally: insertions update one bucket per level in O(levels) (O(1) per level for the
+ * typical append at the end), removals (e.g. expiry of the oldest samples) mark the affected buckets as dirty, which are
+ * then recomputed in {@link #update(PointSource)} -- the finest level from the samples within the bucket, the coarser
+ * levels hierarchically from the {@code levelFactor} buckets of the next finer level.
+ * <p>
+ * Each level is exposed as a read-only {@link DataSet} view (see {@link #getLevel(int)}) with the bucket centre as x,
+ * the mean as y, and the min/max envelope as asymmetric y-errors, so that renderers may request the level whose bucket
+ * width matches the current pixel resolution (see {@link #getLevelIndex(double)}) and draw zoomed-out views in
+ * O(pixels) rather than O(samples). The cache and its views are not synchronised themselves and are expected to be
+ * guarded by the lock of the owning data set, which is also returned by the {@link Level#lock() lock()} of the views
+ * if the owner has been specified at construction.
+ */
+public class LevelOfDetailCache {
+    public static final int DEFAULT_LEVEL_FACTOR = 4;
+    public static final int DEFAULT_LEVEL_COUNT = 12;
+    private final double baseBucketWidth;
+    private final int levelFactor;
+    private final Level[] levels;
+    private final DataSet owner;
+
+    /**
+     * @param baseBucketWidth bucket width of the finest level, using the {@link #DEFAULT_LEVEL_COUNT} and
+     *            {@link #DEFAULT_LEVEL_FACTOR}
+     */
+    public LevelOfDetailCache(final double baseBucketWidth) {
+        this(baseBucketWidth, DEFAULT_LEVEL_COUNT, DEFAULT_LEVEL_FACTOR);
+    }
+
+    /**
+     * @param baseBucketWidth bucket width of the finest level
+     * @param nLevels number of levels
+     * @param levelFactor ratio between the bucket widths of two consecutive levels
+     */
+    public LevelOfDetailCache(final double baseBucketWidth, final int nLevels, final int levelFactor) {
+        this(null, baseBucketWidth, nLevels, levelFactor);
+    }
+
+    /**
+     * @param owner data set whose lock guards this cache and is shared by the level views ({@code null}: each view has
+     *            its own lock)
+     * @param baseBucketWidth bucket width of the finest level
+     * @param nLevels number of levels
+     * @param levelFactor ratio between the bucket widths of two consecutive levels
+     */
+    public LevelOfDetailCache(final DataSet owner, final double baseBucketWidth, final int nLevels, final int levelFactor) {
+        if (!Double.isFinite(baseBucketWidth) || baseBucketWidth <= 0.0) {
+            throw new IllegalArgumentException("baseBucketWidth must be positive and finite: " + baseBucketWidth);
+        }
+        AssertUtils.gtThanZero("nLevels", nLevels);
+        if (levelFactor < 2) {
+            throw new IllegalArgumentException("levelFactor must be >= 2: " + levelFactor);
+        }
+        this.owner = owner;
+        this.baseBucketWidth = baseBucketWidth;
+        this.levelFactor = levelFactor;
+        levels = new Level[nLevels];
+        long divisor = 1;
+        for (int k = 0; k < nLevels; k++) {
+            levels[k] = new Level(k, divisor, baseBucketWidth * divisor);
+            divisor = Math.multiplyExact(divisor, levelFactor);
+        }
+    }
+
+    /**
+     * Adds a sample to all levels. Samples with non-finite coordinates are ignored.
+     *
+     * @param x horizontal coordinate
+     * @param y vertical coordinate
+     */
+    public void add(final double x, final double y) {
+        if (!Double.isFinite(x) || !Double.isFinite(y)) {
+            return;
+        }
+        final long baseIndex = getBaseIndex(x);
+        for (final Level level : levels) {
+            level.add(Math.floorDiv(baseIndex, level.divisor), y);
+        }
+    }
+
+    /**
+     * Removes all samples.
+     */
+    public void clear() {
+        for (final Level level : levels) {
+            level.clear();
+        }
+    }
+
+    /**
+     * @return bucket width of the finest level
+     */
+    public double getBaseBucketWidth() {
+        return baseBucketWidth;
+    }
+
+    /**
+     * @param level level index
+     * @return bucket width of the given level
+     */
+    public double getBucketWidth(final int level) {
+        return levels[level].bucketWidth;
+    }
+
+    /**
+     * @param level level index
+     * @return read-only view of the given level
+     */
+    public Level getLevel(final int level) {
+        final Level view = levels[level];
+        if (view.limitsDirty) {
+            view.limitsDirty = false;
+            view.getAxisDescriptions().forEach(AxisDescription::clear);
+        }
+        return view;
+    }
+
+    /**
+     * @return number of levels
+     */
+    public int getLevelCount() {
+        return levels.length;
+    }
+
+    /**
+     * @return ratio between the bucket widths of two consecutive levels
+     */
+    public int getLevelFactor() {
+        return levelFactor;
+    }
+
+    /**
+     * @param maxBucketWidth maximum acceptable bucket width, e.g. the x-range covered by one screen pixel
+     * @return index of the coarsest level with a bucket width that does not exceed the given width, or -1 if even the
+     *         finest level is too coarse
+     */
+    public int getLevelIndex(final double maxBucketWidth) {
+        int result = -1;
+        for (int k = 0; k < levels.length && levels[k].bucketWidth <= maxBucketWidth; k++) {
+            result = k;
+        }
+        return result;
+    }
+
+    /**
+     * @return true if a removal left buckets whose statistics need to be recomputed via {@link #update(PointSource)}
+     */
+    public boolean isDirty() {
+        for (final Level level : levels) {
+            if (level.nDirty > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes a sample from all levels. The statistics of the affected buckets are recomputed lazily in
+     * {@link #update(PointSource)}. Samples with non-finite coordinates are ignored.
+     *
+     * @param x horizontal coordinate
+     * @param y vertical coordinate
+     */
+    public void remove(final double x, final double y) {
+        if (!Double.isFinite(x) || !Double.isFinite(y)) {
+            return;
+        }
+        final long baseIndex = getBaseIndex(x);
+        for (final Level level : levels) {
+            level.remove(Math.floorDiv(baseIndex, level.divisor));
+        }
+    }
+
+    /**
+     * Recomputes the buckets that have been modified by {@link #remove(double, double)}.
+     *
+     * @param source provider of the samples within a given x-range (used for the finest level only)
+     */
+    public void update(final PointSource source) {
+        AssertUtils.notNull("source", source);
+        for (final Level level : levels) {
+            level.update(source);
+        }
+    }
+
+    private long getBaseIndex(final double x) {
+        return (long) Math.floor(x / baseBucketWidth);
+    }
+
+    /**
+     * Consumer of a single sample.
+     */
+    @FunctionalInterface
+    public interface PointConsumer {
+        void accept(double x, double y);
+    }
+
+    /**
+     * Provider of the samples of the underlying data set.
+     */
+    @FunctionalInterface
+    public interface PointSource {
+        /**
+         * @param fromX lower x-range boundary (inclusive)
+         * @param toX upper x-range boundary (exclusive)
+         * @param consumer to be called for each sample within the range (may also be called for samples outside it)
+         */
+        void forEachPoint(double fromX, double toX, PointConsumer consumer);
+    }
+
+    /**
+     * Read-only data set view of one level: x = bucket centre, y = mean, asymmetric y-errors = min/max envelope.
+     */
+    public final class Level extends AbstractErrorDataSet<Level> {
+        private static final long serialVersionUID = 2795062154286423164L;
+        private final int level;
+        private final long divisor;
+        private final double bucketWidth;
+        // non-empty buckets sorted by bucket index, stored in [start, start + size)
+        private long[] indices = new long[16];
+        private int[] counts = new int[16];
+        private double[] sums = new double[16];
+        private double[] mins = new double[16];
+        private double[] maxs = new double[16];
+        private int start;
+        private int size;
+        private long[] dirty = new long[16];
+        private int nDirty;
+        private double xOffset;
+        private boolean limitsDirty;
+        // scratch for the recomputation of the finest level
+        private transient int scanCount;
+        private transient double scanSum;
+        private transient double scanMin;
+        private transient double scanMax;
+
+        private Level(final int level, final long divisor, final double bucketWidth) {
+            super("LOD-" + level, 2, ErrorType.NO_ERROR, ErrorType.ASYMMETRIC);
+            this.level = level;
+            this.divisor = divisor;
+            this.bucketWidth = bucketWidth;
+        }
+
+        @Override
+        public double get(final int dimIndex, final int index) {
+            final int i = start + index;
+            switch (dimIndex) {
+            case DIM_X:
+                return (indices[i] + 0.5) * bucketWidth - xOffset;
+            case DIM_Y:
+                return sums[i] / counts[i];
+            default:
+                throw new IndexOutOfBoundsException("dimIndex out of bound 2");
+            }
+        }
+
+        /**
+         * @return bucket width of this level
+         */
+        public double getBucketWidth() {
+            return bucketWidth;
+        }
+
+        /**
+         * @param index bucket index within this level
+         * @return number of samples within the bucket
+         */
+        public int getCount(final int index) {
+            return counts[start + index];
+        }
+
+        @Override
+        public int getDataCount() {
+            return size;
+        }
+
+        @Override
+        public double getErrorNegative(final int dimIndex, final int index) {
+            return dimIndex == DIM_Y ? get(DIM_Y, index) - mins[start + index] : 0.0;
+        }
+
+        @Override
+        public double getErrorPositive(final int dimIndex, final int index) {
+            return dimIndex == DIM_Y ? maxs[start + index] - get(DIM_Y, index) : 0.0;
+        }
+
+        /**
+         * @return lock of the owning data set if specified, otherwise the lock of this view
+         */
+        @Override
+        public DataSetLock<? extends DataSet> lock() {
+            return owner == null ? super.lock() : owner.lock();
+        }
+
+        /**
+         * @return null since the buckets are updated in place (consumers need to recompute the whole view)
+         */
+        @Override
+        public IndexChangeLog getIndexChangeLog() {
+            return null;
+        }
+
+        @Override
+        public int getIndex(final int dimIndex, final double... x) {
+            AssertUtils.checkArrayDimension("x", x, 1);
+            if (dimIndex != DIM_X || size == 0 || !Double.isFinite(x[0])) {
+                return super.getIndex(dimIndex, x);
+            }
+            final long bucket = (long) Math.floor((x[0] + xOffset) / bucketWidth);
+            final int pos = find(bucket);
+            return Math.min(size - 1, pos >= 0 ? pos : -pos - 1);
+        }
+
+        /**
+         * @return level index within the hierarchy
+         */
+        public int getLevel() {
+            return level;
+        }
+
+        /**
+         * @param index bucket index within this level
+         * @return maximum of the samples within the bucket
+         */
+        public double getMax(final int index) {
+            return maxs[start + index];
+        }
+
+        /**
+         * @param index bucket index within this level
+         * @return minimum of the samples within the bucket
+         */
+        public double getMin(final int index) {
+            return mins[start + index];
+        }
+
+        /**
+         * @return offset that is subtracted from the bucket centres
+         */
+        public double getXOffset() {
+            return xOffset;
+        }
+
+        @Override
+        public Level recomputeLimits(final int dimIndex) {
+            if (dimIndex == DIM_X && size > 0) {
+                getAxisDescription(DIM_X).set(get(DIM_X, 0), get(DIM_X, size - 1));
+                return getThis();
+            }
+            return super.recomputeLimits(dimIndex);
+        }
+
+        @Override
+        public DataSet set(final DataSet other, final boolean copy) {
+            throw new UnsupportedOperationException("level-of-detail views are read-only");
+        }
+
+        /**
+         * @param xOffset offset that is subtracted from the bucket centres (e.g. to normalise to the latest sample)
+         * @return itself (fluent design)
+         */
+        public Level setXOffset(final double xOffset) {
+            if (this.xOffset != xOffset) {
+                this.xOffset = xOffset;
+                getAxisDescription(DIM_X).clear();
+            }
+            return this;
+        }
+
+        private void add(final long bucket, final double y) {
+            int pos = find(bucket);
+            if (pos < 0) {
+                pos = -pos - 1;
+                insert(pos, bucket);
+                mins[start + pos] = y;
+                maxs[start + pos] = y;
+            }
+            final int i = start + pos;
+            counts[i]++;
+            sums[i] += y;
+            mins[i] = Math.min(mins[i], y);
+            maxs[i] = Math.max(maxs[i], y);
+            limitsDirty = true;
+        }
+
+        private void clear() {
+            start = 0;
+            size = 0;
+            nDirty = 0;
+            limitsDirty = true;
+        }
+
+        /**
+         * @param bucket bucket index
+         * @return position relative to {@code start} if found, {@code -(insertion point) - 1} otherwise
+         */
+        private int find(final long bucket) {
+            if (size == 0 || bucket > indices[start + size - 1]) {
+                return -size - 1; // append: most common case for time-series
+            }
+            final int pos = Arrays.binarySearch(indices, start, start + size, bucket);
+            return pos >= 0 ? pos - start : pos + start;
+        }
+
+        private void insert(final int pos, final long bucket) {
+            if (pos == 0 && start > 0) {
+                start--;
+            } else {
+                if (start + size == indices.length) {
+                    ensureCapacity();
+                }
+                final int i = start + pos;
+                final int length = size - pos;
+                System.arraycopy(indices, i, indices, i + 1, length);
+                System.arraycopy(counts, i, counts, i + 1, length);
+                System.arraycopy(sums, i, sums, i + 1, length);
+                System.arraycopy(mins, i, mins, i + 1, length);
+                System.arraycopy(maxs, i, maxs, i + 1, length);
+            }
+            final int i = start + pos;
+            indices[i] = bucket;
+            counts[i] = 0;
+            sums[i] = 0.0;
+            size++;
+        }
+
+        private void ensureCapacity() {
+            if (start > 0 && start >= indices.length / 2) {
+                // compact: drop the space freed by removals at the front
+                System.arraycopy(indices, start, indices, 0, size);
+                System.arraycopy(counts, start, counts, 0, size);
+                System.arraycopy(sums, start, sums, 0, size);
+                System.arraycopy(mins, start, mins, 0, size);
+                System.arraycopy(maxs, start, maxs, 0, size);
+                start = 0;
+                return;
+            }
+            final int capacity = 2 * indices.length;
+            indices = Arrays.copyOf(indices, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            sums = Arrays.copyOf(sums, capacity);
+            mins = Arrays.copyOf(mins, capacity);
+            maxs = Arrays.copyOf(maxs, capacity);
+        }
+
+        private void remove(final long bucket) {
+            final int pos = find(bucket);
+            if (pos < 0) {
+                return;
+            }
+            if (--counts[start + pos] > 0) {
+                if (nDirty == dirty.length) {
+                    dirty = Arrays.copyOf(dirty, 2 * nDirty);
+                }
+                dirty[nDirty++] = bucket;
+            } else {
+                removeAt(pos);
+            }
+        }
+
+        private void removeAt(final int pos) {
+            if (pos == 0) {
+                start++; // expiry of the oldest samples: O(1)
+                size--;
+            } else {
+                final int i = start + pos;
+                final int length = size - pos - 1;
+                System.arraycopy(indices, i + 1, indices, i, length);
+                System.arraycopy(counts, i + 1, counts, i, length);
+                System.arraycopy(sums, i + 1, sums, i, length);
+                System.arraycopy(mins, i + 1, mins, i, length);
+                System.arraycopy(maxs, i + 1, maxs, i, length);
+                size--;
+            }
+            if (size == 0) {
+                start = 0;
+            }
+            limitsDirty = true;
+        }
+
+        private void update(final PointSource source) {
+            if (nDirty == 0) {
+                return;
+            }
+            final Level finer = level == 0 ? null : levels[level - 1];
+            for (int d = 0; d < nDirty; d++) {
+                final long bucket = dirty[d];
+                final int pos = find(bucket);
+                if (pos < 0) {
+                    continue; // bucket has been emptied in the meantime
+                }
+                scanCount = 0;
+                scanSum = 0.0;
+                scanMin = Double.POSITIVE_INFINITY;
+                scanMax = Double.NEGATIVE_INFINITY;
+                if (finer == null) {
+                    // N.B. scan a slightly wider range and filter by bucket index to be robust against rounding
+                    source.forEachPoint((bucket - 1) * bucketWidth, (bucket + 2) * bucketWidth, (x, y) -> {
+                        if (Double.isFinite(x) && Double.isFinite(y) && getBaseIndex(x) == bucket) {
+                            accumulate(1, y, y, y);
+                        }
+                    });
+                } else {
+                    // hierarchical: aggregate the buckets of the next finer level
+                    final long first = bucket * levelFactor;
+                    final long last = first + levelFactor;
+                    final int from = finer.find(first);
+                    for (int j = finer.start + (from >= 0 ? from : -from - 1); j < finer.start + finer.size && finer.indices[j] < last; j++) {
+                        accumulate(finer.counts[j], finer.sums[j], finer.mins[j], finer.maxs[j]);
+                    }
+                }
+                if (scanCount == 0) {
+                    removeAt(pos); // N.B. source and cache are inconsistent, e.g. samples have been removed directly
+                    continue;
+                }
+                final int i = start + pos;
+                counts[i] = scanCount;
+                sums[i] = scanSum;
+                mins[i] = scanMin;
+                maxs[i] = scanMax;
+            }
+            nDirty = 0;
+            limitsDirty = true;
+        }
+
+        private void accumulate(final int count, final double sum, final double min, final double max) {
+            scanCount += count;
+            scanSum += sum;
+            scanMin = Math.min(scanMin, min);
+            scanMax = Math.max(scanMax, max);
+        }
+    }
+}
@@ -17,6 +17,11 @@ import io.fair_acc.dataset.utils.trees.IndexedTreeSet;
  * insertions), indexed (required for the chart interface to efficiently parse through the data ('efficient' for most
  * 'normal' implementations), limited queue (to limit the maximum number samples stored), and limited in time (based on
  * 'x').
+ * <p>
+ * Optionally, a hierarchical time-bucketed min/max/mean level-of-detail cache can be maintained alongside (see
+ * {@link #setLevelOfDetail(double)} and {@link #getLevelOfDetail(double)}) so that long histories can be drawn with a
+ * number of buckets that scales with the screen resolution rather than the number of samples. N.B. modifications
+ * performed directly on the {@link #getData() data container} bypass this cache.
  *
  * @see DataSet
  * @see DataSetError
@@ -29,6 +34,7 @@ public class LimitedIndexedTreeDataSet extends AbstractErrorDataSet<LimitedIndex
     protected double maxLength = Double.MAX_VALUE;
     protected boolean subtractOffset = false;
     protected boolean isSortedByX = true;
+    protected transient LevelOfDetailCache levelOfDetail;
 
     /**
      * Creates a new instance of <code>DefaultDataSet</code>.
@@ -89,7 +95,7 @@ public class LimitedIndexedTreeDataSet extends AbstractErrorDataSet<LimitedIndex
     public LimitedIndexedTreeDataSet add(final double x, final double y, final double ex, final double ey,
             final String... labelStyle) {
         lock().writeLockGuard(() -> {
-            data.add(new DataAtom(x, y, ex, ey, labelStyle));
+            addAtom(new DataAtom(x, y, ex, ey, labelStyle));
             getAxisDescription(DIM_X).add(x - ex);
             getAxisDescription(DIM_X).add(x + ex);
             getAxisDescription(DIM_Y).add(y - ey);
@@ -137,7 +143,7 @@ public class LimitedIndexedTreeDataSet extends AbstractErrorDataSet<LimitedIndex
                 final double y = yValues[i];
                 final double ex = xErrors[i];
                 final double ey = yErrors[i];
-                data.add(new DataAtom(x, y, ex, ey, labelStyle)); // NOPMD need to initialise object in loop by design
+                addAtom(new DataAtom(x, y, ex, ey, labelStyle)); // NOPMD need to initialise object in loop by design
 
                 getAxisDescription(DIM_X).add(x - ex);
                 getAxisDescription(DIM_X).add(x + ex);
@@ -188,6 +194,9 @@ public class LimitedIndexedTreeDataSet extends AbstractErrorDataSet<LimitedIndex
     public LimitedIndexedTreeDataSet clearData() {
         lock().writeLockGuard(() -> {
             data.clear();
+            if (levelOfDetail != null) {
+                levelOfDetail.clear();
+            }
             getAxisDescriptions().forEach(AxisDescription::clear);
         });
         fireInvalidated(ChartBits.DataSetDataRemoved);
@@ -217,8 +226,9 @@ public class LimitedIndexedTreeDataSet extends AbstractErrorDataSet<LimitedIndex
                     return;
                 }
                 for (; data.size() > maxQueueSize || now - first.getX() > maxLength; first = data.first()) {
-                    data.remove(first);
+                    removeAtom(first);
                 }
+                updateLevelOfDetail();
                 // invalidate ranges
                 getAxisDescriptions().forEach(AxisDescription::clear);
             } catch (final NoSuchElementException cannotDoAnythingHere) {
@@ -278,6 +288,34 @@ public class LimitedIndexedTreeDataSet extends AbstractErrorDataSet<LimitedIndex
         return dimIndex == DIM_X ? data.get(index).getErrorX() : data.get(index).getErrorY();
     }
 
+    /**
+     * Returns the level-of-detail view whose bucket width best matches the requested resolution, e.g. the x-range
+     * covered by one screen pixel. N.B. the view shares the lock of this data set.
+     *
+     * @param maxBucketWidth maximum acceptable bucket width
+     * @return level with the coarsest bucket width not exceeding {@code maxBucketWidth}, or {@code null} if the
+     *         level-of-detail cache is disabled, the data is not sorted by x, or the raw data is required for the
+     *         requested resolution
+     */
+    public LevelOfDetailCache.Level getLevelOfDetail(final double maxBucketWidth) {
+        if (levelOfDetail == null || !isSortedByX) {
+            return null;
+        }
+        final int level = levelOfDetail.getLevelIndex(maxBucketWidth);
+        if (level < 0) {
+            return null;
+        }
+        final double offset = subtractOffset && !data.isEmpty() ? data.get(data.size() - 1).getX() : 0.0;
+        return levelOfDetail.getLevel(level).setXOffset(offset);
+    }
+
+    /**
+     * @return level-of-detail cache or {@code null} if disabled
+     */
+    public LevelOfDetailCache getLevelOfDetailCache() {
+        return levelOfDetail;
+    }
+
     /**
      * @return maximum X range before points are getting dropped
      */
@@ -333,7 +371,8 @@ public class LimitedIndexedTreeDataSet extends AbstractErrorDataSet<LimitedIndex
             for (int i = fromIndex; i < toIndex; i++) {
                 toRemove.add(data.get(i));
             }
-            data.removeAll(toRemove);
+            toRemove.forEach(this::removeAtom);
+            updateLevelOfDetail();
 
             getAxisDescription(DIM_X).setMax(Double.NaN);
             getAxisDescription(DIM_Y).setMax(Double.NaN);
@@ -359,7 +398,8 @@ public class LimitedIndexedTreeDataSet extends AbstractErrorDataSet<LimitedIndex
             for (final int indexToRemove : indices) {
                 tupleTobeRemovedReferences.add(data.get(indexToRemove));
             }
-            data.removeAll(tupleTobeRemovedReferences);
+            tupleTobeRemovedReferences.forEach(this::removeAtom);
+            updateLevelOfDetail();
 
             // invalidate ranges
             getAxisDescriptions().forEach(AxisDescription::clear);
@@ -402,7 +442,12 @@ public class LimitedIndexedTreeDataSet extends AbstractErrorDataSet<LimitedIndex
      * @return itself (fluent design)
      */
     public LimitedIndexedTreeDataSet reset() {
-        lock().writeLockGuard(() -> getData().clear());
+        lock().writeLockGuard(() -> {
+            getData().clear();
+            if (levelOfDetail != null) {
+                levelOfDetail.clear();
+            }
+        });
         return this;
     }
 
@@ -452,7 +497,7 @@ public class LimitedIndexedTreeDataSet extends AbstractErrorDataSet<LimitedIndex
                 getAxisDescription(DIM_X).add(x + dx);
                 getAxisDescription(DIM_Y).add(y - dy);
                 getAxisDescription(DIM_Y).add(y + dy);
-                data.add(new DataAtom(x, y, dx, dy)); // NOPMD need to initialise object in loop by design
+                addAtom(new DataAtom(x, y, dx, dy)); // NOPMD need to initialise object in loop by design
             }
             expire();
         });
@@ -517,7 +562,15 @@ public class LimitedIndexedTreeDataSet extends AbstractErrorDataSet<LimitedIndex
     public LimitedIndexedTreeDataSet set(final int index, final double x, final double y, final double dx,
             final double dy) {
         lock().writeLockGuard(() -> {
-            data.get(index).set(x, y, dy, dy);
+            final DataAtom atom = data.get(index);
+            if (levelOfDetail != null) {
+                levelOfDetail.remove(atom.getX(), atom.getY());
+                atom.set(x, y, dy, dy);
+                levelOfDetail.add(x, y);
+                updateLevelOfDetail();
+            } else {
+                atom.set(x, y, dy, dy);
+            }
 
             getAxisDescription(DIM_X).add(x - dx);
             getAxisDescription(DIM_X).add(x + dx);
@@ -557,6 +610,31 @@ public class LimitedIndexedTreeDataSet extends AbstractErrorDataSet<LimitedIndex
         return getThis();
     }
 
+    /**
+     * Enables the level-of-detail cache with {@link LevelOfDetailCache#DEFAULT_LEVEL_COUNT} levels, each
+     * {@link LevelOfDetailCache#DEFAULT_LEVEL_FACTOR} times coarser than the previous one.
+     *
+     * @param baseBucketWidth bucket width of the finest level (in x-units), {@code NaN} or non-positive to disable the
+     *            cache
+     * @return itself (fluent design)
+     */
+    public LimitedIndexedTreeDataSet setLevelOfDetail(final double baseBucketWidth) {
+        lock().writeLockGuard(() -> {
+            if (!Double.isFinite(baseBucketWidth) || baseBucketWidth <= 0.0) {
+                levelOfDetail = null;
+                return;
+            }
+            if (levelOfDetail != null && levelOfDetail.getBaseBucketWidth() == baseBucketWidth) {
+                return;
+            }
+            levelOfDetail = new LevelOfDetailCache(this, baseBucketWidth, LevelOfDetailCache.DEFAULT_LEVEL_COUNT, LevelOfDetailCache.DEFAULT_LEVEL_FACTOR);
+            for (final DataAtom atom : data) {
+                levelOfDetail.add(atom.getX(), atom.getY());
+            }
+        });
+        return getThis();
+    }
+
     /**
      * @param maxLength maximum X range before points are getting dropped
      * @return itself (fluent design)
@@ -587,6 +665,34 @@ public class LimitedIndexedTreeDataSet extends AbstractErrorDataSet<LimitedIndex
         this.subtractOffset = subtractOffset;
     }
 
+    private void addAtom(final DataAtom atom) {
+        if (data.add(atom) && levelOfDetail != null) {
+            levelOfDetail.add(atom.getX(), atom.getY());
+        }
+    }
+
+    private void forEachAtom(final double fromX, final double toX, final LevelOfDetailCache.PointConsumer consumer) {
+        if (!isSortedByX) {
+            data.forEach(atom -> consumer.accept(atom.getX(), atom.getY()));
+            return;
+        }
+        for (DataAtom atom = data.ceiling(new DataAtom(fromX, 0, 0, 0)); atom != null && atom.getX() < toX; atom = data.higher(atom)) {
+            consumer.accept(atom.getX(), atom.getY());
+        }
+    }
+
+    private void removeAtom(final DataAtom atom) {
+        if (data.remove(atom) && levelOfDetail != null) {
+            levelOfDetail.remove(atom.getX(), atom.getY());
+        }
+    }
+
+    private void updateLevelOfDetail() {
+        if (levelOfDetail != null) {
+            levelOfDetail.update(this::forEachAtom);
+        }
+    }
+
     protected class DataAtom implements Comparable<DataAtom> {
         protected double x; // horizontal value
         protected double y; // vertical value
@@ -21,18 +21,24 @@ public class RollingDataSet extends FragmentedDataSet {
 
     @Override
     public void add(final DataSet set) {
-        while (!list.isEmpty() && list.size() >= depth) {
-            final DataSet ds = list.remove(0);
-            dataCount -= ds.getDataCount();
-        }
-        for (final DataSet ds : list) {
-            ((InternalDataSet) ds).shift(-lastLength);
-        }
-        list.add(new InternalDataSet(set));
-        dataCount += set.getDataCount();
-        lastLength = set.getAxisDescription(DIM_X).getMax();
-        // invalidate ranges
-        getAxisDescriptions().forEach(AxisDescription::clear);
+        lock().writeLockGuard(() -> {
+            ensureLimits(set);
+            final boolean compacted = isCompacted();
+            while (!list.isEmpty() && list.size() >= depth) {
+                list.remove(0);
+            }
+            for (final DataSet ds : list) {
+                ((InternalDataSet) ds).shift(-lastLength);
+            }
+            list.add(new InternalDataSet(set));
+            updateFragmentIndex();
+            if (compacted) {
+                compact();
+            }
+            lastLength = set.getAxisDescription(DIM_X).getMax();
+            // invalidate ranges
+            getAxisDescriptions().forEach(AxisDescription::clear);
+        });
         fireInvalidated(ChartBits.DataSetDataAdded);
     }
 
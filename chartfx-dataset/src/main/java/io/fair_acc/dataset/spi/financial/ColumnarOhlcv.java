@@ -0,0 +1,299 @@
+package io.fair_acc.dataset.spi.financial;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import io.fair_acc.dataset.spi.financial.api.attrs.AttributeModel;
+import io.fair_acc.dataset.spi.financial.api.ohlcv.IOhlcv;
+import io.fair_acc.dataset.spi.financial.api.ohlcv.IOhlcvItem;
+
+/**
+ * Column-oriented OHLCV storage backed by growable primitive arrays.
+ * <p>
+ * In contrast to object-per-bar implementations of {@link IOhlcv}, adding or updating bars does not allocate (apart from
+ * the amortised array growth) and the {@link OhlcvDataSet} reads the columns directly. {@link #getOhlcvItem(int)}
+ * returns light-weight index-based views that reflect later updates of the bar.
+ * <p>
+ * N.B. not thread-safe: guard modifications with the lock of the {@link OhlcvDataSet} this is attached to.
+ */
+public class ColumnarOhlcv implements IOhlcv {
+    private static final int DEFAULT_CAPACITY = 1024;
+    private long[] time; // [ms] since epoch (UTC)
+    private double[] open;
+    private double[] high;
+    private double[] low;
+    private double[] close;
+    private double[] volume;
+    private double[] openInterest;
+    private AttributeModel[] itemAddons; // lazily allocated, bar addons are rare
+    private int size;
+    private AttributeModel addon;
+
+    public ColumnarOhlcv() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity initial number of bars that can be stored without growing the columns
+     */
+    public ColumnarOhlcv(final int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity must be >= 0: " + initialCapacity);
+        }
+        time = new long[initialCapacity];
+        open = new double[initialCapacity];
+        high = new double[initialCapacity];
+        low = new double[initialCapacity];
+        close = new double[initialCapacity];
+        volume = new double[initialCapacity];
+        openInterest = new double[initialCapacity];
+    }
+
+    /**
+     * Appends a new bar
+     *
+     * @param timeStamp bar time stamp in [ms] since epoch (UTC)
+     * @param open open value
+     * @param high high value
+     * @param low low value
+     * @param close close value
+     * @param volume volume
+     * @param openInterest open interest
+     * @return index of the new bar
+     */
+    public int add(final long timeStamp, final double open, final double high, final double low, final double close, final double volume, final double openInterest) {
+        ensureCapacity(size + 1);
+        write(size, timeStamp, open, high, low, close, volume, openInterest);
+        return size++;
+    }
+
+    /**
+     * removes all bars but keeps the allocated capacity
+     */
+    public void clear() {
+        size = 0;
+        itemAddons = null;
+    }
+
+    /**
+     * @param minCapacity the minimum number of bars that can be stored without growing the columns
+     */
+    public void ensureCapacity(final int minCapacity) {
+        if (minCapacity <= time.length) {
+            return;
+        }
+        final int newCapacity = Math.max(minCapacity, time.length + (time.length >> 1) + 16);
+        time = Arrays.copyOf(time, newCapacity);
+        open = Arrays.copyOf(open, newCapacity);
+        high = Arrays.copyOf(high, newCapacity);
+        low = Arrays.copyOf(low, newCapacity);
+        close = Arrays.copyOf(close, newCapacity);
+        volume = Arrays.copyOf(volume, newCapacity);
+        openInterest = Arrays.copyOf(openInterest, newCapacity);
+    }
+
+    @Override
+    public AttributeModel getAddon() {
+        return addon;
+    }
+
+    @Override
+    public AttributeModel getAddonOrCreate() {
+        if (addon == null) {
+            addon = new AttributeModel();
+        }
+        return addon;
+    }
+
+    /**
+     * @return number of bars that can be stored without growing the columns
+     */
+    public int getCapacity() {
+        return time.length;
+    }
+
+    public double getClose(final int index) {
+        return close[checkIndex(index)];
+    }
+
+    public double getHigh(final int index) {
+        return high[checkIndex(index)];
+    }
+
+    public double getLow(final int index) {
+        return low[checkIndex(index)];
+    }
+
+    @Override
+    public IOhlcvItem getOhlcvItem(final int index) {
+        return new Item(checkIndex(index));
+    }
+
+    public double getOpen(final int index) {
+        return open[checkIndex(index)];
+    }
+
+    public double getOpenInterest(final int index) {
+        return openInterest[checkIndex(index)];
+    }
+
+    /**
+     * @param index bar index
+     * @return bar time stamp in [ms] since epoch (UTC)
+     */
+    public long getTime(final int index) {
+        return time[checkIndex(index)];
+    }
+
+    public double getVolume(final int index) {
+        return volume[checkIndex(index)];
+    }
+
+    @Override
+    public Iterator<IOhlcvItem> iterator() {
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public IOhlcvItem next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return new Item(index++);
+            }
+        };
+    }
+
+    /**
+     * Overwrites an existing bar
+     *
+     * @param index bar index
+     * @param timeStamp bar time stamp in [ms] since epoch (UTC)
+     * @param open open value
+     * @param high high value
+     * @param low low value
+     * @param close close value
+     * @param volume volume
+     * @param openInterest open interest
+     */
+    public void set(final int index, final long timeStamp, final double open, final double high, final double low, final double close, final double volume, final double openInterest) {
+        write(checkIndex(index), timeStamp, open, high, low, close, volume, openInterest);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private int checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for size " + size);
+        }
+        return index;
+    }
+
+    private void write(final int index, final long timeStamp, final double open, final double high, final double low, final double close, final double volume, final double openInterest) {
+        this.time[index] = timeStamp;
+        this.open[index] = open;
+        this.high[index] = high;
+        this.low[index] = low;
+        this.close[index] = close;
+        this.volume[index] = volume;
+        this.openInterest[index] = openInterest;
+    }
+
+    /**
+     * Index-based view on a bar
+     */
+    private class Item implements IOhlcvItem {
+        private final int index;
+
+        private Item(final int index) {
+            this.index = index;
+        }
+
+        @Override
+        public AttributeModel getAddon() {
+            return itemAddons == null || index >= itemAddons.length ? null : itemAddons[index];
+        }
+
+        @Override
+        public AttributeModel getAddonOrCreate() {
+            if (itemAddons == null || index >= itemAddons.length) {
+                itemAddons = itemAddons == null ? new AttributeModel[time.length] : Arrays.copyOf(itemAddons, time.length);
+            }
+            if (itemAddons[index] == null) {
+                itemAddons[index] = new AttributeModel();
+            }
+            return itemAddons[index];
+        }
+
+        @Override
+        public double getClose() {
+            return close[index];
+        }
+
+        @Override
+        public double getHigh() {
+            return high[index];
+        }
+
+        @Override
+        public double getLow() {
+            return low[index];
+        }
+
+        @Override
+        public double getOpen() {
+            return open[index];
+        }
+
+        @Override
+        public double getOpenInterest() {
+            return openInterest[index];
+        }
+
+        @Override
+        public Date getTimeStamp() {
+            return new Date(time[index]);
+        }
+
+        @Override
+        public double getVolume() {
+            return volume[index];
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Item)) {
+                return false;
+            }
+            final Item other = (Item) obj;
+            return index == other.index && getOwner() == other.getOwner();
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(getOwner()) + index;
+        }
+
+        @Override
+        public String toString() {
+            return "ColumnarOhlcv.Item{index=" + index + ", time=" + time[index] + ", open=" + open[index] + ", high=" + high[index] + ", low=" + low[index] + ", close=" + close[index] + ", volume=" + volume[index] + ", oi=" + openInterest[index] + '}';
+        }
+
+        private ColumnarOhlcv getOwner() {
+            return ColumnarOhlcv.this;
+        }
+    }
+}
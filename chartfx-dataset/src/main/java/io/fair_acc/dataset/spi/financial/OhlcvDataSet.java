@@ -25,6 +25,7 @@ public class OhlcvDataSet extends AbstractDataSet<OhlcvDataSet> implements Itera
     public static final int DIM_Y_OI = 6;
 
     private IOhlcv ohlcv;
+    private ColumnarOhlcv columns; // fast-path for column-oriented storage, null otherwise
 
     private boolean isCategoryBased = false;
 
@@ -39,6 +40,7 @@ public class OhlcvDataSet extends AbstractDataSet<OhlcvDataSet> implements Itera
      */
     public void setData(IOhlcv ohlcv) {
         this.ohlcv = ohlcv;
+        this.columns = ohlcv instanceof ColumnarOhlcv ? (ColumnarOhlcv) ohlcv : null;
     }
 
     /**
@@ -66,6 +68,9 @@ public class OhlcvDataSet extends AbstractDataSet<OhlcvDataSet> implements Itera
 
     @Override
     public double get(int dimIndex, int index) {
+        if (columns != null) {
+            return get(columns, dimIndex, index);
+        }
         IOhlcvItem ohlcvItem = ohlcv.getOhlcvItem(index);
         switch (dimIndex) {
         case DIM_X:
@@ -87,6 +92,27 @@ public class OhlcvDataSet extends AbstractDataSet<OhlcvDataSet> implements Itera
         }
     }
 
+    private double get(ColumnarOhlcv data, int dimIndex, int index) {
+        switch (dimIndex) {
+        case DIM_X:
+            return isCategoryBased ? index : data.getTime(index) / 1000.0;
+        case DIM_Y_OPEN:
+            return data.getOpen(index);
+        case DIM_Y_HIGH:
+            return data.getHigh(index);
+        case DIM_Y_LOW:
+            return data.getLow(index);
+        case DIM_Y_CLOSE:
+            return data.getClose(index);
+        case DIM_Y_VOLUME:
+            return data.getVolume(index);
+        case DIM_Y_OI:
+            return data.getOpenInterest(index);
+        default:
+            throw new IllegalArgumentException("Dimension not allowed! dimIndex=" + dimIndex);
+        }
+    }
+
     @Override
     public Iterator<IOhlcvItem> iterator() {
         return ohlcv.iterator();
@@ -99,7 +125,7 @@ public class OhlcvDataSet extends AbstractDataSet<OhlcvDataSet> implements Itera
 
     @Override
     public DataSet set(DataSet other, boolean copy) {
-        this.ohlcv = ((OhlcvDataSet) other).ohlcv;
+        setData(((OhlcvDataSet) other).ohlcv);
         return this;
     }
 
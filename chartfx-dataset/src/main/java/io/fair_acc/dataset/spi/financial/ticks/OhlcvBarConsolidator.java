@@ -0,0 +1,115 @@
+package io.fair_acc.dataset.spi.financial.ticks;
+
+import io.fair_acc.dataset.events.ChartBits;
+import io.fair_acc.dataset.spi.financial.ColumnarOhlcv;
+import io.fair_acc.dataset.spi.financial.OhlcvDataSet;
+import io.fair_acc.dataset.utils.AssertUtils;
+
+/**
+ * Incremental consolidation of tick records into OHLCV bars that are written directly into the {@link ColumnarOhlcv}
+ * storage of an {@link OhlcvDataSet}.
+ * <p>
+ * Each tick either extends the last bar (high/low extrema, close and accumulated volume) or starts a new one, depending
+ * on the bar type specific {@link #isPartOfLastBar} condition. No objects are allocated per tick or bar (apart from the
+ * amortised growth of the columns).
+ *
+ * @see TimeBarConsolidator
+ * @see VolumeBarConsolidator
+ * @see RangeBarConsolidator
+ */
+public abstract class OhlcvBarConsolidator {
+    protected final OhlcvDataSet dataSet;
+    protected final ColumnarOhlcv bars;
+    private long tickCount;
+
+    /**
+     * @param dataSet the output data set, its data is replaced by an empty {@link ColumnarOhlcv} unless it already uses
+     *        column-oriented storage
+     */
+    protected OhlcvBarConsolidator(final OhlcvDataSet dataSet) {
+        AssertUtils.notNull("dataSet", dataSet);
+        this.dataSet = dataSet;
+        if (!(dataSet.getData() instanceof ColumnarOhlcv)) {
+            dataSet.setData(new ColumnarOhlcv());
+        }
+        bars = (ColumnarOhlcv) dataSet.getData();
+    }
+
+    /**
+     * Consolidates a single tick.
+     * <p>
+     * N.B. does neither lock the data set nor notify its listeners, see {@link #consolidate(TickBuffer)} for the batch
+     * variant that does both.
+     *
+     * @param timeStamp tick time stamp in [ms] since epoch (UTC)
+     * @param open open value
+     * @param high high value
+     * @param low low value
+     * @param close close value
+     * @param volume tick volume
+     */
+    public void addTick(final long timeStamp, final double open, final double high, final double low, final double close, final double volume) {
+        tickCount++;
+        final int last = bars.size() - 1;
+        if (last >= 0 && isPartOfLastBar(timeStamp, high, low, volume)) {
+            bars.set(last, bars.getTime(last), bars.getOpen(last), Math.max(bars.getHigh(last), high), Math.min(bars.getLow(last), low), close, bars.getVolume(last) + volume, bars.getOpenInterest(last));
+        } else {
+            bars.add(getBarTime(timeStamp), open, high, low, close, volume, 0.0);
+        }
+    }
+
+    /**
+     * Consolidates a batch of ticks under the data set's write lock and notifies its listeners once
+     *
+     * @param ticks the tick batch
+     */
+    public void consolidate(final TickBuffer ticks) {
+        AssertUtils.notNull("ticks", ticks);
+        if (ticks.size() == 0) {
+            return;
+        }
+        dataSet.lock().writeLockGuard(() -> {
+            final long[] time = ticks.getTime();
+            final double[] open = ticks.getOpen();
+            final double[] high = ticks.getHigh();
+            final double[] low = ticks.getLow();
+            final double[] close = ticks.getClose();
+            final double[] volume = ticks.getVolume();
+            for (int i = 0; i < ticks.size(); i++) {
+                addTick(time[i], open[i], high[i], low[i], close[i], volume[i]);
+            }
+        });
+        dataSet.fireInvalidated(ChartBits.DataSetData);
+    }
+
+    /**
+     * @return the output data set
+     */
+    public OhlcvDataSet getDataSet() {
+        return dataSet;
+    }
+
+    /**
+     * @return number of consolidated ticks
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * @param tickTime time stamp of the first tick of a new bar
+     * @return the bar time stamp, by default the time stamp of the first tick
+     */
+    protected long getBarTime(final long tickTime) {
+        return tickTime;
+    }
+
+    /**
+     * @param timeStamp tick time stamp
+     * @param high tick high value
+     * @param low tick low value
+     * @param volume tick volume
+     * @return {@code true} if the tick extends the last bar, {@code false} if it starts a new bar
+     */
+    protected abstract boolean isPartOfLastBar(final long timeStamp, final double high, final double low, final double volume);
+}
@@ -0,0 +1,38 @@
+package io.fair_acc.dataset.spi.financial.ticks;
+
+import io.fair_acc.dataset.spi.financial.OhlcvDataSet;
+
+/**
+ * Consolidates ticks into range bars: a tick extends the last bar until its high-low range reaches the bar range.
+ * Afterwards, only ticks within the bar's high-low interval extend it, while the first tick outside starts a new bar.
+ */
+public class RangeBarConsolidator extends OhlcvBarConsolidator {
+    private final double barRange;
+
+    /**
+     * @param dataSet the output data set
+     * @param barRange bar (high - low) range
+     */
+    public RangeBarConsolidator(final OhlcvDataSet dataSet, final double barRange) {
+        super(dataSet);
+        if (!(barRange > 0.0)) {
+            throw new IllegalArgumentException("barRange must be > 0: " + barRange);
+        }
+        this.barRange = barRange;
+    }
+
+    /**
+     * @return bar (high - low) range
+     */
+    public double getBarRange() {
+        return barRange;
+    }
+
+    @Override
+    protected boolean isPartOfLastBar(final long timeStamp, final double high, final double low, final double volume) {
+        final int last = bars.size() - 1;
+        final double barHigh = bars.getHigh(last);
+        final double barLow = bars.getLow(last);
+        return barHigh - barLow < barRange || (low >= barLow && high <= barHigh);
+    }
+}
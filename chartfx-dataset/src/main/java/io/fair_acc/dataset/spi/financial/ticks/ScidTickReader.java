@@ -0,0 +1,285 @@
+package io.fair_acc.dataset.spi.financial.ticks;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import io.fair_acc.dataset.utils.AssertUtils;
+
+/**
+ * Memory-mapped reader for Sierra Chart intraday data files (*.scid).
+ * <p>
+ * The file consists of a 56-byte header followed by fixed-size 40-byte little-endian records:
+ * <pre>
+ *   offset  type     content
+ *    0      double   date-time (or int64 micro-seconds, see {@link TimeFormat})
+ *    8      float    open (0 for single trades as of Sierra Chart 1150)
+ *   12      float    high (ask price for single trades)
+ *   16      float    low (bid price for single trades)
+ *   20      float    close (trade price)
+ *   24      uint32   number of trades
+ *   28      uint32   total volume
+ *   32      uint32   bid volume
+ *   36      uint32   ask volume
+ * </pre>
+ * The file is mapped in windows of a configurable number of records. Blocks of records are bulk-copied from the mapping
+ * (via an {@link IntBuffer} view) into a re-usable {@code int[]} and decoded from there into the primitive columns of a
+ * re-usable {@link TickBuffer}, i.e. reading neither accesses the buffer per field nor allocates per record. Files that are appended to while being
+ * read (live recording) are supported: {@link #getRecordCount()} re-evaluates the file size and the mapping is
+ * extended on the next {@link #read(TickBuffer)}.
+ * <p>
+ * N.B. time stamps are returned in [ms] since epoch (UTC), i.e. without the local time-zone shift applied by the
+ * sample implementation.
+ */
+public class ScidTickReader implements AutoCloseable {
+    public static final int HEADER_SIZE = 56;
+    public static final int RECORD_SIZE = 40;
+    public static final int DEFAULT_WINDOW_RECORDS = 1 << 22; // 160 MB mapping windows
+    private static final int MAX_WINDOW_RECORDS = Integer.MAX_VALUE / RECORD_SIZE;
+    private static final int RECORD_INTS = RECORD_SIZE / Integer.BYTES;
+    private static final int BLOCK_RECORDS = 1024; // records per bulk copy
+    private static final long COM_EPOCH_OFFSET_DAYS = 25_569L; // days between 1899-12-30 and 1970-01-01
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private final FileChannel channel;
+    private final TimeFormat timeFormat;
+    private final int windowRecords;
+    private final ByteBuffer timeBuffer = ByteBuffer.allocateDirect(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private final int[] block = new int[BLOCK_RECORDS * RECORD_INTS];
+    private MappedByteBuffer window;
+    private IntBuffer windowInts; // little-endian int view of the mapped window
+    private long windowStart; // first record index of the mapped window
+    private long windowEnd; // exclusive
+    private long recordCount;
+    private long position;
+
+    /**
+     * Opens a file with the legacy (double) time format and the default mapping window
+     *
+     * @param path the *.scid file
+     * @throws IOException in case the file cannot be opened or is not a valid intraday data file
+     */
+    public ScidTickReader(final Path path) throws IOException {
+        this(path, TimeFormat.OLE_DAYS, DEFAULT_WINDOW_RECORDS);
+    }
+
+    /**
+     * @param path the *.scid file
+     * @param timeFormat the encoding of the record time stamp
+     * @param windowRecords number of records that are mapped at a time
+     * @throws IOException in case the file cannot be opened or is not a valid intraday data file
+     */
+    public ScidTickReader(final Path path, final TimeFormat timeFormat, final int windowRecords) throws IOException {
+        AssertUtils.notNull("path", path);
+        AssertUtils.notNull("timeFormat", timeFormat);
+        if (windowRecords <= 0 || windowRecords > MAX_WINDOW_RECORDS) {
+            throw new IllegalArgumentException("windowRecords must be within [1, " + MAX_WINDOW_RECORDS + "]: " + windowRecords);
+        }
+        this.timeFormat = timeFormat;
+        this.windowRecords = windowRecords;
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            checkHeader();
+        } catch (final IOException e) {
+            channel.close();
+            throw e;
+        }
+        getRecordCount();
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null; // N.B. unmapped by the garbage collector
+        windowInts = null;
+        channel.close();
+    }
+
+    /**
+     * @return index of the next record returned by {@link #read(TickBuffer)}
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * @return number of complete records in the file (re-evaluated on each call to support files that are being
+     *         appended to)
+     * @throws IOException in case the file size cannot be determined
+     */
+    public long getRecordCount() throws IOException {
+        recordCount = Math.max(0, (channel.size() - HEADER_SIZE) / RECORD_SIZE);
+        return recordCount;
+    }
+
+    /**
+     * @param record record index
+     * @return record time stamp in [ms] since epoch (UTC)
+     * @throws IOException in case the record cannot be read
+     */
+    public long getTime(final long record) throws IOException {
+        if (record < 0 || record >= recordCount) {
+            throw new IndexOutOfBoundsException("record " + record + " out of bounds for record count " + recordCount);
+        }
+        timeBuffer.clear();
+        final long offset = HEADER_SIZE + record * RECORD_SIZE;
+        while (timeBuffer.hasRemaining()) {
+            if (channel.read(timeBuffer, offset + timeBuffer.position()) < 0) {
+                throw new EOFException("could not read time-stamp of record " + record);
+            }
+        }
+        return timeFormat == TimeFormat.OLE_DAYS ? convertOleDays(timeBuffer.getDouble(0)) : convertMicroseconds(timeBuffer.getLong(0));
+    }
+
+    public TimeFormat getTimeFormat() {
+        return timeFormat;
+    }
+
+    /**
+     * Decodes the next records into the given buffer
+     *
+     * @param buffer the buffer to be filled (previous content is discarded)
+     * @return number of decoded records, {@code 0} if the end of the file has been reached
+     * @throws IOException in case the file cannot be mapped
+     */
+    public int read(final TickBuffer buffer) throws IOException {
+        AssertUtils.notNull("buffer", buffer);
+        buffer.clear();
+        if (position >= recordCount && position >= getRecordCount()) {
+            return 0;
+        }
+        final int nRecords = (int) Math.min(buffer.getCapacity(), recordCount - position);
+        int count = 0;
+        while (count < nRecords) {
+            if (window == null || position < windowStart || position >= windowEnd) {
+                map(position);
+            }
+            final int chunk = (int) Math.min(nRecords - count, windowEnd - position);
+            decode((int) (position - windowStart), buffer, count, chunk);
+            count += chunk;
+            position += chunk;
+        }
+        buffer.size(count);
+        return count;
+    }
+
+    /**
+     * @param record index of the next record returned by {@link #read(TickBuffer)}
+     * @return itself (fluent design)
+     */
+    public ScidTickReader seek(final long record) {
+        if (record < 0) {
+            throw new IllegalArgumentException("record must be >= 0: " + record);
+        }
+        position = record;
+        return this;
+    }
+
+    /**
+     * Positions the reader at the first record with a time stamp equal or later than the given time (binary search,
+     * requires time-ordered records)
+     *
+     * @param timeStamp time stamp in [ms] since epoch (UTC)
+     * @return index of the first record with a time stamp &gt;= timeStamp, or the record count if there is none
+     * @throws IOException in case the records cannot be read
+     */
+    public long seekTime(final long timeStamp) throws IOException {
+        long low = 0;
+        long high = getRecordCount();
+        while (low < high) {
+            final long mid = (low + high) >>> 1;
+            if (getTime(mid) < timeStamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        position = low;
+        return low;
+    }
+
+    private void checkHeader() throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IOException("file too short for intraday data header");
+            }
+        }
+        if (header.get(0) != 'S' || header.get(1) != 'C' || header.get(2) != 'I' || header.get(3) != 'D') {
+            throw new IOException("missing 'SCID' file identifier");
+        }
+        final int headerSize = header.getInt(4);
+        final int recordSize = header.getInt(8);
+        if (headerSize != HEADER_SIZE || recordSize != RECORD_SIZE) {
+            throw new IOException("unsupported header/record size: " + headerSize + "/" + recordSize + " bytes, expected " + HEADER_SIZE + "/" + RECORD_SIZE);
+        }
+    }
+
+    private void decode(final int windowRecord, final TickBuffer dst, final int dstOffset, final int length) {
+        final boolean oleDays = timeFormat == TimeFormat.OLE_DAYS;
+        final long[] time = dst.getTime();
+        final double[] open = dst.getOpen();
+        final double[] high = dst.getHigh();
+        final double[] low = dst.getLow();
+        final double[] close = dst.getClose();
+        final double[] volume = dst.getVolume();
+        final double[] bidVolume = dst.getBidVolume();
+        final double[] askVolume = dst.getAskVolume();
+        for (int done = 0; done < length; done += BLOCK_RECORDS) {
+            final int nRecords = Math.min(BLOCK_RECORDS, length - done);
+            windowInts.get((windowRecord + done) * RECORD_INTS, block, 0, nRecords * RECORD_INTS);
+            for (int k = 0, i = dstOffset + done; k < nRecords * RECORD_INTS; k += RECORD_INTS, i++) {
+                // N.B. little-endian: the first int holds the lower half of the 64-bit date-time
+                final long rawTime = ((long) block[k + 1] << 32) | (block[k] & 0xFFFF_FFFFL);
+                time[i] = oleDays ? convertOleDays(Double.longBitsToDouble(rawTime)) : convertMicroseconds(rawTime);
+                final float recordOpen = Float.intBitsToFloat(block[k + 2]);
+                final float recordClose = Float.intBitsToFloat(block[k + 5]);
+                open[i] = recordOpen == 0.0f ? recordClose : recordOpen; // single trade
+                high[i] = Float.intBitsToFloat(block[k + 3]);
+                low[i] = Float.intBitsToFloat(block[k + 4]);
+                close[i] = recordClose;
+                volume[i] = block[k + 7] & 0xFFFF_FFFFL;
+                bidVolume[i] = block[k + 8] & 0xFFFF_FFFFL;
+                askVolume[i] = block[k + 9] & 0xFFFF_FFFFL;
+            }
+        }
+    }
+
+    private void map(final long record) throws IOException {
+        windowStart = record;
+        windowEnd = Math.min(recordCount, record + windowRecords);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + windowStart * RECORD_SIZE, (windowEnd - windowStart) * RECORD_SIZE);
+        window.order(ByteOrder.LITTLE_ENDIAN);
+        windowInts = window.asIntBuffer(); // N.B. inherits the byte order
+    }
+
+    /**
+     * @param comTime Windows/COM date-time, i.e. fractional days since 1899-12-30
+     * @return [ms] since epoch (UTC)
+     */
+    public static long convertOleDays(final double comTime) {
+        return Math.round((comTime - COM_EPOCH_OFFSET_DAYS) * MILLIS_PER_DAY);
+    }
+
+    /**
+     * @param microseconds micro-seconds since 1899-12-30
+     * @return [ms] since epoch (UTC)
+     */
+    public static long convertMicroseconds(final long microseconds) {
+        return Math.floorDiv(microseconds, 1000L) - COM_EPOCH_OFFSET_DAYS * MILLIS_PER_DAY;
+    }
+
+    /**
+     * Encoding of the record date-time field
+     */
+    public enum TimeFormat {
+        /** legacy format: double, fractional days since 1899-12-30 */
+        OLE_DAYS,
+        /** current format: int64, micro-seconds since 1899-12-30 */
+        MICROSECONDS
+    }
+}
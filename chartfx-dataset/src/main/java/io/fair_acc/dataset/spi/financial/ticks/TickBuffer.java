@@ -0,0 +1,138 @@
+package io.fair_acc.dataset.spi.financial.ticks;
+
+/**
+ * Re-usable column-oriented batch of tick records as filled by {@link ScidTickReader#read(TickBuffer)} and consumed by
+ * {@link OhlcvBarConsolidator#consolidate(TickBuffer)}.
+ * <p>
+ * The columns are allocated once with a fixed capacity and are exposed directly to avoid copies, i.e. only the first
+ * {@link #size()} entries are valid.
+ */
+public class TickBuffer {
+    private final long[] time; // [ms] since epoch (UTC)
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final double[] volume;
+    private final double[] bidVolume;
+    private final double[] askVolume;
+    private int size;
+
+    /**
+     * @param capacity maximum number of ticks per batch
+     */
+    public TickBuffer(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0: " + capacity);
+        }
+        time = new long[capacity];
+        open = new double[capacity];
+        high = new double[capacity];
+        low = new double[capacity];
+        close = new double[capacity];
+        volume = new double[capacity];
+        bidVolume = new double[capacity];
+        askVolume = new double[capacity];
+    }
+
+    /**
+     * Appends a tick record
+     *
+     * @param timeStamp time stamp in [ms] since epoch (UTC)
+     * @param open open value (equal to 'close' for single trades)
+     * @param high high value (or ask price for single trades)
+     * @param low low value (or bid price for single trades)
+     * @param close close (i.e. trade) value
+     * @param volume total volume
+     * @param bidVolume volume traded at the bid
+     * @param askVolume volume traded at the ask
+     * @return itself (fluent design)
+     */
+    public TickBuffer add(final long timeStamp, final double open, final double high, final double low, final double close, final double volume, final double bidVolume, final double askVolume) {
+        if (size == time.length) {
+            throw new IllegalStateException("buffer is full, capacity = " + time.length);
+        }
+        set(size++, timeStamp, open, high, low, close, volume, bidVolume, askVolume);
+        return this;
+    }
+
+    /**
+     * @return itself (fluent design)
+     */
+    public TickBuffer clear() {
+        size = 0;
+        return this;
+    }
+
+    public double[] getAskVolume() {
+        return askVolume;
+    }
+
+    public double[] getBidVolume() {
+        return bidVolume;
+    }
+
+    /**
+     * @return maximum number of ticks per batch
+     */
+    public int getCapacity() {
+        return time.length;
+    }
+
+    public double[] getClose() {
+        return close;
+    }
+
+    public double[] getHigh() {
+        return high;
+    }
+
+    public double[] getLow() {
+        return low;
+    }
+
+    public double[] getOpen() {
+        return open;
+    }
+
+    /**
+     * @return tick time stamps in [ms] since epoch (UTC)
+     */
+    public long[] getTime() {
+        return time;
+    }
+
+    public double[] getVolume() {
+        return volume;
+    }
+
+    /**
+     * @return number of valid ticks
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param newSize number of valid ticks (e.g. after filling the columns directly)
+     * @return itself (fluent design)
+     */
+    public TickBuffer size(final int newSize) {
+        if (newSize < 0 || newSize > time.length) {
+            throw new IllegalArgumentException("size must be within [0, " + time.length + "]: " + newSize);
+        }
+        size = newSize;
+        return this;
+    }
+
+    void set(final int index, final long timeStamp, final double open, final double high, final double low, final double close, final double volume, final double bidVolume, final double askVolume) {
+        this.time[index] = timeStamp;
+        this.open[index] = open;
+        this.high[index] = high;
+        this.low[index] = low;
+        this.close[index] = close;
+        this.volume[index] = volume;
+        this.bidVolume[index] = bidVolume;
+        this.askVolume[index] = askVolume;
+    }
+}
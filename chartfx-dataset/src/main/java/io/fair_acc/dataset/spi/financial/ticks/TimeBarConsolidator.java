@@ -0,0 +1,63 @@
+package io.fair_acc.dataset.spi.financial.ticks;
+
+import io.fair_acc.dataset.spi.financial.OhlcvDataSet;
+
+/**
+ * Consolidates ticks into bars of a fixed time period.
+ * <p>
+ * Bars cover the half-open intervals {@code (offset + k * period, offset + (k + 1) * period]} and are time-stamped with
+ * the interval end, i.e. a tick exactly on the boundary belongs to the preceding bar. The offset can be used to align
+ * the bars to the start of a trading session. The interval of the last bar is derived from its time stamp, i.e. ticks
+ * may also extend the last bar of a data set that already contained bars when the consolidator has been attached.
+ */
+public class TimeBarConsolidator extends OhlcvBarConsolidator {
+    private final long period;
+    private final long offset;
+
+    /**
+     * @param dataSet the output data set
+     * @param period bar period in [ms]
+     */
+    public TimeBarConsolidator(final OhlcvDataSet dataSet, final long period) {
+        this(dataSet, period, 0L);
+    }
+
+    /**
+     * @param dataSet the output data set
+     * @param period bar period in [ms]
+     * @param offset bar alignment offset w.r.t. epoch in [ms]
+     */
+    public TimeBarConsolidator(final OhlcvDataSet dataSet, final long period, final long offset) {
+        super(dataSet);
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be > 0: " + period);
+        }
+        this.period = period;
+        this.offset = Math.floorMod(offset, period);
+    }
+
+    /**
+     * @return bar alignment offset w.r.t. epoch in [ms]
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return bar period in [ms]
+     */
+    public long getPeriod() {
+        return period;
+    }
+
+    @Override
+    protected long getBarTime(final long tickTime) {
+        return offset - Math.floorDiv(offset - tickTime, period) * period; // N.B. ceiling division
+    }
+
+    @Override
+    protected boolean isPartOfLastBar(final long timeStamp, final double high, final double low, final double volume) {
+        final long barEnd = bars.getTime(bars.size() - 1);
+        return timeStamp <= barEnd && timeStamp > barEnd - period;
+    }
+}
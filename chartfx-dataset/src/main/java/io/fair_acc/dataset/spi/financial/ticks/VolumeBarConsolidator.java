@@ -0,0 +1,35 @@
+package io.fair_acc.dataset.spi.financial.ticks;
+
+import io.fair_acc.dataset.spi.financial.OhlcvDataSet;
+
+/**
+ * Consolidates ticks into bars of a maximum traded volume: a tick extends the last bar as long as the accumulated volume
+ * does not exceed the bar volume. Single ticks exceeding the bar volume form a bar of their own.
+ */
+public class VolumeBarConsolidator extends OhlcvBarConsolidator {
+    private final double barVolume;
+
+    /**
+     * @param dataSet the output data set
+     * @param barVolume maximum volume per bar
+     */
+    public VolumeBarConsolidator(final OhlcvDataSet dataSet, final double barVolume) {
+        super(dataSet);
+        if (!(barVolume > 0.0)) {
+            throw new IllegalArgumentException("barVolume must be > 0: " + barVolume);
+        }
+        this.barVolume = barVolume;
+    }
+
+    /**
+     * @return maximum volume per bar
+     */
+    public double getBarVolume() {
+        return barVolume;
+    }
+
+    @Override
+    protected boolean isPartOfLastBar(final long timeStamp, final double high, final double low, final double volume) {
+        return volume <= barVolume - bars.getVolume(bars.size() - 1);
+    }
+}
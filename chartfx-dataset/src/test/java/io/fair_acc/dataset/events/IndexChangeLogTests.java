@@ -0,0 +1,152 @@
+package io.fair_acc.dataset.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import io.fair_acc.dataset.spi.CircularDoubleErrorDataSet;
+import io.fair_acc.dataset.spi.DoubleDataSet;
+
+/**
+ * Tests for {@link IndexChangeLog} and the change annotations of the default data set implementations.
+ */
+class IndexChangeLogTests {
+    @Test
+    void testAccumulation() {
+        final IndexChangeLog log = new IndexChangeLog();
+        final IndexChangeLog.Changes changes = new IndexChangeLog.Changes();
+        final long start = log.getVersion();
+        assertTrue(log.getChangesSince(start, changes));
+        assertTrue(changes.isEmpty());
+        assertFalse(log.getChangesSince(-1, changes));
+        assertFalse(log.getChangesSince(start + 1, changes));
+
+        log.markAppended(10, 12);
+        log.markChanged(3, 4);
+        assertTrue(log.getChangesSince(start, changes));
+        assertEquals(3, changes.getFrom());
+        assertEquals(12, changes.getTo());
+        assertEquals(0, changes.getShift());
+
+        // ring-buffer shift moves the previous changes towards the front
+        final long mid = log.getVersion();
+        log.markShifted(5, 10, 12);
+        assertTrue(log.getChangesSince(start, changes));
+        assertEquals(5, changes.getShift());
+        assertEquals(0, changes.getFrom());
+        assertEquals(12, changes.getTo());
+        assertTrue(log.getChangesSince(mid, changes));
+        assertEquals(10, changes.getFrom());
+        assertEquals(12, changes.getTo());
+        assertThrows(IllegalArgumentException.class, () -> log.markShifted(-1, 0, 0));
+
+        // older versions than the log capacity are unknown
+        for (int i = 0; i < IndexChangeLog.CAPACITY; i++) {
+            log.markChanged(0, 1);
+            log.getVersion(); // state observed by a consumer
+        }
+        assertFalse(log.getChangesSince(mid, changes));
+        log.markAll();
+        assertFalse(log.getChangesSince(log.getVersion() - 1, changes));
+    }
+
+    @Test
+    void testMergeUnobservedChanges() {
+        final IndexChangeLog log = new IndexChangeLog();
+        final IndexChangeLog.Changes changes = new IndexChangeLog.Changes();
+        final long start = log.getVersion();
+
+        // appends and shifts between two observations are merged into one entry, independent of their number
+        for (int i = 0; i < 10 * IndexChangeLog.CAPACITY; i++) {
+            log.markAppended(i, i + 1);
+        }
+        assertEquals(start + 1, log.getVersion());
+        for (int i = 0; i < 10 * IndexChangeLog.CAPACITY; i++) {
+            log.markShifted(1, 99, 100);
+        }
+        assertEquals(start + 2, log.getVersion());
+        assertTrue(log.getChangesSince(start, changes));
+        assertEquals(10 * IndexChangeLog.CAPACITY, changes.getShift());
+        assertEquals(0, changes.getFrom());
+        assertEquals(100, changes.getTo());
+        assertTrue(log.getChangesSince(start + 1, changes));
+        assertEquals(10 * IndexChangeLog.CAPACITY, changes.getShift());
+        assertEquals(0, changes.getFrom());
+        assertEquals(100, changes.getTo());
+
+        // a full update absorbs the merged changes
+        final long version = log.getVersion();
+        log.markAppended(100, 101);
+        log.markAll();
+        log.markAppended(101, 102);
+        assertFalse(log.getChangesSince(version, changes));
+    }
+
+    @Test
+    void testAnnotationOfOtherWriter() throws InterruptedException {
+        final IndexChangeLog.Changes changes = new IndexChangeLog.Changes();
+        final DoubleDataSet dataSet = new DoubleDataSet("test");
+        final IndexChangeLog log = dataSet.getIndexChangeLog();
+        dataSet.add(0, 1);
+        final long version = log.getVersion();
+
+        // annotation whose event is never fired must not cover the un-annotated event of another writer
+        log.markAppended(1, 2);
+        final Thread writer = new Thread(() -> dataSet.fireInvalidated(ChartBits.DataSetDataAdded));
+        writer.start();
+        writer.join();
+        assertFalse(log.getChangesSince(version, changes));
+    }
+
+    @Test
+    void testDataSetAnnotations() {
+        final IndexChangeLog.Changes changes = new IndexChangeLog.Changes();
+        final DoubleDataSet dataSet = new DoubleDataSet("test");
+        final IndexChangeLog log = dataSet.getIndexChangeLog();
+        long version = log.getVersion();
+        dataSet.add(0, 1).add(1, 2);
+        dataSet.add(new double[] { 2, 3 }, new double[] { 3, 4 });
+        assertTrue(log.getChangesSince(version, changes));
+        assertEquals(0, changes.getShift());
+        assertEquals(0, changes.getFrom());
+        assertEquals(4, changes.getTo());
+
+        version = log.getVersion();
+        dataSet.add(4, 5);
+        assertTrue(log.getChangesSince(version, changes));
+        assertEquals(4, changes.getFrom());
+        assertEquals(5, changes.getTo());
+
+        // events without annotation invalidate everything
+        version = log.getVersion();
+        dataSet.fireInvalidated(ChartBits.DataSetDataAdded);
+        assertFalse(log.getChangesSince(version, changes));
+        version = log.getVersion();
+        dataSet.set(new double[] { 1, 2 }, new double[] { 3, 4 });
+        assertFalse(log.getChangesSince(version, changes));
+    }
+
+    @Test
+    void testRingBufferShift() {
+        final IndexChangeLog.Changes changes = new IndexChangeLog.Changes();
+        final CircularDoubleErrorDataSet dataSet = new CircularDoubleErrorDataSet("test", 5);
+        final IndexChangeLog log = dataSet.getIndexChangeLog();
+        long version = log.getVersion();
+        dataSet.add(new double[] { 0, 1, 2, 3 }, new double[] { 0, 1, 2, 3 }, new double[4], new double[4]);
+        assertTrue(log.getChangesSince(version, changes));
+        assertEquals(0, changes.getShift());
+        assertEquals(0, changes.getFrom());
+        assertEquals(4, changes.getTo());
+
+        version = log.getVersion();
+        dataSet.add(new double[] { 4, 5, 6 }, new double[] { 4, 5, 6 }, new double[3], new double[3]);
+        assertTrue(log.getChangesSince(version, changes));
+        assertEquals(2, changes.getShift());
+        assertEquals(2, changes.getFrom());
+        assertEquals(5, changes.getTo());
+        assertEquals(2.0, dataSet.get(0, 0)); // previous index 2
+    }
+}
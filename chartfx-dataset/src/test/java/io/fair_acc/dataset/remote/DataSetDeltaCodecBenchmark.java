@@ -0,0 +1,112 @@
+package io.fair_acc.dataset.remote;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.fair_acc.dataset.DataSet;
+import io.fair_acc.dataset.spi.DoubleErrorDataSet;
+import io.fair_acc.dataset.utils.DataSetUtils;
+
+/**
+ * Local encode/transfer/decode loop of a slowly changing data set comparing the {@link DataSetDeltaEncoder} key/delta
+ * frames against the existing {@link DataContainer} transport with {@link DataSetUtils} CSV and binary serialisation.
+ * The throughput is in frames per second, the bandwidth is reported via the {@code bytes} counter (bytes per second,
+ * divide by the frame rate for the average frame size).
+ * <p>
+ * Not part of the unit tests, run via the main method.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DataSetDeltaCodecBenchmark {
+    private static final int N_UPDATES = 64;
+    @Param({ "CSV", "BINARY", "DELTA" })
+    private String codec;
+    @Param({ "1000", "100000" })
+    private int nSamples;
+    private final ByteArrayOutputStream byteOutput = new ByteArrayOutputStream();
+    private DoubleErrorDataSet source;
+    private DataSetDeltaEncoder encoder;
+    private DataSetDeltaDecoder decoder;
+    private int update;
+
+    @Setup
+    public void setup() {
+        source = new DoubleErrorDataSet("source", nSamples);
+        for (int i = 0; i < nSamples; i++) {
+            source.add(i, Math.sin(0.01 * i), 0.1, 0.1);
+        }
+        encoder = new DataSetDeltaEncoder();
+        decoder = new DataSetDeltaDecoder();
+    }
+
+    @Setup(Level.Invocation)
+    public void updateSource() {
+        // slowly changing data: every 64th sample changes per update
+        update++;
+        for (int i = update % N_UPDATES; i < nSamples; i += N_UPDATES) {
+            source.set(i, i, Math.sin(0.01 * i + 1e-3 * update), 0.1, 0.1);
+        }
+    }
+
+    @Benchmark
+    public void transfer(final Counters counters, final Blackhole blackhole) {
+        final DataSet received;
+        switch (codec) {
+        case "DELTA":
+            final ByteBuffer frame = encoder.encode(source);
+            counters.bytes += frame.remaining();
+            received = decoder.decode(frame);
+            encoder.release(frame);
+            break;
+        case "BINARY":
+        case "CSV":
+        default:
+            DataSetUtils.writeDataSetToByteArray(source, byteOutput, "BINARY".equals(codec), false);
+            final DataContainer container = new DataContainer("source", "benchmark", 0, //
+                    new Data("source.bin", MimeType.BINARY.toString(), byteOutput.toByteArray(), byteOutput.size()));
+            final Data data = container.getData().get(0);
+            counters.bytes += data.getDataByteArraySize();
+            received = DataSetUtils.readDataSetFromByteArray(data.getDataByteArray());
+            break;
+        }
+        blackhole.consume(received.get(DataSet.DIM_Y, nSamples - 1));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        final Options opt = new OptionsBuilder().include(DataSetDeltaCodecBenchmark.class.getSimpleName()).build();
+        new Runner(opt).run();
+    }
+
+    /**
+     * Transferred bytes (bandwidth)
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long bytes;
+    }
+}
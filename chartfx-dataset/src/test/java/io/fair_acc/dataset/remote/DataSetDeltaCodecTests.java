@@ -0,0 +1,221 @@
+package io.fair_acc.dataset.remote;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import io.fair_acc.dataset.DataSet;
+import io.fair_acc.dataset.DataSetError;
+import io.fair_acc.dataset.DataSetError.ErrorType;
+import io.fair_acc.dataset.spi.DoubleDataSet;
+import io.fair_acc.dataset.spi.DoubleErrorDataSet;
+import io.fair_acc.dataset.spi.DoubleGridDataSet;
+import io.fair_acc.dataset.spi.MultiDimDoubleDataSet;
+
+/**
+ * Tests of {@link DataSetDeltaEncoder}, {@link DataSetDeltaDecoder} and {@link XorColumnCoder}
+ */
+public class DataSetDeltaCodecTests {
+    private static final int N_SAMPLES = 1000;
+
+    @Test
+    public void testColumnCoder() {
+        final double[] values = { 0.0, 0.0, 1.0, -1.0, Double.NaN, Double.MIN_VALUE, Double.MAX_VALUE, Double.NEGATIVE_INFINITY, -0.0, 1.0, 1.0 };
+        final ByteBuffer buffer = ByteBuffer.allocate(XorColumnCoder.getMaxEncodedSize(values.length));
+        XorColumnCoder.encode(buffer, values, null, values.length);
+        buffer.flip();
+        final double[] decoded = new double[values.length];
+        XorColumnCoder.decode(buffer, decoded, values.length, true);
+        assertFalse(buffer.hasRemaining());
+        assertBitExact(values, decoded, values.length);
+
+        // long runs of unchanged values are split into runs of at most 128
+        final double[] reference = new double[1000];
+        final double[] next = reference.clone();
+        next[500] = 42.0;
+        final ByteBuffer large = ByteBuffer.allocate(XorColumnCoder.getMaxEncodedSize(next.length));
+        XorColumnCoder.encode(large, next, reference, next.length);
+        assertEquals(42.0, reference[500], "reference updated in place");
+        assertEquals(4 + 3 + 4, large.position()); // 4 runs, value (control + 2 bytes), 4 runs
+        large.flip();
+        final double[] previous = new double[1000];
+        XorColumnCoder.decode(large, previous, previous.length, false);
+        assertBitExact(next, previous, next.length);
+
+        large.clear();
+        large.put((byte) 0xFF).flip(); // run of 128 > 10 remaining values
+        assertThrows(IllegalStateException.class, () -> XorColumnCoder.decode(large, new double[10], 10, false));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final DataSetDeltaEncoder encoder = new DataSetDeltaEncoder();
+        final DataSetDeltaDecoder decoder = new DataSetDeltaDecoder();
+        assertNull(decoder.getDataSet());
+        assertThrows(IllegalArgumentException.class, () -> encoder.encode(null));
+        assertThrows(IllegalArgumentException.class, () -> encoder.encode(new DoubleGridDataSet("grid", 2)));
+        assertThrows(IllegalArgumentException.class, () -> encoder.setKeyFrameInterval(0));
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(null));
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(ByteBuffer.allocate(64)));
+
+        final DoubleErrorDataSet source = createSource("source ±", 0);
+        ByteBuffer frame = encoder.encode(source);
+        assertEquals(DataSetDeltaEncoder.KEY_FRAME, frame.get(4));
+        final int keyFrameSize = frame.remaining();
+        final DataSet decoded = decoder.decode(frame);
+        encoder.release(frame);
+        assertTrue(decoder.isSynchronised());
+        assertEquals(1, decoder.getSequence());
+        assertEquals("source ±", decoded.getName());
+        assertEqualDataSets(source, decoded);
+
+        for (int update = 1; update < 10; update++) {
+            updateSource(source, update);
+            frame = encoder.encode(source);
+            assertEquals(DataSetDeltaEncoder.DELTA_FRAME, frame.get(4));
+            assertTrue(frame.remaining() < keyFrameSize / 2, "delta frame " + frame.remaining() + " vs. key frame " + keyFrameSize);
+            assertSame(decoded, decoder.decode(frame));
+            encoder.release(frame);
+            assertEqualDataSets(source, decoded);
+        }
+        assertEquals(1, encoder.getKeyFrameCount());
+        assertEquals(10, encoder.getSequence());
+        assertEquals(10, decoder.getSequence());
+
+        // unchanged data set: runs only
+        frame = encoder.encode(source);
+        assertTrue(frame.remaining() < 64 + 3 * N_SAMPLES / 128, "unchanged frame size: " + frame.remaining());
+        decoder.decode(frame);
+        assertEqualDataSets(source, decoded);
+    }
+
+    @Test
+    public void testKeyFrames() {
+        final DataSetDeltaEncoder encoder = new DataSetDeltaEncoder().setKeyFrameInterval(3);
+        assertEquals(3, encoder.getKeyFrameInterval());
+        final DataSetDeltaDecoder decoder = new DataSetDeltaDecoder();
+        final DoubleErrorDataSet source = createSource("source", 0);
+        final byte[] types = new byte[7];
+        for (int i = 0; i < types.length; i++) {
+            updateSource(source, i);
+            final ByteBuffer frame = encoder.encode(source);
+            types[i] = frame.get(4);
+            decoder.decode(frame);
+            assertEqualDataSets(source, decoder.getDataSet());
+        }
+        assertEquals("[0, 1, 1, 0, 1, 1, 0]", Arrays.toString(types));
+
+        // explicit request
+        encoder.requestKeyFrame();
+        assertEquals(DataSetDeltaEncoder.KEY_FRAME, encoder.encode(source).get(4));
+
+        // layout changes force key frames
+        source.add(N_SAMPLES, 1.0, 0.1, 0.1);
+        assertEquals(DataSetDeltaEncoder.KEY_FRAME, encoder.encode(source).get(4));
+        assertEquals(DataSetDeltaEncoder.DELTA_FRAME, encoder.encode(source).get(4));
+        source.setErrorType(DataSet.DIM_Y, ErrorType.NO_ERROR);
+        assertEquals(DataSetDeltaEncoder.KEY_FRAME, encoder.encode(source).get(4));
+    }
+
+    @Test
+    public void testLostFrame() {
+        final DataSetDeltaEncoder encoder = new DataSetDeltaEncoder();
+        final DataSetDeltaDecoder decoder = new DataSetDeltaDecoder();
+        final DoubleErrorDataSet source = createSource("source", 0);
+
+        // delta frames require a preceding key frame
+        encoder.encode(source);
+        updateSource(source, 1);
+        assertThrows(IllegalStateException.class, () -> decoder.decode(encoder.encode(source)));
+        assertFalse(decoder.isSynchronised());
+        assertNull(decoder.getDataSet());
+
+        encoder.requestKeyFrame();
+        decoder.decode(encoder.encode(source));
+        assertTrue(decoder.isSynchronised());
+        updateSource(source, 2);
+        encoder.encode(source); // lost
+        updateSource(source, 3);
+        final ByteBuffer next = encoder.encode(source);
+        assertThrows(IllegalStateException.class, () -> decoder.decode(next));
+        assertFalse(decoder.isSynchronised());
+
+        // re-synchronises on the next key frame
+        encoder.requestKeyFrame();
+        decoder.decode(encoder.encode(source));
+        assertTrue(decoder.isSynchronised());
+        assertEqualDataSets(source, decoder.getDataSet());
+    }
+
+    @Test
+    public void testOtherDataSets() {
+        final DataSetDeltaEncoder encoder = new DataSetDeltaEncoder();
+        final DataSetDeltaDecoder decoder = new DataSetDeltaDecoder();
+        final DoubleDataSet plain = new DoubleDataSet("plain").set(new double[] { 1, 2, 3 }, new double[] { 4, 5, 6 });
+        DataSet decoded = decoder.decode(encoder.encode(plain));
+        assertEqualDataSets(plain, decoded);
+        assertEquals(ErrorType.NO_ERROR, ((DataSetError) decoded).getErrorType(DataSet.DIM_Y));
+
+        final MultiDimDoubleDataSet multiDim = new MultiDimDoubleDataSet("3D", false, new double[][] { { 1, 2 }, { 3, 4 }, { 5, 6 } });
+        decoded = decoder.decode(encoder.encode(multiDim));
+        assertEquals(3, decoded.getDimension());
+        assertEqualDataSets(multiDim, decoded);
+        multiDim.set(new double[][] { { 1, 2 }, { 3, 4 }, { 5, 7 } }, 2, true);
+        final ByteBuffer frame = encoder.encode(multiDim);
+        assertEquals(DataSetDeltaEncoder.DELTA_FRAME, frame.get(4));
+        assertSame(decoded, decoder.decode(frame));
+        assertEqualDataSets(multiDim, decoded);
+
+        final DoubleDataSet empty = new DoubleDataSet("empty");
+        assertEquals(0, decoder.decode(encoder.encode(empty)).getDataCount());
+    }
+
+    private static void assertBitExact(final double[] expected, final double[] actual, final int count) {
+        for (int i = 0; i < count; i++) {
+            assertEquals(Double.doubleToRawLongBits(expected[i]), Double.doubleToRawLongBits(actual[i]), "index " + i);
+        }
+    }
+
+    private static void assertEqualDataSets(final DataSet expected, final DataSet actual) {
+        assertEquals(expected.getDimension(), actual.getDimension());
+        assertEquals(expected.getDataCount(), actual.getDataCount());
+        for (int dim = 0; dim < expected.getDimension(); dim++) {
+            assertBitExact(expected.getValues(dim), actual.getValues(dim), expected.getDataCount());
+            if (expected instanceof DataSetError && ((DataSetError) expected).getErrorType(dim) != ErrorType.NO_ERROR) {
+                final DataSetError expectedError = (DataSetError) expected;
+                final DataSetError actualError = (DataSetError) actual;
+                assertEquals(expectedError.getErrorType(dim), actualError.getErrorType(dim));
+                for (int i = 0; i < expected.getDataCount(); i++) {
+                    assertEquals(expectedError.getErrorNegative(dim, i), actualError.getErrorNegative(dim, i));
+                    assertEquals(expectedError.getErrorPositive(dim, i), actualError.getErrorPositive(dim, i));
+                }
+            }
+        }
+    }
+
+    /* package */ static DoubleErrorDataSet createSource(final String name, final int update) {
+        final DoubleErrorDataSet source = new DoubleErrorDataSet(name, N_SAMPLES);
+        for (int i = 0; i < N_SAMPLES; i++) {
+            source.add(i, 0.0, 0.1, 0.1);
+        }
+        updateSource(source, update);
+        return source;
+    }
+
+    /**
+     * slowly changing spectrum-like update: only every tenth sample changes between consecutive updates
+     */
+    /* package */ static void updateSource(final DoubleErrorDataSet source, final int update) {
+        for (int i = update % 10; i < source.getDataCount(); i += 10) {
+            source.set(i, i, Math.sin(0.01 * i + 0.1 * update), 0.1, 0.1);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package io.fair_acc.dataset.remote;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.fair_acc.dataset.DataSet;
+import io.fair_acc.dataset.DataSetError.ErrorType;
+import io.fair_acc.dataset.events.ChartBits;
+import io.fair_acc.dataset.spi.DoubleDataSet;
+import io.fair_acc.dataset.spi.DoubleErrorDataSet;
+import io.fair_acc.dataset.spi.DoubleGridDataSet;
+import io.fair_acc.dataset.spi.MultiDimDoubleDataSet;
+
+/**
+ * Tests of {@link SharedMemoryDataSetPublisher} and {@link SharedMemoryDataSet}
+ */
+public class SharedMemoryDataSetTests {
+    private static final int N_SAMPLES = 1000;
+    private static final int SLOT_CAPACITY = 64 * 1024;
+
+    @Test
+    public void testConstraints(@TempDir final Path tmpDir) throws IOException {
+        final Path file = tmpDir.resolve("ring.shm");
+        assertThrows(IllegalArgumentException.class, () -> new SharedMemoryDataSetPublisher(null, "name", 2, 4, SLOT_CAPACITY));
+        assertThrows(IllegalArgumentException.class, () -> new SharedMemoryDataSetPublisher(file, null, 2, 4, SLOT_CAPACITY));
+        assertThrows(IllegalArgumentException.class, () -> new SharedMemoryDataSetPublisher(file, "name", 0, 4, SLOT_CAPACITY));
+        assertThrows(IllegalArgumentException.class, () -> new SharedMemoryDataSetPublisher(file, "name", 2, 1, SLOT_CAPACITY));
+        assertThrows(IllegalArgumentException.class, () -> new SharedMemoryDataSetPublisher(file, "name", 2, 4, 8));
+        assertThrows(IllegalArgumentException.class, () -> new SharedMemoryDataSetPublisher(file, "x".repeat(1000), 2, 4, SLOT_CAPACITY));
+        assertThrows(IOException.class, () -> new SharedMemoryDataSet(tmpDir.resolve("missing.shm")));
+        Files.write(file, new byte[1024]);
+        assertThrows(IOException.class, () -> new SharedMemoryDataSet(file), "not initialised");
+
+        try (SharedMemoryDataSetPublisher publisher = new SharedMemoryDataSetPublisher(file, "name", 2, 4, SLOT_CAPACITY)) {
+            assertEquals(2, publisher.getDimension());
+            assertEquals(4, publisher.getNumberOfSlots());
+            assertEquals(SLOT_CAPACITY, publisher.getSlotSize());
+            assertEquals(0, publisher.getSequence());
+            assertThrows(IllegalArgumentException.class, () -> publisher.publish(null));
+            assertThrows(IllegalArgumentException.class, () -> publisher.publish(new DoubleGridDataSet("grid", 2)));
+            assertThrows(IllegalArgumentException.class, () -> publisher.publish(new DoubleDataSet("large", 10_000).set(new double[10_000], new double[10_000])));
+            assertEquals(0, publisher.getSequence());
+        }
+    }
+
+    @Test
+    public void testPublishAndView(@TempDir final Path tmpDir) throws IOException {
+        final Path file = tmpDir.resolve("ring.shm");
+        final DoubleErrorDataSet source = new DoubleErrorDataSet("source", N_SAMPLES);
+        for (int i = 0; i < N_SAMPLES; i++) {
+            source.add(i, Math.sin(0.01 * i), 0.1, 0.2 + 1e-3 * i);
+        }
+        try (SharedMemoryDataSetPublisher publisher = new SharedMemoryDataSetPublisher(file, "shared ±", 2, 4, SLOT_CAPACITY);
+                SharedMemoryDataSet view = new SharedMemoryDataSet(file)) {
+            assertEquals("shared ±", view.getName());
+            assertEquals(2, view.getDimension());
+            assertEquals(0, view.getDataCount());
+            assertFalse(view.update(), "nothing published yet");
+            assertTrue(view.isValid());
+            assertThrows(UnsupportedOperationException.class, () -> view.set(source, true));
+
+            assertEquals(1, publisher.publish(source));
+            view.getBitState().clear();
+            assertTrue(view.update());
+            assertTrue(view.getBitState().isDirty(ChartBits.DataSetData));
+            assertFalse(view.update(), "no new frame");
+            assertEquals(1, view.getSequence());
+            assertTrue(Math.abs(System.currentTimeMillis() - view.getTimeStamp()) < TimeUnit.MINUTES.toMillis(1));
+            assertEquals(N_SAMPLES, view.getDataCount());
+            assertEquals(source.getErrorType(DataSet.DIM_X), view.getErrorType(DataSet.DIM_X));
+            assertEquals(ErrorType.ASYMMETRIC, view.getErrorType(DataSet.DIM_Y));
+            for (int i = 0; i < N_SAMPLES; i++) {
+                assertEquals(source.get(DataSet.DIM_X, i), view.get(DataSet.DIM_X, i));
+                assertEquals(source.get(DataSet.DIM_Y, i), view.get(DataSet.DIM_Y, i));
+                assertEquals(source.getErrorNegative(DataSet.DIM_Y, i), view.getErrorNegative(DataSet.DIM_Y, i));
+                assertEquals(source.getErrorPositive(DataSet.DIM_Y, i), view.getErrorPositive(DataSet.DIM_Y, i));
+                assertEquals(0.0, view.getErrorPositive(DataSet.DIM_X, i));
+            }
+            assertArrayEquals(source.getValues(DataSet.DIM_Y), view.getValues(DataSet.DIM_Y));
+            view.recomputeLimits();
+            assertEquals(-1.1, view.getAxisDescription(DataSet.DIM_Y).getMin(), 1e-2);
+
+            // plain data set in the same ring
+            final DoubleDataSet plain = new DoubleDataSet("plain").set(new double[] { 1, 2, 3 }, new double[] { 4, 5, 6 });
+            assertEquals(2, publisher.publish(plain));
+            assertTrue(view.isValid(), "frame 1 not yet overwritten");
+            assertTrue(view.update());
+            assertEquals(3, view.getDataCount());
+            assertEquals(ErrorType.NO_ERROR, view.getErrorType(DataSet.DIM_Y));
+            assertEquals(6.0, view.get(DataSet.DIM_Y, 2));
+            assertEquals(0.0, view.getErrorNegative(DataSet.DIM_Y, 2));
+
+            // wrapping around the ring invalidates the pinned frame
+            for (int i = 0; i < publisher.getNumberOfSlots() - 1; i++) {
+                publisher.publish(plain);
+                assertTrue(view.isValid());
+            }
+            publisher.publish(source);
+            assertFalse(view.isValid(), "frame 2 overwritten");
+            assertTrue(view.update());
+            assertEquals(publisher.getSequence(), view.getSequence());
+            assertEquals(N_SAMPLES, view.getDataCount());
+        }
+
+        // a re-started publisher restarts the sequence
+        try (SharedMemoryDataSet view = new SharedMemoryDataSet(file);
+                SharedMemoryDataSetPublisher publisher = new SharedMemoryDataSetPublisher(file, "shared ±", 2, 4, SLOT_CAPACITY)) {
+            assertFalse(view.update());
+            publisher.publish(new DoubleDataSet("restarted").set(new double[] { 1 }, new double[] { 2 }));
+            assertTrue(view.update());
+            assertEquals(1, view.getSequence());
+            assertEquals(1, view.getDataCount());
+        }
+    }
+
+    @Test
+    public void testRestartWithOpenView(@TempDir final Path tmpDir) throws IOException {
+        final Path file = tmpDir.resolve("ring.shm");
+        final DoubleDataSet first = new DoubleDataSet("first").set(new double[] { 1, 2 }, new double[] { 3, 4 });
+        final DoubleDataSet second = new DoubleDataSet("second").set(new double[] { 5 }, new double[] { 6 });
+        final int firstRun;
+        try (SharedMemoryDataSetPublisher publisher = new SharedMemoryDataSetPublisher(file, "restart", 2, 4, SLOT_CAPACITY)) {
+            firstRun = publisher.getRunId();
+            assertEquals(1, publisher.publish(first));
+        }
+        try (SharedMemoryDataSet view = new SharedMemoryDataSet(file)) {
+            assertTrue(view.update());
+            assertEquals(firstRun, view.getRunId());
+            assertEquals(1, view.getSequence());
+
+            // the re-started publisher writes its frame 1 into the slot pinned by the view
+            try (SharedMemoryDataSetPublisher publisher = new SharedMemoryDataSetPublisher(file, "restart", 2, 4, SLOT_CAPACITY)) {
+                assertTrue(publisher.getRunId() != firstRun);
+                assertFalse(view.update(), "nothing published by the new run yet");
+                assertTrue(view.isValid());
+                assertEquals(1, publisher.publish(second));
+                assertFalse(view.isValid(), "frame 1 of the previous run overwritten");
+                assertTrue(view.update(), "frame 1 of the new run");
+                assertEquals(publisher.getRunId(), view.getRunId());
+                assertEquals(1, view.getSequence());
+                assertEquals(1, view.getDataCount());
+                assertEquals(6.0, view.get(DataSet.DIM_Y, 0));
+                assertFalse(view.update());
+            }
+        }
+    }
+
+    @Test
+    public void testRestartWithChangedLayout(@TempDir final Path tmpDir) throws IOException {
+        final Path file = tmpDir.resolve("ring.shm");
+        try (SharedMemoryDataSetPublisher publisher = new SharedMemoryDataSetPublisher(file, "layout", 2, 4, SLOT_CAPACITY)) {
+            publisher.publish(new DoubleDataSet("first").set(new double[] { 1, 2 }, new double[] { 3, 4 }));
+        }
+        try (SharedMemoryDataSet view = new SharedMemoryDataSet(file)) {
+            assertTrue(view.update());
+            assertEquals(2, view.getDataCount());
+
+            // more and larger slots: the view has to re-map the grown file
+            final double[] xValues = new double[2 * N_SAMPLES];
+            final double[] yValues = new double[2 * N_SAMPLES];
+            for (int i = 0; i < xValues.length; i++) {
+                xValues[i] = i;
+                yValues[i] = -i;
+            }
+            try (SharedMemoryDataSetPublisher publisher = new SharedMemoryDataSetPublisher(file, "layout", 2, 8, 2 * SLOT_CAPACITY)) {
+                for (int frame = 1; frame <= 6; frame++) {
+                    yValues[0] = frame;
+                    assertEquals(frame, publisher.publish(new DoubleDataSet("second").set(xValues, yValues)));
+                }
+                assertTrue(view.update(), "frame 6 of the re-sized run");
+                assertEquals(publisher.getRunId(), view.getRunId());
+                assertEquals(6, view.getSequence());
+                assertEquals(xValues.length, view.getDataCount());
+                assertEquals(6.0, view.get(DataSet.DIM_Y, 0));
+                assertEquals(-(xValues.length - 1.0), view.get(DataSet.DIM_Y, xValues.length - 1));
+            }
+
+            // a different dimension cannot be followed by an open view
+            try (SharedMemoryDataSetPublisher publisher = new SharedMemoryDataSetPublisher(file, "layout", 3, 4, SLOT_CAPACITY)) {
+                publisher.publish(new MultiDimDoubleDataSet("third", false, new double[] { 1 }, new double[] { 2 }, new double[] { 3 }));
+                assertThrows(IllegalStateException.class, view::update);
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentPublisher(@TempDir final Path tmpDir) throws Exception {
+        final Path file = tmpDir.resolve("ring.shm");
+        final int nFrames = 2000;
+        try (SharedMemoryDataSetPublisher publisher = new SharedMemoryDataSetPublisher(file, "concurrent", 2, 4, SLOT_CAPACITY);
+                SharedMemoryDataSet view = new SharedMemoryDataSet(file)) {
+            final AtomicReference<Throwable> error = new AtomicReference<>();
+            final Thread writer = new Thread(() -> {
+                try {
+                    final DoubleDataSet source = new DoubleDataSet("source", N_SAMPLES);
+                    final double[] x = new double[N_SAMPLES];
+                    final double[] y = new double[N_SAMPLES];
+                    for (int frame = 1; frame <= nFrames; frame++) {
+                        Arrays.fill(y, frame);
+                        source.set(x, y);
+                        publisher.publish(source);
+                    }
+                } catch (final Throwable t) { // NOPMD - forwarded to the test thread
+                    error.set(t);
+                }
+            });
+            writer.start();
+
+            int nConsistent = 0;
+            while (view.getSequence() < nFrames && error.get() == null) {
+                if (!view.update()) {
+                    continue;
+                }
+                final double expected = view.getSequence();
+                boolean consistent = true;
+                for (int i = 0; i < view.getDataCount(); i++) {
+                    consistent &= view.get(DataSet.DIM_Y, i) == expected;
+                }
+                // N.B. inconsistent reads are only permitted if the publisher has wrapped around in the meantime
+                assertTrue(consistent || !view.isValid(), "torn read of frame " + expected);
+                nConsistent += consistent ? 1 : 0;
+            }
+            writer.join();
+            assertEquals(null, error.get());
+            assertTrue(nConsistent > 0);
+            assertEquals(nFrames, view.getSequence());
+        }
+    }
+
+    @Test
+    public void testTwoProcesses(@TempDir final Path tmpDir) throws Exception {
+        final Path file = tmpDir.resolve("ring.shm");
+        final int nFrames = 200;
+        // N.B. initialise the file before the subscriber maps it
+        new SharedMemoryDataSetPublisher(file, "remote", 2, 8, SLOT_CAPACITY).close();
+        try (SharedMemoryDataSet view = new SharedMemoryDataSet(file)) {
+            final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+            final Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), PublisherProcess.class.getName(), file.toString(), Integer.toString(nFrames)) //
+                                            .redirectErrorStream(true)
+                                            .redirectOutput(tmpDir.resolve("publisher.log").toFile())
+                                            .start();
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            while (view.getSequence() < nFrames && System.nanoTime() < deadline) {
+                if (view.update()) {
+                    assertEquals(N_SAMPLES, view.getDataCount());
+                    assertEquals(N_SAMPLES - 1.0, view.get(DataSet.DIM_X, N_SAMPLES - 1));
+                } else {
+                    Thread.sleep(1); // NOPMD - polling
+                }
+            }
+            assertTrue(process.waitFor(60, TimeUnit.SECONDS));
+            assertEquals(0, process.exitValue(), readLog(tmpDir.resolve("publisher.log").toFile()));
+            view.update();
+            assertEquals(nFrames, view.getSequence());
+            assertEquals(nFrames, view.get(DataSet.DIM_Y, 0));
+        }
+    }
+
+    private static String readLog(final File file) {
+        try {
+            return Files.readString(file.toPath());
+        } catch (final IOException e) {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Publisher running in a separate JVM
+     */
+    public static final class PublisherProcess {
+        private PublisherProcess() {
+        }
+
+        public static void main(final String[] args) throws IOException, InterruptedException {
+            final int nFrames = Integer.parseInt(args[1]);
+            try (SharedMemoryDataSetPublisher publisher = new SharedMemoryDataSetPublisher(Paths.get(args[0]), "remote", 2, 8, SLOT_CAPACITY)) {
+                final DoubleDataSet source = new DoubleDataSet("remote", N_SAMPLES);
+                final double[] x = new double[N_SAMPLES];
+                final double[] y = new double[N_SAMPLES];
+                for (int i = 0; i < N_SAMPLES; i++) {
+                    x[i] = i;
+                }
+                for (int frame = 1; frame <= nFrames; frame++) {
+                    Arrays.fill(y, frame);
+                    source.set(x, y);
+                    publisher.publish(source);
+                    Thread.sleep(1); // NOPMD - paced acquisition
+                }
+            }
+        }
+    }
+}
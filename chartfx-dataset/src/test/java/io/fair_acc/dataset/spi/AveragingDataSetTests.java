@@ -2,9 +2,12 @@ package io.fair_acc.dataset.spi;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 
 import io.fair_acc.dataset.DataSet;
+import io.fair_acc.dataset.DataSetError;
 
 class AveragingDataSetTests {
     @Test
@@ -45,9 +48,9 @@ class AveragingDataSetTests {
         avg.add(new DataSetBuilder().setValues(DataSet.DIM_Y, new double[] { 3, 2, 1, 2 }).build());
         assertEquals(2, avg.getAverageCount());
         assertEquals(2, avg.getAverageSize());
-        assertEquals(4, avg.getDataCount());
+        assertEquals(3, avg.getDataCount()); // truncated to the shortest data set within the window
         assertEquals(3, avg.getFuzzyCount());
-        assertArrayEquals(new double[] { 2, 2, 2, 0 }, avg.getValues(DataSet.DIM_Y));
+        assertArrayEquals(new double[] { 2, 2, 2 }, avg.getValues(DataSet.DIM_Y));
         avg.setFuzzyCount(2);
         assertEquals(2, avg.getFuzzyCount());
         assertThrows(IllegalArgumentException.class, () -> avg.add(new DataSetBuilder().setValues(DataSet.DIM_Y, new double[] { 3, 2, 1, 2, 3, 2, 5 }).build()));
@@ -82,4 +85,64 @@ class AveragingDataSetTests {
         assertEquals("", avg.getStyle());
         assertArrayEquals(new double[] { 1, 2, 3, 2 }, avg.getValues(DataSet.DIM_Y));
     }
+
+    @Test
+    void testStandardDeviation() {
+        final AveragingDataSet avg = new AveragingDataSet("average", 2);
+        avg.setAverageSize(3);
+        assertEquals(DataSetError.ErrorType.ASYMMETRIC, avg.getErrorType(DataSet.DIM_Y));
+        avg.add(new DoubleErrorDataSet("in", new double[] { 0, 1 }, new double[] { 1, 4 }, new double[] { 0.5, 0.5 }, new double[] { 0.5, 0.5 }, 2, true));
+        assertEquals(0.5, avg.getErrorNegative(DataSet.DIM_Y, 0)); // passed through for a single data set
+        avg.add(new DoubleDataSet("in", new double[] { 0, 1 }, new double[] { 2, 4 }, 2, true));
+        avg.add(new DoubleDataSet("in", new double[] { 0, 1 }, new double[] { 3, 4 }, 2, true));
+        assertArrayEquals(new double[] { 2, 4 }, avg.getValues(DataSet.DIM_Y));
+        assertEquals(1.0, avg.getErrorNegative(DataSet.DIM_Y, 0), 1e-12);
+        assertEquals(1.0, avg.getErrorPositive(DataSet.DIM_Y, 0), 1e-12);
+        assertEquals(0.0, avg.getErrorPositive(DataSet.DIM_Y, 1), 1e-12);
+        assertEquals(0.0, avg.getErrorPositive(DataSet.DIM_X, 0));
+        assertEquals(1.0, avg.getAxisDescription(DataSet.DIM_Y).getMin());
+        assertEquals(4.0, avg.getAxisDescription(DataSet.DIM_Y).getMax());
+    }
+
+    @Test
+    void testSlidingWindow() {
+        final int nSamples = 100;
+        final int window = 5;
+        final AveragingDataSet avg = new AveragingDataSet("average", 2);
+        avg.setAverageSize(window);
+        final Random rnd = new Random(42);
+        final double[][] history = new double[50][nSamples];
+        final double[] xValues = new double[nSamples];
+        for (int i = 0; i < nSamples; i++) {
+            xValues[i] = i;
+        }
+        final DoubleDataSet input = new DoubleDataSet("in", nSamples);
+        for (int n = 0; n < history.length; n++) {
+            for (int i = 0; i < nSamples; i++) {
+                history[n][i] = 1e6 + rnd.nextGaussian();
+            }
+            input.set(xValues, history[n], nSamples, true);
+            avg.add(input);
+            assertEquals(Math.min(n + 1, window), avg.getAverageCount());
+
+            // compare against the exact two-pass result
+            final int first = Math.max(0, n + 1 - window);
+            final int count = n + 1 - first;
+            for (int i = 0; i < nSamples; i++) {
+                double mean = 0.0;
+                for (int k = first; k <= n; k++) {
+                    mean += history[k][i];
+                }
+                mean /= count;
+                double variance = 0.0;
+                for (int k = first; k <= n; k++) {
+                    variance += (history[k][i] - mean) * (history[k][i] - mean);
+                }
+                assertEquals(mean, avg.get(DataSet.DIM_Y, i), 1e-8);
+                if (count > 1) {
+                    assertEquals(Math.sqrt(variance / (count - 1)), avg.getErrorPositive(DataSet.DIM_Y, i), 1e-6);
+                }
+            }
+        }
+    }
 }
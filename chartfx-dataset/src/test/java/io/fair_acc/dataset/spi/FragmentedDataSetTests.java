@@ -0,0 +1,89 @@
+package io.fair_acc.dataset.spi;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import io.fair_acc.dataset.DataSet;
+
+/**
+ * Checks for FragmentedDataSet and RollingDataSet interfaces and constructors.
+ */
+class FragmentedDataSetTests {
+    @Test
+    void testFragmentLookup() {
+        final FragmentedDataSet dataSet = new FragmentedDataSet("test");
+        dataSet.add(new double[] { 0, 1, 2 }, new double[] { 10, 11, 12 });
+        dataSet.add(new double[] {}, new double[] {}); // empty fragment without x-range
+        dataSet.add(new double[] { 3, 4 }, new double[] { 13, 14 });
+        // out-of-order fragment gets sorted in front
+        dataSet.add(new double[] { -2, -1 }, new double[] { 8, 9 });
+        assertEquals(4, dataSet.getDatasetCount());
+        assertEquals(7, dataSet.getDataCount());
+
+        final double[] expectedX = { -2, -1, 0, 1, 2, 3, 4 };
+        // sequential access
+        for (int i = 0; i < expectedX.length; i++) {
+            assertEquals(expectedX[i], dataSet.get(DataSet.DIM_X, i));
+            assertEquals(expectedX[i] + 10, dataSet.get(DataSet.DIM_Y, i));
+        }
+        // random access
+        for (final int i : new int[] { 6, 0, 3, 5, 1, 4, 2 }) {
+            assertEquals(expectedX[i], dataSet.get(DataSet.DIM_X, i));
+        }
+        assertEquals(2, dataSet.getFragmentOffset(1));
+        assertEquals(2, dataSet.getFragmentIndex(6)); // empty fragment is sorted last
+        assertEquals(-1, dataSet.getFragmentIndex(7));
+        assertEquals(Double.NaN, dataSet.get(DataSet.DIM_X, 7));
+        assertEquals(Double.NaN, dataSet.get(DataSet.DIM_X, -1));
+        assertArrayEquals(expectedX, Arrays.copyOf(dataSet.getValues(DataSet.DIM_X), dataSet.getDataCount()));
+
+        dataSet.clear();
+        assertEquals(0, dataSet.getDataCount());
+        assertEquals(-1, dataSet.getFragmentIndex(0));
+    }
+
+    @Test
+    void testCompaction() {
+        final FragmentedDataSet dataSet = new FragmentedDataSet("test");
+        dataSet.add(new double[] { 0, 1 }, new double[] { 10, 11 });
+        assertFalse(dataSet.isCompacted());
+        assertTrue(dataSet.compact().isCompacted());
+
+        // zero-copy access while fragments are appended in order
+        final double[] yValues = dataSet.getValues(DataSet.DIM_Y);
+        assertSame(yValues, dataSet.getValues(DataSet.DIM_Y));
+        dataSet.add(new double[] { 2, 3, 4 }, new double[] { 12, 13, 14 });
+        assertTrue(dataSet.isCompacted());
+        assertEquals(5, dataSet.getDataCount());
+        assertArrayEquals(new double[] { 10, 11, 12, 13, 14 }, Arrays.copyOf(dataSet.getValues(DataSet.DIM_Y), 5));
+        assertEquals(14, dataSet.get(DataSet.DIM_Y, 4));
+
+        // out-of-order insertions drop the columns, which are re-created on demand
+        dataSet.add(new double[] { -1 }, new double[] { 9 });
+        assertFalse(dataSet.isCompacted());
+        assertArrayEquals(new double[] { -1, 0, 1, 2, 3, 4 }, Arrays.copyOf(dataSet.getValues(DataSet.DIM_X), 6));
+        assertSame(dataSet.getValues(DataSet.DIM_X), dataSet.getValues(DataSet.DIM_X));
+    }
+
+    @Test
+    void testRollingDataSet() {
+        final RollingDataSet dataSet = new RollingDataSet("rolling");
+        dataSet.setDepth(3);
+        dataSet.compact();
+        for (int i = 0; i < 5; i++) {
+            dataSet.add(new DoubleDataSet("fragment", new double[] { 0, 1 }, new double[] { i, i }, 2, true));
+        }
+        assertEquals(3, dataSet.getDatasetCount());
+        assertEquals(6, dataSet.getDataCount());
+        assertTrue(dataSet.isCompacted());
+        assertArrayEquals(new double[] { 2, 2, 3, 3, 4, 4 }, Arrays.copyOf(dataSet.getValues(DataSet.DIM_Y), 6));
+        assertArrayEquals(new double[] { -2, -1, -1, 0, 0, 1 }, Arrays.copyOf(dataSet.getValues(DataSet.DIM_X), 6));
+    }
+}
@@ -0,0 +1,186 @@
+package io.fair_acc.dataset.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import io.fair_acc.dataset.DataSet;
+
+/**
+ * Unit testing for {@link LevelOfDetailCache} and its integration into {@link LimitedIndexedTreeDataSet}.
+ */
+class LevelOfDetailCacheTests {
+    private static final double BASE_WIDTH = 0.5;
+
+    @Test
+    void testConstructors() {
+        assertThrows(IllegalArgumentException.class, () -> new LevelOfDetailCache(0.0));
+        assertThrows(IllegalArgumentException.class, () -> new LevelOfDetailCache(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> new LevelOfDetailCache(1.0, 0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new LevelOfDetailCache(1.0, 4, 1));
+
+        final LevelOfDetailCache cache = new LevelOfDetailCache(BASE_WIDTH);
+        assertEquals(LevelOfDetailCache.DEFAULT_LEVEL_COUNT, cache.getLevelCount());
+        assertEquals(LevelOfDetailCache.DEFAULT_LEVEL_FACTOR, cache.getLevelFactor());
+        assertEquals(BASE_WIDTH, cache.getBaseBucketWidth());
+        assertEquals(BASE_WIDTH * 16, cache.getBucketWidth(2));
+        assertEquals(-1, cache.getLevelIndex(0.1));
+        assertEquals(0, cache.getLevelIndex(BASE_WIDTH));
+        assertEquals(1, cache.getLevelIndex(3.0));
+        assertEquals(cache.getLevelCount() - 1, cache.getLevelIndex(Double.MAX_VALUE));
+        assertThrows(UnsupportedOperationException.class, () -> cache.getLevel(0).set(new DoubleDataSet("test"), true));
+    }
+
+    @Test
+    void testIncrementalUpdates() {
+        final LimitedIndexedTreeDataSet dataSet = new LimitedIndexedTreeDataSet("test", 2000, 200.0);
+        dataSet.setLevelOfDetail(BASE_WIDTH);
+        assertNotNull(dataSet.getLevelOfDetailCache());
+
+        final Random rnd = new Random(42);
+        double x = 0.0;
+        for (int i = 0; i < 5000; i++) {
+            x += 0.1 * rnd.nextDouble();
+            dataSet.add(x, rnd.nextGaussian());
+            if (i % 500 == 0) {
+                assertLevelsEqual(dataSet);
+            }
+        }
+        // expired by length (200 units) rather than by the queue size
+        assertLevelsEqual(dataSet);
+
+        dataSet.setMaxQueueSize(300);
+        dataSet.add(x + 0.05, 1.0); // triggers expiry by queue size
+        assertEquals(300, dataSet.getDataCount());
+        assertLevelsEqual(dataSet);
+
+        dataSet.remove(new int[] { 0, 17, 150, 151, 299 });
+        assertLevelsEqual(dataSet);
+
+        dataSet.remove(20, 80);
+        assertLevelsEqual(dataSet);
+
+        dataSet.set(10, dataSet.get(DataSet.DIM_X, 10), 42.0, 0.0, 0.0);
+        assertLevelsEqual(dataSet);
+
+        dataSet.clearData();
+        assertEquals(0, dataSet.getLevelOfDetailCache().getLevel(0).getDataCount());
+        dataSet.add(1.0, 2.0);
+        assertLevelsEqual(dataSet);
+    }
+
+    @Test
+    void testLevelSelection() {
+        final LimitedIndexedTreeDataSet dataSet = new LimitedIndexedTreeDataSet("test", 10_000);
+        assertNull(dataSet.getLevelOfDetail(1.0), "disabled by default");
+        for (int i = 0; i < 1000; i++) {
+            dataSet.add(0.01 * i, Math.sin(0.01 * i));
+        }
+        // enabling builds the cache from the existing data
+        assertSame(dataSet, dataSet.setLevelOfDetail(BASE_WIDTH));
+        assertLevelsEqual(dataSet);
+        assertNull(dataSet.getLevelOfDetail(0.1), "raw data needed for finer resolutions");
+
+        final LevelOfDetailCache.Level level = dataSet.getLevelOfDetail(3.0);
+        assertNotNull(level);
+        assertSame(dataSet.lock(), level.lock(), "view shares the lock of the data set");
+        assertEquals(1, level.getLevel());
+        assertEquals(2.0, level.getBucketWidth());
+        assertEquals(5, level.getDataCount());
+        assertEquals(200, level.getCount(0));
+        assertEquals(1.0, level.get(DataSet.DIM_X, 0));
+        assertEquals(2, level.getIndex(DataSet.DIM_X, 5.5));
+        assertEquals(0, level.getIndex(DataSet.DIM_X, -10.0));
+        assertEquals(4, level.getIndex(DataSet.DIM_X, 100.0));
+        // the min/max envelope is retained in the limits
+        level.recomputeLimits(DataSet.DIM_Y);
+        assertEquals(-1.0, level.getAxisDescription(DataSet.DIM_Y).getMin(), 1e-3);
+        assertEquals(1.0, level.getAxisDescription(DataSet.DIM_Y).getMax(), 1e-3);
+
+        dataSet.setSubtractOffset(true);
+        final LevelOfDetailCache.Level shifted = dataSet.getLevelOfDetail(3.0);
+        assertEquals(9.99, shifted.getXOffset());
+        assertEquals(1.0 - 9.99, shifted.get(DataSet.DIM_X, 0), 1e-12);
+
+        dataSet.setLevelOfDetail(Double.NaN);
+        assertNull(dataSet.getLevelOfDetailCache());
+        assertNull(dataSet.getLevelOfDetail(3.0));
+    }
+
+    @Test
+    void testStandaloneCache() {
+        final LevelOfDetailCache cache = new LevelOfDetailCache(1.0, 2, 2);
+        cache.add(0.5, 1.0);
+        cache.add(0.7, 3.0);
+        cache.add(1.5, -1.0);
+        cache.add(Double.NaN, 100.0); // ignored
+        final LevelOfDetailCache.Level fine = cache.getLevel(0);
+        assertNotNull(fine.lock());
+        assertEquals(2, fine.getDataCount());
+        assertEquals(2.0, fine.get(DataSet.DIM_Y, 0));
+        assertEquals(1.0, fine.getErrorNegative(DataSet.DIM_Y, 0));
+        assertEquals(1.0, fine.getErrorPositive(DataSet.DIM_Y, 0));
+        final LevelOfDetailCache.Level coarse = cache.getLevel(1);
+        assertEquals(1, coarse.getDataCount());
+        assertEquals(1.0, coarse.get(DataSet.DIM_X, 0));
+        assertEquals(-1.0, coarse.getMin(0));
+        assertEquals(3.0, coarse.getMax(0));
+
+        cache.remove(0.7, 3.0);
+        assertTrue(cache.isDirty());
+        cache.update((from, to, consumer) -> {
+            consumer.accept(0.5, 1.0);
+            consumer.accept(1.5, -1.0);
+        });
+        assertFalse(cache.isDirty());
+        assertEquals(1.0, fine.getMax(0));
+        assertEquals(1.0, coarse.getMax(0));
+        assertEquals(0.0, coarse.get(DataSet.DIM_Y, 0));
+
+        cache.clear();
+        assertEquals(0, coarse.getDataCount());
+    }
+
+    private static void assertLevelsEqual(final LimitedIndexedTreeDataSet dataSet) {
+        final LevelOfDetailCache cache = dataSet.getLevelOfDetailCache();
+        for (int k = 0; k < cache.getLevelCount(); k++) {
+            final long divisor = (long) Math.pow(cache.getLevelFactor(), k);
+            // bucket -> {count, sum, min, max}
+            final Map<Long, double[]> expected = new TreeMap<>();
+            for (int i = 0; i < dataSet.getDataCount(); i++) {
+                final double x = dataSet.get(DataSet.DIM_X, i);
+                final double y = dataSet.get(DataSet.DIM_Y, i);
+                final long bucket = Math.floorDiv((long) Math.floor(x / cache.getBaseBucketWidth()), divisor);
+                final double[] stats = expected.computeIfAbsent(bucket, b -> new double[] { 0, 0, Double.MAX_VALUE, -Double.MAX_VALUE });
+                stats[0]++;
+                stats[1] += y;
+                stats[2] = Math.min(stats[2], y);
+                stats[3] = Math.max(stats[3], y);
+            }
+
+            final LevelOfDetailCache.Level level = cache.getLevel(k);
+            assertEquals(expected.size(), level.getDataCount(), "level " + k);
+            int index = 0;
+            for (final Map.Entry<Long, double[]> entry : expected.entrySet()) {
+                final double[] stats = entry.getValue();
+                final String msg = "level " + k + " bucket " + entry.getKey();
+                assertEquals((entry.getKey() + 0.5) * level.getBucketWidth(), level.get(DataSet.DIM_X, index), 1e-9, msg);
+                assertEquals((int) stats[0], level.getCount(index), msg);
+                assertEquals(stats[1] / stats[0], level.get(DataSet.DIM_Y, index), 1e-9, msg);
+                assertEquals(stats[2], level.getMin(index), msg);
+                assertEquals(stats[3], level.getMax(index), msg);
+                index++;
+            }
+        }
+    }
+}
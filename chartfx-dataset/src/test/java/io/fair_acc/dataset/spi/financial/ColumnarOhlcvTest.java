@@ -0,0 +1,107 @@
+package io.fair_acc.dataset.spi.financial;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+import io.fair_acc.dataset.DataSet;
+import io.fair_acc.dataset.spi.financial.api.ohlcv.IOhlcvItem;
+
+public class ColumnarOhlcvTest {
+    @Test
+    public void testAddAndGrow() {
+        assertThrows(IllegalArgumentException.class, () -> new ColumnarOhlcv(-1));
+        final ColumnarOhlcv ohlcv = new ColumnarOhlcv(2);
+        assertEquals(2, ohlcv.getCapacity());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, ohlcv.add(1000L * i, i, i + 2.0, i - 1.0, i + 1.0, 10.0 * i, 5.0));
+        }
+        assertEquals(100, ohlcv.size());
+        assertTrue(ohlcv.getCapacity() >= 100);
+        assertEquals(42000L, ohlcv.getTime(42));
+        assertEquals(42.0, ohlcv.getOpen(42));
+        assertEquals(44.0, ohlcv.getHigh(42));
+        assertEquals(41.0, ohlcv.getLow(42));
+        assertEquals(43.0, ohlcv.getClose(42));
+        assertEquals(420.0, ohlcv.getVolume(42));
+        assertEquals(5.0, ohlcv.getOpenInterest(42));
+        assertThrows(IndexOutOfBoundsException.class, () -> ohlcv.getClose(100));
+        assertThrows(IndexOutOfBoundsException.class, () -> ohlcv.set(100, 0L, 0, 0, 0, 0, 0, 0));
+
+        final int capacity = ohlcv.getCapacity();
+        ohlcv.clear();
+        assertEquals(0, ohlcv.size());
+        assertEquals(capacity, ohlcv.getCapacity());
+        assertThrows(IndexOutOfBoundsException.class, () -> ohlcv.getTime(0));
+    }
+
+    @Test
+    public void testItemViews() {
+        final ColumnarOhlcv ohlcv = new ColumnarOhlcv();
+        ohlcv.add(1000L, 1.0, 3.0, 0.5, 2.0, 10.0, 0.0);
+        ohlcv.add(2000L, 2.0, 4.0, 1.5, 3.0, 20.0, 0.0);
+
+        final IOhlcvItem item = ohlcv.getOhlcvItem(1);
+        assertEquals(2000L, item.getTimeStamp().getTime());
+        assertEquals(2.0, item.getOpen());
+        assertEquals(4.0, item.getHigh());
+        assertEquals(1.5, item.getLow());
+        assertEquals(3.0, item.getClose());
+        assertEquals(20.0, item.getVolume());
+        assertEquals(0.0, item.getOpenInterest());
+        assertEquals(item, ohlcv.getOhlcvItem(1));
+        assertEquals(item.hashCode(), ohlcv.getOhlcvItem(1).hashCode());
+        assertNotEquals(item, ohlcv.getOhlcvItem(0));
+        assertNotNull(item.toString());
+
+        // views reflect updates
+        ohlcv.set(1, 2000L, 2.0, 5.0, 1.5, 4.5, 25.0, 0.0);
+        assertEquals(5.0, item.getHigh());
+        assertEquals(4.5, item.getClose());
+
+        // addons are kept per bar
+        assertNull(item.getAddon());
+        assertNotNull(item.getAddonOrCreate());
+        assertSame(item.getAddon(), ohlcv.getOhlcvItem(1).getAddon());
+        assertNull(ohlcv.getOhlcvItem(0).getAddon());
+        assertNull(ohlcv.getAddon());
+        assertSame(ohlcv.getAddonOrCreate(), ohlcv.getAddon());
+
+        final Iterator<IOhlcvItem> iterator = ohlcv.iterator();
+        assertEquals(1000L, iterator.next().getTimeStamp().getTime());
+        assertEquals(2000L, iterator.next().getTimeStamp().getTime());
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    public void testDataSetFastPath() {
+        final ColumnarOhlcv ohlcv = new ColumnarOhlcv();
+        ohlcv.add(1000L, 1.0, 3.0, 0.5, 2.0, 10.0, 7.0);
+        ohlcv.add(2500L, 2.0, 4.0, 1.5, 3.0, 20.0, 8.0);
+        final OhlcvDataSet dataSet = new OhlcvDataSet("columnar");
+        dataSet.setData(ohlcv);
+        assertEquals(2, dataSet.getDataCount());
+        for (int i = 0; i < ohlcv.size(); i++) {
+            final IOhlcvItem item = ohlcv.getOhlcvItem(i);
+            assertEquals(item.getTimeStamp().getTime() / 1000.0, dataSet.get(DataSet.DIM_X, i));
+            assertEquals(item.getOpen(), dataSet.get(OhlcvDataSet.DIM_Y_OPEN, i));
+            assertEquals(item.getHigh(), dataSet.get(OhlcvDataSet.DIM_Y_HIGH, i));
+            assertEquals(item.getLow(), dataSet.get(OhlcvDataSet.DIM_Y_LOW, i));
+            assertEquals(item.getClose(), dataSet.get(OhlcvDataSet.DIM_Y_CLOSE, i));
+            assertEquals(item.getVolume(), dataSet.get(OhlcvDataSet.DIM_Y_VOLUME, i));
+            assertEquals(item.getOpenInterest(), dataSet.get(OhlcvDataSet.DIM_Y_OI, i));
+        }
+        assertThrows(IllegalArgumentException.class, () -> dataSet.get(7, 0));
+        dataSet.setCategoryBased(true);
+        assertEquals(1.0, dataSet.get(DataSet.DIM_X, 1));
+
+        final OhlcvDataSet copy = new OhlcvDataSet("copy");
+        copy.set(dataSet, false);
+        assertSame(ohlcv, copy.getData());
+        assertEquals(2.5, copy.get(DataSet.DIM_X, 1));
+    }
+}
@@ -0,0 +1,171 @@
+package io.fair_acc.dataset.spi.financial.ticks;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.fair_acc.dataset.DataSet;
+import io.fair_acc.dataset.events.ChartBits;
+import io.fair_acc.dataset.spi.financial.ColumnarOhlcv;
+import io.fair_acc.dataset.spi.financial.OhlcvDataSet;
+import io.fair_acc.dataset.spi.financial.utils.FinancialTestUtils;
+
+public class OhlcvBarConsolidatorTest {
+    @Test
+    public void testConstraints() {
+        final OhlcvDataSet dataSet = new OhlcvDataSet("bars");
+        assertThrows(IllegalArgumentException.class, () -> new TimeBarConsolidator(null, 1000L));
+        assertThrows(IllegalArgumentException.class, () -> new TimeBarConsolidator(dataSet, 0L));
+        assertThrows(IllegalArgumentException.class, () -> new VolumeBarConsolidator(dataSet, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> new RangeBarConsolidator(dataSet, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> new RangeBarConsolidator(dataSet, 1.0).consolidate(null));
+
+        // non-columnar data is replaced, columnar data is re-used
+        dataSet.setData(FinancialTestUtils.createTestOhlcv());
+        final TimeBarConsolidator consolidator = new TimeBarConsolidator(dataSet, 1000L, 1200L);
+        assertTrue(dataSet.getData() instanceof ColumnarOhlcv);
+        assertEquals(0, dataSet.getDataCount());
+        assertSame(dataSet, consolidator.getDataSet());
+        assertEquals(1000L, consolidator.getPeriod());
+        assertEquals(200L, consolidator.getOffset());
+        assertSame(dataSet.getData(), new VolumeBarConsolidator(dataSet, 10.0).getDataSet().getData());
+    }
+
+    @Test
+    public void testTimeBars() {
+        final OhlcvDataSet dataSet = new OhlcvDataSet("time bars");
+        final TimeBarConsolidator consolidator = new TimeBarConsolidator(dataSet, 1000L);
+        consolidator.addTick(1L, 10.0, 10.0, 10.0, 10.0, 1.0);
+        consolidator.addTick(500L, 12.0, 12.0, 12.0, 12.0, 2.0);
+        consolidator.addTick(1000L, 9.0, 9.0, 9.0, 9.0, 3.0); // N.B. on the boundary -> still the first bar
+        consolidator.addTick(1001L, 11.0, 11.0, 11.0, 11.0, 4.0);
+        consolidator.addTick(3500L, 8.0, 8.5, 7.5, 8.0, 5.0); // gap -> no empty bars
+        assertEquals(5, consolidator.getTickCount());
+
+        final ColumnarOhlcv bars = (ColumnarOhlcv) dataSet.getData();
+        assertEquals(3, bars.size());
+        assertBar(bars, 0, 1000L, 10.0, 12.0, 9.0, 9.0, 6.0);
+        assertBar(bars, 1, 2000L, 11.0, 11.0, 11.0, 11.0, 4.0);
+        assertBar(bars, 2, 4000L, 8.0, 8.5, 7.5, 8.0, 5.0);
+
+        // a consolidator attached to existing bars extends the last bar
+        final TimeBarConsolidator attached = new TimeBarConsolidator(dataSet, 1000L);
+        attached.addTick(3900L, 9.0, 9.0, 9.0, 9.0, 1.0);
+        assertEquals(3, bars.size());
+        assertBar(bars, 2, 4000L, 8.0, 9.0, 7.5, 9.0, 6.0);
+        attached.addTick(4001L, 9.5, 9.5, 9.5, 9.5, 1.0);
+        assertEquals(4, bars.size());
+        assertBar(bars, 3, 5000L, 9.5, 9.5, 9.5, 9.5, 1.0);
+
+        // alignment offset
+        final OhlcvDataSet shifted = new OhlcvDataSet("shifted");
+        final TimeBarConsolidator shiftedConsolidator = new TimeBarConsolidator(shifted, 1000L, 300L);
+        shiftedConsolidator.addTick(1000L, 1.0, 1.0, 1.0, 1.0, 1.0);
+        shiftedConsolidator.addTick(1300L, 2.0, 2.0, 2.0, 2.0, 1.0);
+        shiftedConsolidator.addTick(1301L, 3.0, 3.0, 3.0, 3.0, 1.0);
+        shiftedConsolidator.addTick(-1L, 3.0, 3.0, 3.0, 3.0, 1.0);
+        final ColumnarOhlcv shiftedBars = (ColumnarOhlcv) shifted.getData();
+        assertEquals(3, shiftedBars.size());
+        assertEquals(1300L, shiftedBars.getTime(0));
+        assertEquals(2300L, shiftedBars.getTime(1));
+        assertEquals(300L, shiftedBars.getTime(2));
+    }
+
+    @Test
+    public void testVolumeBars() {
+        final OhlcvDataSet dataSet = new OhlcvDataSet("volume bars");
+        final VolumeBarConsolidator consolidator = new VolumeBarConsolidator(dataSet, 10.0);
+        assertEquals(10.0, consolidator.getBarVolume());
+        consolidator.addTick(1L, 10.0, 10.0, 10.0, 10.0, 4.0);
+        consolidator.addTick(2L, 11.0, 11.0, 11.0, 11.0, 6.0); // fills the bar exactly
+        consolidator.addTick(3L, 12.0, 12.0, 12.0, 12.0, 1.0);
+        consolidator.addTick(4L, 13.0, 13.0, 13.0, 13.0, 25.0); // oversized tick -> bar of its own
+        consolidator.addTick(5L, 14.0, 14.0, 14.0, 14.0, 1.0);
+
+        final ColumnarOhlcv bars = (ColumnarOhlcv) dataSet.getData();
+        assertEquals(4, bars.size());
+        assertBar(bars, 0, 1L, 10.0, 11.0, 10.0, 11.0, 10.0);
+        assertBar(bars, 1, 3L, 12.0, 12.0, 12.0, 12.0, 1.0);
+        assertBar(bars, 2, 4L, 13.0, 13.0, 13.0, 13.0, 25.0);
+        assertBar(bars, 3, 5L, 14.0, 14.0, 14.0, 14.0, 1.0);
+    }
+
+    @Test
+    public void testRangeBars() {
+        final OhlcvDataSet dataSet = new OhlcvDataSet("range bars");
+        final RangeBarConsolidator consolidator = new RangeBarConsolidator(dataSet, 1.0);
+        assertEquals(1.0, consolidator.getBarRange());
+        consolidator.addTick(1L, 10.0, 10.0, 10.0, 10.0, 1.0);
+        consolidator.addTick(2L, 10.5, 10.5, 10.5, 10.5, 1.0);
+        consolidator.addTick(3L, 11.0, 11.0, 11.0, 11.0, 1.0); // range reached
+        consolidator.addTick(4L, 10.25, 10.25, 10.25, 10.25, 1.0); // within the bar
+        consolidator.addTick(5L, 11.25, 11.25, 11.25, 11.25, 1.0); // outside -> new bar
+        consolidator.addTick(6L, 9.0, 9.0, 9.0, 9.0, 1.0); // range not yet reached -> extends
+        consolidator.addTick(7L, 8.5, 8.5, 8.5, 8.5, 1.0);
+
+        final ColumnarOhlcv bars = (ColumnarOhlcv) dataSet.getData();
+        assertEquals(3, bars.size());
+        assertBar(bars, 0, 1L, 10.0, 11.0, 10.0, 10.25, 4.0);
+        assertBar(bars, 1, 5L, 11.25, 11.25, 9.0, 9.0, 2.0);
+        assertBar(bars, 2, 7L, 8.5, 8.5, 8.5, 8.5, 1.0);
+    }
+
+    @Test
+    public void testReplay(@TempDir final Path tmpDir) throws IOException {
+        final int nTicks = 2000;
+        final Path file = tmpDir.resolve("replay.scid");
+        ScidTickReaderTest.writeScidFile(file, 0, nTicks);
+
+        final OhlcvDataSet dataSet = new OhlcvDataSet("1 min bars");
+        dataSet.getBitState().clear();
+        final TimeBarConsolidator consolidator = new TimeBarConsolidator(dataSet, 60_000L);
+        try (ScidTickReader reader = new ScidTickReader(file)) {
+            final TickBuffer buffer = new TickBuffer(256);
+            while (reader.read(buffer) > 0) {
+                consolidator.consolidate(buffer);
+                assertTrue(dataSet.getBitState().isDirty(ChartBits.DataSetData));
+                dataSet.getBitState().clear();
+            }
+        }
+        assertEquals(nTicks, consolidator.getTickCount());
+
+        // 240 ticks per minute, first bar contains the ticks within (START_TIME - 40 s, START_TIME + 20 s]
+        final long firstBarEnd = ScidTickReaderTest.START_TIME + 20_000L;
+        final int ticksInFirstBar = (int) (20_000L / ScidTickReaderTest.TICK_STEP) + 1;
+        final int expectedBars = 1 + (nTicks - ticksInFirstBar + 239) / 240;
+        assertEquals(expectedBars, dataSet.getDataCount());
+        assertEquals(firstBarEnd / 1000.0, dataSet.get(DataSet.DIM_X, 0));
+        assertEquals(ScidTickReaderTest.getPrice(0), dataSet.get(OhlcvDataSet.DIM_Y_OPEN, 0));
+        assertEquals(ScidTickReaderTest.getPrice(ticksInFirstBar - 1), dataSet.get(OhlcvDataSet.DIM_Y_CLOSE, 0));
+        double volume = 0.0;
+        double high = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < ticksInFirstBar; i++) {
+            volume += ScidTickReaderTest.getVolume(i);
+            high = Math.max(high, ScidTickReaderTest.getPrice(i) + 0.25);
+        }
+        assertEquals(volume, dataSet.get(OhlcvDataSet.DIM_Y_VOLUME, 0));
+        assertEquals(high, dataSet.get(OhlcvDataSet.DIM_Y_HIGH, 0));
+        double totalVolume = 0.0;
+        for (int i = 0; i < dataSet.getDataCount(); i++) {
+            totalVolume += dataSet.get(OhlcvDataSet.DIM_Y_VOLUME, i);
+        }
+        double expectedVolume = 0.0;
+        for (int i = 0; i < nTicks; i++) {
+            expectedVolume += ScidTickReaderTest.getVolume(i);
+        }
+        assertEquals(expectedVolume, totalVolume);
+    }
+
+    private static void assertBar(final ColumnarOhlcv bars, final int index, final long time, final double open, final double high, final double low, final double close, final double volume) {
+        assertEquals(time, bars.getTime(index), "time @" + index);
+        assertEquals(open, bars.getOpen(index), "open @" + index);
+        assertEquals(high, bars.getHigh(index), "high @" + index);
+        assertEquals(low, bars.getLow(index), "low @" + index);
+        assertEquals(close, bars.getClose(index), "close @" + index);
+        assertEquals(volume, bars.getVolume(index), "volume @" + index);
+    }
+}
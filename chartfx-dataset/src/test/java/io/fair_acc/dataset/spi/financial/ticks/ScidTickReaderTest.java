@@ -0,0 +1,172 @@
+package io.fair_acc.dataset.spi.financial.ticks;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ScidTickReaderTest {
+    static final long START_TIME = 1_600_000_000_000L; // [ms] 2020-09-13T12:26:40Z
+    static final long TICK_STEP = 250L; // [ms]
+
+    @Test
+    public void testHeaderValidation(@TempDir final Path tmpDir) throws IOException {
+        final Path file = tmpDir.resolve("invalid.scid");
+        Files.write(file, new byte[] { 'S', 'C', 'I', 'X', 56, 0, 0, 0, 40, 0, 0, 0 });
+        assertThrows(IOException.class, () -> new ScidTickReader(file));
+        Files.write(file, new byte[] { 'S', 'C', 'I', 'D' });
+        assertThrows(IOException.class, () -> new ScidTickReader(file));
+        assertThrows(IllegalArgumentException.class, () -> new ScidTickReader(file, ScidTickReader.TimeFormat.OLE_DAYS, 0));
+
+        final Path empty = tmpDir.resolve("empty.scid");
+        writeScidFile(empty, 0, 0);
+        try (ScidTickReader reader = new ScidTickReader(empty)) {
+            assertEquals(0, reader.getRecordCount());
+            assertEquals(0, reader.read(new TickBuffer(10)));
+        }
+    }
+
+    @Test
+    public void testBulkRead(@TempDir final Path tmpDir) throws IOException {
+        final int nTicks = 1000;
+        final Path file = tmpDir.resolve("ticks.scid");
+        writeScidFile(file, 0, nTicks);
+        // N.B. small mapping window and batch size that are not multiples of each other to cover the window transitions
+        try (ScidTickReader reader = new ScidTickReader(file, ScidTickReader.TimeFormat.OLE_DAYS, 77)) {
+            assertEquals(nTicks, reader.getRecordCount());
+            final TickBuffer buffer = new TickBuffer(100);
+            int index = 0;
+            int count;
+            while ((count = reader.read(buffer)) > 0) {
+                assertEquals(count, buffer.size());
+                for (int i = 0; i < count; i++, index++) {
+                    assertEquals(START_TIME + index * TICK_STEP, buffer.getTime()[i], "time @" + index);
+                    assertEquals(getPrice(index), buffer.getClose()[i], "close @" + index);
+                    assertEquals(getPrice(index), buffer.getOpen()[i], "open @" + index);
+                    assertEquals(getPrice(index) + 0.25, buffer.getHigh()[i], "high @" + index);
+                    assertEquals(getPrice(index) - 0.25, buffer.getLow()[i], "low @" + index);
+                    assertEquals(getVolume(index), buffer.getVolume()[i], "volume @" + index);
+                    assertEquals(1.0, buffer.getBidVolume()[i]);
+                    assertEquals(getVolume(index) - 1.0, buffer.getAskVolume()[i]);
+                }
+            }
+            assertEquals(nTicks, index);
+            assertEquals(nTicks, reader.getPosition());
+
+            // random access
+            assertEquals(START_TIME + 500 * TICK_STEP, reader.getTime(500));
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.getTime(nTicks));
+            assertEquals(500, reader.seekTime(START_TIME + 500 * TICK_STEP));
+            assertEquals(501, reader.seekTime(START_TIME + 500 * TICK_STEP + 1));
+            assertEquals(0, reader.seekTime(0L));
+            assertEquals(nTicks, reader.seekTime(Long.MAX_VALUE));
+            assertSame(reader, reader.seek(990));
+            assertEquals(10, reader.read(buffer));
+            assertEquals(START_TIME + 990 * TICK_STEP, buffer.getTime()[0]);
+            assertThrows(IllegalArgumentException.class, () -> reader.seek(-1));
+        }
+    }
+
+    @Test
+    public void testLargeRead(@TempDir final Path tmpDir) throws IOException {
+        final int nTicks = 2500; // N.B. larger than the internal bulk-copy block
+        final Path file = tmpDir.resolve("large.scid");
+        writeScidFile(file, 0, nTicks);
+        try (ScidTickReader reader = new ScidTickReader(file)) {
+            final TickBuffer buffer = new TickBuffer(nTicks);
+            assertEquals(nTicks, reader.read(buffer));
+            for (int index = 0; index < nTicks; index++) {
+                assertEquals(START_TIME + index * TICK_STEP, buffer.getTime()[index], "time @" + index);
+                assertEquals(getPrice(index), buffer.getClose()[index], "close @" + index);
+                assertEquals(getVolume(index) - 1.0, buffer.getAskVolume()[index], "ask volume @" + index);
+            }
+        }
+    }
+
+    @Test
+    public void testGrowingFile(@TempDir final Path tmpDir) throws IOException {
+        final Path file = tmpDir.resolve("live.scid");
+        writeScidFile(file, 0, 10);
+        try (ScidTickReader reader = new ScidTickReader(file)) {
+            final TickBuffer buffer = new TickBuffer(64);
+            assertEquals(10, reader.read(buffer));
+            assertEquals(0, reader.read(buffer));
+
+            appendRecords(file, 10, 15);
+            assertEquals(15, reader.read(buffer));
+            assertEquals(START_TIME + 10 * TICK_STEP, buffer.getTime()[0]);
+            assertEquals(getPrice(24), buffer.getClose()[14]);
+            assertEquals(25, reader.getRecordCount());
+        }
+    }
+
+    @Test
+    public void testTimeConversion() {
+        assertEquals(0L, ScidTickReader.convertOleDays(25569.0));
+        assertEquals(START_TIME, ScidTickReader.convertOleDays(toOleDays(START_TIME)));
+        assertEquals(0L, ScidTickReader.convertMicroseconds(25569L * 86_400_000_000L));
+        assertEquals(START_TIME, ScidTickReader.convertMicroseconds(START_TIME * 1000L + 25569L * 86_400_000_000L + 999L));
+    }
+
+    static double getPrice(final int index) {
+        // deterministic random-walk-like price in 0.25 increments
+        return 3000.0 + 0.25 * ((index * 7919L) % 41 - 20) + 0.25 * (index / 100);
+    }
+
+    static double getVolume(final int index) {
+        return 1.0 + index % 5;
+    }
+
+    static double toOleDays(final long timeStamp) {
+        return timeStamp / 86_400_000.0 + 25569.0;
+    }
+
+    /**
+     * writes a synthetic *.scid file with {@code nTicks} single-trade records
+     */
+    static void writeScidFile(final Path file, final int firstTick, final int nTicks) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(ScidTickReader.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.put((byte) 'S').put((byte) 'C').put((byte) 'I').put((byte) 'D');
+        header.putInt(ScidTickReader.HEADER_SIZE).putInt(ScidTickReader.RECORD_SIZE).putShort((short) 1);
+        header.clear();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        }
+        appendRecords(file, firstTick, nTicks);
+    }
+
+    static void appendRecords(final Path file, final int firstTick, final int nTicks) throws IOException {
+        final ByteBuffer records = ByteBuffer.allocate(64 * ScidTickReader.RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            for (int i = firstTick; i < firstTick + nTicks; i++) {
+                final double price = getPrice(i);
+                records.putDouble(toOleDays(START_TIME + i * TICK_STEP));
+                records.putFloat(0.0f); // open: single trade
+                records.putFloat((float) (price + 0.25)); // high: ask
+                records.putFloat((float) (price - 0.25)); // low: bid
+                records.putFloat((float) price);
+                records.putInt(1); // number of trades
+                records.putInt((int) getVolume(i));
+                records.putInt(1); // bid volume
+                records.putInt((int) getVolume(i) - 1); // ask volume
+                if (!records.hasRemaining() || i == firstTick + nTicks - 1) {
+                    records.flip();
+                    while (records.hasRemaining()) {
+                        channel.write(records);
+                    }
+                    records.clear();
+                }
+            }
+        }
+    }
+}
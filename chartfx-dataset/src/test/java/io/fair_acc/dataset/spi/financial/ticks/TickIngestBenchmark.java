@@ -0,0 +1,107 @@
+package io.fair_acc.dataset.spi.financial.ticks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.fair_acc.dataset.spi.financial.ColumnarOhlcv;
+import io.fair_acc.dataset.spi.financial.OhlcvDataSet;
+
+/**
+ * Tick replay throughput of the memory-mapped {@link ScidTickReader} with and without the incremental
+ * {@link OhlcvBarConsolidator}s. The reported throughput is in ticks per second.
+ * <p>
+ * Not part of the unit tests, run via the main method.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TickIngestBenchmark {
+    private static final int N_TICKS = 2_000_000; // 80 MB file
+    @Param({ "NONE", "TIME", "VOLUME", "RANGE" })
+    private String barType;
+    @Param({ "4096" })
+    private int batchSize;
+    private Path file;
+    private ScidTickReader reader;
+    private TickBuffer buffer;
+    private OhlcvBarConsolidator consolidator;
+    private ColumnarOhlcv bars;
+
+    @Setup
+    public void setup() throws IOException {
+        file = Files.createTempFile("ticks", ".scid");
+        ScidTickReaderTest.writeScidFile(file, 0, N_TICKS);
+        reader = new ScidTickReader(file);
+        buffer = new TickBuffer(batchSize);
+        final OhlcvDataSet dataSet = new OhlcvDataSet(barType);
+        switch (barType) {
+        case "TIME":
+            consolidator = new TimeBarConsolidator(dataSet, 60_000L);
+            break;
+        case "VOLUME":
+            consolidator = new VolumeBarConsolidator(dataSet, 500.0);
+            break;
+        case "RANGE":
+            consolidator = new RangeBarConsolidator(dataSet, 2.0);
+            break;
+        case "NONE":
+        default:
+            consolidator = null;
+            break;
+        }
+        bars = (ColumnarOhlcv) dataSet.getData();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        reader.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N_TICKS)
+    public void replay(final Blackhole blackhole) throws IOException {
+        reader.seek(0);
+        if (bars != null) {
+            bars.clear();
+        }
+        int count;
+        while ((count = reader.read(buffer)) > 0) {
+            if (consolidator == null) {
+                blackhole.consume(buffer.getClose()[count - 1]);
+            } else {
+                consolidator.consolidate(buffer);
+            }
+        }
+        blackhole.consume(bars == null ? 0 : bars.size());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        final Options opt = new OptionsBuilder().include(TickIngestBenchmark.class.getSimpleName()).build();
+        new Runner(opt).run();
+    }
+}
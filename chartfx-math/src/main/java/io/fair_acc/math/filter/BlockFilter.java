@@ -0,0 +1,23 @@
+package io.fair_acc.math.filter;
+
+/**
+ * Stateful filter that processes a continuous signal in blocks of arbitrary length, i.e. filtering a signal in several
+ * consecutive blocks yields the same result as filtering it at once.
+ *
+ * @see StreamingFilterStage
+ */
+public interface BlockFilter {
+    /**
+     * Filters the next block of the signal in place
+     *
+     * @param data signal samples, replaced by the filtered samples
+     * @param offset index of the first sample
+     * @param length number of samples
+     */
+    void filter(double[] data, int offset, int length);
+
+    /**
+     * resets the filter state (history) to zero
+     */
+    void reset();
+}
@@ -0,0 +1,118 @@
+package io.fair_acc.math.filter;
+
+import io.fair_acc.dataset.DataSet;
+import io.fair_acc.dataset.spi.CircularDoubleErrorDataSet;
+import io.fair_acc.dataset.utils.AssertUtils;
+
+/**
+ * Stateful filter stage between two live {@link CircularDoubleErrorDataSet}s: each {@link #update()} passes only the
+ * samples that have been appended to the source since the previous update through the {@link BlockFilter} and appends
+ * the filtered samples (with the source x-coordinates) to the output. The filter state is kept across updates, i.e. the
+ * output equals filtering the whole acquired signal at once, while the cost per update is proportional to the number
+ * of new samples rather than to the buffer length.
+ * <p>
+ * The new samples are identified via the source's monotonic {@link CircularDoubleErrorDataSet#getAppendedCount()
+ * appended count}, i.e. independent of the number of {@code add(...)} calls between two updates. Samples that have been
+ * dropped by the source ring buffer before being processed are skipped without resetting the filter state, as are
+ * resets of the source. Already filtered samples are not recomputed, use {@link #reset()} to refilter all samples
+ * currently held by the source.
+ * <p>
+ * N.B. the output errors are set to zero. Typical usage: call {@link #update()} after adding samples to the source
+ * (e.g. from the acquisition thread).
+ */
+public class StreamingFilterStage {
+    private final CircularDoubleErrorDataSet source;
+    private final CircularDoubleErrorDataSet output;
+    private final BlockFilter filter;
+    private long processedCount = -1; // source appended count of the last update, -1: process all available samples
+    private int nNew;
+    private double[] x = new double[0];
+    private double[] y = new double[0];
+    private double[] zeros = new double[0];
+
+    /**
+     * @param source live input data set
+     * @param output data set receiving the filtered samples
+     * @param filter the filter applied to the y-values of the source
+     */
+    public StreamingFilterStage(final CircularDoubleErrorDataSet source, final CircularDoubleErrorDataSet output, final BlockFilter filter) {
+        AssertUtils.notNull("source", source);
+        AssertUtils.notNull("output", output);
+        AssertUtils.notNull("filter", filter);
+        if (source == output) {
+            throw new IllegalArgumentException("source and output must be different data sets");
+        }
+        this.source = source;
+        this.output = output;
+        this.filter = filter;
+    }
+
+    /**
+     * @return the filter applied by this stage
+     */
+    public BlockFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * @return data set receiving the filtered samples
+     */
+    public CircularDoubleErrorDataSet getOutput() {
+        return output;
+    }
+
+    /**
+     * @return live input data set
+     */
+    public CircularDoubleErrorDataSet getSource() {
+        return source;
+    }
+
+    /**
+     * resets the filter state and the output, the next {@link #update()} refilters all samples held by the source
+     *
+     * @return itself (fluent design)
+     */
+    public StreamingFilterStage reset() {
+        processedCount = -1;
+        filter.reset();
+        output.reset();
+        return this;
+    }
+
+    /**
+     * Filters the samples that have been appended to the source since the last update and appends them to the output
+     *
+     * @return number of filtered samples
+     */
+    public int update() {
+        source.lock().readLockGuard(this::copyNewSamples);
+        if (nNew == 0) {
+            return 0;
+        }
+        filter.filter(y, 0, nNew);
+        if (zeros.length < nNew) {
+            zeros = new double[nNew];
+        }
+        output.add(x, y, zeros, zeros, nNew);
+        return nNew;
+    }
+
+    private void copyNewSamples() {
+        final int count = source.getDataCount();
+        final long appended = source.getAppendedCount();
+        // N.B. samples that have been dropped by the ring buffer before being processed are skipped
+        nNew = processedCount < 0 ? count : (int) Math.min(count, appended - processedCount);
+        processedCount = appended;
+
+        if (x.length < nNew) {
+            x = new double[nNew];
+            y = new double[nNew];
+        }
+        final int from = count - nNew;
+        for (int i = 0; i < nNew; i++) {
+            x[i] = source.get(DataSet.DIM_X, from + i);
+            y[i] = source.get(DataSet.DIM_Y, from + i);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package io.fair_acc.math.filter.fir;
+
+import java.util.Arrays;
+
+import org.jtransforms.fft.DoubleFFT_1D;
+
+import io.fair_acc.dataset.utils.AssertUtils;
+import io.fair_acc.math.filter.BlockFilter;
+import io.fair_acc.math.utils.ConcurrencyUtils;
+
+/**
+ * Block-based FIR filter (convolution with a finite impulse response kernel) that keeps the last
+ * {@code kernel.length - 1} input samples as history across blocks.
+ * <p>
+ * Short kernels are computed directly in the time domain. Long kernels (see {@link #FFT_THRESHOLD}) use the FFT
+ * overlap-save method: the kernel spectrum is computed once and each chunk of up to {@code fftSize - kernelLength + 1}
+ * new samples costs one forward and one inverse real FFT. Partial chunks (e.g. small live updates) are zero-padded, so
+ * that the output is available without additional latency.
+ * <p>
+ * N.B. the filter does not compensate the group delay of the kernel.
+ */
+public class FirBlockFilter implements BlockFilter {
+    /**
+     * minimum kernel length for which the FFT overlap-save method is used by default
+     */
+    public static final int FFT_THRESHOLD = 64;
+    private final double[] kernel;
+    private final double[] history; // last (kernel.length - 1) input samples, oldest first
+    private final boolean useFft;
+    private final int fftSize;
+    private final int chunkSize;
+    private final DoubleFFT_1D fft;
+    private final double[] kernelSpectrum;
+    private double[] work = new double[0];
+
+    /**
+     * @param kernel impulse response (copied)
+     */
+    public FirBlockFilter(final double[] kernel) {
+        this(kernel, kernel != null && kernel.length >= FFT_THRESHOLD);
+    }
+
+    /**
+     * @param kernel impulse response (copied)
+     * @param useFft {@code true}: FFT overlap-save, {@code false}: direct convolution
+     */
+    public FirBlockFilter(final double[] kernel, final boolean useFft) {
+        AssertUtils.notNull("kernel", kernel);
+        AssertUtils.nonEmptyArray("kernel", kernel);
+        this.kernel = kernel.clone();
+        this.useFft = useFft;
+        history = new double[kernel.length - 1];
+        if (useFft) {
+            fftSize = ConcurrencyUtils.nextPow2(Math.max(2, 4 * kernel.length));
+            chunkSize = fftSize - kernel.length + 1;
+            fft = new DoubleFFT_1D(fftSize);
+            kernelSpectrum = new double[fftSize];
+            System.arraycopy(kernel, 0, kernelSpectrum, 0, kernel.length);
+            fft.realForward(kernelSpectrum);
+            work = new double[fftSize];
+        } else {
+            fftSize = 0;
+            chunkSize = 0;
+            fft = null;
+            kernelSpectrum = null;
+        }
+    }
+
+    @Override
+    public void filter(final double[] data, final int offset, final int length) {
+        AssertUtils.notNull("data", data);
+        if (offset < 0 || length < 0 || offset + length > data.length) {
+            throw new IllegalArgumentException("block [" + offset + ", " + (offset + length) + ") exceeds data length " + data.length);
+        }
+        if (!useFft) {
+            filterDirect(data, offset, length);
+            return;
+        }
+        for (int start = offset; start < offset + length; start += chunkSize) {
+            filterFft(data, start, Math.min(chunkSize, offset + length - start));
+        }
+    }
+
+    /**
+     * @return FFT length used for the overlap-save method, 0 for direct convolution
+     */
+    public int getFftSize() {
+        return fftSize;
+    }
+
+    /**
+     * @return length of the impulse response
+     */
+    public int getKernelLength() {
+        return kernel.length;
+    }
+
+    /**
+     * @return {@code true} if the FFT overlap-save method is used
+     */
+    public boolean isUsingFft() {
+        return useFft;
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(history, 0.0);
+    }
+
+    private void filterDirect(final double[] data, final int offset, final int length) {
+        // work = [history, new samples]
+        final int nHistory = history.length;
+        if (work.length < nHistory + length) {
+            work = new double[nHistory + length];
+        }
+        System.arraycopy(history, 0, work, 0, nHistory);
+        System.arraycopy(data, offset, work, nHistory, length);
+        final int nTaps = kernel.length;
+        for (int i = 0; i < length; i++) {
+            final int last = nHistory + i; // index of the current sample in work
+            double sum = 0.0;
+            for (int k = 0; k < nTaps; k++) {
+                sum += kernel[k] * work[last - k];
+            }
+            data[offset + i] = sum;
+        }
+        updateHistory(work, nHistory + length);
+    }
+
+    private void filterFft(final double[] data, final int offset, final int length) {
+        // overlap-save: work = [history, new samples, zero padding], the first (kernel.length - 1) outputs are aliased
+        final int nHistory = history.length;
+        System.arraycopy(history, 0, work, 0, nHistory);
+        System.arraycopy(data, offset, work, nHistory, length);
+        Arrays.fill(work, nHistory + length, fftSize, 0.0);
+        updateHistory(work, nHistory + length);
+
+        fft.realForward(work);
+        // packed layout: [Re(0), Re(n/2), Re(1), Im(1), ...]
+        work[0] *= kernelSpectrum[0];
+        work[1] *= kernelSpectrum[1];
+        for (int k = 2; k < fftSize; k += 2) {
+            final double re = work[k];
+            final double im = work[k + 1];
+            final double kRe = kernelSpectrum[k];
+            final double kIm = kernelSpectrum[k + 1];
+            work[k] = re * kRe - im * kIm;
+            work[k + 1] = re * kIm + im * kRe;
+        }
+        fft.realInverse(work, true);
+        System.arraycopy(work, nHistory, data, offset, length);
+    }
+
+    private void updateHistory(final double[] samples, final int end) {
+        // N.B. history.length <= end since 'samples' starts with the previous history
+        System.arraycopy(samples, end - history.length, history, 0, history.length);
+    }
+}
@@ -0,0 +1,95 @@
+package io.fair_acc.math.filter.iir;
+
+import java.util.Arrays;
+
+import io.fair_acc.dataset.utils.AssertUtils;
+import io.fair_acc.math.filter.BlockFilter;
+
+/**
+ * Block-based IIR filter computing the same second-order sections as a {@link Cascade} in direct form II.
+ * <p>
+ * In contrast to {@link Cascade#filter(double)}, which passes each sample through all sections via virtual calls, the
+ * coefficients and states are kept in primitive arrays and each block is processed section by section in a tight loop.
+ * The coefficients are copied at construction, i.e. later re-designs of the cascade are not reflected. For a
+ * {@link DirectFormAbstract#DIRECT_FORM_II} cascade, the output is identical to sample-wise filtering. As in
+ * {@link Cascade#filter(double)}, sections without a state are skipped.
+ */
+public class BiquadBlockFilter implements BlockFilter {
+    private final double[] b0;
+    private final double[] b1;
+    private final double[] b2;
+    private final double[] a1;
+    private final double[] a2;
+    private final double[] v1; // v[-1] per section
+    private final double[] v2; // v[-2] per section
+
+    /**
+     * @param cascade designed filter (e.g. {@link Butterworth}) providing the second-order sections
+     */
+    public BiquadBlockFilter(final Cascade cascade) {
+        AssertUtils.notNull("cascade", cascade);
+        int nSections = 0;
+        for (int section = 0; section < cascade.getNumBiquads(); section++) {
+            nSections += cascade.isActive(section) ? 1 : 0;
+        }
+        b0 = new double[nSections];
+        b1 = new double[nSections];
+        b2 = new double[nSections];
+        a1 = new double[nSections];
+        a2 = new double[nSections];
+        v1 = new double[nSections];
+        v2 = new double[nSections];
+        int section = 0;
+        for (int index = 0; index < cascade.getNumBiquads(); index++) {
+            if (!cascade.isActive(index)) {
+                continue;
+            }
+            final Biquad biquad = cascade.getBiquad(index);
+            b0[section] = biquad.mB0;
+            b1[section] = biquad.mB1;
+            b2[section] = biquad.mB2;
+            a1[section] = biquad.mA1;
+            a2[section] = biquad.mA2;
+            section++;
+        }
+    }
+
+    @Override
+    public void filter(final double[] data, final int offset, final int length) {
+        AssertUtils.notNull("data", data);
+        if (offset < 0 || length < 0 || offset + length > data.length) {
+            throw new IllegalArgumentException("block [" + offset + ", " + (offset + length) + ") exceeds data length " + data.length);
+        }
+        final int end = offset + length;
+        for (int section = 0; section < b0.length; section++) {
+            final double sb0 = b0[section];
+            final double sb1 = b1[section];
+            final double sb2 = b2[section];
+            final double sa1 = a1[section];
+            final double sa2 = a2[section];
+            double sv1 = v1[section];
+            double sv2 = v2[section];
+            for (int i = offset; i < end; i++) {
+                final double w = data[i] - sa1 * sv1 - sa2 * sv2;
+                data[i] = sb0 * w + sb1 * sv1 + sb2 * sv2;
+                sv2 = sv1;
+                sv1 = w;
+            }
+            v1[section] = sv1;
+            v2[section] = sv2;
+        }
+    }
+
+    /**
+     * @return number of (active) second-order sections
+     */
+    public int getNumberOfSections() {
+        return b0.length;
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(v1, 0.0);
+        Arrays.fill(v2, 0.0);
+    }
+}
@@ -68,6 +68,14 @@ public class Cascade {
         return mNumBiquads;
     }
 
+    /**
+     * @param index section index
+     * @return true if the section has a state and is thus applied by {@link #filter(double)}
+     */
+    boolean isActive(final int index) {
+        return mStates[index] != null;
+    }
+
     public void reset() {
         for (int i = 0; i < mNumBiquads; i++) {
             mStates[i].reset();
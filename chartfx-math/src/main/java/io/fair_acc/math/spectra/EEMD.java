@@ -1,5 +1,9 @@
 package io.fair_acc.math.spectra;
 
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
 import io.fair_acc.dataset.DataSet;
 import io.fair_acc.dataset.spi.DataSetBuilder;
 import io.fair_acc.math.Math;
@@ -14,7 +18,8 @@ import io.fair_acc.math.utils.ConcurrencyUtils;
  */
 public class EEMD {
     private static final TRandom rnd = new TRandom(0);
-    private int fstatus = 100;
+    private static final double SIFT_BREAK_CRITERIA = 1e-12;
+    private volatile int fstatus = 100;
 
     public MatrixD eemd(final double[] data, final double rms_noise, final double NE) {
         final int xsize = data.length;
@@ -139,6 +144,83 @@ public class EEMD {
         return mode;
     }
 
+    /**
+     * Parallel ensemble empirical mode decomposition (EEMD).
+     * <p>
+     * The ensemble members are sifted in parallel on the common fork-join pool in waves of
+     * {@link ConcurrencyUtils#getNumberOfThreads()} members. Each member draws its noise from its own random stream
+     * derived from {@code seed} and the member index, and the members are accumulated in index order. The result is
+     * thus bit-for-bit reproducible for a given seed, independent of scheduling and the number of threads. The sifting
+     * re-uses per-slot buffers for the extrema, the tridiagonal spline solves and the envelopes, i.e. it does not
+     * allocate per iteration. The progress is reported via {@link #getStatus()}.
+     *
+     * @param data input data (at least 4 samples)
+     * @param rmsNoise rms of the added white noise relative to the rms of the data
+     * @param nEnsemble number of ensemble members
+     * @param seed seed of the noise random streams
+     * @param maxSiftIterations maximum number of sifting iterations per mode (e.g. 10 as recommended for EEMD by Wu and
+     *        Huang, {@link #eemd(double[], double, double)} uses 30000)
+     * @return ensemble averaged modes [mode][sample]: mode 0 contains the input data, modes 1 to TNM - 1 the intrinsic
+     *         mode functions and mode TNM + 1 the residue, with TNM = floor(log2(data.length)) - 1 (column layout of
+     *         {@link #eemd(double[], double, double)})
+     */
+    public double[][] eemdParallel(final double[] data, final double rmsNoise, final int nEnsemble, final long seed, final int maxSiftIterations) {
+        if (data == null || data.length < 4) {
+            throw new IllegalArgumentException("data must not be null and have at least 4 samples");
+        }
+        if (rmsNoise < 0) {
+            throw new IllegalArgumentException("rmsNoise must be >= 0: " + rmsNoise);
+        }
+        if (nEnsemble <= 0) {
+            throw new IllegalArgumentException("nEnsemble must be > 0: " + nEnsemble);
+        }
+        if (maxSiftIterations <= 0) {
+            throw new IllegalArgumentException("maxSiftIterations must be > 0: " + maxSiftIterations);
+        }
+        final int xsize = data.length;
+        final int nModes = 31 - Integer.numberOfLeadingZeros(xsize) + 2; // N.B. exact floor(log2(xsize)) + 2
+        final double ystd = Math.rms(data);
+        final double[][] ret = new double[nModes][xsize];
+        final SiftWorkspace[] slots = new SiftWorkspace[Math.max(1, Math.min(nEnsemble, ConcurrencyUtils.getNumberOfThreads()))];
+
+        fstatus = 0;
+        try {
+            for (int wave = 0; wave < nEnsemble; wave += slots.length) {
+                final int first = wave;
+                final int nWave = Math.min(slots.length, nEnsemble - wave);
+                IntStream.range(0, nWave).parallel().forEach(slot -> {
+                    if (slots[slot] == null) {
+                        slots[slot] = new SiftWorkspace(xsize, nModes);
+                    }
+                    slots[slot].decompose(data, ystd, rmsNoise, seed, first + slot, maxSiftIterations);
+                });
+                // N.B. accumulate in member order for reproducibility
+                for (int slot = 0; slot < nWave; slot++) {
+                    for (int nmode = 1; nmode < nModes; nmode++) {
+                        final double[] sum = ret[nmode];
+                        final double[] mode = slots[slot].modes[nmode];
+                        for (int i = 0; i < xsize; i++) {
+                            sum[i] += mode[i];
+                        }
+                    }
+                }
+                fstatus = (int) (100.0 * (wave + nWave) / nEnsemble);
+            }
+        } finally {
+            fstatus = 100;
+        }
+
+        final double norm = ystd / nEnsemble;
+        for (int nmode = 1; nmode < nModes; nmode++) {
+            final double[] mode = ret[nmode];
+            for (int i = 0; i < xsize; i++) {
+                mode[i] *= norm;
+            }
+        }
+        System.arraycopy(data, 0, ret[0], 0, xsize);
+        return ret;
+    }
+
     /**
      * EMD spectrum implementation
      *
@@ -306,4 +388,176 @@ public class EEMD {
 
         return kk + ll > 2 ? 1 : -1;
     }
+
+    /**
+     * Finds the maxima (sign = +1) or minima (sign = -1) including the first and last sample as envelope knots. The
+     * boundary knots are extrapolated from the two adjacent extrema if that widens the envelope (cf.
+     * {@link SpectrumTools#computeMaxima(double[])}).
+     *
+     * @return number of knots
+     */
+    private static int findExtrema(final double[] data, final double[] x, final double[] y, final double sign) {
+        final int n = data.length;
+        x[0] = 0;
+        y[0] = data[0];
+        int npeaks = 1;
+        for (int i = 1; i < n - 1; i++) {
+            if (sign * data[i - 1] <= sign * data[i] && sign * data[i] >= sign * data[i + 1]) {
+                x[npeaks] = i;
+                y[npeaks] = data[i];
+                npeaks++;
+            }
+        }
+        x[npeaks] = n - 1.0;
+        y[npeaks] = data[n - 1];
+
+        if (npeaks >= 3) {
+            final double slope1 = (y[1] - y[2]) / (x[1] - x[2]);
+            final double tmp1 = slope1 * (x[0] - x[1]) + y[1];
+            if (sign * tmp1 > sign * y[0]) {
+                y[0] = tmp1;
+            }
+            final double slope2 = (y[npeaks - 1] - y[npeaks - 2]) / (x[npeaks - 1] - x[npeaks - 2]);
+            final double tmp2 = slope2 * (x[npeaks] - x[npeaks - 1]) + y[npeaks - 1];
+            if (sign * tmp2 > sign * y[npeaks]) {
+                y[npeaks] = tmp2;
+            }
+        }
+        return npeaks + 1;
+    }
+
+    /**
+     * Adds the natural cubic spline through the given knots (same algorithm as {@link Spline}) evaluated at the sample
+     * indices 0 to dest.length - 1 to dest. The knots are expected to be sorted and to span all sample indices.
+     */
+    private static void addSpline(final double[] x, final double[] y, final int nKnots, final double[] a, final double[] b, final double[] c, final double[] dest) {
+        // tridiagonal solve of the second derivatives (Thomas algorithm)
+        double dx1 = x[1] - x[0];
+        double dy1 = y[1] - y[0];
+        for (int i = 1; i < nKnots - 1; i++) {
+            final double dx2 = x[i + 1] - x[i];
+            final double dy2 = y[i + 1] - y[i];
+            c[i] = dx2 / (dx1 + dx2);
+            b[i] = 1.0 - c[i];
+            a[i] = 6.0 * (dy2 / dx2 - dy1 / dx1) / (dx1 + dx2);
+            dx1 = dx2;
+            dy1 = dy2;
+        }
+        c[0] = 0.0;
+        b[0] = 0.0;
+        a[0] = 0.0;
+        for (int i = 1; i < nKnots - 1; i++) {
+            final double p = b[i] * c[i - 1] + 2.0;
+            c[i] = -c[i] / p;
+            b[i] = (a[i] - b[i] * b[i - 1]) / p;
+        }
+        dy1 = 0.0; // natural boundary condition
+        for (int i = nKnots - 2; i >= 0; i--) {
+            dx1 = x[i + 1] - x[i];
+            final double dy2 = c[i] * dy1 + b[i];
+            a[i] = (dy1 - dy2) / (6.0 * dx1);
+            b[i] = dy2 / 2.0;
+            c[i] = (y[i + 1] - y[i]) / dx1 - dx1 * (b[i] + dx1 * a[i]);
+            dy1 = dy2;
+        }
+
+        // evaluation at the sample indices, walking the segments
+        int segment = 0;
+        for (int i = 0; i < dest.length; i++) {
+            while (segment < nKnots - 2 && x[segment + 1] <= i) {
+                segment++;
+            }
+            final double t = i - x[segment];
+            dest[i] += y[segment] + t * (c[segment] + t * (b[segment] + t * a[segment]));
+        }
+    }
+
+    /**
+     * Re-usable buffers for the sifting of one ensemble member
+     */
+    private static final class SiftWorkspace {
+        private final double[][] modes;
+        private final double[] xstart;
+        private final double[] xstartOld;
+        private final double[] xend;
+        private final double[] envelope;
+        private final double[] maxX;
+        private final double[] maxY;
+        private final double[] minX;
+        private final double[] minY;
+        private final double[] a;
+        private final double[] b;
+        private final double[] c;
+
+        private SiftWorkspace(final int xsize, final int nModes) {
+            modes = new double[nModes][xsize];
+            xstart = new double[xsize];
+            xstartOld = new double[xsize];
+            xend = new double[xsize];
+            envelope = new double[xsize];
+            maxX = new double[xsize];
+            maxY = new double[xsize];
+            minX = new double[xsize];
+            minY = new double[xsize];
+            a = new double[xsize];
+            b = new double[xsize];
+            c = new double[xsize];
+        }
+
+        /**
+         * sifting process of one ensemble member (cf. {@link EEMD#eemd(double[], double, double)}), the modes are
+         * normalised to the rms of the data
+         */
+        private void decompose(final double[] data, final double ystd, final double rmsNoise, final long seed, final int member, final int maxSiftIterations) {
+            final int xsize = data.length;
+            final int tnm = modes.length - 3;
+            final SplittableRandom random = new SplittableRandom(seed + member * 0x9E3779B97F4A7C15L);
+            for (int i = 0; i < xsize; i++) {
+                xend[i] = data[i] / ystd + (rmsNoise > 0 ? rmsNoise * random.nextGaussian() : 0.0);
+            }
+            for (final double[] mode : modes) {
+                Arrays.fill(mode, 0.0);
+            }
+
+            for (int nmode = 1; nmode < tnm; nmode++) {
+                System.arraycopy(xend, 0, xstart, 0, xsize);
+                System.arraycopy(xend, 0, xstartOld, 0, xsize);
+                boolean abort = false;
+                for (int iter = 0; iter < maxSiftIterations; iter++) {
+                    final int nMax = findExtrema(xstart, maxX, maxY, +1.0);
+                    final int nMin = findExtrema(xstart, minX, minY, -1.0);
+                    if (nMax < 3 || nMin < 3) {
+                        abort = true;
+                        break;
+                    }
+                    final int ncrossing = computeZeroCrossings(xstart);
+
+                    Arrays.fill(envelope, 0.0);
+                    addSpline(maxX, maxY, nMax, a, b, c, envelope);
+                    addSpline(minX, minY, nMin, a, b, c, envelope);
+                    double sumSqr = 0;
+                    double diffSqr = 0;
+                    for (int i = 0; i < xsize; i++) {
+                        xstart[i] -= 0.5 * envelope[i];
+                        diffSqr += MathBase.sqr(xstartOld[i] - xstart[i]);
+                        sumSqr += MathBase.sqr(xstartOld[i]);
+                    }
+
+                    if (sumSqr == 0 || diffSqr / sumSqr < SIFT_BREAK_CRITERIA || nMax + nMin == ncrossing) {
+                        break;
+                    }
+                    System.arraycopy(xstart, 0, xstartOld, 0, xsize);
+                }
+                for (int i = 0; i < xsize; i++) {
+                    xend[i] -= xstart[i];
+                }
+                System.arraycopy(xstart, 0, modes[nmode], 0, xsize);
+                if (abort) {
+                    break;
+                }
+            }
+            // remainder of the sifting process
+            System.arraycopy(xend, 0, modes[tnm + 1], 0, xsize);
+        }
+    }
 }
@@ -0,0 +1,260 @@
+package io.fair_acc.math.spectra.wavelet;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import org.jtransforms.fft.DoubleFFT_1D;
+
+import io.fair_acc.dataset.DataSet;
+import io.fair_acc.dataset.GridDataSet;
+import io.fair_acc.dataset.spi.DataSetBuilder;
+import io.fair_acc.dataset.utils.AssertUtils;
+import io.fair_acc.dataset.utils.DoubleArrayCache;
+import io.fair_acc.math.MathBase;
+import io.fair_acc.math.utils.ConcurrencyUtils;
+
+/**
+ * Stateless, thread-safe Morlet wavelet scalogram computed via the Fourier domain.
+ * <p>
+ * In contrast to {@link ContinuousWavelet#getScalogramArrayFourier}, the band-limited wavelet spectra are computed once
+ * per scale at construction, each channel is transformed once and each scale costs only one band-limited complex
+ * multiplication plus one inverse FFT. Scales and channels are processed in parallel on the common fork-join pool, with
+ * the FFT instances and work arrays kept in per-thread workspaces. Instances do not carry per-call state and may thus
+ * be shared between threads that compute scalograms of different channels concurrently.
+ * <p>
+ * The output layout and scaling matches {@link ContinuousWavelet#getScalogramArrayFourier}: power in dB with cyclic
+ * boundary conditions, rows correspond to frequencies {@code f = 0.5 * j / nQuanty} in [fmin, fmax), columns to
+ * {@code nQuantx} time bins (averaged over the samples within each bin).
+ */
+public class ContinuousWaveletScalogram {
+    private static final double MIN_FILTER_WEIGHT = 1e-12;
+    private final int nSamples;
+    private final int nQuantx;
+    private final int nQuanty;
+    private final double nu;
+    private final double fmin;
+    private final double fmax;
+    private final int fftSize;
+    private final int minIndex;
+    private final int nRows;
+    private final int[] bandStart; // first frequency bin of the wavelet spectrum per scale
+    private final double[][] bandFilter; // non-negligible part of the (real-valued) wavelet spectrum per scale
+    private final ThreadLocal<Workspace> workspace;
+
+    /**
+     * @param nSamples number of input samples per channel
+     * @param nQuantx number of bins on the time axis
+     * @param nQuanty number of frequency bins of full range
+     * @param nu Morlet wavelet oscillation parameter
+     * @param fmin minimum scalogram frequency range
+     * @param fmax maximum scalogram frequency range
+     */
+    public ContinuousWaveletScalogram(final int nSamples, final int nQuantx, final int nQuanty, final double nu, final double fmin, final double fmax) {
+        AssertUtils.gtThanZero("nSamples", nSamples);
+        AssertUtils.gtThanZero("nQuanty", nQuanty);
+        AssertUtils.gtThanZero("nu", nu);
+        if (nQuantx <= 0 || nQuantx > nSamples) {
+            throw new IllegalArgumentException("nQuantx = " + nQuantx + " out of range [1," + nSamples + "]");
+        }
+        if (fmin < 0 || fmax > 0.5 || fmax <= fmin) {
+            throw new IllegalArgumentException("frequency range [" + fmin + ", " + fmax + "] not within 0<=fmin<fmax<=0.5");
+        }
+        this.nSamples = nSamples;
+        this.nQuantx = nQuantx;
+        this.nQuanty = nQuanty;
+        this.nu = nu;
+        this.fmin = fmin;
+        this.fmax = fmax;
+        fftSize = ConcurrencyUtils.nextPow2(nSamples);
+        minIndex = (int) (2 * fmin * nQuanty);
+        nRows = (int) Math.floor(nQuanty * (fmax - fmin) / 0.5) + 1;
+        final int nScales = (int) (2 * fmax * nQuanty) - minIndex;
+        bandStart = new int[nScales];
+        bandFilter = new double[nScales][];
+        IntStream.range(0, nScales).parallel().forEach(this::initFilter);
+        workspace = ThreadLocal.withInitial(() -> new Workspace(fftSize));
+    }
+
+    /**
+     * @return frequency in units of the sampling frequency for each row of the scalogram
+     */
+    public double[] getFrequencyAxis() {
+        final double[] ret = new double[nRows];
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = fmin + i * (fmax - fmin) / ret.length;
+        }
+        return ret;
+    }
+
+    /**
+     * @return number of input samples per channel
+     */
+    public int getNumberOfSamples() {
+        return nSamples;
+    }
+
+    /**
+     * @return number of scales (frequencies) that are computed
+     */
+    public int getNumberOfScales() {
+        return bandFilter.length;
+    }
+
+    /**
+     * @param data real valued input data
+     * @return the scalogram as data set (x: time, y: frequency, z: power in dB)
+     */
+    public GridDataSet getScalogram(final double[] data) {
+        return new DataSetBuilder("Scalogram") //
+                .setValues(DataSet.DIM_X, getTimeAxis()) //
+                .setValues(DataSet.DIM_Y, getFrequencyAxis()) //
+                .setValues(DataSet.DIM_Z, getScalogramArray(data)) //
+                .build(GridDataSet.class);
+    }
+
+    /**
+     * @param data real valued input data
+     * @return Scalogram power in dB ([frequency][time])
+     */
+    public double[][] getScalogramArray(final double[] data) {
+        return getScalogramArrays(data)[0];
+    }
+
+    /**
+     * Computes the scalograms of several channels in parallel over channels and scales
+     *
+     * @param channels real valued input data per channel (each with {@link #getNumberOfSamples()} samples)
+     * @return Scalogram power in dB per channel ([channel][frequency][time])
+     */
+    public double[][][] getScalogramArrays(final double[]... channels) {
+        AssertUtils.notNull("channels", channels);
+        for (final double[] data : channels) {
+            AssertUtils.notNull("channel data", data);
+            if (data.length != nSamples) {
+                throw new IllegalArgumentException("channel length " + data.length + " does not match nSamples = " + nSamples);
+            }
+        }
+        final int nChannels = channels.length;
+        final int nScales = bandFilter.length;
+        final double[][][] ret = new double[nChannels][nRows][nQuantx];
+        final double[][] spectra = new double[nChannels][];
+        try {
+            IntStream.range(0, nChannels).parallel().forEach(channel -> spectra[channel] = getSpectrum(channels[channel]));
+            IntStream.range(0, nChannels * nScales).parallel().forEach(task -> {
+                final int channel = task / nScales;
+                final int scale = task % nScales;
+                computeScale(spectra[channel], scale, ret[channel][scale]);
+            });
+        } finally {
+            for (final double[] spectrum : spectra) {
+                if (spectrum != null) {
+                    DoubleArrayCache.getInstance().add(spectrum);
+                }
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * @return time (sample index) of the first sample of each time bin
+     */
+    public double[] getTimeAxis() {
+        final double[] ret = new double[nQuantx];
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = getBinStart(i);
+        }
+        return ret;
+    }
+
+    private void computeScale(final double[] spectrum, final int scale, final double[] row) {
+        final double f0 = 0.5 * (minIndex + scale) / nQuanty;
+        if (f0 == 0) {
+            Arrays.fill(row, Double.NaN);
+            return;
+        }
+        final Workspace local = workspace.get();
+        final double[] work = local.work;
+        Arrays.fill(work, 0.0);
+        final double[] filter = bandFilter[scale];
+        final int start = bandStart[scale];
+        for (int k = 0; k < filter.length; k++) {
+            final int k2 = (start + k) << 1;
+            work[k2] = spectrum[k2] * filter[k];
+            work[k2 + 1] = spectrum[k2 + 1] * filter[k];
+        }
+        local.fft.complexInverse(work, true);
+
+        for (int bin = 0; bin < nQuantx; bin++) {
+            final int from = getBinStart(bin);
+            final int to = getBinStart(bin + 1);
+            double power = 0.0;
+            for (int i = from; i < to; i++) {
+                final int i2 = i << 1;
+                power += MathBase.sqr(work[i2]) + MathBase.sqr(work[i2 + 1]);
+            }
+            power /= to - from;
+            row[bin] = 10 * MathBase.log10(power + 1e-99);
+        }
+    }
+
+    private int getBinStart(final int bin) {
+        return (int) ((long) bin * nSamples / nQuantx);
+    }
+
+    private double[] getSpectrum(final double[] data) {
+        final double[] spectrum = DoubleArrayCache.getInstance().getArrayExact(2 * fftSize);
+        System.arraycopy(data, 0, spectrum, 0, nSamples);
+        Arrays.fill(spectrum, nSamples, spectrum.length, 0.0); // zero padding, N.B. pooled arrays are not cleared
+        workspace.get().fft.realForwardFull(spectrum);
+        return spectrum;
+    }
+
+    private void initFilter(final int scale) {
+        final double f0 = 0.5 * (minIndex + scale) / nQuanty;
+        final double[] full = new double[fftSize];
+        double peak = 0.0;
+        for (int k = 0; k < fftSize; k++) {
+            full[k] = getMorletSpectrum((double) k / fftSize, f0, nu);
+            peak = Math.max(peak, Math.abs(full[k]));
+        }
+        int start = 0;
+        int stop = fftSize;
+        while (start < stop && Math.abs(full[start]) <= MIN_FILTER_WEIGHT * peak) {
+            start++;
+        }
+        while (stop > start && Math.abs(full[stop - 1]) <= MIN_FILTER_WEIGHT * peak) {
+            stop--;
+        }
+        bandStart[scale] = start;
+        bandFilter[scale] = Arrays.copyOfRange(full, start, stop);
+    }
+
+    /**
+     * Fourier transform of the (admissibility-corrected) Morlet wavelet, same definition and normalisation as used by
+     * {@link ContinuousWavelet#getScalogramArrayFourier}
+     *
+     * @param frequency normalised frequency
+     * @param f0 centre frequency of the wavelet
+     * @param width the number of oscillations per wavelet
+     * @return real-valued wavelet spectrum
+     */
+    protected static double getMorletSpectrum(final double frequency, final double f0, final double width) {
+        final double heisenberg = width / 2; // implements Heisenberg-box scaling
+        final double kSigma = MathBase.exp(-0.5 * MathBase.sqr(MathBase.TWO_PI * f0 * heisenberg));
+        final double cSigmaPi = MathBase.pow(MathBase.PI, 0.25);
+        return cSigmaPi * (MathBase.exp(-0.5 * MathBase.sqr(MathBase.TWO_PI * (f0 - frequency) * heisenberg)) - kSigma * MathBase.exp(-0.5 * MathBase.sqr(MathBase.TWO_PI * frequency * heisenberg)));
+    }
+
+    /**
+     * per-thread FFT instance and work array
+     */
+    private static final class Workspace {
+        private final DoubleFFT_1D fft;
+        private final double[] work;
+
+        private Workspace(final int fftSize) {
+            fft = new DoubleFFT_1D(fftSize);
+            work = new double[2 * fftSize];
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package io.fair_acc.math.filter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import io.fair_acc.dataset.DataSet;
+import io.fair_acc.dataset.events.IndexChangeLog;
+import io.fair_acc.dataset.spi.CircularDoubleErrorDataSet;
+import io.fair_acc.math.filter.fir.FirBlockFilter;
+import io.fair_acc.math.filter.iir.BiquadBlockFilter;
+import io.fair_acc.math.filter.iir.Butterworth;
+
+/**
+ * Tests of {@link StreamingFilterStage}, {@link BiquadBlockFilter} and {@link FirBlockFilter}
+ */
+public class StreamingFilterStageTests {
+    private static final int N_SAMPLES = 2000;
+    private static final int CAPACITY = 256;
+
+    @Test
+    public void testBiquadBlockFilter() {
+        final double[] signal = createSignal(N_SAMPLES);
+        final Butterworth reference = new Butterworth();
+        reference.lowPass(6, 1.0, 0.05);
+        final double[] expected = new double[N_SAMPLES];
+        for (int i = 0; i < N_SAMPLES; i++) {
+            expected[i] = reference.filter(signal[i]);
+        }
+
+        final Butterworth design = new Butterworth();
+        design.lowPass(6, 1.0, 0.05);
+        final BiquadBlockFilter filter = new BiquadBlockFilter(design);
+        assertEquals(3, filter.getNumberOfSections());
+        assertArrayEquals(expected, filterInRandomBlocks(filter, signal), "block-wise vs. sample-wise");
+
+        filter.reset();
+        assertArrayEquals(expected, filterInRandomBlocks(filter, signal), "after reset");
+        assertThrows(IllegalArgumentException.class, () -> new BiquadBlockFilter(null));
+        assertThrows(IllegalArgumentException.class, () -> filter.filter(signal, N_SAMPLES - 1, 2));
+    }
+
+    @Test
+    public void testFirBlockFilter() {
+        final double[] signal = createSignal(N_SAMPLES);
+        for (final int nTaps : new int[] { 1, 7, 64, 301 }) {
+            final double[] kernel = createSignal(nTaps);
+            final double[] expected = convolve(signal, kernel);
+
+            final FirBlockFilter direct = new FirBlockFilter(kernel, false);
+            final FirBlockFilter fft = new FirBlockFilter(kernel, true);
+            assertFalse(direct.isUsingFft());
+            assertTrue(fft.isUsingFft());
+            assertEquals(nTaps >= FirBlockFilter.FFT_THRESHOLD, new FirBlockFilter(kernel).isUsingFft());
+            assertEquals(nTaps, fft.getKernelLength());
+            assertTrue(fft.getFftSize() >= 2 * nTaps);
+
+            assertArrayEquals(expected, filterInRandomBlocks(direct, signal), 1e-9, "direct, taps = " + nTaps);
+            assertArrayEquals(expected, filterInRandomBlocks(fft, signal), 1e-9, "FFT, taps = " + nTaps);
+            fft.reset();
+            assertArrayEquals(expected, filterInRandomBlocks(fft, signal), 1e-9, "FFT after reset, taps = " + nTaps);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new FirBlockFilter(null));
+        assertThrows(IllegalArgumentException.class, () -> new FirBlockFilter(new double[0]));
+    }
+
+    @Test
+    public void testStreaming() {
+        final double[] signal = createSignal(N_SAMPLES);
+        final double[] kernel = createSignal(100);
+        final double[] expected = convolve(signal, kernel);
+
+        final CircularDoubleErrorDataSet source = new CircularDoubleErrorDataSet("source", CAPACITY);
+        final CircularDoubleErrorDataSet output = new CircularDoubleErrorDataSet("output", CAPACITY);
+        final StreamingFilterStage stage = new StreamingFilterStage(source, output, new FirBlockFilter(kernel));
+        assertEquals(source, stage.getSource());
+        assertEquals(output, stage.getOutput());
+        assertEquals(0, stage.update());
+
+        // incremental updates, including wrap-around of the ring buffers and updates without new samples
+        final Random random = new Random(42);
+        int index = 0;
+        while (index < N_SAMPLES) {
+            final int n = Math.min(N_SAMPLES - index, random.nextInt(40));
+            for (int i = 0; i < n; i++) {
+                source.add(index + i, signal[index + i], 0.0, 0.0);
+            }
+            index += n;
+            assertEquals(n, stage.update(), "new samples at index " + index);
+            assertOutput(output, expected, index);
+        }
+
+        // samples dropped by the source ring buffer before being processed are skipped, the filter state is kept
+        final double[] x = new double[CAPACITY + 10];
+        final double[] y = new double[CAPACITY + 10];
+        source.add(x, y, x, x, x.length);
+        assertEquals(CAPACITY, stage.update());
+    }
+
+    @Test
+    public void testStreamingSingleAppendsAndReset() {
+        final double[] signal = createSignal(N_SAMPLES);
+        final Butterworth design = new Butterworth();
+        design.lowPass(4, 1.0, 0.1);
+        final double[] expected = signal.clone();
+        new BiquadBlockFilter(design).filter(expected, 0, N_SAMPLES);
+
+        final CircularDoubleErrorDataSet source = new CircularDoubleErrorDataSet("source", CAPACITY);
+        final CircularDoubleErrorDataSet output = new CircularDoubleErrorDataSet("output", CAPACITY);
+        final StreamingFilterStage stage = new StreamingFilterStage(source, output, new BiquadBlockFilter(design));
+
+        // many more single-sample appends between two updates than retained by the source's index change log
+        final int nPerUpdate = IndexChangeLog.CAPACITY + 36;
+        for (int index = 0; index < N_SAMPLES; index += nPerUpdate) {
+            final int n = Math.min(nPerUpdate, N_SAMPLES - index);
+            for (int i = index; i < index + n; i++) {
+                source.add(i, signal[i], 0.0, 0.0);
+            }
+            assertEquals(n, stage.update(), "new samples at index " + index);
+            assertOutput(output, expected, index + n);
+        }
+
+        // explicit reset: all samples held by the source are refiltered from zero state
+        stage.reset();
+        assertEquals(0, output.getDataCount());
+        assertEquals(CAPACITY, stage.update());
+        final double[] refiltered = new double[CAPACITY];
+        for (int i = 0; i < CAPACITY; i++) {
+            refiltered[i] = source.get(DataSet.DIM_Y, i);
+        }
+        new BiquadBlockFilter(design).filter(refiltered, 0, CAPACITY);
+        assertOutput(output, refiltered, CAPACITY);
+
+        // reset of the source: the new samples are appended while the filter state is kept
+        source.reset();
+        source.add(0.0, 1.0, 0.0, 0.0);
+        assertEquals(1, stage.update());
+        assertEquals(0, stage.update());
+
+        assertThrows(IllegalArgumentException.class, () -> new StreamingFilterStage(null, output, stage.getFilter()));
+        assertThrows(IllegalArgumentException.class, () -> new StreamingFilterStage(source, null, stage.getFilter()));
+        assertThrows(IllegalArgumentException.class, () -> new StreamingFilterStage(source, output, null));
+        assertThrows(IllegalArgumentException.class, () -> new StreamingFilterStage(source, source, stage.getFilter()));
+    }
+
+    private static void assertOutput(final DataSet output, final double[] expected, final int nProcessed) {
+        final int count = output.getDataCount();
+        assertEquals(Math.min(nProcessed, CAPACITY), count);
+        for (int i = 0; i < count; i++) {
+            final int index = nProcessed - count + i;
+            assertEquals(expected[index], output.get(DataSet.DIM_Y, i), 1e-9, "sample " + index);
+        }
+    }
+
+    private static double[] convolve(final double[] signal, final double[] kernel) {
+        final double[] result = new double[signal.length];
+        for (int i = 0; i < signal.length; i++) {
+            for (int k = 0; k < kernel.length && k <= i; k++) {
+                result[i] += kernel[k] * signal[i - k];
+            }
+        }
+        return result;
+    }
+
+    private static double[] createSignal(final int length) {
+        final Random random = new Random(length);
+        final double[] signal = new double[length];
+        for (int i = 0; i < length; i++) {
+            signal[i] = Math.sin(0.05 * i) + 0.3 * random.nextGaussian();
+        }
+        return signal;
+    }
+
+    private static double[] filterInRandomBlocks(final BlockFilter filter, final double[] signal) {
+        final double[] data = signal.clone();
+        final Random random = new Random(1);
+        for (int offset = 0; offset < data.length;) {
+            final int length = Math.min(data.length - offset, random.nextInt(50)); // N.B. includes empty blocks
+            filter.filter(data, offset, length);
+            offset += length;
+        }
+        return data;
+    }
+}
@@ -2,9 +2,14 @@ package io.fair_acc.math.spectra;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 
+import io.fair_acc.math.utils.ConcurrencyUtils;
+
 public class EEMDTests {
     @Test
     public void extremeTest() {
@@ -23,4 +28,72 @@ public class EEMDTests {
         assertArrayEquals(new double[] { 0, 4, 0, 0, 0, 0, 0, 0, 0, 0 }, spmin[0]);
         assertArrayEquals(new double[] { 1, 1, 0, 0, 0, 0, 0, 0, 0, 0 }, spmin[1]);
     }
+
+    @Test
+    public void parallelEemdTest() {
+        final int n = 1024;
+        final double[] fast = new double[n];
+        final double[] data = new double[n];
+        for (int i = 0; i < n; i++) {
+            fast[i] = Math.sin(2 * Math.PI * 0.1 * i);
+            data[i] = fast[i] + 2.0 * Math.sin(2 * Math.PI * 0.005 * i);
+        }
+        final EEMD eemd = new EEMD();
+        assertThrows(IllegalArgumentException.class, () -> eemd.eemdParallel(null, 0.1, 10, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> eemd.eemdParallel(new double[3], 0.1, 10, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> eemd.eemdParallel(data, -0.1, 10, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> eemd.eemdParallel(data, 0.1, 0, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> eemd.eemdParallel(data, 0.1, 10, 0, 0));
+
+        // plain EMD: the modes add up to the input and the first mode is the fast oscillation
+        final double[][] modes = eemd.eemdParallel(data, 0.0, 1, 0, 30000);
+        assertEquals(12, modes.length); // floor(log2(1024)) + 2
+        assertArrayEquals(data, modes[0]);
+        double maxDeviation = 0.0;
+        for (int i = 0; i < n; i++) {
+            double sum = 0.0;
+            for (int mode = 1; mode < modes.length; mode++) {
+                sum += modes[mode][i];
+            }
+            maxDeviation = Math.max(maxDeviation, Math.abs(sum - data[i]));
+        }
+        assertEquals(0.0, maxDeviation, 1e-9);
+        double residual = 0.0;
+        for (int i = n / 8; i < n - n / 8; i++) {
+            residual = Math.max(residual, Math.abs(modes[1][i] - fast[i]));
+        }
+        assertTrue(residual < 0.1, "first mode deviates from fast component by " + residual);
+        assertEquals(100, eemd.getStatus());
+        assertFalse(eemd.isBusy());
+    }
+
+    @Test
+    public void parallelEemdReproducibilityTest() {
+        final int n = 512;
+        final double[] data = new double[n];
+        for (int i = 0; i < n; i++) {
+            data[i] = Math.sin(2 * Math.PI * 0.07 * i) + 0.5 * Math.cos(2 * Math.PI * 0.011 * i);
+        }
+        final EEMD eemd = new EEMD();
+        final boolean forceThreads = ConcurrencyUtils.isForceThreads();
+        final int nThreads = ConcurrencyUtils.getNumberOfThreads();
+        try {
+            ConcurrencyUtils.setNumberOfThreads(1);
+            final double[][] sequential = eemd.eemdParallel(data, 0.2, 12, 42, 10);
+            ConcurrencyUtils.setNumberOfThreads(5);
+            final double[][] parallel = eemd.eemdParallel(data, 0.2, 12, 42, 10);
+            final double[][] otherSeed = eemd.eemdParallel(data, 0.2, 12, 43, 10);
+            boolean differs = false;
+            for (int mode = 0; mode < sequential.length; mode++) {
+                assertArrayEquals(sequential[mode], parallel[mode], "mode " + mode);
+                for (int i = 0; i < n; i++) {
+                    differs |= mode > 0 && sequential[mode][i] != otherSeed[mode][i];
+                }
+            }
+            assertTrue(differs, "different seeds yield different noise realisations");
+        } finally {
+            ConcurrencyUtils.setNumberOfThreads(nThreads);
+            ConcurrencyUtils.setForceThreads(forceThreads);
+        }
+    }
 }
@@ -0,0 +1,121 @@
+package io.fair_acc.math.spectra.wavelet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import io.fair_acc.dataset.DataSet;
+import io.fair_acc.dataset.GridDataSet;
+
+/**
+ * Tests of {@link ContinuousWaveletScalogram}
+ */
+public class ContinuousWaveletScalogramTests {
+    private static final int N_SAMPLES = 512;
+    private static final int N_QUANTY = 64;
+    private static final double NU = 10.0;
+
+    @Test
+    public void testConstraints() {
+        assertThrows(IllegalArgumentException.class, () -> new ContinuousWaveletScalogram(0, 1, N_QUANTY, NU, 0.0, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new ContinuousWaveletScalogram(N_SAMPLES, 0, N_QUANTY, NU, 0.0, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new ContinuousWaveletScalogram(N_SAMPLES, N_SAMPLES + 1, N_QUANTY, NU, 0.0, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new ContinuousWaveletScalogram(N_SAMPLES, N_SAMPLES, 0, NU, 0.0, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new ContinuousWaveletScalogram(N_SAMPLES, N_SAMPLES, N_QUANTY, 0.0, 0.0, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new ContinuousWaveletScalogram(N_SAMPLES, N_SAMPLES, N_QUANTY, NU, -0.1, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new ContinuousWaveletScalogram(N_SAMPLES, N_SAMPLES, N_QUANTY, NU, 0.0, 0.6));
+        assertThrows(IllegalArgumentException.class, () -> new ContinuousWaveletScalogram(N_SAMPLES, N_SAMPLES, N_QUANTY, NU, 0.3, 0.2));
+
+        final ContinuousWaveletScalogram scalogram = new ContinuousWaveletScalogram(N_SAMPLES, N_SAMPLES, N_QUANTY, NU, 0.0, 0.5);
+        assertEquals(N_SAMPLES, scalogram.getNumberOfSamples());
+        assertEquals(N_QUANTY, scalogram.getNumberOfScales());
+        assertThrows(IllegalArgumentException.class, () -> scalogram.getScalogramArrays((double[][]) null));
+        assertThrows(IllegalArgumentException.class, () -> scalogram.getScalogramArray(new double[N_SAMPLES - 1]));
+    }
+
+    @Test
+    public void testMatchesContinuousWavelet() {
+        final double[] data = createSine(0.1, 0.0);
+        final double[][] expected = new ContinuousWavelet().getScalogramArrayFourier(data, N_SAMPLES, N_QUANTY, NU, 0.0, 0.5);
+        final double[][] actual = new ContinuousWaveletScalogram(N_SAMPLES, N_SAMPLES, N_QUANTY, NU, 0.0, 0.5).getScalogramArray(data);
+        assertEquals(expected.length, actual.length);
+        assertEquals(expected[0].length, actual[0].length);
+        for (int row = 0; row < expected.length; row++) {
+            // N.B. the legacy filter leaks negative frequencies, visible at the boundaries and far from the signal
+            for (int i = N_SAMPLES / 8; i < N_SAMPLES - N_SAMPLES / 8; i++) {
+                if (Double.isNaN(expected[row][i]) || expected[row][i] < -40.0) {
+                    continue;
+                }
+                assertEquals(expected[row][i], actual[row][i], 0.01, "row " + row + " sample " + i);
+            }
+        }
+    }
+
+    @Test
+    public void testScalogram() {
+        final int nQuantx = 100; // N.B. not a divider of the number of samples
+        final ContinuousWaveletScalogram scalogram = new ContinuousWaveletScalogram(N_SAMPLES, nQuantx, N_QUANTY, NU, 0.0625, 0.25);
+        final GridDataSet dataSet = scalogram.getScalogram(createSine(0.125, 0.0));
+        assertEquals(nQuantx, dataSet.getShape(DataSet.DIM_X));
+        assertEquals(scalogram.getFrequencyAxis().length, dataSet.getShape(DataSet.DIM_Y));
+        assertEquals(0.0, dataSet.getGrid(DataSet.DIM_X, 0));
+        assertEquals(0.0625, dataSet.getGrid(DataSet.DIM_Y, 0));
+
+        // power maximum at the sine frequency for all time bins
+        final double[][] power = scalogram.getScalogramArray(createSine(0.125, 0.0));
+        for (int bin = 0; bin < nQuantx; bin++) {
+            int maxRow = 0;
+            for (int row = 0; row < scalogram.getNumberOfScales(); row++) {
+                maxRow = power[row][bin] > power[maxRow][bin] ? row : maxRow;
+            }
+            assertEquals(0.125, 0.0625 + 0.5 * maxRow / N_QUANTY, 1e-9, "time bin " + bin);
+        }
+    }
+
+    @Test
+    public void testChannelsAndThreads() throws Exception {
+        final ContinuousWaveletScalogram scalogram = new ContinuousWaveletScalogram(N_SAMPLES, 64, N_QUANTY, NU, 0.0, 0.5);
+        final double[][] channels = new double[4][];
+        for (int channel = 0; channel < channels.length; channel++) {
+            channels[channel] = createSine(0.05 + 0.1 * channel, channel);
+        }
+        final double[][][] combined = scalogram.getScalogramArrays(channels);
+        assertEquals(channels.length, combined.length);
+
+        // concurrent single-channel computations on the same instance do not interfere
+        final ExecutorService executor = Executors.newFixedThreadPool(channels.length);
+        try {
+            final Future<?>[] futures = new Future<?>[channels.length];
+            for (int channel = 0; channel < channels.length; channel++) {
+                final int index = channel;
+                futures[channel] = executor.submit(() -> {
+                    final double[][] single = scalogram.getScalogramArray(channels[index]);
+                    for (int row = 0; row < single.length; row++) {
+                        assertArrayEquals(combined[index][row], single[row], "channel " + index + " row " + row);
+                    }
+                });
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(Double.isNaN(combined[0][0][0]), "DC row");
+    }
+
+    private static double[] createSine(final double frequency, final double phase) {
+        final double[] data = new double[N_SAMPLES];
+        for (int i = 0; i < N_SAMPLES; i++) {
+            data[i] = Math.sin(2 * Math.PI * frequency * i + phase);
+        }
+        return data;
+    }
+}